@@ -0,0 +1,24 @@
+package org.requirementsascode;
+
+/**
+ * Delivers the events that a model runner publishes to other actors, i.e. the
+ * events of steps defined with systemPublish(...).to(recipient).
+ * 
+ * <p>
+ * By default, a runner delivers each event immediately, by calling
+ * {@link AbstractActor#reactTo(Object, AbstractActor)} of the recipient.
+ * 
+ * @see ModelRunner#publishToActorsWith(ActorPublisher)
+ * @author b_muth
+ */
+@FunctionalInterface
+public interface ActorPublisher {
+  /**
+   * Delivers the specified event to the recipient.
+   * 
+   * @param event     the published event
+   * @param recipient the actor that receives the event
+   * @param sender    the actor as which the recipient is called
+   */
+  void publish(Object event, AbstractActor recipient, AbstractActor sender);
+}
@@ -0,0 +1,72 @@
+package org.requirementsascode;
+
+/**
+ * A monitor that passes each call on to several monitors, in order. The start
+ * methods return the objects returned by the monitors, so that each monitor
+ * gets its own object passed to the matching end method.
+ *
+ * @see DispatchMonitor#of(DispatchMonitor...)
+ * @author b_muth
+ */
+class CompositeDispatchMonitor implements DispatchMonitor {
+  private final DispatchMonitor[] monitors;
+
+  CompositeDispatchMonitor(DispatchMonitor[] monitors) {
+    this.monitors = monitors;
+  }
+
+  @Override
+  public Object dispatchStarted(Object message) {
+    Object[] dispatches = new Object[monitors.length];
+    for (int i = 0; i < monitors.length; i++) {
+      dispatches[i] = monitors[i].dispatchStarted(message);
+    }
+    return dispatches;
+  }
+
+  @Override
+  public void dispatchEnded(Object dispatch, Object message, Step step) {
+    Object[] dispatches = (Object[]) dispatch;
+    for (int i = 0; i < monitors.length; i++) {
+      monitors[i].dispatchEnded(dispatches[i], message, step);
+    }
+  }
+
+  @Override
+  public Object stepStarted(Step step, Object message) {
+    Object[] stepRuns = new Object[monitors.length];
+    for (int i = 0; i < monitors.length; i++) {
+      stepRuns[i] = monitors[i].stepStarted(step, message);
+    }
+    return stepRuns;
+  }
+
+  @Override
+  public void stepEnded(Object stepRun, Step step, Object message) {
+    Object[] stepRuns = (Object[]) stepRun;
+    for (int i = 0; i < monitors.length; i++) {
+      monitors[i].stepEnded(stepRuns[i], step, message);
+    }
+  }
+
+  @Override
+  public void messageUnhandled(Object message) {
+    for (DispatchMonitor monitor : monitors) {
+      monitor.messageUnhandled(message);
+    }
+  }
+
+  @Override
+  public void exceptionThrown(Step step, Exception exception) {
+    for (DispatchMonitor monitor : monitors) {
+      monitor.exceptionThrown(step, exception);
+    }
+  }
+
+  @Override
+  public void infiniteRepetition(Step step) {
+    for (DispatchMonitor monitor : monitors) {
+      monitor.infiniteRepetition(step);
+    }
+  }
+}
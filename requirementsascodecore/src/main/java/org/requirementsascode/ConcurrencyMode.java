@@ -0,0 +1,37 @@
+package org.requirementsascode;
+
+/**
+ * Defines how a {@link ModelRunner} deals with calls of
+ * {@link ModelRunner#reactTo(Object)} and {@link ModelRunner#run(Model)} by
+ * different threads at the same time.
+ * 
+ * <p>
+ * A model runner is not thread-safe: it must only be used by one thread at a
+ * time. Calling it from different threads one after the other is fine in all
+ * modes.
+ *
+ * @see ModelRunner#concurrencyMode(ConcurrencyMode)
+ * @author b_muth
+ */
+public enum ConcurrencyMode {
+  /**
+   * The runner doesn't check whether it is used by more than one thread at a
+   * time.
+   */
+  UNCHECKED,
+
+  /**
+   * The runner fails fast if a thread calls it while a different thread is
+   * using it, by throwing a
+   * {@link org.requirementsascode.exception.ConcurrentCallOfReactTo}. The check
+   * is lock-free. This is the default mode.
+   */
+  SINGLE_WRITER,
+
+  /**
+   * If a thread calls the runner while a different thread is using it, the
+   * calling thread waits until the other thread is done. Use this mode to share
+   * a runner between threads.
+   */
+  SERIALIZED
+}
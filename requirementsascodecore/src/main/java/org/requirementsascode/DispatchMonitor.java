@@ -0,0 +1,127 @@
+package org.requirementsascode;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Observes how a model runner dispatches messages to steps, e.g. to emit
+ * profiling events or collect metrics.
+ *
+ * <p>
+ * The runner calls the monitor on the thread that uses the runner. The start
+ * methods return an object that the runner passes to the matching end method,
+ * e.g. a started event, or null. All methods do nothing by default, so a
+ * monitor only needs to implement the methods it is interested in.
+ *
+ * <p>
+ * A monitor must not throw exceptions, and must not call the runner.
+ *
+ * <p>
+ * A runner has a single monitor. To use several monitors, e.g. for profiling
+ * events and metrics, combine them with {@link #of(DispatchMonitor...)}.
+ *
+ * @see ModelRunner#monitorWith(DispatchMonitor)
+ * @author b_muth
+ */
+public interface DispatchMonitor {
+  /**
+   * The monitor that a runner uses by default. It does nothing.
+   */
+  DispatchMonitor NONE = new DispatchMonitor() {
+  };
+
+  /**
+   * Returns a monitor that passes each call on to the specified monitors, in
+   * the specified order. Monitors that are {@link #NONE} are left out.
+   *
+   * @param monitors the monitors
+   * @return the combined monitor, or the only monitor if there is just one
+   */
+  static DispatchMonitor of(DispatchMonitor... monitors) {
+    DispatchMonitor[] usedMonitors = Arrays.stream(monitors).map(Objects::requireNonNull)
+      .filter(monitor -> monitor != NONE).toArray(DispatchMonitor[]::new);
+    if (usedMonitors.length == 0) {
+      return NONE;
+    } else if (usedMonitors.length == 1) {
+      return usedMonitors[0];
+    }
+    return new CompositeDispatchMonitor(usedMonitors);
+  }
+
+  /**
+   * Called before the runner determines the step that reacts to a message. Not
+   * called for the internal checks for autonomous system reactions.
+   *
+   * @param message the message
+   * @return an object passed to {@link #dispatchEnded(Object, Object, Step)}
+   */
+  default Object dispatchStarted(Object message) {
+    return null;
+  }
+
+  /**
+   * Called after the runner has dispatched a message, including the system
+   * reaction and the autonomous system reactions that followed it. Also called
+   * if an exception is thrown.
+   *
+   * @param dispatch the object returned by {@link #dispatchStarted(Object)}
+   * @param message  the message
+   * @param step     the step that reacted, or null if no step reacted
+   */
+  default void dispatchEnded(Object dispatch, Object message, Step step) {
+  }
+
+  /**
+   * Called before the message handler runs the system reaction of a step.
+   *
+   * @param step    the step
+   * @param message the message the step reacts to, or null for an autonomous
+   *                system reaction
+   * @return an object passed to {@link #stepEnded(Object, Step, Object)}
+   */
+  default Object stepStarted(Step step, Object message) {
+    return null;
+  }
+
+  /**
+   * Called after the system reaction of a step has returned or thrown an
+   * exception.
+   *
+   * @param stepRun the object returned by {@link #stepStarted(Step, Object)}
+   * @param step    the step
+   * @param message the message the step reacted to, or null for an autonomous
+   *                system reaction
+   */
+  default void stepEnded(Object stepRun, Step step, Object message) {
+  }
+
+  /**
+   * Called when no step reacts to a message, whether or not the runner has a
+   * handler for unhandled messages.
+   *
+   * @param message the message
+   */
+  default void messageUnhandled(Object message) {
+  }
+
+  /**
+   * Called before an exception thrown by a system reaction, or the exception
+   * an asynchronous system reaction completed with, is passed to
+   * {@link ModelRunner#handleException(Exception)}. For an asynchronous system
+   * reaction, it is called on the thread that resumes the runner.
+   *
+   * @param step      the step whose system reaction threw the exception
+   * @param exception the exception
+   */
+  default void exceptionThrown(Step step, Exception exception) {
+  }
+
+  /**
+   * Called before the runner throws an
+   * {@link org.requirementsascode.exception.InfiniteRepetition}.
+   *
+   * @param step the latest step that has been run
+   */
+  default void infiniteRepetition(Step step) {
+  }
+}
@@ -42,8 +42,7 @@ public abstract class FlowStep extends Step{
 	}
 
 	public void orAfter(FlowStep step) {
-		FlowPosition flowPositionAfterStep = flowPosition.orAfter(step.getName(), step.getUseCase());
-    setFlowPosition(flowPositionAfterStep);
+		flowPosition.orAfter(step);
 	}
 
 	public void setReactWhile(Condition reactWhileCondition) {
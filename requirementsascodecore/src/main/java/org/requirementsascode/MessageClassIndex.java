@@ -0,0 +1,112 @@
+package org.requirementsascode;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+import org.requirementsascode.analysis.StepMatching;
+import org.requirementsascode.exception.MissingUseCaseStepPart;
+
+/**
+ * Maps the runtime classes of messages to the steps of a model whose message
+ * class matches, i.e. is the same class, a superclass or an interface of the
+ * runtime class. The matching steps of a class are determined once, the first
+ * time a message of that class is dispatched.
+ *
+ * <p>
+ * The mapping is stored in a {@link ClassValue}, so it doesn't prevent message
+ * classes from being unloaded. The mapped values only contain the positions of
+ * the steps in the model (their ordinals), not the steps themselves, so they don't keep the model
+ * alive either.
+ *
+ * @author b_muth
+ */
+class MessageClassIndex {
+  private final Step[] steps;
+  private final ClassValue<MatchingSteps> matchingSteps;
+
+  MessageClassIndex(Collection<Step> steps) {
+    this.steps = steps.toArray(new Step[0]);
+    for (int position = 0; position < this.steps.length; position++) {
+      this.steps[position].setOrdinal(position);
+    }
+    this.matchingSteps = new ClassValue<MatchingSteps>() {
+      @Override
+      protected MatchingSteps computeValue(Class<?> messageClass) {
+        return matchingStepsOf(messageClass);
+      }
+    };
+  }
+
+  private MatchingSteps matchingStepsOf(Class<?> messageClass) {
+    BitSet matchingPositions = new BitSet(steps.length);
+    for (int position = 0; position < steps.length; position++) {
+      if (matches(steps[position], messageClass)) {
+        matchingPositions.set(position);
+      }
+    }
+    return new MatchingSteps(matchingPositions);
+  }
+
+  /**
+   * See {@link StepMatching#handles(Class, Class)}.
+   */
+  static boolean matches(Step step, Class<?> messageClass) {
+    Class<?> stepMessageClass = step.getMessageClass();
+    if (stepMessageClass == null) {
+      throw new MissingUseCaseStepPart(step, "on/user");
+    }
+    return StepMatching.handles(stepMessageClass, messageClass);
+  }
+
+  /**
+   * Returns whether the index contains the same steps as the specified
+   * collection, i.e. the model hasn't changed since the index has been created.
+   */
+  boolean hasSameSteps(Collection<Step> otherSteps) {
+    if (otherSteps.size() != steps.length) {
+      return false;
+    }
+    int position = 0;
+    for (Step otherStep : otherSteps) {
+      if (otherStep != steps[position++]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  Step[] getSteps() {
+    return steps;
+  }
+
+  /**
+   * Returns the positions of the steps that match the specified message class,
+   * in the order of the steps in the model.
+   */
+  int[] getMatchingStepPositions(Class<?> messageClass) {
+    return matchingSteps.get(messageClass).positions;
+  }
+
+  /**
+   * Returns whether the specified step matches the message class. Steps that
+   * have been added to the model after the index has been created (or have been
+   * renumbered by a newer index) are checked directly.
+   */
+  boolean isMatching(Step step, Class<?> messageClass) {
+    int position = step.getOrdinal();
+    if (position >= steps.length || steps[position] != step) {
+      return matches(step, messageClass);
+    }
+    return matchingSteps.get(messageClass).positionsSet.get(position);
+  }
+
+  private static class MatchingSteps {
+    private final int[] positions;
+    private final BitSet positionsSet;
+
+    private MatchingSteps(BitSet positionsSet) {
+      this.positions = positionsSet.stream().toArray();
+      this.positionsSet = positionsSet;
+    }
+  }
+}
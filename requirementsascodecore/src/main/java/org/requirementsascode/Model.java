@@ -10,11 +10,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.requirementsascode.analysis.AmbiguityAnalysis;
+import org.requirementsascode.analysis.AmbiguityReport;
 import org.requirementsascode.builder.ModelBuilder;
 import org.requirementsascode.exception.NoSuchElementInModel;
 
@@ -35,6 +39,8 @@ public class Model{
 	private Map<String, UseCase> nameToUseCaseMap;
 	private AbstractActor userActor;
 	private AbstractActor systemActor;
+	private AmbiguityReport ambiguityReport;
+	private MessageClassIndex messageClassIndex;
 
 	private Model() {
 		this.nameToUseCaseMap = new LinkedHashMap<>();
@@ -49,7 +55,8 @@ public class Model{
 	 * @return the builder.
 	 */
 	public static ModelBuilder builder() {
-		return new ModelBuilder(new Model());
+		Model model = new Model();
+		return new ModelBuilder(model, model::resolveAndAnalyze);
 	}
 
 	/**
@@ -177,4 +184,50 @@ public class Model{
 	public AbstractActor getSystemActor() {
 		return systemActor;
 	}
+
+	/**
+	 * Returns the report of the ambiguity analysis that has been performed when
+	 * the model has been built.
+	 *
+	 * @return the report, or an empty optional if the model hasn't been built
+	 */
+	public Optional<AmbiguityReport> getAmbiguityReport() {
+		return Optional.ofNullable(ambiguityReport);
+	}
+
+	/**
+	 * Resolves the model and analyzes it for ambiguity. The builder calls it when
+	 * the model is built.
+	 */
+	private void resolveAndAnalyze() {
+		resolve();
+		ambiguityReport = AmbiguityAnalysis.of(this);
+	}
+
+	/**
+	 * Resolves the steps that the use cases refer to by name, in a single pass
+	 * over the steps. The steps are numbered in the same pass, and the index the
+	 * model runner uses to find the steps that can react to a message is created
+	 * for them.
+	 */
+	void resolve() {
+		List<Step> resolvedSteps = new ArrayList<>();
+		for (UseCase useCase : getModifiableUseCases()) {
+			useCase.resolve(resolvedSteps::add);
+		}
+		messageClassIndex = new MessageClassIndex(resolvedSteps);
+	}
+
+	/**
+	 * Returns the index of message classes for the current steps of the model.
+	 * The index is created again if steps have been added since it has been
+	 * created.
+	 */
+	MessageClassIndex getMessageClassIndex() {
+		Collection<Step> steps = getModifiableSteps();
+		if (messageClassIndex == null || !messageClassIndex.hasSameSteps(steps)) {
+			messageClassIndex = new MessageClassIndex(steps);
+		}
+		return messageClassIndex;
+	}
 }
@@ -1,17 +1,30 @@
 package org.requirementsascode;
 
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+import org.requirementsascode.analysis.AmbiguityReport;
+import org.requirementsascode.exception.ConcurrentCallOfReactTo;
 import org.requirementsascode.exception.InfiniteRepetition;
 import org.requirementsascode.exception.MissingUseCaseStepPart;
 import org.requirementsascode.exception.MoreThanOneStepCanReact;
@@ -39,17 +52,44 @@ public class ModelRunner {
   private Consumer<StepToBeRun> messageHandler;
   private Consumer<Object> unhandledMessageHandler;
   private Consumer<Object> messagePublisher;
+  private ActorPublisher actorPublisher;
+  private DispatchMonitor dispatchMonitor;
+  private Executor resumptionExecutor;
   private List<String> recordedStepNames;
   private List<Object> recordedMessages;
   private boolean isRecording;
-  private boolean nestedReactToMessageCallCausesException;
+  private final ReactToGuard guard;
+  private Map<Condition, Boolean> cachedConditionResults;
+  private boolean isCachingConditionResults;
+  private Map<PureCondition, Boolean> pureConditionResults;
+  private boolean hasOnlyPureConditions;
+  private List<Step> enabledSteps;
+  private Map<Class<?>, Boolean> canReactToResults;
+  private Set<Class<?>> reactToTypes;
+  private List<Step> reactToTypesSteps;
+  private List<Consumer<Set<Class<?>>>> reactToTypesSubscribers;
+  private Set<Class<?>> notifiedReactToTypes;
+  private AmbiguityReport ambiguityReport;
+  private MessageClassIndex messageClassIndex;
+  private volatile Suspension suspension;
+  private volatile CompletableFuture<Void> resumption;
+  private final Queue<Object> bufferedMessages;
 
   /**
    * Constructor for creating a model runner.
    */
   public ModelRunner() {
+    this.guard = new ReactToGuard();
+    this.pureConditionResults = new IdentityHashMap<>();
+    this.canReactToResults = new HashMap<>();
+    this.reactToTypes = Collections.emptySet();
+    this.reactToTypesSubscribers = new ArrayList<>();
+    this.bufferedMessages = new ArrayDeque<>();
     handleWith(this::runStep);
     publishWith(this::publishMessage);
+    publishToActorsWith(this::publishToActor);
+    monitorWith(DispatchMonitor.NONE);
+    resumeWith(Runnable::run);
   }
 
   private void runStep(StepToBeRun stepToBeRun) {
@@ -58,15 +98,19 @@ public class ModelRunner {
 
   private <T> void publishMessage(T message) {
     Optional<AbstractActor> optionalToActor = getLatestStep().flatMap(ls -> ls.getPublishTo());
-    nestedReactToMessageCallCausesException = false;
+    guard.exitSystemReaction();
     if (optionalToActor.isPresent()) {
       AbstractActor owningActor = getOwningActor().orElse(model.getUserActor());
-      optionalToActor.get().reactTo(message, owningActor);
+      actorPublisher.publish(message, optionalToActor.get(), owningActor);
     } else {
       this.reactToSingleOrSeveralMessages(message);
     }
   }
 
+  private void publishToActor(Object message, AbstractActor recipient, AbstractActor sender) {
+    recipient.reactTo(message, sender);
+  }
+
   /**
    * Define a custom message handler. It can perform tasks before/after running
    * the step (which will trigger the system reaction method defined in the
@@ -113,6 +157,183 @@ public class ModelRunner {
     return this;
   }
 
+  /**
+   * Define a custom publisher for events that are published to other actors,
+   * e.g. to deliver them asynchronously. It will be called instead of the
+   * recipient's {@link AbstractActor#reactTo(Object, AbstractActor)} method.
+   * It isn't called if a custom publisher has been defined with
+   * {@link #publishWith(Consumer)}.
+   *
+   * @param actorPublisher the custom publisher for events to other actors
+   * @return this model runner, for chaining
+   */
+  public ModelRunner publishToActorsWith(ActorPublisher actorPublisher) {
+    this.actorPublisher = Objects.requireNonNull(actorPublisher);
+    return this;
+  }
+
+  /**
+   * Define a monitor that observes how the runner dispatches messages to steps,
+   * e.g. to emit profiling events or collect metrics. Unlike a custom message
+   * handler defined with {@link #handleWith(Consumer)}, the monitor is also told
+   * about unhandled messages and exceptions.
+   *
+   * <p>
+   * The monitor replaces the monitor defined before. To use several monitors,
+   * combine them with {@link DispatchMonitor#of(DispatchMonitor...)}, e.g.
+   * {@code monitorWith(DispatchMonitor.of(getDispatchMonitor(), otherMonitor))}.
+   *
+   * @param dispatchMonitor the monitor
+   * @return this model runner, for chaining
+   */
+  public ModelRunner monitorWith(DispatchMonitor dispatchMonitor) {
+    this.dispatchMonitor = Objects.requireNonNull(dispatchMonitor);
+    return this;
+  }
+
+  /**
+   * Returns the monitor that observes how the runner dispatches messages.
+   *
+   * @return the monitor, {@link DispatchMonitor#NONE} if none has been defined
+   */
+  public DispatchMonitor getDispatchMonitor() {
+    return dispatchMonitor;
+  }
+
+  /**
+   * Define the executor that resumes the runner when the stage of an
+   * asynchronous system reaction completes. By default, the thread that
+   * completes the stage resumes the runner, unless a different thread owns the
+   * runner at that time. A thread that calls the runner while it is being
+   * resumed waits until the resumption has ended, even in concurrency mode
+   * {@link ConcurrencyMode#SINGLE_WRITER}. Define an executor e.g. to resume the
+   * runner on the thread that otherwise lets it react to messages.
+   *
+   * @param resumptionExecutor the executor
+   * @return this model runner, for chaining
+   */
+  public ModelRunner resumeWith(Executor resumptionExecutor) {
+    this.resumptionExecutor = Objects.requireNonNull(resumptionExecutor);
+    return this;
+  }
+
+  /**
+   * After calling this method, the runner evaluates each condition at most once
+   * while it determines which step can react to a message. The cached results
+   * are discarded before any system reaction is run.
+   * 
+   * <p>
+   * Use this method if the conditions of the model are expensive to evaluate
+   * (e.g. because they access a repository), and evaluating a condition twice
+   * for the same message would yield the same result anyway. The same applies
+   * to {@link #canReactTo(Class)}, {@link #getReactToTypes()} and
+   * {@link #getStepsThatCanReactTo(Class)}: within a single call, each condition
+   * is evaluated at most once.
+   * 
+   * @return this model runner, for chaining
+   */
+  public ModelRunner cacheConditionResults() {
+    if (cachedConditionResults == null) {
+      cachedConditionResults = new IdentityHashMap<>();
+    }
+    return this;
+  }
+
+  /**
+   * Defines how the runner deals with different threads calling
+   * {@link #reactTo(Object)} or {@link #run(Model)} at the same time. By
+   * default, the runner fails fast ({@link ConcurrencyMode#SINGLE_WRITER}).
+   * 
+   * <p>
+   * Don't call this method while the runner is being used by a different
+   * thread.
+   * 
+   * @param concurrencyMode the concurrency mode
+   * @return this model runner, for chaining
+   */
+  public ModelRunner concurrencyMode(ConcurrencyMode concurrencyMode) {
+    guard.setConcurrencyMode(concurrencyMode);
+    return this;
+  }
+
+  /**
+   * Returns the concurrency mode of the runner.
+   * 
+   * @return the concurrency mode
+   */
+  public ConcurrencyMode getConcurrencyMode() {
+    return guard.getConcurrencyMode();
+  }
+
+  /**
+   * Call this method when the values of the specified state variables have
+   * changed. The runner will then evaluate the pure conditions that depend on
+   * them again, instead of using the previous results.
+   * 
+   * @see PureCondition
+   * @param stateVariables the names of the state variables whose values have
+   *                       changed
+   * @return this model runner, for chaining
+   */
+  public ModelRunner invalidate(String... stateVariables) {
+    Objects.requireNonNull(stateVariables);
+    if (!pureConditionResults.isEmpty()) {
+      List<String> changedStateVariables = Arrays.asList(stateVariables);
+      pureConditionResults.keySet().removeIf(condition -> condition.dependsOnAnyOf(changedStateVariables));
+    }
+    clearEnabledSteps();
+    notifyReactToTypesSubscribers();
+    return this;
+  }
+
+  /**
+   * Subscribes the specified subscriber to changes of the message types the
+   * runner can react to. After the runner has been run or stopped, after it has
+   * reacted to messages, and after state variables have been invalidated, the
+   * subscriber is called with the result of {@link #getReactToTypes()}, if that
+   * result differs from the one before.
+   * 
+   * <p>
+   * The subscriber is not called while the runner is reacting to a message. It
+   * is only called with the types after all system reactions have been run.
+   * 
+   * @param subscriber the subscriber that is called with the changed types
+   * @return this model runner, for chaining
+   */
+  public ModelRunner subscribeToReactToTypes(Consumer<Set<Class<?>>> subscriber) {
+    Objects.requireNonNull(subscriber);
+    if (reactToTypesSubscribers.isEmpty()) {
+      notifiedReactToTypes = getReactToTypes();
+    }
+    reactToTypesSubscribers.add(subscriber);
+    return this;
+  }
+
+  /**
+   * Unsubscribes the specified subscriber, so that it will no longer be called
+   * when the message types the runner can react to change.
+   * 
+   * @param subscriber the subscriber that has been subscribed before
+   * @return this model runner, for chaining
+   */
+  public ModelRunner unsubscribeFromReactToTypes(Consumer<Set<Class<?>>> subscriber) {
+    reactToTypesSubscribers.remove(subscriber);
+    return this;
+  }
+
+  private void notifyReactToTypesSubscribers() {
+    if (reactToTypesSubscribers.isEmpty()) {
+      return;
+    }
+    Set<Class<?>> currentReactToTypes = getReactToTypes();
+    if (!currentReactToTypes.equals(notifiedReactToTypes)) {
+      notifiedReactToTypes = currentReactToTypes;
+      for (Consumer<Set<Class<?>>> subscriber : new ArrayList<>(reactToTypesSubscribers)) {
+        subscriber.accept(currentReactToTypes);
+      }
+    }
+  }
+
   /**
    * Restarts the runner, resetting it to its original defaults ("no flow has been
    * run, no step has been run").
@@ -139,6 +360,28 @@ public class ModelRunner {
     return this;
   }
 
+  /**
+   * Configures the runner to use the specified model, and continues a user
+   * journey after the specified latest step, e.g. to restore a saved state.
+   *
+   * <p>
+   * Unlike {@link #run(Model)}, this method doesn't trigger autonomous system
+   * reactions: they have already been triggered when the journey reached the
+   * latest step.
+   *
+   * @param model      the model that defines the runner's behavior
+   * @param latestStep the latest step run, or null if no step has been run
+   * @return this model runner, for chaining
+   */
+  public ModelRunner restore(Model model, Step latestStep) {
+    AbstractActor userActor = model.getUserActor();
+    return guarded(false, () -> {
+      setRunActor(userActor);
+      setLatestStep(latestStep);
+      return runModel(model, false);
+    });
+  }
+
   /**
    * After you called this method, the runner will only react in steps that have
    * explicitly set the specified actor as one of its actors, or that are declared
@@ -152,33 +395,77 @@ public class ModelRunner {
   }
 
   public class As {
+    private final AbstractActor runActor;
+
     private As(AbstractActor runActor) {
+      this.runActor = runActor;
       setRunActor(runActor);
     }
 
     public ModelRunner run(Model model) {
-      return runModel(model);
+      return guarded(false, () -> {
+        setRunActor(runActor);
+        return runModel(model, true);
+      });
     }
 
     public <T, U> Optional<U> reactTo(T message) {
-      return ModelRunner.this.reactTo(message);
+      return guarded(true, () -> {
+        setRunActor(runActor);
+        return ModelRunner.this.reactTo(message);
+      });
     }
 
     public <U> Optional<U> reactTo(Object... messages) {
-      return ModelRunner.this.reactTo(messages);
+      return guarded(true, () -> {
+        setRunActor(runActor);
+        return ModelRunner.this.reactTo(messages);
+      });
+    }
+  }
+
+  /**
+   * Calls the specified supplier while the current thread owns the runner. The
+   * run actor is set again after entering, as a different thread may have
+   * changed it in the meantime.
+   */
+  private <R> R guarded(boolean failOnNestedCall, Supplier<R> call) {
+    boolean entered = guard.enter(failOnNestedCall);
+    try {
+      return call.get();
+    } finally {
+      exitGuard(entered);
+    }
+  }
+
+  /**
+   * If an asynchronous system reaction has completed while the current thread
+   * owned the runner, the current thread resumes the runner after exiting.
+   */
+  private void exitGuard(boolean entered) {
+    if (entered) {
+      guard.exit();
+      resumeIfCompleted();
     }
   }
 
-  private ModelRunner runModel(Model model) {
+  private ModelRunner runModel(Model model, boolean triggersAutonomousSystemReaction) {
+    abandonSuspension();
     setModel(model);
     initializeStepToBeRun();
+    initializePureConditions();
+    initializeAmbiguityReport();
+    initializeMessageClassIndex();
     setRunning(true);
-    triggerAutonomousSystemReaction();
+    if (triggersAutonomousSystemReaction) {
+      triggerAutonomousSystemReaction();
+    }
+    notifyReactToTypesSubscribers();
     return this;
   }
 
   private void triggerAutonomousSystemReaction() {
-    nestedReactToMessageCallCausesException = false;
+    guard.exitSystemReaction();
     reactToSingleMessage(this);
   }
 
@@ -198,6 +485,7 @@ public class ModelRunner {
    */
   public void stop() {
     setRunning(false);
+    notifyReactToTypesSubscribers();
   }
 
   /**
@@ -213,9 +501,15 @@ public class ModelRunner {
   @SuppressWarnings("unchecked")
   public <U> Optional<U> reactTo(Object... messages) {
     Objects.requireNonNull(messages);
-    clearLatestPublishedEvent();
-    reactToMessages(messages);
-    return Optional.ofNullable((U) latestPublishedEvent);
+    boolean entered = guard.enter(true);
+    try {
+      clearLatestPublishedEvent();
+      reactToMessages(messages);
+      notifyReactToTypesSubscribers();
+      return Optional.ofNullable((U) latestPublishedEvent);
+    } finally {
+      exitGuard(entered);
+    }
   }
 
   /**
@@ -232,7 +526,9 @@ public class ModelRunner {
    * If more than one step can react, the runner will throw an exception.
    *
    * <p>
-   * After that, the runner will trigger "autonomous system reactions".
+   * After that, the runner will trigger "autonomous system reactions". If the
+   * system reaction is asynchronous, the runner suspends instead, and buffers
+   * messages until the reaction has completed (see {@link #whenResumed()}).
    * 
    * Note that if you provide an array or a collection as the first and only argument, this
    * will be flattened to the contained objects, and for each object
@@ -250,16 +546,27 @@ public class ModelRunner {
    * @throws InfiniteRepetition      when a step has an always true condition, or
    *                                 there is an infinite loop.
    * @throws ClassCastException      when type of the returned instance isn't U
+   * @throws NestedCallOfReactTo     when called from a system reaction of this
+   *                                 runner
+   * @throws ConcurrentCallOfReactTo when a different thread is using the runner
+   *                                 at the same time, in concurrency mode
+   *                                 {@link ConcurrencyMode#SINGLE_WRITER}
    */
   @SuppressWarnings("unchecked")
   public <T, U> Optional<U> reactTo(T message) {
     Objects.requireNonNull(message);
 
-    clearLatestPublishedEvent();
-    
-    reactToSingleOrSeveralMessages(message);
+    boolean entered = guard.enter(true);
+    try {
+      clearLatestPublishedEvent();
+
+      reactToSingleOrSeveralMessages(message);
+      notifyReactToTypesSubscribers();
 
-    return Optional.ofNullable((U) latestPublishedEvent);
+      return Optional.ofNullable((U) latestPublishedEvent);
+    } finally {
+      exitGuard(entered);
+    }
   }
 
   private <T> void reactToSingleOrSeveralMessages(T message) {
@@ -296,39 +603,88 @@ public class ModelRunner {
     if (!isRunning()) {
       return;
     }
-    if (nestedReactToMessageCallCausesException) {
-      throw new NestedCallOfReactTo();
+    if (isSuspended()) {
+      bufferUnlessSystemEvent(message);
+      return;
     }
 
     Class<? extends Object> currentMessageClass = message.getClass();
+    boolean isSystemEvent = hasSystemEventClass(currentMessageClass);
+    Object dispatch = isSystemEvent ? null : dispatchMonitor.dispatchStarted(message);
+    Step stepThatWillReact = null;
 
     try {
-      int nrOfStepsThatCanReact = 0;
-      Step stepThatWillReact = null;
-      Collection<Step> steps = model.getModifiableSteps();
+      stepThatWillReact = findStepThatCanReactTo(currentMessageClass);
 
-      for (Step step : steps) {
-        if (canReactToMessageClass(step, currentMessageClass)) {
-          stepThatWillReact = step;
+      if (stepThatWillReact != null) {
+        triggerSystemReaction(message, stepThatWillReact);
+      } else {
+        if (!isSystemEvent) {
+          dispatchMonitor.messageUnhandled(message);
+        }
+        if (unhandledMessageHandler != null && !isSystemEvent) {
+          unhandledMessageHandler.accept(message);
+        } else if (message instanceof RuntimeException) {
+          throw (RuntimeException) message;
+        }
+      }
+    } catch (StackOverflowError err) {
+      dispatchMonitor.infiniteRepetition(latestStep);
+      throw new InfiniteRepetition(latestStep);
+    } finally {
+      if (!isSystemEvent) {
+        dispatchMonitor.dispatchEnded(dispatch, message, stepThatWillReact);
+      }
+    }
+  }
+
+  private Step findStepThatCanReactTo(Class<? extends Object> currentMessageClass) {
+    int nrOfStepsThatCanReact = 0;
+    Step stepThatCanReact = null;
+    Step[] steps = messageClassIndex.getSteps();
+
+    boolean startedCaching = startCachingConditionResults();
+    try {
+      for (int position : messageClassIndex.getMatchingStepPositions(currentMessageClass)) {
+        Step step = steps[position];
+        if (canReact(step)) {
+          stepThatCanReact = step;
           nrOfStepsThatCanReact++;
 
           if (nrOfStepsThatCanReact > 1) {
             // No more than one step is allowed to react to a message
-            throw new MoreThanOneStepCanReact(steps);
+            throw new MoreThanOneStepCanReact(model.getModifiableSteps());
+          }
+          if (isExclusive(step)) {
+            // No other step can react, so there's no need to check them
+            break;
           }
         }
       }
-
-      if (nrOfStepsThatCanReact == 1) {
-        triggerSystemReaction(message, stepThatWillReact);
-      } else if (unhandledMessageHandler != null && !isSystemEvent(message)) {
-        unhandledMessageHandler.accept(message);
-      } else if (message instanceof RuntimeException) {
-        throw (RuntimeException) message;
-      }
-    } catch (StackOverflowError err) {
-      throw new InfiniteRepetition(latestStep);
+    } finally {
+      stopCachingConditionResults(startedCaching);
     }
+
+    return stepThatCanReact;
+  }
+
+  private void initializeAmbiguityReport() {
+    int numberOfSteps = model.getModifiableSteps().size();
+    ambiguityReport = model.getAmbiguityReport()
+      .filter(report -> report.getNumberOfAnalyzedSteps() == numberOfSteps)
+      .orElse(null);
+  }
+
+  /**
+   * Steps added to the model after the runner has been run are ignored, until
+   * the runner is run again.
+   */
+  private void initializeMessageClassIndex() {
+    messageClassIndex = model.getMessageClassIndex();
+  }
+
+  private boolean isExclusive(Step step) {
+    return ambiguityReport != null && ambiguityReport.isExclusive(step);
   }
 
   private boolean canReact(Step step) {
@@ -359,13 +715,7 @@ public class ModelRunner {
   }
 
   private boolean stepMessageClassIsSameOrSuperclass(Step step, Class<?> currentMessageClass) {
-    Class<?> stepMessageClass = step.getMessageClass();
-    if (stepMessageClass == null) {
-      throw new MissingUseCaseStepPart(step, "on/user");
-    }
-    boolean result = hasSystemEventClass(currentMessageClass) ? hasSystemEventClass(stepMessageClass)
-      : stepMessageClass.isAssignableFrom(currentMessageClass);
-    return result;
+    return messageClassIndex.isMatching(step, currentMessageClass);
   }
 
   private boolean hasTruePredicate(Step step) {
@@ -374,31 +724,255 @@ public class ModelRunner {
     return result;
   }
 
+  boolean evaluate(Condition condition) {
+    if (condition instanceof PureCondition) {
+      return evaluatePureCondition((PureCondition) condition);
+    }
+    if (!isCachingConditionResults) {
+      return condition.evaluate();
+    }
+
+    Boolean result = cachedConditionResults.get(condition);
+    if (result == null) {
+      result = condition.evaluate();
+      cachedConditionResults.put(condition, result);
+    }
+    return result;
+  }
+
+  private boolean evaluatePureCondition(PureCondition condition) {
+    Boolean result = pureConditionResults.get(condition);
+    if (result == null) {
+      result = condition.evaluate();
+      pureConditionResults.put(condition, result);
+    }
+    return result;
+  }
+
+  private void initializePureConditions() {
+    pureConditionResults.clear();
+    clearEnabledSteps();
+    hasOnlyPureConditions = model.getModifiableSteps().stream()
+      .allMatch(step -> isPureOrAbsent(step.getCondition().orElse(null)) && isPureOrAbsent(reactWhileOf(step)));
+  }
+
+  private boolean isPureOrAbsent(Condition condition) {
+    return condition == null || condition instanceof PureCondition;
+  }
+
+  private Condition reactWhileOf(Step step) {
+    return step instanceof FlowStep ? ((FlowStep) step).getReactWhile() : null;
+  }
+
+  /**
+   * Returns the steps that can react, independent of the message class. If all
+   * conditions of the model are pure, the steps are only determined again after
+   * the runner's state has changed.
+   */
+  private List<Step> getEnabledSteps() {
+    if (enabledSteps == null || !hasOnlyPureConditions) {
+      List<Step> steps = new ArrayList<>();
+      boolean startedCaching = startCachingConditionResults();
+      try {
+        for (Step step : messageClassIndex.getSteps()) {
+          if (canReact(step)) {
+            steps.add(step);
+          }
+        }
+      } finally {
+        stopCachingConditionResults(startedCaching);
+      }
+      enabledSteps = steps;
+    }
+    return enabledSteps;
+  }
+
+  private void clearEnabledSteps() {
+    enabledSteps = null;
+    canReactToResults.clear();
+  }
+
+  private boolean startCachingConditionResults() {
+    if (cachedConditionResults == null || isCachingConditionResults) {
+      return false;
+    }
+    isCachingConditionResults = true;
+    return true;
+  }
+
+  private void stopCachingConditionResults(boolean startedCaching) {
+    if (startedCaching) {
+      cachedConditionResults.clear();
+      isCachingConditionResults = false;
+    }
+  }
+
   private void triggerSystemReaction(Object message, Step step) {
     if (step.getSystemReaction() == null) {
       throw new MissingUseCaseStepPart(step, "system");
     }
+    // For a lazily built model, before a step of the use case reacts for the first time
+    step.getUseCase().resolveOnFirstUse();
 
     stepToBeRun.setupWith(step, message);
     setLatestStep(step);
 
     try {
-      nestedReactToMessageCallCausesException = true;
+      guard.enterSystemReaction();
 
       Condition isTheCase = step.getCase().orElse(() -> true);
       if (isTheCase.evaluate()) {
         recordStepNameAndMessage(step, message);
-        messageHandler.accept(stepToBeRun);
+        runStepMonitored(step, message);
+        Object messageToBePublished = stepToBeRun.getMessageToBePublished().orElse(null);
+        if (Suspension.isAsync(step, messageToBePublished)) {
+          guard.exitSystemReaction();
+          suspendUntilCompleted(step, (CompletionStage<?>) messageToBePublished);
+          return;
+        }
         publishReturnedMessage();
       }
 
     } catch (Exception e) {
-      handleException(e);
+      handleExceptionThrownBy(step, e);
     }
 
     triggerAutonomousSystemReaction();
   }
 
+  private void handleExceptionThrownBy(Step step, Exception e) {
+    dispatchMonitor.exceptionThrown(step, e);
+    handleException(e);
+  }
+
+  private void runStepMonitored(Step step, Object message) {
+    Object messageOfStep = isSystemEvent(message) ? null : message;
+    Object stepRun = dispatchMonitor.stepStarted(step, messageOfStep);
+    try {
+      messageHandler.accept(stepToBeRun);
+    } finally {
+      dispatchMonitor.stepEnded(stepRun, step, messageOfStep);
+    }
+  }
+
+  private void suspendUntilCompleted(Step step, CompletionStage<?> stage) {
+    Suspension newSuspension = new Suspension(step);
+    if (resumption == null || resumption.isDone()) {
+      resumption = new CompletableFuture<>();
+    }
+    suspension = newSuspension;
+
+    stage.whenComplete((result, exception) -> {
+      newSuspension.complete(result, exception);
+      resumptionExecutor.execute(this::resumeIfCompleted);
+    });
+  }
+
+  /**
+   * Resumes the runner if the asynchronous system reaction it waits for has
+   * completed, and no thread owns the runner. Otherwise, the owning thread
+   * resumes the runner when it exits.
+   */
+  private void resumeIfCompleted() {
+    while (hasCompletedSuspension() && guard.tryEnterToResume()) {
+      try {
+        Suspension completedSuspension = suspension;
+        if (completedSuspension != null && completedSuspension.isCompleted()) {
+          resume(completedSuspension);
+        }
+      } finally {
+        guard.exit();
+      }
+    }
+  }
+
+  private boolean hasCompletedSuspension() {
+    Suspension currentSuspension = suspension;
+    return currentSuspension != null && currentSuspension.isCompleted();
+  }
+
+  private void resume(Suspension completedSuspension) {
+    suspension = null;
+    try {
+      clearLatestPublishedEvent();
+      Throwable exception = completedSuspension.getException();
+      if (exception == null) {
+        publishResult(completedSuspension);
+      } else if (exception instanceof Exception) {
+        handleExceptionThrownBy(completedSuspension.getStep(), (Exception) exception);
+      } else if (exception instanceof Error) {
+        throw (Error) exception;
+      } else {
+        throw new UndeclaredThrowableException(exception);
+      }
+      triggerAutonomousSystemReaction();
+      reactToBufferedMessages();
+      notifyReactToTypesSubscribers();
+      if (!isSuspended()) {
+        resumption.complete(null);
+      }
+    } catch (RuntimeException | Error e) {
+      bufferedMessages.clear();
+      resumption.completeExceptionally(e);
+    }
+  }
+
+  private void publishResult(Suspension completedSuspension) {
+    Object result = completedSuspension.getResult();
+    if (messagePublisher != null && result != null) {
+      messagePublisher.accept(result);
+    }
+  }
+
+  private void bufferUnlessSystemEvent(Object message) {
+    // Autonomous system reactions are triggered again when the runner resumes
+    if (!isSystemEvent(message)) {
+      bufferedMessages.add(message);
+    }
+  }
+
+  private void reactToBufferedMessages() {
+    Object bufferedMessage;
+    while (!isSuspended() && (bufferedMessage = bufferedMessages.poll()) != null) {
+      reactToSingleMessage(bufferedMessage);
+    }
+  }
+
+  private void abandonSuspension() {
+    suspension = null;
+    bufferedMessages.clear();
+    if (resumption != null) {
+      resumption.complete(null);
+    }
+  }
+
+  /**
+   * Returns whether the runner waits for an asynchronous system reaction to
+   * complete. While suspended, the runner buffers the messages it receives, and
+   * reacts to them after it has resumed.
+   *
+   * @return true if suspended, false otherwise
+   */
+  public boolean isSuspended() {
+    return suspension != null;
+  }
+
+  /**
+   * Returns a stage that completes when the runner has resumed after
+   * asynchronous system reactions, and has reacted to the buffered messages. If
+   * an exception that the model doesn't handle occurs in the meantime, the stage
+   * completes exceptionally, and the remaining buffered messages are discarded.
+   *
+   * @return the stage, which is already completed if the runner isn't suspended
+   */
+  public CompletionStage<Void> whenResumed() {
+    CompletableFuture<Void> currentResumption = resumption;
+    if (currentResumption == null || (!isSuspended() && !currentResumption.isDone())) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return currentResumption;
+  }
+
   private void publishReturnedMessage() {
     Optional<Object> messageToBePublished = stepToBeRun.getMessageToBePublished();
     if (messagePublisher != null && messageToBePublished.isPresent()) {
@@ -444,39 +1018,70 @@ public class ModelRunner {
     }
     boolean canReact = false;
 
-    Collection<Step> steps = model.getModifiableSteps();
-    for (Step step : steps) {
-      if (canReactToMessageClass(step, messageClass)) {
-        canReact = true;
-        break;
+    if (hasOnlyPureConditions) {
+      Boolean result = canReactToResults.get(messageClass);
+      if (result == null) {
+        result = enabledStepCanReactTo(messageClass);
+        canReactToResults.put(messageClass, result);
+      }
+      canReact = result;
+    } else {
+      Step[] steps = messageClassIndex.getSteps();
+      boolean startedCaching = startCachingConditionResults();
+      try {
+        for (int position : messageClassIndex.getMatchingStepPositions(messageClass)) {
+          if (canReact(steps[position])) {
+            canReact = true;
+            break;
+          }
+        }
+      } finally {
+        stopCachingConditionResults(startedCaching);
       }
     }
 
     return canReact;
   }
 
+  private boolean enabledStepCanReactTo(Class<? extends Object> messageClass) {
+    for (Step step : getEnabledSteps()) {
+      if (stepMessageClassIsSameOrSuperclass(step, messageClass)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Returns the classes of messages the runner can react to.
    * <p>
    * See {@link #canReactTo(Class)} for a description of what "can react" means.
    * 
+   * <p>
+   * The returned set is unmodifiable. As long as the types don't change, the
+   * same instance is returned, so it can be shared. If all conditions of the
+   * model are pure, the types are only determined again after the runner's state
+   * has changed.
+   * 
+   * @see #subscribeToReactToTypes(Consumer)
    * @return the collection of message types
    */
   public Set<Class<?>> getReactToTypes() {
-    Set<Class<?>> reactToTypes;
-
-    if (isRunning) {
-      reactToTypes = new LinkedHashSet<>();
-      Collection<Step> steps = model.getModifiableSteps();
+    if (!isRunning) {
+      return Collections.emptySet();
+    }
 
+    List<Step> steps = getEnabledSteps();
+    if (steps != reactToTypesSteps) {
+      Set<Class<?>> currentReactToTypes = new LinkedHashSet<>();
       for (Step step : steps) {
-        if (canReact(step)) {
-          Class<?> messageClass = step.getMessageClass();
-          reactToTypes.add(messageClass);
-        }
+        Class<?> messageClass = step.getMessageClass();
+        currentReactToTypes.add(messageClass);
       }
-    } else {
-      reactToTypes = Collections.emptySet();
+      if (!currentReactToTypes.equals(reactToTypes)) {
+        reactToTypes = Collections.unmodifiableSet(currentReactToTypes);
+      }
+      reactToTypesSteps = steps;
     }
 
     return reactToTypes;
@@ -493,13 +1098,29 @@ public class ModelRunner {
 
     Set<Step> stepsThatCanReact = new HashSet<>(2);
 
-    if (isRunning) {
-      Collection<Step> steps = model.getModifiableSteps();
-      for (Step step : steps) {
-        if (canReactToMessageClass(step, messageClass)) {
+    if (!isRunning) {
+      return stepsThatCanReact;
+    }
+
+    if (hasOnlyPureConditions) {
+      for (Step step : getEnabledSteps()) {
+        if (stepMessageClassIsSameOrSuperclass(step, messageClass)) {
           stepsThatCanReact.add(step);
         }
       }
+    } else {
+      // Only evaluate the conditions of steps that handle the message class
+      Step[] steps = messageClassIndex.getSteps();
+      boolean startedCaching = startCachingConditionResults();
+      try {
+        for (int position : messageClassIndex.getMatchingStepPositions(messageClass)) {
+          if (canReact(steps[position])) {
+            stepsThatCanReact.add(steps[position]);
+          }
+        }
+      } finally {
+        stopCachingConditionResults(startedCaching);
+      }
     }
 
     return stepsThatCanReact;
@@ -514,7 +1135,7 @@ public class ModelRunner {
    * @param e the exception that has been thrown by the system reaction
    */
   protected void handleException(Exception e) {
-    nestedReactToMessageCallCausesException = false;
+    guard.exitSystemReaction();
     reactToSingleMessage(e);
   }
 
@@ -539,6 +1160,7 @@ public class ModelRunner {
    */
   public void setLatestStep(Step latestStep) {
     this.latestStep = latestStep;
+    clearEnabledSteps();
   }
 
   /**
@@ -643,10 +1265,15 @@ public class ModelRunner {
 
   private void setRunning(boolean status) {
     isRunning = status;
+    clearEnabledSteps();
   }
 
   private void setRunActor(AbstractActor runActor) {
-    this.runActor = Objects.requireNonNull(runActor);
+    Objects.requireNonNull(runActor);
+    if (!runActor.equals(this.runActor)) {
+      this.runActor = runActor;
+      clearEnabledSteps();
+    }
   }
 
   private void clearLatestPublishedEvent() {
@@ -0,0 +1,63 @@
+package org.requirementsascode;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A condition that is declared to be a pure function of the specified state
+ * variables. Its result only changes when one of the state variables changes.
+ * 
+ * <p>
+ * A model runner evaluates a pure condition once, and then reuses the result,
+ * until {@link ModelRunner#invalidate(String...)} is called for one of its
+ * state variables. The state variables are just names, they are not checked in
+ * any way. It is your responsibility to call invalidate when their values
+ * change.
+ * 
+ * @author b_muth
+ *
+ */
+public class PureCondition implements Condition {
+	private Condition condition;
+	private Set<String> stateVariables;
+
+	/**
+	 * Creates a pure condition.
+	 * 
+	 * @param condition      the condition to evaluate
+	 * @param stateVariables the names of the state variables the condition
+	 *                       depends on
+	 */
+	public PureCondition(Condition condition, String... stateVariables) {
+		this.condition = Objects.requireNonNull(condition);
+		Objects.requireNonNull(stateVariables);
+		this.stateVariables = new LinkedHashSet<>(Arrays.asList(stateVariables));
+	}
+
+	@Override
+	public boolean evaluate() {
+		return condition.evaluate();
+	}
+
+	/**
+	 * Returns the names of the state variables this condition depends on.
+	 * 
+	 * @return the state variable names
+	 */
+	public Set<String> getStateVariables() {
+		return Collections.unmodifiableSet(stateVariables);
+	}
+
+	boolean dependsOnAnyOf(Collection<String> changedStateVariables) {
+		for (String changedStateVariable : changedStateVariables) {
+			if (stateVariables.contains(changedStateVariable)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
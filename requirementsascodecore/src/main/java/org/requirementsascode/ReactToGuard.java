@@ -0,0 +1,161 @@
+package org.requirementsascode;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.requirementsascode.exception.ConcurrentCallOfReactTo;
+import org.requirementsascode.exception.NestedCallOfReactTo;
+
+/**
+ * Guards the entry points of a model runner. The guard knows which thread owns
+ * the runner, whether that thread is currently running a system reaction, and
+ * whether it only owns the runner to resume it. All are encoded in a single
+ * word: the thread id, shifted left by two bits, the lowest bit for the system
+ * reaction, and the next bit for the resumption.
+ * 
+ * <p>
+ * A thread that resumes the runner after an asynchronous system reaction has
+ * completed is not a caller of the runner. So in concurrency mode
+ * {@link ConcurrencyMode#SINGLE_WRITER}, a caller waits until the resumption
+ * has ended, instead of failing.
+ * 
+ * @author b_muth
+ */
+class ReactToGuard {
+  private static final long NO_OWNER = 0L;
+  private static final long IN_SYSTEM_REACTION = 1L;
+  private static final long RESUMING = 2L;
+  private static final long FLAGS = IN_SYSTEM_REACTION | RESUMING;
+
+  private final AtomicLong state;
+  private final ReentrantLock lock;
+  private ConcurrencyMode concurrencyMode;
+
+  ReactToGuard() {
+    this.state = new AtomicLong(NO_OWNER);
+    this.lock = new ReentrantLock();
+    this.concurrencyMode = ConcurrencyMode.SINGLE_WRITER;
+  }
+
+  void setConcurrencyMode(ConcurrencyMode concurrencyMode) {
+    this.concurrencyMode = Objects.requireNonNull(concurrencyMode);
+  }
+
+  ConcurrencyMode getConcurrencyMode() {
+    return concurrencyMode;
+  }
+
+  /**
+   * Called when a thread enters the runner from outside.
+   * 
+   * @param failOnNestedCall whether a call from a system reaction is an error
+   * @return true if the thread now owns the runner and must call
+   *         {@link #exit()}, false if it already owned the runner
+   */
+  boolean enter(boolean failOnNestedCall) {
+    long owner = ownerBitsOfCurrentThread();
+    long currentState = state.get();
+
+    if ((currentState & ~FLAGS) == owner) {
+      if (failOnNestedCall && (currentState & IN_SYSTEM_REACTION) != 0) {
+        throw new NestedCallOfReactTo();
+      }
+      return false;
+    }
+
+    switch (concurrencyMode) {
+    case SINGLE_WRITER:
+      while (!state.compareAndSet(NO_OWNER, owner)) {
+        awaitEndOfResumption();
+      }
+      break;
+    case SERIALIZED:
+      lock.lock();
+      state.set(owner);
+      break;
+    default:
+      state.set(owner);
+    }
+    return true;
+  }
+
+  /**
+   * Waits until the thread that resumes the runner exits. Fails if a different
+   * caller owns the runner.
+   */
+  private void awaitEndOfResumption() {
+    boolean isInterrupted = false;
+    synchronized (this) {
+      long currentState;
+      while ((currentState = state.get()) != NO_OWNER) {
+        if ((currentState & RESUMING) == 0) {
+          throw new ConcurrentCallOfReactTo();
+        }
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          isInterrupted = true;
+        }
+      }
+    }
+    if (isInterrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Called by a thread that wants to own the runner to resume it after an
+   * asynchronous system reaction has completed, but must neither wait for nor
+   * disturb a different owner.
+   * 
+   * @return true if the thread now owns the runner and must call
+   *         {@link #exit()}, false if any thread (including the current one)
+   *         owns the runner
+   */
+  boolean tryEnterToResume() {
+    long owner = ownerBitsOfCurrentThread() | RESUMING;
+    if (ConcurrencyMode.SERIALIZED.equals(concurrencyMode)) {
+      if (!lock.tryLock()) {
+        return false;
+      }
+      if (lock.getHoldCount() > 1) {
+        lock.unlock();
+        return false;
+      }
+      state.set(owner);
+      return true;
+    }
+    return state.compareAndSet(NO_OWNER, owner);
+  }
+
+  void exit() {
+    long previousState = state.getAndSet(NO_OWNER);
+    if (lock.isHeldByCurrentThread()) {
+      lock.unlock();
+    }
+    if ((previousState & RESUMING) != 0) {
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Only called by the owning thread.
+   */
+  void enterSystemReaction() {
+    state.set(state.get() | IN_SYSTEM_REACTION);
+  }
+
+  /**
+   * Only called by the owning thread.
+   */
+  void exitSystemReaction() {
+    state.set(state.get() & ~IN_SYSTEM_REACTION);
+  }
+
+  private long ownerBitsOfCurrentThread() {
+    return Thread.currentThread().getId() << 2;
+  }
+}
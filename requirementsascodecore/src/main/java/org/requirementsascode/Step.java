@@ -1,6 +1,7 @@
 package org.requirementsascode;
 
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -25,6 +26,7 @@ public abstract class Step extends ModelElement{
 	private SystemReaction<?> systemReaction;
 	private AbstractActor publishTo;
   private Condition aCase;
+  private int ordinal;
 
 	/**
 	 * Creates a step with the specified name that belongs to the specified use
@@ -92,8 +94,24 @@ public abstract class Step extends ModelElement{
 		this.systemReaction = new SystemReaction<>(systemReaction);
 	}
 
+	public <T> void setAsyncSystemReaction(Function<? super T, ? extends CompletionStage<?>> systemReaction) {
+		this.systemReaction = new SystemReaction<>(systemReaction, true);
+	}
+
 	protected static Predicate<ModelRunner> toPredicate(Condition condition) {
-		return modelRunner -> condition.evaluate();
+		return modelRunner -> modelRunner.evaluate(condition);
+	}
+
+	/**
+	 * Returns the position of the step in the model, as numbered by the message
+	 * class index that has been created last for the model.
+	 */
+	int getOrdinal() {
+		return ordinal;
+	}
+
+	void setOrdinal(int ordinal) {
+		this.ordinal = ordinal;
 	}
 
 	public Optional<AbstractActor> getPublishTo() {
@@ -0,0 +1,55 @@
+package org.requirementsascode;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The state of a model runner waiting for an asynchronous system reaction to
+ * complete. The stage may complete on any thread, so the result is published to
+ * the runner via a volatile flag.
+ * 
+ * @author b_muth
+ */
+class Suspension {
+  private final Step step;
+  private Object result;
+  private Throwable exception;
+  private volatile boolean isCompleted;
+
+  Suspension(Step step) {
+    this.step = step;
+  }
+
+  void complete(Object result, Throwable exception) {
+    this.result = result;
+    this.exception = unwrap(exception);
+    this.isCompleted = true;
+  }
+
+  private Throwable unwrap(Throwable exception) {
+    if (exception instanceof CompletionException && exception.getCause() != null) {
+      return exception.getCause();
+    }
+    return exception;
+  }
+
+  boolean isCompleted() {
+    return isCompleted;
+  }
+
+  Step getStep() {
+    return step;
+  }
+
+  Object getResult() {
+    return result;
+  }
+
+  Throwable getException() {
+    return exception;
+  }
+
+  static boolean isAsync(Step step, Object returnedObject) {
+    return step.getSystemReaction().isAsync() && returnedObject instanceof CompletionStage;
+  }
+}
@@ -1,6 +1,7 @@
 package org.requirementsascode;
 
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -20,6 +21,7 @@ import java.util.function.Supplier;
 public class SystemReaction<T> implements Function<T, Object> {
 	private Object modelObject;
 	private Function<? super T, ?> internalFunction;
+	private boolean isAsync;
 
 	SystemReaction(Consumer<? super T> modelObject) {
 		this.modelObject = Objects.requireNonNull(modelObject);
@@ -49,10 +51,25 @@ public class SystemReaction<T> implements Function<T, Object> {
 		this.internalFunction = modelObject;
 	}
 
+	SystemReaction(Function<? super T, ? extends CompletionStage<?>> modelObject, boolean isAsync) {
+		this(modelObject);
+		this.isAsync = isAsync;
+	}
+
 	public Object getModelObject() {
 		return modelObject; 
 	}
 
+	/**
+	 * Returns whether this system reaction completes asynchronously, i.e. returns
+	 * a CompletionStage whose result is published when it completes.
+	 * 
+	 * @return true if asynchronous, false otherwise
+	 */
+	public boolean isAsync() {
+		return isAsync;
+	}
+
 	@Override
 	public Object apply(T message) {
 		return internalFunction.apply(message);
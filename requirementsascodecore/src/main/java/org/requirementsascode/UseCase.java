@@ -9,10 +9,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.requirementsascode.exception.ElementAlreadyInModel;
 import org.requirementsascode.exception.NoSuchElementInModel;
 import org.requirementsascode.flowposition.FlowPosition;
+import org.requirementsascode.systemreaction.AbstractContinuesAfter;
+import org.requirementsascode.systemreaction.ContinuesAt;
 
 /**
  * A use case, as part of a model.
@@ -34,6 +37,7 @@ public class UseCase extends ModelElement{
 	private Map<String, Flow> nameToFlowMap;
 	private Map<String, Step> nameToStepMap;
 	private Flow basicFlow;
+	private volatile boolean isResolved;
 
 	/**
 	 * Creates a use case with the specified name that belongs to the specified
@@ -96,6 +100,7 @@ public class UseCase extends ModelElement{
 	public Flow newFlow(String flowName) {
 		Flow flow = new Flow(flowName, this);
 		saveModelElement(flow, nameToFlowMap);
+		isResolved = false;
 		return flow;
 	}
 
@@ -115,6 +120,7 @@ public class UseCase extends ModelElement{
 		InterruptingFlowStep step = new InterruptingFlowStep(stepName, flow, flowPosition, condition);
 
 		saveModelElement(step, nameToStepMap);
+		isResolved = false;
 
 		return step;
 	}
@@ -140,6 +146,7 @@ public class UseCase extends ModelElement{
 	public InterruptableFlowStep newInterruptableFlowStep(String stepName, Flow flow, Condition optionalCondition) {
 		InterruptableFlowStep step = new InterruptableFlowStep(stepName, flow, optionalCondition);
 		saveModelElement(step, nameToStepMap);
+		isResolved = false;
 
 		return step;
 	}
@@ -155,6 +162,7 @@ public class UseCase extends ModelElement{
 	public FlowlessStep newFlowlessStep(String stepName, Condition optionalCondition) {
 		FlowlessStep step = new FlowlessStep(stepName, this, optionalCondition);
 		saveModelElement(step, nameToStepMap);
+		isResolved = false;
 
 		return step;
 	}
@@ -208,4 +216,65 @@ public class UseCase extends ModelElement{
 	Collection<Step> getModifiableSteps() {
 		return getModelElements(nameToStepMap);
 	}
+
+	/**
+	 * Resolves the steps that the flow positions and system reactions of this use
+	 * case refer to by name. This is done after the steps have been created, to
+	 * enable forward references.
+	 * 
+	 * <p>
+	 * A model built with {@link org.requirementsascode.builder.ModelBuilder#build()}
+	 * has resolved all of its use cases. For a model built with
+	 * {@link org.requirementsascode.builder.ModelBuilder#buildLazily()}, a model
+	 * runner resolves each use case before one of its steps reacts for the first
+	 * time. (Flow positions resolve themselves when they are first checked.)
+	 *
+	 * @throws NoSuchElementInModel if a step name can't be resolved
+	 */
+	public void resolve() {
+		resolve(step -> {});
+	}
+
+	/**
+	 * Resolves this use case in a single pass over its steps, and passes each
+	 * resolved step to the specified consumer.
+	 */
+	synchronized void resolve(Consumer<Step> resolvedStepConsumer) {
+		for (Step step : getModifiableSteps()) {
+			resolveStep(step);
+			resolvedStepConsumer.accept(step);
+		}
+		isResolved = true;
+	}
+
+	private void resolveStep(Step step) {
+		if (step instanceof FlowStep) {
+			FlowPosition flowPosition = ((FlowStep) step).getFlowPosition();
+			if (flowPosition != null) {
+				flowPosition.resolveSteps();
+			}
+		}
+
+		SystemReaction<?> systemReaction = step.getSystemReaction();
+		Object systemReactionObject = systemReaction == null ? null : systemReaction.getModelObject();
+		if (systemReactionObject instanceof AbstractContinuesAfter) {
+			((AbstractContinuesAfter) systemReactionObject).resolvePreviousStep();
+		} else if (systemReactionObject instanceof ContinuesAt) {
+			((ContinuesAt<?>) systemReactionObject).resolveContinueAtStep();
+		}
+	}
+
+	/**
+	 * Resolves this use case, unless it has already been resolved and no flows or
+	 * steps have been added since.
+	 */
+	void resolveOnFirstUse() {
+		if (!isResolved) {
+			synchronized (this) {
+				if (!isResolved) {
+					resolve();
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,55 @@
+package org.requirementsascode.analysis;
+
+import java.util.Objects;
+
+import org.requirementsascode.Step;
+
+/**
+ * Two steps of a model that the {@link AmbiguityAnalysis} couldn't prove to be
+ * mutually exclusive. Depending on their conditions, both steps may be able to
+ * react to the same message. In that case, the model runner throws an
+ * exception.
+ *
+ * @author b_muth
+ */
+public class Ambiguity {
+  private final Step firstStep;
+  private final Step secondStep;
+
+  Ambiguity(Step firstStep, Step secondStep) {
+    this.firstStep = Objects.requireNonNull(firstStep);
+    this.secondStep = Objects.requireNonNull(secondStep);
+  }
+
+  public Step getFirstStep() {
+    return firstStep;
+  }
+
+  public Step getSecondStep() {
+    return secondStep;
+  }
+
+  @Override
+  public String toString() {
+    return describe(firstStep) + " and " + describe(secondStep) + " may both react to "
+      + describeMessageClasses();
+  }
+
+  private String describe(Step step) {
+    return "step \"" + step.getName() + "\" of use case \"" + step.getUseCase().getName() + "\"";
+  }
+
+  private String describeMessageClasses() {
+    Class<?> firstMessageClass = firstStep.getMessageClass();
+    Class<?> secondMessageClass = secondStep.getMessageClass();
+    if (firstMessageClass == null || secondMessageClass == null) {
+      return "any message (message class is missing)";
+    } else if (firstMessageClass.isAssignableFrom(secondMessageClass)) {
+      return secondMessageClass.getSimpleName();
+    } else if (secondMessageClass.isAssignableFrom(firstMessageClass)) {
+      return firstMessageClass.getSimpleName();
+    } else {
+      return "instances of both " + firstMessageClass.getSimpleName() + " and " + secondMessageClass.getSimpleName();
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package org.requirementsascode.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.requirementsascode.AbstractActor;
+import org.requirementsascode.InterruptableFlowStep;
+import org.requirementsascode.InterruptingFlowStep;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.flowposition.AfterSingleStep;
+
+/**
+ * Analyzes a model, to find out which steps are mutually exclusive: they can
+ * never react to the same message in the same state of a model runner.
+ *
+ * <p>
+ * The analysis is conservative: it only treats two steps as exclusive if it can
+ * prove it without evaluating any conditions. Two steps are exclusive if one of
+ * the following is true:
+ * <ul>
+ * <li>no message can be an instance of both step's message classes,</li>
+ * <li>one step interrupts the other step for all messages the other step
+ * handles,</li>
+ * <li>both steps are flow steps that react after different steps (a flow
+ * step that starts a flow instead of another step reacts after the same steps
+ * as the other step),</li>
+ * <li>the steps have different actors, and none of them is the default user or
+ * system actor.</li>
+ * </ul>
+ *
+ * A step that is exclusive with all other steps is exclusive in the model. If
+ * a model runner finds out that such a step can react to a message, it doesn't
+ * need to check the other steps any more.
+ *
+ * @author b_muth
+ */
+public class AmbiguityAnalysis {
+  private final Model model;
+
+  private AmbiguityAnalysis(Model model) {
+    this.model = Objects.requireNonNull(model);
+  }
+
+  /**
+   * Analyzes the specified model.
+   *
+   * @param model the model to analyze
+   * @return the report containing the results of the analysis
+   */
+  public static AmbiguityReport of(Model model) {
+    AmbiguityAnalysis analysis = new AmbiguityAnalysis(model);
+    return analysis.analyze();
+  }
+
+  private AmbiguityReport analyze() {
+    List<Step> steps = new ArrayList<>(model.getSteps());
+    StepMatching.resolveFlowPositionsOf(steps);
+
+    int numberOfSteps = steps.size();
+    boolean[] isAmbiguous = new boolean[numberOfSteps];
+    List<Ambiguity> ambiguities = new ArrayList<>();
+    CandidateSteps candidateSteps = new CandidateSteps(steps);
+
+    for (int i = 0; i < numberOfSteps; i++) {
+      Step step = steps.get(i);
+      for (int j : candidateSteps.after(i)) {
+        Step otherStep = steps.get(j);
+        if (!areMutuallyExclusive(step, otherStep)) {
+          isAmbiguous[i] = true;
+          isAmbiguous[j] = true;
+          ambiguities.add(new Ambiguity(step, otherStep));
+        }
+      }
+    }
+
+    Set<Step> exclusiveSteps = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (int i = 0; i < numberOfSteps; i++) {
+      if (!isAmbiguous[i]) {
+        exclusiveSteps.add(steps.get(i));
+      }
+    }
+
+    return new AmbiguityReport(exclusiveSteps, ambiguities, numberOfSteps);
+  }
+
+  private boolean areMutuallyExclusive(Step step, Step otherStep) {
+    Class<?> messageClass = step.getMessageClass();
+    Class<?> otherMessageClass = otherStep.getMessageClass();
+    if (messageClass == null || otherMessageClass == null) {
+      return false;
+    }
+
+    boolean areMutuallyExclusive = !messageClassesOverlap(messageClass, otherMessageClass)
+      || interruptsForAllMessages(step, otherStep) || interruptsForAllMessages(otherStep, step)
+      || reactAfterDifferentSteps(step, otherStep) || haveDifferentActors(step, otherStep);
+    return areMutuallyExclusive;
+  }
+
+  static boolean messageClassesOverlap(Class<?> messageClass, Class<?> otherMessageClass) {
+    // An instance of a class may implement any interface, so be conservative
+    boolean overlap = messageClass.isInterface() || otherMessageClass.isInterface()
+      || messageClass.isAssignableFrom(otherMessageClass) || otherMessageClass.isAssignableFrom(messageClass);
+    return overlap;
+  }
+
+  /**
+   * An interruptable step can't react if an interrupting step can react to the
+   * interruptable step's message class. So if the interrupting step's message
+   * class is the same or a superclass, the interruptable step never reacts when
+   * the interrupting step could react as well.
+   */
+  private boolean interruptsForAllMessages(Step interruptingStep, Step interruptableStep) {
+    if (!InterruptingFlowStep.class.equals(interruptingStep.getClass())
+      || !InterruptableFlowStep.class.equals(interruptableStep.getClass())) {
+      return false;
+    }
+
+    return StepMatching.handles(interruptingStep.getMessageClass(), interruptableStep.getMessageClass());
+  }
+
+  private boolean reactAfterDifferentSteps(Step step, Step otherStep) {
+    List<AfterSingleStep> afterSteps = StepMatching.afterStepsOf(step);
+    List<AfterSingleStep> otherAfterSteps = StepMatching.afterStepsOf(otherStep);
+    if (afterSteps == null || otherAfterSteps == null) {
+      return false;
+    }
+
+    for (AfterSingleStep afterSingleStep : afterSteps) {
+      for (AfterSingleStep otherAfterSingleStep : otherAfterSteps) {
+        if (afterSingleStep.getStep() == otherAfterSingleStep.getStep()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean haveDifferentActors(Step step, Step otherStep) {
+    AbstractActor[] actors = step.getActors();
+    AbstractActor[] otherActors = otherStep.getActors();
+    if (actors == null || otherActors == null || hasDefaultActor(actors) || hasDefaultActor(otherActors)) {
+      return false;
+    }
+
+    for (AbstractActor actor : actors) {
+      for (AbstractActor otherActor : otherActors) {
+        if (actor.equals(otherActor)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean hasDefaultActor(AbstractActor[] actors) {
+    for (AbstractActor actor : actors) {
+      if (actor.equals(model.getUserActor()) || actor.equals(model.getSystemActor())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the steps that a step needs to be compared with. Two steps that both
+   * react after different steps are mutually exclusive, so they don't need to be
+   * compared. That way, the analysis of a model whose steps mostly react after
+   * their previous step takes time in proportion to the number of steps, not its
+   * square.
+   */
+  private class CandidateSteps {
+    private final int numberOfSteps;
+    private final boolean[] reactsAfterSteps;
+    private final Map<Step, List<Integer>> stepIndexesAfterStep;
+    private final List<Integer> indexesOfOtherSteps;
+    private final List<List<AfterSingleStep>> afterStepsOfSteps;
+
+    private CandidateSteps(List<Step> steps) {
+      this.numberOfSteps = steps.size();
+      this.reactsAfterSteps = new boolean[numberOfSteps];
+      this.stepIndexesAfterStep = new IdentityHashMap<>();
+      this.indexesOfOtherSteps = new ArrayList<>();
+      this.afterStepsOfSteps = new ArrayList<>(numberOfSteps);
+
+      for (int i = 0; i < numberOfSteps; i++) {
+        List<AfterSingleStep> afterSteps = StepMatching.afterStepsOf(steps.get(i));
+        afterStepsOfSteps.add(afterSteps);
+        if (afterSteps != null) {
+          reactsAfterSteps[i] = true;
+          for (AfterSingleStep afterSingleStep : afterSteps) {
+            stepIndexesAfterStep.computeIfAbsent(afterSingleStep.getStep(), s -> new ArrayList<>()).add(i);
+          }
+        } else {
+          indexesOfOtherSteps.add(i);
+        }
+      }
+    }
+
+    /**
+     * Returns the indexes of the steps after the specified step index that the
+     * step needs to be compared with, in ascending order.
+     */
+    private int[] after(int i) {
+      if (!reactsAfterSteps[i]) {
+        int[] allStepsAfter = new int[numberOfSteps - i - 1];
+        for (int j = 0; j < allStepsAfter.length; j++) {
+          allStepsAfter[j] = i + 1 + j;
+        }
+        return allStepsAfter;
+      }
+
+      List<Integer> candidates = new ArrayList<>();
+      addIndexesAfter(i, indexesOfOtherSteps, candidates);
+      for (AfterSingleStep afterSingleStep : afterStepsOfSteps.get(i)) {
+        addIndexesAfter(i, stepIndexesAfterStep.get(afterSingleStep.getStep()), candidates);
+      }
+      return candidates.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+    }
+
+    private void addIndexesAfter(int i, List<Integer> indexes, List<Integer> candidates) {
+      for (int index : indexes) {
+        if (index > i) {
+          candidates.add(index);
+        }
+      }
+    }
+  }
+}
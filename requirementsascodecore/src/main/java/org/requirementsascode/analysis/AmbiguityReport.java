@@ -0,0 +1,75 @@
+package org.requirementsascode.analysis;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.requirementsascode.Step;
+
+/**
+ * The result of an {@link AmbiguityAnalysis} of a model.
+ *
+ * <p>
+ * The report tells which steps are exclusive, i.e. no other step can react to a
+ * message at the same time. It also lists the pairs of steps that may both be
+ * able to react to the same message, depending on their conditions.
+ *
+ * @author b_muth
+ */
+public class AmbiguityReport {
+  private final Set<Step> exclusiveSteps;
+  private final List<Ambiguity> ambiguities;
+  private final int numberOfAnalyzedSteps;
+
+  AmbiguityReport(Set<Step> exclusiveSteps, List<Ambiguity> ambiguities, int numberOfAnalyzedSteps) {
+    this.exclusiveSteps = exclusiveSteps;
+    this.ambiguities = Collections.unmodifiableList(ambiguities);
+    this.numberOfAnalyzedSteps = numberOfAnalyzedSteps;
+  }
+
+  /**
+   * Returns whether the specified step is exclusive. If such a step can react to
+   * a message, no other step of the model can react to it at the same time.
+   *
+   * @param step the step to check
+   * @return true if the step has been analyzed and is exclusive, false otherwise
+   */
+  public boolean isExclusive(Step step) {
+    return exclusiveSteps.contains(step);
+  }
+
+  /**
+   * Returns the pairs of steps that may both be able to react to the same
+   * message.
+   *
+   * @return the potential ambiguities, in the order of the steps in the model
+   */
+  public List<Ambiguity> getAmbiguities() {
+    return ambiguities;
+  }
+
+  public boolean hasAmbiguities() {
+    return !ambiguities.isEmpty();
+  }
+
+  /**
+   * Returns the number of steps the model had when it has been analyzed. If
+   * steps have been added to the model since then, the report is outdated.
+   *
+   * @return the number of analyzed steps
+   */
+  public int getNumberOfAnalyzedSteps() {
+    return numberOfAnalyzedSteps;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder report = new StringBuilder();
+    report.append(exclusiveSteps.size()).append(" of ").append(numberOfAnalyzedSteps)
+      .append(" steps are exclusive, ").append(ambiguities.size()).append(" potential ambiguities");
+    for (Ambiguity ambiguity : ambiguities) {
+      report.append(System.lineSeparator()).append("  ").append(ambiguity);
+    }
+    return report.toString();
+  }
+}
@@ -0,0 +1,62 @@
+package org.requirementsascode.analysis;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.Step;
+
+/**
+ * A cycle that is caused by a step that continues at a step before it, and that
+ * contains no step with a <code>reactWhile</code> condition.
+ *
+ * @author b_muth
+ */
+public class ContinuesAtCycle {
+  private final Step continuesAtStep;
+  private final List<Step> steps;
+
+  ContinuesAtCycle(Step continuesAtStep, List<Step> steps) {
+    this.continuesAtStep = continuesAtStep;
+    this.steps = Collections.unmodifiableList(steps);
+  }
+
+  /**
+   * Returns the step that continues at the first step of the cycle.
+   * 
+   * @return the continuesAt step
+   */
+  public Step getContinuesAtStep() {
+    return continuesAtStep;
+  }
+
+  /**
+   * Returns the steps of the cycle, in the order the runner runs them. The
+   * first step is the one that is continued at, the last step is the
+   * continuesAt step.
+   * 
+   * @return the steps of the cycle
+   */
+  public List<Step> getSteps() {
+    return steps;
+  }
+
+  /**
+   * Returns whether all steps of the cycle are autonomous system reactions. If
+   * none of their conditions stops the cycle, the runner repeats it infinitely
+   * without receiving any message.
+   * 
+   * @return true if the cycle is autonomous, false otherwise
+   */
+  public boolean isAutonomous() {
+    return steps.stream().allMatch(step -> ModelRunner.class.equals(step.getMessageClass()));
+  }
+
+  @Override
+  public String toString() {
+    String cycle = steps.stream().map(step -> "\"" + step.getName() + "\"").collect(Collectors.joining(" -> "));
+    String autonomous = isAutonomous() ? " (autonomous)" : "";
+    return cycle + " -> \"" + steps.get(0).getName() + "\"" + autonomous;
+  }
+}
@@ -0,0 +1,49 @@
+package org.requirementsascode.analysis;
+
+/**
+ * The cost of dispatching a message of a certain class, as determined by the
+ * {@link ModelAnalyzer}.
+ *
+ * @author b_muth
+ */
+public class DispatchCost {
+  private final Class<?> messageClass;
+  private final int numberOfCandidateSteps;
+  private final int worstCaseNumberOfPredicateEvaluations;
+
+  DispatchCost(Class<?> messageClass, int numberOfCandidateSteps, int worstCaseNumberOfPredicateEvaluations) {
+    this.messageClass = messageClass;
+    this.numberOfCandidateSteps = numberOfCandidateSteps;
+    this.worstCaseNumberOfPredicateEvaluations = worstCaseNumberOfPredicateEvaluations;
+  }
+
+  public Class<?> getMessageClass() {
+    return messageClass;
+  }
+
+  /**
+   * Returns the number of steps whose message class is the same or a superclass
+   * of the message class.
+   * 
+   * @return the number of steps whose predicates are evaluated
+   */
+  public int getNumberOfCandidateSteps() {
+    return numberOfCandidateSteps;
+  }
+
+  /**
+   * Returns the number of step predicates the runner evaluates at most, to find
+   * the step that reacts to a message of the message class.
+   * 
+   * @return the worst case number of predicate evaluations
+   */
+  public int getWorstCaseNumberOfPredicateEvaluations() {
+    return worstCaseNumberOfPredicateEvaluations;
+  }
+
+  @Override
+  public String toString() {
+    return messageClass.getSimpleName() + ": " + numberOfCandidateSteps + " candidate steps, "
+      + worstCaseNumberOfPredicateEvaluations + " predicate evaluations at most";
+  }
+}
@@ -0,0 +1,125 @@
+package org.requirementsascode.analysis;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.requirementsascode.Flow;
+import org.requirementsascode.Step;
+
+/**
+ * The findings of the {@link ModelAnalyzer}.
+ *
+ * @author b_muth
+ */
+public class ModelAnalysisReport {
+  private final List<Step> unreachableSteps;
+  private final List<Flow> flowsAfterUnreachableSteps;
+  private final List<ContinuesAtCycle> continuesAtCycles;
+  private final List<DispatchCost> dispatchCosts;
+
+  ModelAnalysisReport(List<Step> unreachableSteps, List<Flow> flowsAfterUnreachableSteps,
+    List<ContinuesAtCycle> continuesAtCycles, List<DispatchCost> dispatchCosts) {
+    this.unreachableSteps = Collections.unmodifiableList(unreachableSteps);
+    this.flowsAfterUnreachableSteps = Collections.unmodifiableList(flowsAfterUnreachableSteps);
+    this.continuesAtCycles = Collections.unmodifiableList(continuesAtCycles);
+    this.dispatchCosts = Collections.unmodifiableList(dispatchCosts);
+  }
+
+  /**
+   * Returns the steps that can never react, no matter which messages the runner
+   * receives, and no matter the results of the conditions.
+   * 
+   * @return the unreachable steps, in the order of the model
+   */
+  public List<Step> getUnreachableSteps() {
+    return unreachableSteps;
+  }
+
+  /**
+   * Returns the flows that start after steps the runner is never positioned
+   * after. Either the steps are unreachable, or they continue after a different
+   * step.
+   * 
+   * @return the flows that can never start
+   */
+  public List<Flow> getFlowsAfterUnreachableSteps() {
+    return flowsAfterUnreachableSteps;
+  }
+
+  /**
+   * Returns the cycles caused by continuesAt steps that don't contain a step
+   * with a <code>reactWhile</code> condition.
+   * 
+   * @return the cycles
+   */
+  public List<ContinuesAtCycle> getContinuesAtCycles() {
+    return continuesAtCycles;
+  }
+
+  /**
+   * Returns the dispatch cost for each message class handled by a step.
+   * 
+   * @return the costs, in the order the message classes occur in the model
+   */
+  public List<DispatchCost> getDispatchCosts() {
+    return dispatchCosts;
+  }
+
+  /**
+   * Returns the worst case number of predicate evaluations for dispatching a
+   * message of the specified class.
+   * 
+   * @param messageClass the class of messages, as used by a step of the model
+   * @return the number of evaluations, or 0 if no step handles the class
+   */
+  public int getWorstCaseNumberOfPredicateEvaluations(Class<?> messageClass) {
+    Objects.requireNonNull(messageClass);
+    return dispatchCosts.stream()
+      .filter(cost -> messageClass.equals(cost.getMessageClass()))
+      .mapToInt(DispatchCost::getWorstCaseNumberOfPredicateEvaluations)
+      .findFirst().orElse(0);
+  }
+
+  /**
+   * Returns the highest worst case number of predicate evaluations of all
+   * message classes.
+   * 
+   * @return the number of evaluations, or 0 if the model has no steps
+   */
+  public int getMaximumNumberOfPredicateEvaluations() {
+    return dispatchCosts.stream()
+      .mapToInt(DispatchCost::getWorstCaseNumberOfPredicateEvaluations)
+      .max().orElse(0);
+  }
+
+  /**
+   * Returns whether the analyzer found unreachable steps, flows that can never
+   * start, or continuesAt cycles.
+   * 
+   * @return true if there are findings, false otherwise
+   */
+  public boolean hasFindings() {
+    return !unreachableSteps.isEmpty() || !flowsAfterUnreachableSteps.isEmpty() || !continuesAtCycles.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder report = new StringBuilder();
+    appendSection(report, "Unreachable steps", unreachableSteps);
+    appendSection(report, "Flows after unreachable steps", flowsAfterUnreachableSteps);
+    appendSection(report, "ContinuesAt cycles without reactWhile", continuesAtCycles);
+    appendSection(report, "Dispatch costs", dispatchCosts);
+    return report.toString();
+  }
+
+  private void appendSection(StringBuilder report, String title, List<?> findings) {
+    if (report.length() > 0) {
+      report.append(System.lineSeparator());
+    }
+    report.append(title).append(": ").append(findings.size());
+    for (Object finding : findings) {
+      report.append(System.lineSeparator()).append("  ").append(finding);
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package org.requirementsascode.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.requirementsascode.Flow;
+import org.requirementsascode.FlowStep;
+import org.requirementsascode.InterruptableFlowStep;
+import org.requirementsascode.InterruptingFlowStep;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.SystemReaction;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.flowposition.After;
+import org.requirementsascode.flowposition.AfterSingleStep;
+import org.requirementsascode.flowposition.FlowPosition;
+import org.requirementsascode.systemreaction.AbstractContinuesAfter;
+import org.requirementsascode.systemreaction.ContinuesAt;
+
+/**
+ * Walks a built model, without running it, and reports findings that hint at
+ * modeling errors, as well as the cost of dispatching messages.
+ *
+ * <p>
+ * The analyzer determines the positions the model runner can reach, i.e. the
+ * latest steps that can have been run. It starts before any step has been run,
+ * and assumes that each condition can be true. So a step that is reported as
+ * unreachable can never react, while a reachable step may still never react
+ * because of its conditions.
+ *
+ * <p>
+ * The dispatch cost is the number of step predicates that the runner evaluates
+ * in the worst case for a message of a certain class, including the predicates
+ * of interrupting steps that are evaluated to find out whether a step is
+ * interrupted. Use it e.g. in a test to make sure a model doesn't get slow.
+ *
+ * @author b_muth
+ */
+public class ModelAnalyzer {
+  private final Model model;
+  private final List<Step> steps;
+
+  private ModelAnalyzer(Model model) {
+    this.model = Objects.requireNonNull(model);
+    this.steps = new ArrayList<>(model.getSteps());
+  }
+
+  /**
+   * Analyzes the specified model. Call this method after the model has been
+   * built.
+   *
+   * @param model the model to analyze
+   * @return the report containing the findings
+   */
+  public static ModelAnalysisReport analyze(Model model) {
+    ModelAnalyzer analyzer = new ModelAnalyzer(model);
+    return analyzer.analyze();
+  }
+
+  private ModelAnalysisReport analyze() {
+    StepMatching.resolveFlowPositionsOf(steps);
+
+    Set<Step> reachableSteps = newIdentitySet();
+    Set<Step> reachablePositions = newIdentitySet();
+    determineReachable(reachableSteps, reachablePositions);
+
+    List<Step> unreachableSteps = unreachableSteps(reachableSteps);
+    List<Flow> flowsAfterUnreachableSteps = flowsAfterUnreachableSteps(reachablePositions);
+    List<ContinuesAtCycle> continuesAtCycles = continuesAtCyclesWithoutReactWhile();
+    List<DispatchCost> dispatchCosts = dispatchCosts();
+
+    return new ModelAnalysisReport(unreachableSteps, flowsAfterUnreachableSteps, continuesAtCycles, dispatchCosts);
+  }
+
+  /**
+   * A position is the latest step run, or null before any step has been run.
+   */
+  private void determineReachable(Set<Step> reachableSteps, Set<Step> reachablePositions) {
+    List<Step> positionsToVisit = new ArrayList<>();
+    positionsToVisit.add(null);
+    reachablePositions.add(null);
+
+    for (int i = 0; i < positionsToVisit.size(); i++) {
+      Step position = positionsToVisit.get(i);
+      for (Step step : stepsThatCanReactAt(position)) {
+        reachableSteps.add(step);
+        Step nextPosition = positionAfter(step);
+        if (reachablePositions.add(nextPosition)) {
+          positionsToVisit.add(nextPosition);
+        }
+      }
+    }
+  }
+
+  private List<Step> stepsThatCanReactAt(Step position) {
+    List<Step> stepsThatCanReact = new ArrayList<>();
+    for (Step step : steps) {
+      if (StepMatching.canReactAfter(step, position)) {
+        stepsThatCanReact.add(step);
+      }
+    }
+    return stepsThatCanReact;
+  }
+
+  private Step positionAfter(Step step) {
+    Object modelObject = modelObjectOf(step);
+    Step position = step;
+    if (modelObject instanceof AbstractContinuesAfter) {
+      position = ((AbstractContinuesAfter) modelObject).resolvePreviousStep();
+    }
+    return position;
+  }
+
+  private List<Step> unreachableSteps(Set<Step> reachableSteps) {
+    List<Step> unreachableSteps = new ArrayList<>();
+    for (Step step : steps) {
+      if (!reachableSteps.contains(step)) {
+        unreachableSteps.add(step);
+      }
+    }
+    return unreachableSteps;
+  }
+
+  private List<Flow> flowsAfterUnreachableSteps(Set<Step> reachablePositions) {
+    List<Flow> flowsAfterUnreachableSteps = new ArrayList<>();
+    for (UseCase useCase : model.getUseCases()) {
+      for (Flow flow : useCase.getFlows()) {
+        FlowPosition flowPosition = flow.getFlowPosition();
+        if (flowPosition instanceof After && !isAfterAnyOf(flowPosition, reachablePositions)) {
+          flowsAfterUnreachableSteps.add(flow);
+        }
+      }
+    }
+    return flowsAfterUnreachableSteps;
+  }
+
+  private boolean isAfterAnyOf(FlowPosition flowPosition, Set<Step> positions) {
+    for (AfterSingleStep afterSingleStep : flowPosition.getAfterForEachSingleStep()) {
+      if (positions.contains(afterSingleStep.getStep())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private List<ContinuesAtCycle> continuesAtCyclesWithoutReactWhile() {
+    List<ContinuesAtCycle> continuesAtCycles = new ArrayList<>();
+    for (Step step : steps) {
+      Object modelObject = modelObjectOf(step);
+      if (modelObject instanceof ContinuesAt) {
+        String continueAtStepName = ((ContinuesAt<?>) modelObject).getStepName();
+        Step continueAtStep = step.getUseCase().findStep(continueAtStepName);
+        List<Step> cycle = shortestPath(continueAtStep, step);
+        if (!cycle.isEmpty() && !hasReactWhile(cycle)) {
+          continuesAtCycles.add(new ContinuesAtCycle(step, cycle));
+        }
+      }
+    }
+    return continuesAtCycles;
+  }
+
+  /**
+   * Returns the steps the runner can run one after the other, from the first to
+   * the last specified step (both included), or an empty list if there is no
+   * such path.
+   */
+  private List<Step> shortestPath(Step firstStep, Step lastStep) {
+    Map<Step, Step> predecessors = new IdentityHashMap<>();
+    List<Step> stepsToVisit = new ArrayList<>();
+    stepsToVisit.add(firstStep);
+    predecessors.put(firstStep, firstStep);
+
+    for (int i = 0; i < stepsToVisit.size() && !predecessors.containsKey(lastStep); i++) {
+      Step step = stepsToVisit.get(i);
+      for (Step nextStep : stepsThatCanReactAt(positionAfter(step))) {
+        if (!predecessors.containsKey(nextStep)) {
+          predecessors.put(nextStep, step);
+          stepsToVisit.add(nextStep);
+        }
+      }
+    }
+
+    List<Step> path = new ArrayList<>();
+    if (predecessors.containsKey(lastStep)) {
+      for (Step step = lastStep; step != firstStep; step = predecessors.get(step)) {
+        path.add(step);
+      }
+      path.add(firstStep);
+      Collections.reverse(path);
+    }
+    return path;
+  }
+
+  private boolean hasReactWhile(List<Step> cycle) {
+    for (Step step : cycle) {
+      if (step instanceof FlowStep && ((FlowStep) step).getReactWhile() != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private List<DispatchCost> dispatchCosts() {
+    Set<Class<?>> messageClasses = new LinkedHashSet<>();
+    for (Step step : steps) {
+      if (step.getMessageClass() != null) {
+        messageClasses.add(step.getMessageClass());
+      }
+    }
+
+    List<DispatchCost> dispatchCosts = new ArrayList<>();
+    for (Class<?> messageClass : messageClasses) {
+      dispatchCosts.add(dispatchCostOf(messageClass));
+    }
+    return dispatchCosts;
+  }
+
+  private DispatchCost dispatchCostOf(Class<?> messageClass) {
+    int numberOfCandidateSteps = 0;
+    int numberOfPredicateEvaluations = 0;
+    for (Step step : steps) {
+      if (canHandle(step, messageClass)) {
+        numberOfCandidateSteps++;
+        numberOfPredicateEvaluations += 1 + numberOfInterruptingStepsEvaluatedBy(step);
+      }
+    }
+    return new DispatchCost(messageClass, numberOfCandidateSteps, numberOfPredicateEvaluations);
+  }
+
+  private int numberOfInterruptingStepsEvaluatedBy(Step step) {
+    int numberOfInterruptingSteps = 0;
+    if (InterruptableFlowStep.class.equals(step.getClass())) {
+      for (Step otherStep : steps) {
+        if (InterruptingFlowStep.class.equals(otherStep.getClass()) && canHandle(otherStep, step.getMessageClass())) {
+          numberOfInterruptingSteps++;
+        }
+      }
+    }
+    return numberOfInterruptingSteps;
+  }
+
+  private boolean canHandle(Step step, Class<?> messageClass) {
+    Class<?> stepMessageClass = step.getMessageClass();
+    return stepMessageClass != null && StepMatching.handles(stepMessageClass, messageClass);
+  }
+
+  private Object modelObjectOf(Step step) {
+    SystemReaction<?> systemReaction = step.getSystemReaction();
+    return systemReaction == null ? null : systemReaction.getModelObject();
+  }
+
+  private static Set<Step> newIdentitySet() {
+    return Collections.newSetFromMap(new IdentityHashMap<>());
+  }
+}
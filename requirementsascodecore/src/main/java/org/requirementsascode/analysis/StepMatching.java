@@ -0,0 +1,109 @@
+package org.requirementsascode.analysis;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.requirementsascode.FlowStep;
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.Step;
+import org.requirementsascode.flowposition.After;
+import org.requirementsascode.flowposition.AfterSingleStep;
+import org.requirementsascode.flowposition.FlowPosition;
+import org.requirementsascode.flowposition.InsteadOf;
+
+/**
+ * The rules that decide which messages a step handles, and after which steps
+ * it can react. The model runner and the analyses share them, so that the
+ * analyses can't drift from what the runner does.
+ *
+ * @author b_muth
+ */
+public final class StepMatching {
+  private static final Class<?> SYSTEM_EVENT_CLASS = ModelRunner.class;
+
+  private StepMatching() {
+  }
+
+  /**
+   * Returns whether a step with the specified message class handles messages of
+   * the specified class, i.e. the step's message class is the same class, a
+   * superclass or an interface of it. Only steps of system events handle system
+   * events, i.e. autonomous system reactions.
+   *
+   * @param stepMessageClass the message class of the step
+   * @param messageClass     the runtime class of the message
+   * @return true if the step handles the messages, false otherwise
+   */
+  public static boolean handles(Class<?> stepMessageClass, Class<?> messageClass) {
+    boolean handles = SYSTEM_EVENT_CLASS.equals(messageClass) ? SYSTEM_EVENT_CLASS.equals(stepMessageClass)
+      : stepMessageClass.isAssignableFrom(messageClass);
+    return handles;
+  }
+
+  /**
+   * Resolves the steps the flow positions of the specified steps refer to.
+   *
+   * @param steps the steps
+   */
+  public static void resolveFlowPositionsOf(Collection<Step> steps) {
+    for (Step step : steps) {
+      FlowPosition flowPosition = flowPositionOf(step);
+      if (flowPosition instanceof After || flowPosition instanceof InsteadOf) {
+        flowPosition.resolveSteps();
+      }
+    }
+  }
+
+  /**
+   * Returns the predicates for the steps after which the specified step can
+   * react, or null if the step may react after any step. A flow step that
+   * starts a flow instead of another step reacts after the same steps as the
+   * other step. Call it after the flow positions have been resolved.
+   *
+   * @param step the step
+   * @return the predicates, or null
+   */
+  public static List<AfterSingleStep> afterStepsOf(Step step) {
+    FlowPosition flowPosition = flowPositionOf(step);
+    Set<FlowPosition> visitedFlowPositions = null;
+    while (flowPosition instanceof InsteadOf) {
+      if (visitedFlowPositions == null) {
+        visitedFlowPositions = Collections.newSetFromMap(new IdentityHashMap<>());
+      }
+      if (!visitedFlowPositions.add(flowPosition)) {
+        return null;
+      }
+      FlowStep insteadOfStep = ((InsteadOf) flowPosition).getStep();
+      flowPosition = insteadOfStep == null ? null : insteadOfStep.getFlowPosition();
+    }
+    return flowPosition instanceof After ? flowPosition.getAfterForEachSingleStep() : null;
+  }
+
+  /**
+   * Returns whether the specified step can react if the specified step has been
+   * run last, not taking conditions into account.
+   *
+   * @param step       the step
+   * @param latestStep the step run last, or null before any step has been run
+   * @return true if the step can react, false otherwise
+   */
+  public static boolean canReactAfter(Step step, Step latestStep) {
+    List<AfterSingleStep> afterSteps = afterStepsOf(step);
+    if (afterSteps == null) {
+      return true;
+    }
+    for (AfterSingleStep afterSingleStep : afterSteps) {
+      if (afterSingleStep.getStep() == latestStep) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static FlowPosition flowPositionOf(Step step) {
+    return step instanceof FlowStep ? ((FlowStep) step).getFlowPosition() : null;
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Analysis package of requirementsascode, containing classes that analyze a
+ * model without running it.
+ * 
+ * @author b_muth
+ */
+package org.requirementsascode.analysis;
@@ -4,6 +4,7 @@ import static org.requirementsascode.builder.FlowlessConditionPart.flowlessCondi
 import static org.requirementsascode.builder.FlowlessToPart.flowlessToPart;
 
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -60,6 +61,14 @@ public class FlowlessSystemPart<T> {
 		return new FlowlessSystemPart<>(useCasePart, stepSystemPart, flowlessStepCounter);
 	}
 
+	static <T> FlowlessSystemPart<T> flowlessSystemPartWithAsyncFunction(StepUserPart<T> stepUserPart,
+		Function<? super T, ? extends CompletionStage<?>> systemReaction, long flowlessStepCounter) {
+		StepSystemPart<T> stepSystemPart = stepUserPart.systemAsync(systemReaction);
+		StepPart stepPart = stepSystemPart.getStepPart();
+		UseCasePart useCasePart = stepPart.getUseCasePart();
+		return new FlowlessSystemPart<>(useCasePart, stepSystemPart, flowlessStepCounter);
+	}
+
 	/**
 	 * Constrains the condition for triggering a system reaction: only if the
 	 * specified condition is true, a system reaction can be triggered.
@@ -153,4 +162,14 @@ public class FlowlessSystemPart<T> {
 	public Model build() {
 		return useCasePart.build();
 	}
+
+	/**
+	 * Returns the model built so far, without resolving its use cases and without
+	 * analyzing it. See {@link ModelBuilder#buildLazily()}.
+	 *
+	 * @return the model
+	 */
+	public Model buildLazily() {
+		return useCasePart.buildLazily();
+	}
 }
\ No newline at end of file
@@ -105,4 +105,14 @@ public class FlowlessToPart {
 	public Model build() {
 		return useCasePart.build();
 	}
+
+	/**
+	 * Returns the model built so far, without resolving its use cases and without
+	 * analyzing it. See {@link ModelBuilder#buildLazily()}.
+	 *
+	 * @return the model
+	 */
+	public Model buildLazily() {
+		return useCasePart.buildLazily();
+	}
 }
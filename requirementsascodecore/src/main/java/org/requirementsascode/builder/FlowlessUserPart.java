@@ -1,11 +1,13 @@
 package org.requirementsascode.builder;
 
+import static org.requirementsascode.builder.FlowlessSystemPart.flowlessSystemPartWithAsyncFunction;
 import static org.requirementsascode.builder.FlowlessSystemPart.flowlessSystemPartWithConsumer;
 import static org.requirementsascode.builder.FlowlessSystemPart.flowlessSystemPartWithFunction;
 import static org.requirementsascode.builder.FlowlessSystemPart.flowlessSystemPartWithRunnable;
 import static org.requirementsascode.builder.FlowlessSystemPart.flowlessSystemPartWithSupplier;
 
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -93,4 +95,24 @@ public class FlowlessUserPart<T> {
       flowlessStepCounter);
     return flowlessSystemPart;
   }
+
+  /**
+   * Defines an asynchronous system reaction. The system will react as specified
+   * to the message passed in, when you call {@link ModelRunner#reactTo(Object)}.
+   * The runner then suspends until the returned stage completes, without
+   * blocking the calling thread. Messages the runner receives in the meantime
+   * are buffered. When the stage completes, the runner publishes its result (if
+   * not null), continues with autonomous system reactions and reacts to the
+   * buffered messages.
+   *
+   * @param systemReaction the specified system reaction, that returns a stage
+   *                       whose result will be published.
+   * @return the created flowless system part
+   * @see ModelRunner#whenResumed()
+   */
+  public FlowlessSystemPart<T> systemAsync(Function<? super T, ? extends CompletionStage<?>> systemReaction) {
+    FlowlessSystemPart<T> flowlessSystemPart = flowlessSystemPartWithAsyncFunction(stepUserPart, systemReaction,
+      flowlessStepCounter);
+    return flowlessSystemPart;
+  }
 }
@@ -2,14 +2,11 @@ package org.requirementsascode.builder;
 
 import static org.requirementsascode.builder.UseCasePart.useCasePart;
 
+import java.util.Objects;
+
 import org.requirementsascode.Condition;
-import org.requirementsascode.Flow;
 import org.requirementsascode.Model;
-import org.requirementsascode.Step;
-import org.requirementsascode.SystemReaction;
-import org.requirementsascode.flowposition.FlowPosition;
-import org.requirementsascode.systemreaction.AbstractContinuesAfter;
-import org.requirementsascode.systemreaction.ContinuesAt;
+import org.requirementsascode.UseCase;
 
 /**
  * Class that builds a {@link Model}, in a fluent way.
@@ -20,9 +17,29 @@ public class ModelBuilder {
 	private static final String HANDLES_MESSAGES = "Handles messages";
 
 	private Model model;
+	private final Runnable resolution;
 
+	/**
+	 * Creates a builder that adds to the specified model. When the model is
+	 * built, its use cases are resolved, but it isn't analyzed for ambiguity. Use
+	 * {@link Model#builder()} to create a new model that is analyzed.
+	 * 
+	 * @param model the model
+	 */
 	public ModelBuilder(Model model) {
-		this.model = model;
+		this(model, () -> model.getUseCases().forEach(UseCase::resolve));
+	}
+
+	/**
+	 * Creates a builder that adds to the specified model, and runs the specified
+	 * resolution when the model is built.
+	 * 
+	 * @param model      the model
+	 * @param resolution resolves the model when it is built
+	 */
+	public ModelBuilder(Model model, Runnable resolution) {
+		this.model = Objects.requireNonNull(model);
+		this.resolution = Objects.requireNonNull(resolution);
 	}
 
 	/**
@@ -97,44 +114,33 @@ public class ModelBuilder {
 
 	/**
 	 * Returns the model built so far.
+	 * 
+	 * <p>
+	 * As a side effect, the model is analyzed for steps that may both react to
+	 * the same message. See {@link Model#getAmbiguityReport()}.
 	 *
 	 * @return the model
 	 */
 	public Model build() {
 	  // This is done lazily, only when building, to enable forward references (#92)
-	  resolveFlowPositions();
-	  resolveContinuesAfter();
-	  resolveContinuesAt();
+	  resolution.run();
 		return getModel();
 	}
 
-  private void resolveFlowPositions() {
-    model.getUseCases().stream()
-	    .flatMap(uc -> uc.getFlows().stream())
-	    .map(Flow::getFlowPosition)
-	    .filter(fp -> fp != null)
-	    .forEach(FlowPosition::resolveSteps);
-  }
-  
-  private void resolveContinuesAfter() {
-    model.getUseCases().stream()
-      .flatMap(uc -> uc.getSteps().stream())
-      .map(Step::getSystemReaction)
-      .filter(sr -> sr != null)
-      .map(SystemReaction::getModelObject)
-      .filter(obj -> obj instanceof AbstractContinuesAfter)
-      .map(obj -> (AbstractContinuesAfter)obj)
-      .forEach(AbstractContinuesAfter::resolvePreviousStep);
-  }
-  
-  private void resolveContinuesAt() {
-    model.getUseCases().stream()
-      .flatMap(uc -> uc.getSteps().stream())
-      .map(Step::getSystemReaction)
-      .filter(sr -> sr != null)
-      .map(SystemReaction::getModelObject)
-      .filter(obj -> obj instanceof ContinuesAt)
-      .map(obj -> (ContinuesAt<?>)obj)
-      .forEach(ContinuesAt::resolveContinueAtStep);
-  }
+	/**
+	 * Returns the model built so far, without resolving its use cases and without
+	 * analyzing it. Instead, a model runner resolves each use case before one of
+	 * its steps reacts for the first time. This keeps the cost of building
+	 * small for models with many use cases, of which only some are used.
+	 * 
+	 * <p>
+	 * As a consequence, an unknown step name (e.g. in continuesAt) is only
+	 * detected when the use case is first used, and the model has no ambiguity
+	 * report, so the runner checks all matching steps for each message.
+	 *
+	 * @return the model
+	 */
+	public Model buildLazily() {
+		return getModel();
+	}
 }
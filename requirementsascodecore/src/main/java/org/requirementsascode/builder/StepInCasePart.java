@@ -1,10 +1,12 @@
 package org.requirementsascode.builder;
 
+import static org.requirementsascode.builder.StepSystemPart.stepSystemPartWithAsyncFunction;
 import static org.requirementsascode.builder.StepSystemPart.stepSystemPartWithConsumer;
 import static org.requirementsascode.builder.StepSystemPart.stepSystemPartWithFunction;
 import static org.requirementsascode.builder.StepSystemPart.stepSystemPartWithRunnable;
 import static org.requirementsascode.builder.StepSystemPart.stepSystemPartWithSupplier;
 
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -72,6 +74,24 @@ public class StepInCasePart<T> {
     return stepSystemPartWithSupplier(systemReaction, stepPart);
   }
 
+  /**
+   * Defines an asynchronous system reaction. The system will react as specified
+   * to the message passed in, when you call {@link ModelRunner#reactTo(Object)}.
+   * The runner then suspends until the returned stage completes, without
+   * blocking the calling thread. Messages the runner receives in the meantime
+   * are buffered. When the stage completes, the runner publishes its result (if
+   * not null), continues with autonomous system reactions and reacts to the
+   * buffered messages.
+   *
+   * @param systemReaction the specified system reaction, that returns a stage
+   *                       whose result will be published.
+   * @return the created system part of this step
+   * @see ModelRunner#whenResumed()
+   */
+  public StepSystemPart<T> systemAsync(Function<? super T, ? extends CompletionStage<?>> systemReaction) {
+    return stepSystemPartWithAsyncFunction(systemReaction, stepPart);
+  }
+
   /**
    * Creates a new step in this flow, with the specified name, that follows the
    * the step before in sequence. The step before this step has no system reaction,
@@ -4,6 +4,7 @@ import static org.requirementsascode.builder.StepPart.interruptableFlowStepPart;
 import static org.requirementsascode.builder.StepToPart.stepToPart;
 
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -48,6 +49,11 @@ public class StepSystemPart<T> {
 		stepPart.getStep().setSystemReaction(systemReaction);
 		return new StepSystemPart<>(stepPart);
 	}
+	
+	static <T> StepSystemPart<T> stepSystemPartWithAsyncFunction(Function<? super T, ? extends CompletionStage<?>> systemReaction, StepPart stepPart) {
+		stepPart.getStep().setAsyncSystemReaction(systemReaction);
+		return new StepSystemPart<>(stepPart);
+	}
 
 	/**
 	 * Creates a new step in this flow, with the specified name, that follows the
@@ -136,4 +142,14 @@ public class StepSystemPart<T> {
 	public Model build() {
 		return stepPart.getModelBuilder().build();
 	}
+
+	/**
+	 * Returns the model built so far, without resolving its use cases and without
+	 * analyzing it. See {@link ModelBuilder#buildLazily()}.
+	 *
+	 * @return the model
+	 */
+	public Model buildLazily() {
+		return stepPart.getModelBuilder().buildLazily();
+	}
 }
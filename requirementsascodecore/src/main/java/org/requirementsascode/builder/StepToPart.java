@@ -94,4 +94,14 @@ public class StepToPart<T> {
 	public Model build() {
 		return stepPart.getModelBuilder().build();
 	}
+
+	/**
+	 * Returns the model built so far, without resolving its use cases and without
+	 * analyzing it. See {@link ModelBuilder#buildLazily()}.
+	 *
+	 * @return the model
+	 */
+	public Model buildLazily() {
+		return stepPart.getModelBuilder().buildLazily();
+	}
 }
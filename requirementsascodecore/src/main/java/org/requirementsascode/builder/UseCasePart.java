@@ -135,6 +135,16 @@ public class UseCasePart {
 		return modelBuilder.build();
 	}
 
+	/**
+	 * Returns the model built so far, without resolving its use cases and without
+	 * analyzing it. See {@link ModelBuilder#buildLazily()}.
+	 *
+	 * @return the model
+	 */
+	public Model buildLazily() {
+		return modelBuilder.buildLazily();
+	}
+
 	UseCase getUseCase() {
 		return useCase;
 	}
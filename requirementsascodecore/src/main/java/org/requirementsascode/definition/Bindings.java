@@ -0,0 +1,99 @@
+package org.requirementsascode.definition;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binds the objects of a model that can't be serialized to names: system
+ * reactions, conditions and actors with behavior. A model definition contains
+ * the names, and a reader replaces them with the bound objects.
+ *
+ * <p>
+ * Bind the same object instances that the model has been built with, e.g. by
+ * keeping the lambdas in fields. Objects are found by identity, not by equals.
+ *
+ * @author b_muth
+ */
+public class Bindings {
+	private final Map<String, Object> objectsByName;
+	private final Map<Object, String> namesByObject;
+
+	private Bindings(Builder builder) {
+		this.objectsByName = new HashMap<>(builder.objectsByName);
+		this.namesByObject = new IdentityHashMap<>(builder.namesByObject);
+	}
+
+	/**
+	 * Returns a builder for bindings.
+	 *
+	 * @return the builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns the object bound to the specified name.
+	 *
+	 * @param name the name
+	 * @return the object, or null if no object is bound to the name
+	 */
+	public Object objectNamed(String name) {
+		return objectsByName.get(name);
+	}
+
+	/**
+	 * Returns the name the specified object is bound to.
+	 *
+	 * @param object the object
+	 * @return the name, or null if the object isn't bound
+	 */
+	public String nameOf(Object object) {
+		return namesByObject.get(object);
+	}
+
+	/**
+	 * Builder for {@link Bindings}.
+	 */
+	public static class Builder {
+		private final Map<String, Object> objectsByName;
+		private final Map<Object, String> namesByObject;
+
+		private Builder() {
+			this.objectsByName = new HashMap<>();
+			this.namesByObject = new IdentityHashMap<>();
+		}
+
+		/**
+		 * Binds the object to the name. The object may be a Runnable, Consumer,
+		 * Function or Supplier that is used as system reaction, a Condition, or an
+		 * actor.
+		 *
+		 * @param name   the name
+		 * @param object the object
+		 * @return this builder
+		 * @throws IllegalArgumentException if the name or object has already been
+		 *                                  bound
+		 */
+		public Builder bind(String name, Object object) {
+			Objects.requireNonNull(name);
+			Objects.requireNonNull(object);
+			if (objectsByName.containsKey(name)) {
+				throw new IllegalArgumentException("Name " + name + " has already been bound");
+			}
+			if (namesByObject.containsKey(object)) {
+				throw new IllegalArgumentException(
+					"Object has already been bound to name " + namesByObject.get(object) + ", can't bind it to " + name);
+			}
+			objectsByName.put(name, object);
+			namesByObject.put(object, name);
+			return this;
+		}
+
+		public Bindings build() {
+			return new Bindings(this);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package org.requirementsascode.definition;
+
+/**
+ * Constants of the binary model definition format.
+ *
+ * <p>
+ * A definition starts with the magic number and the version. Then comes the
+ * string table: the number of strings, and each string as length and UTF-8
+ * bytes. All names in the rest of the definition are indexes into the string
+ * table, plus one (zero means no name). Then come the use cases: for each use
+ * case its name, the names of its flows (starting with the basic flow), and its
+ * steps in the order they have been created.
+ *
+ * <p>
+ * All numbers after the version are unsigned variable length integers: 7 bits
+ * per byte, least significant group first, with the high bit set in all but
+ * the last byte.
+ *
+ * @author b_muth
+ */
+class ModelDefinitionFormat {
+	static final int MAGIC = 0x52414344; // "RACD"
+	static final int VERSION = 1;
+	static final int NO_STRING = 0;
+	static final int NO_FLOW = 0;
+
+	static final byte INTERRUPTABLE_FLOW_STEP = 0;
+	static final byte INTERRUPTING_FLOW_STEP = 1;
+	static final byte FLOWLESS_STEP = 2;
+
+	static final byte AFTER = 0;
+	static final byte INSTEAD_OF = 1;
+	static final byte ANYTIME = 2;
+
+	static final byte NO_ACTOR = 0;
+	static final byte USER_ACTOR = 1;
+	static final byte SYSTEM_ACTOR = 2;
+	static final byte NAMED_ACTOR = 3;
+
+	static final byte NO_REACTION = 0;
+	static final byte RUNNABLE = 1;
+	static final byte CONSUMER = 2;
+	static final byte SUPPLIER = 3;
+	static final byte FUNCTION = 4;
+	static final byte ASYNC_FUNCTION = 5;
+	static final byte CONTINUES_AT = 6;
+	static final byte CONTINUES_AFTER = 7;
+	static final byte IGNORES_IT = 8;
+
+	private ModelDefinitionFormat() {
+	}
+}
@@ -0,0 +1,439 @@
+package org.requirementsascode.definition;
+
+import static org.requirementsascode.definition.ModelDefinitionFormat.AFTER;
+import static org.requirementsascode.definition.ModelDefinitionFormat.ANYTIME;
+import static org.requirementsascode.definition.ModelDefinitionFormat.ASYNC_FUNCTION;
+import static org.requirementsascode.definition.ModelDefinitionFormat.CONSUMER;
+import static org.requirementsascode.definition.ModelDefinitionFormat.CONTINUES_AFTER;
+import static org.requirementsascode.definition.ModelDefinitionFormat.CONTINUES_AT;
+import static org.requirementsascode.definition.ModelDefinitionFormat.FLOWLESS_STEP;
+import static org.requirementsascode.definition.ModelDefinitionFormat.FUNCTION;
+import static org.requirementsascode.definition.ModelDefinitionFormat.IGNORES_IT;
+import static org.requirementsascode.definition.ModelDefinitionFormat.INSTEAD_OF;
+import static org.requirementsascode.definition.ModelDefinitionFormat.INTERRUPTABLE_FLOW_STEP;
+import static org.requirementsascode.definition.ModelDefinitionFormat.INTERRUPTING_FLOW_STEP;
+import static org.requirementsascode.definition.ModelDefinitionFormat.MAGIC;
+import static org.requirementsascode.definition.ModelDefinitionFormat.NAMED_ACTOR;
+import static org.requirementsascode.definition.ModelDefinitionFormat.NO_ACTOR;
+import static org.requirementsascode.definition.ModelDefinitionFormat.NO_REACTION;
+import static org.requirementsascode.definition.ModelDefinitionFormat.RUNNABLE;
+import static org.requirementsascode.definition.ModelDefinitionFormat.SUPPLIER;
+import static org.requirementsascode.definition.ModelDefinitionFormat.SYSTEM_ACTOR;
+import static org.requirementsascode.definition.ModelDefinitionFormat.USER_ACTOR;
+import static org.requirementsascode.definition.ModelDefinitionFormat.VERSION;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.requirementsascode.AbstractActor;
+import org.requirementsascode.Actor;
+import org.requirementsascode.Condition;
+import org.requirementsascode.Flow;
+import org.requirementsascode.FlowStep;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.builder.ModelBuilder;
+import org.requirementsascode.flowposition.After;
+import org.requirementsascode.flowposition.Anytime;
+import org.requirementsascode.flowposition.FlowPosition;
+import org.requirementsascode.flowposition.InsteadOf;
+import org.requirementsascode.systemreaction.ContinuesAfter;
+import org.requirementsascode.systemreaction.ContinuesAt;
+import org.requirementsascode.systemreaction.IgnoresIt;
+
+/**
+ * Reads a model from a binary model definition, that has been written by a
+ * {@link ModelDefinitionWriter}. Reading a definition is much faster than
+ * building the model with the builder, so it shortens the startup time of short
+ * lived applications.
+ *
+ * <p>
+ * Files are memory-mapped. The system reactions, conditions and actors with
+ * behavior are looked up by name in the bindings. Actors without binding are
+ * created as plain actors with the name. Message classes are loaded with the
+ * class loader of the reader.
+ *
+ * @author b_muth
+ */
+public class ModelDefinitionReader {
+	private final Bindings bindings;
+	private final ClassLoader classLoader;
+
+	/**
+	 * Creates a reader that looks up the objects of the model in the specified
+	 * bindings, and loads message classes with the context class loader of the
+	 * current thread.
+	 *
+	 * @param bindings the bindings of the system reactions and conditions of the
+	 *                 model
+	 */
+	public ModelDefinitionReader(Bindings bindings) {
+		this(bindings, defaultClassLoader());
+	}
+
+	/**
+	 * Creates a reader that looks up the objects of the model in the specified
+	 * bindings, and loads message classes with the specified class loader.
+	 *
+	 * @param bindings    the bindings of the system reactions and conditions of
+	 *                    the model
+	 * @param classLoader the class loader of the message classes
+	 */
+	public ModelDefinitionReader(Bindings bindings, ClassLoader classLoader) {
+		this.bindings = Objects.requireNonNull(bindings);
+		this.classLoader = Objects.requireNonNull(classLoader);
+	}
+
+	private static ClassLoader defaultClassLoader() {
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		return contextClassLoader != null ? contextClassLoader : ModelDefinitionReader.class.getClassLoader();
+	}
+
+	/**
+	 * Reads the model from the specified file, and resolves it like
+	 * {@link ModelBuilder#build()} does. The model isn't analyzed for ambiguity
+	 * again, that has happened when the original model has been built.
+	 *
+	 * @param path the file
+	 * @return the model
+	 * @throws IOException              if the file can't be read, or isn't a valid
+	 *                                  model definition
+	 * @throws IllegalArgumentException if no object is bound to a name in the
+	 *                                  definition, or a message class can't be
+	 *                                  loaded
+	 */
+	public Model read(Path path) throws IOException {
+		return read(map(path));
+	}
+
+	/**
+	 * Reads the model from the specified file, but doesn't resolve it, like
+	 * {@link ModelBuilder#buildLazily()}.
+	 *
+	 * @param path the file
+	 * @return the model
+	 * @throws IOException              if the file can't be read, or isn't a valid
+	 *                                  model definition
+	 * @throws IllegalArgumentException if no object is bound to a name in the
+	 *                                  definition, or a message class can't be
+	 *                                  loaded
+	 */
+	public Model readLazily(Path path) throws IOException {
+		return readLazily(map(path));
+	}
+
+	/**
+	 * Reads the model from the remaining bytes of the specified buffer, and
+	 * resolves and analyzes it for ambiguity like {@link ModelBuilder#build()}
+	 * does.
+	 *
+	 * @param buffer the buffer
+	 * @return the model
+	 * @throws IOException              if the buffer doesn't contain a valid model
+	 *                                  definition
+	 * @throws IllegalArgumentException if no object is bound to a name in the
+	 *                                  definition, or a message class can't be
+	 *                                  loaded
+	 */
+	public Model read(ByteBuffer buffer) throws IOException {
+		return decode(buffer).build();
+	}
+
+	/**
+	 * Reads the model from the remaining bytes of the specified buffer, but
+	 * doesn't resolve it, like {@link ModelBuilder#buildLazily()}.
+	 *
+	 * @param buffer the buffer
+	 * @return the model
+	 * @throws IOException              if the buffer doesn't contain a valid model
+	 *                                  definition
+	 * @throws IllegalArgumentException if no object is bound to a name in the
+	 *                                  definition, or a message class can't be
+	 *                                  loaded
+	 */
+	public Model readLazily(ByteBuffer buffer) throws IOException {
+		return decode(buffer).buildLazily();
+	}
+
+	private ByteBuffer map(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private ModelBuilder decode(ByteBuffer buffer) throws IOException {
+		try {
+			return new Decoder(buffer.duplicate()).decode();
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Model definition is truncated", e);
+		}
+	}
+
+	private class Decoder {
+		private final ByteBuffer buffer;
+		private final ModelBuilder modelBuilder;
+		private final Model model;
+		private final Map<String, AbstractActor> actorsByName;
+		private String[] strings;
+		private Class<?>[] classes;
+
+		private Decoder(ByteBuffer buffer) {
+			this.buffer = buffer;
+			this.modelBuilder = Model.builder();
+			this.model = modelBuilder.buildLazily();
+			this.actorsByName = new HashMap<>();
+		}
+
+		private ModelBuilder decode() throws IOException {
+			if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+				throw new IOException("Not a model definition");
+			}
+			int version = readVarInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported model definition version " + version);
+			}
+			decodeStrings();
+
+			int numberOfUseCases = readCount();
+			for (int i = 0; i < numberOfUseCases; i++) {
+				decodeUseCase();
+			}
+			return modelBuilder;
+		}
+
+		private void decodeStrings() throws IOException {
+			int numberOfStrings = readCount();
+			strings = new String[numberOfStrings];
+			classes = new Class<?>[numberOfStrings];
+			for (int i = 0; i < numberOfStrings; i++) {
+				byte[] bytes = new byte[readCount()];
+				buffer.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+		}
+
+		private void decodeUseCase() throws IOException {
+			UseCase useCase = model.newUseCase(readString());
+
+			int numberOfFlows = readCount();
+			Flow[] flows = new Flow[numberOfFlows];
+			for (int i = 0; i < numberOfFlows; i++) {
+				String flowName = readString();
+				flows[i] = i == 0 ? useCase.getBasicFlow() : useCase.newFlow(flowName);
+			}
+
+			int numberOfSteps = readCount();
+			for (int i = 0; i < numberOfSteps; i++) {
+				decodeStep(useCase, flows);
+			}
+		}
+
+		private void decodeStep(UseCase useCase, Flow[] flows) throws IOException {
+			String stepName = readString();
+			byte stepKind = buffer.get();
+			int flowNumber = readVarInt();
+			Step step;
+			switch (stepKind) {
+			case INTERRUPTING_FLOW_STEP:
+				FlowPosition flowPosition = decodeFlowPosition(useCase);
+				step = useCase.newInterruptingFlowStep(stepName, flowAt(flows, flowNumber), flowPosition, readCondition());
+				break;
+			case INTERRUPTABLE_FLOW_STEP:
+				step = useCase.newInterruptableFlowStep(stepName, flowAt(flows, flowNumber), readCondition());
+				break;
+			case FLOWLESS_STEP:
+				step = useCase.newFlowlessStep(stepName, readCondition());
+				break;
+			default:
+				throw new IOException("Unknown kind of step " + stepKind);
+			}
+
+			AbstractActor[] actors = new AbstractActor[readCount()];
+			for (int i = 0; i < actors.length; i++) {
+				actors[i] = decodeActor();
+			}
+			step.setActors(actors);
+			step.setMessageClass(readClass());
+			step.setCase(readCondition());
+			Condition reactWhile = readCondition();
+			if (reactWhile != null) {
+				flowStep(step).setReactWhile(reactWhile);
+			}
+			decodeSystemReaction(step);
+			step.setPublishTo(decodeActor());
+		}
+
+		private FlowStep flowStep(Step step) throws IOException {
+			if (!(step instanceof FlowStep)) {
+				throw new IOException("Step " + step.getName() + " isn't part of a flow");
+			}
+			return (FlowStep) step;
+		}
+
+		private Flow flowAt(Flow[] flows, int flowNumber) throws IOException {
+			if (flowNumber < 1 || flowNumber > flows.length) {
+				throw new IOException("Unknown flow number " + flowNumber);
+			}
+			return flows[flowNumber - 1];
+		}
+
+		private FlowPosition decodeFlowPosition(UseCase useCase) throws IOException {
+			byte flowPositionKind = buffer.get();
+			switch (flowPositionKind) {
+			case AFTER:
+				String[] stepNames = new String[readCount()];
+				for (int i = 0; i < stepNames.length; i++) {
+					stepNames[i] = readString();
+				}
+				return new After(stepNames, useCase);
+			case INSTEAD_OF:
+				return new InsteadOf(readString(), useCase);
+			case ANYTIME:
+				return new Anytime();
+			default:
+				throw new IOException("Unknown kind of flow position " + flowPositionKind);
+			}
+		}
+
+		private AbstractActor decodeActor() throws IOException {
+			byte actorKind = buffer.get();
+			switch (actorKind) {
+			case NO_ACTOR:
+				return null;
+			case USER_ACTOR:
+				return model.getUserActor();
+			case SYSTEM_ACTOR:
+				return model.getSystemActor();
+			case NAMED_ACTOR:
+				return actorsByName.computeIfAbsent(readString(), this::actorNamed);
+			default:
+				throw new IOException("Unknown kind of actor " + actorKind);
+			}
+		}
+
+		private AbstractActor actorNamed(String name) {
+			Object boundObject = bindings.objectNamed(name);
+			return boundObject instanceof AbstractActor ? (AbstractActor) boundObject : new Actor(name);
+		}
+
+		@SuppressWarnings("unchecked")
+		private void decodeSystemReaction(Step step) throws IOException {
+			byte reactionKind = buffer.get();
+			String name = readString();
+			switch (reactionKind) {
+			case NO_REACTION:
+				break;
+			case CONTINUES_AT:
+				step.setSystemReaction(new ContinuesAt<>(name, flowStep(step)));
+				break;
+			case CONTINUES_AFTER:
+				step.setSystemReaction(new ContinuesAfter(name, step.getUseCase()));
+				break;
+			case IGNORES_IT:
+				step.setSystemReaction(new IgnoresIt<>());
+				break;
+			case RUNNABLE:
+				step.setSystemReaction(boundObject(name, Runnable.class));
+				break;
+			case CONSUMER:
+				step.setSystemReaction((Consumer<Object>) boundObject(name, Consumer.class));
+				break;
+			case SUPPLIER:
+				step.setSystemReaction((Supplier<?>) boundObject(name, Supplier.class));
+				break;
+			case FUNCTION:
+				step.setSystemReaction((Function<Object, ?>) boundObject(name, Function.class));
+				break;
+			case ASYNC_FUNCTION:
+				step.setAsyncSystemReaction(
+					(Function<Object, ? extends CompletionStage<?>>) boundObject(name, Function.class));
+				break;
+			default:
+				throw new IOException("Unknown kind of system reaction " + reactionKind);
+			}
+		}
+
+		private Condition readCondition() throws IOException {
+			String name = readString();
+			return name == null ? null : boundObject(name, Condition.class);
+		}
+
+		private <T> T boundObject(String name, Class<T> type) {
+			Object boundObject = bindings.objectNamed(name);
+			if (boundObject == null) {
+				throw new IllegalArgumentException("No object is bound to name " + name);
+			}
+			if (!type.isInstance(boundObject)) {
+				throw new IllegalArgumentException(
+					"The object bound to name " + name + " must be a " + type.getSimpleName());
+			}
+			return type.cast(boundObject);
+		}
+
+		private Class<?> readClass() throws IOException {
+			int index = readStringIndex();
+			if (index < 0) {
+				return null;
+			}
+			if (classes[index] == null) {
+				try {
+					classes[index] = Class.forName(strings[index], false, classLoader);
+				} catch (ClassNotFoundException e) {
+					throw new IllegalArgumentException("Message class " + strings[index] + " can't be loaded", e);
+				}
+			}
+			return classes[index];
+		}
+
+		private String readString() throws IOException {
+			int index = readStringIndex();
+			return index < 0 ? null : strings[index];
+		}
+
+		private int readStringIndex() throws IOException {
+			int indexPlusOne = readVarInt();
+			if (indexPlusOne < 0 || indexPlusOne > strings.length) {
+				throw new IOException("Unknown string number " + indexPlusOne);
+			}
+			return indexPlusOne - 1;
+		}
+
+		/**
+		 * Reads a number of elements, and checks that it is plausible (each element
+		 * needs at least one byte), so a corrupt definition doesn't cause huge
+		 * allocations.
+		 */
+		private int readCount() throws IOException {
+			int count = readVarInt();
+			if (count < 0 || count > buffer.remaining()) {
+				throw new IOException("Model definition is truncated");
+			}
+			return count;
+		}
+
+		private int readVarInt() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				byte b = buffer.get();
+				value |= (b & 0x7f) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Malformed number in model definition");
+		}
+	}
+}
@@ -0,0 +1,310 @@
+package org.requirementsascode.definition;
+
+import static org.requirementsascode.definition.ModelDefinitionFormat.AFTER;
+import static org.requirementsascode.definition.ModelDefinitionFormat.ANYTIME;
+import static org.requirementsascode.definition.ModelDefinitionFormat.ASYNC_FUNCTION;
+import static org.requirementsascode.definition.ModelDefinitionFormat.CONSUMER;
+import static org.requirementsascode.definition.ModelDefinitionFormat.CONTINUES_AFTER;
+import static org.requirementsascode.definition.ModelDefinitionFormat.CONTINUES_AT;
+import static org.requirementsascode.definition.ModelDefinitionFormat.FLOWLESS_STEP;
+import static org.requirementsascode.definition.ModelDefinitionFormat.FUNCTION;
+import static org.requirementsascode.definition.ModelDefinitionFormat.IGNORES_IT;
+import static org.requirementsascode.definition.ModelDefinitionFormat.INSTEAD_OF;
+import static org.requirementsascode.definition.ModelDefinitionFormat.INTERRUPTABLE_FLOW_STEP;
+import static org.requirementsascode.definition.ModelDefinitionFormat.INTERRUPTING_FLOW_STEP;
+import static org.requirementsascode.definition.ModelDefinitionFormat.MAGIC;
+import static org.requirementsascode.definition.ModelDefinitionFormat.NAMED_ACTOR;
+import static org.requirementsascode.definition.ModelDefinitionFormat.NO_ACTOR;
+import static org.requirementsascode.definition.ModelDefinitionFormat.NO_FLOW;
+import static org.requirementsascode.definition.ModelDefinitionFormat.NO_REACTION;
+import static org.requirementsascode.definition.ModelDefinitionFormat.NO_STRING;
+import static org.requirementsascode.definition.ModelDefinitionFormat.RUNNABLE;
+import static org.requirementsascode.definition.ModelDefinitionFormat.SUPPLIER;
+import static org.requirementsascode.definition.ModelDefinitionFormat.SYSTEM_ACTOR;
+import static org.requirementsascode.definition.ModelDefinitionFormat.USER_ACTOR;
+import static org.requirementsascode.definition.ModelDefinitionFormat.VERSION;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.requirementsascode.AbstractActor;
+import org.requirementsascode.Flow;
+import org.requirementsascode.FlowStep;
+import org.requirementsascode.FlowlessStep;
+import org.requirementsascode.InterruptableFlowStep;
+import org.requirementsascode.InterruptingFlowStep;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.SystemReaction;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.flowposition.After;
+import org.requirementsascode.flowposition.Anytime;
+import org.requirementsascode.flowposition.FlowPosition;
+import org.requirementsascode.flowposition.InsteadOf;
+import org.requirementsascode.systemreaction.AbstractContinuesAfter;
+import org.requirementsascode.systemreaction.ContinuesAt;
+import org.requirementsascode.systemreaction.IgnoresIt;
+
+/**
+ * Writes the structure of a model as compact binary model definition, that a
+ * {@link ModelDefinitionReader} can read much faster than the model can be
+ * built.
+ *
+ * <p>
+ * The definition contains the use cases, flows and steps, the flow positions,
+ * the actors and message classes of the steps, and the steps that steps
+ * continue at or after. System reactions, conditions and actors with behavior
+ * are written as the names they are bound to.
+ *
+ * @author b_muth
+ */
+public class ModelDefinitionWriter {
+	private final Bindings bindings;
+
+	/**
+	 * Creates a writer that writes the objects of the model as the names they are
+	 * bound to.
+	 *
+	 * @param bindings the bindings of the system reactions and conditions of the
+	 *                 model
+	 */
+	public ModelDefinitionWriter(Bindings bindings) {
+		this.bindings = Objects.requireNonNull(bindings);
+	}
+
+	/**
+	 * Writes the definition of the model to the specified file. An existing file
+	 * is overwritten.
+	 *
+	 * @param model the model
+	 * @param path  the file
+	 * @throws IOException              if the file can't be written
+	 * @throws IllegalArgumentException if a system reaction or condition of the
+	 *                                  model isn't bound to a name
+	 */
+	public void write(Model model, Path path) throws IOException {
+		try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path))) {
+			write(model, output);
+		}
+	}
+
+	/**
+	 * Writes the definition of the model to the specified stream. The stream is
+	 * not closed.
+	 *
+	 * @param model  the model
+	 * @param output the stream
+	 * @throws IOException              if the stream can't be written to
+	 * @throws IllegalArgumentException if a system reaction or condition of the
+	 *                                  model isn't bound to a name
+	 */
+	public void write(Model model, OutputStream output) throws IOException {
+		Objects.requireNonNull(model);
+		Objects.requireNonNull(output);
+		new Encoder(model).encode().writeTo(output);
+		output.flush();
+	}
+
+	private class Encoder {
+		private final Model model;
+		private final Map<String, Integer> stringIndexes;
+		private final ByteArrayOutputStream body;
+
+		private Encoder(Model model) {
+			this.model = model;
+			this.stringIndexes = new LinkedHashMap<>();
+			this.body = new ByteArrayOutputStream();
+		}
+
+		private ByteArrayOutputStream encode() throws IOException {
+			writeVarInt(body, model.getUseCases().size());
+			for (UseCase useCase : model.getUseCases()) {
+				encodeUseCase(useCase);
+			}
+
+			ByteArrayOutputStream definition = new ByteArrayOutputStream(body.size() + 16 * stringIndexes.size());
+			DataOutputStream header = new DataOutputStream(definition);
+			header.writeInt(MAGIC);
+			writeVarInt(definition, VERSION);
+			writeVarInt(definition, stringIndexes.size());
+			for (String string : stringIndexes.keySet()) {
+				byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(definition, bytes.length);
+				definition.write(bytes);
+			}
+			body.writeTo(definition);
+			return definition;
+		}
+
+		private void encodeUseCase(UseCase useCase) {
+			writeString(useCase.getName());
+
+			Map<Flow, Integer> flowNumbers = new IdentityHashMap<>();
+			writeVarInt(body, useCase.getFlows().size());
+			for (Flow flow : useCase.getFlows()) {
+				writeString(flow.getName());
+				flowNumbers.put(flow, flowNumbers.size() + 1);
+			}
+
+			writeVarInt(body, useCase.getSteps().size());
+			for (Step step : useCase.getSteps()) {
+				encodeStep(step, flowNumbers);
+			}
+		}
+
+		private void encodeStep(Step step, Map<Flow, Integer> flowNumbers) {
+			writeString(step.getName());
+			if (step instanceof InterruptingFlowStep) {
+				body.write(INTERRUPTING_FLOW_STEP);
+				writeVarInt(body, flowNumbers.get(((FlowStep) step).getFlow()));
+				encodeFlowPosition((FlowStep) step);
+			} else if (step instanceof InterruptableFlowStep) {
+				body.write(INTERRUPTABLE_FLOW_STEP);
+				writeVarInt(body, flowNumbers.get(((FlowStep) step).getFlow()));
+			} else if (step instanceof FlowlessStep) {
+				body.write(FLOWLESS_STEP);
+				writeVarInt(body, NO_FLOW);
+			} else {
+				throw new IllegalArgumentException("Can't write step " + step + " of type " + step.getClass().getName());
+			}
+			writeBoundName(step.getCondition().orElse(null), "condition", step);
+
+			AbstractActor[] actors = step.getActors();
+			writeVarInt(body, actors == null ? 0 : actors.length);
+			if (actors != null) {
+				for (AbstractActor actor : actors) {
+					encodeActor(actor);
+				}
+			}
+
+			Class<?> messageClass = step.getMessageClass();
+			writeString(messageClass == null ? null : messageClass.getName());
+			writeBoundName(step.getCase().orElse(null), "case condition", step);
+			Object reactWhile = step instanceof FlowStep ? ((FlowStep) step).getReactWhile() : null;
+			writeBoundName(reactWhile, "react while condition", step);
+			encodeSystemReaction(step);
+			encodeActor(step.getPublishTo().orElse(null));
+		}
+
+		private void encodeFlowPosition(FlowStep step) {
+			FlowPosition flowPosition = step.getFlowPosition();
+			if (flowPosition instanceof After) {
+				body.write(AFTER);
+				String[] stepNames = ((After) flowPosition).getStepNames();
+				writeVarInt(body, stepNames.length);
+				for (String stepName : stepNames) {
+					writeString(stepName);
+				}
+			} else if (flowPosition instanceof InsteadOf) {
+				body.write(INSTEAD_OF);
+				writeString(((InsteadOf) flowPosition).getStepName());
+			} else if (flowPosition instanceof Anytime) {
+				body.write(ANYTIME);
+			} else {
+				throw new IllegalArgumentException(
+					"Can't write flow position of type " + flowPosition.getClass().getName() + " of step " + step);
+			}
+		}
+
+		private void encodeActor(AbstractActor actor) {
+			if (actor == null) {
+				body.write(NO_ACTOR);
+			} else if (actor == model.getUserActor()) {
+				body.write(USER_ACTOR);
+			} else if (actor == model.getSystemActor()) {
+				body.write(SYSTEM_ACTOR);
+			} else {
+				body.write(NAMED_ACTOR);
+				String boundName = bindings.nameOf(actor);
+				writeString(boundName != null ? boundName : actor.getName());
+			}
+		}
+
+		private void encodeSystemReaction(Step step) {
+			SystemReaction<?> systemReaction = step.getSystemReaction();
+			if (systemReaction == null) {
+				body.write(NO_REACTION);
+				writeString(null);
+				return;
+			}
+
+			Object modelObject = systemReaction.getModelObject();
+			if (modelObject instanceof ContinuesAt) {
+				body.write(CONTINUES_AT);
+				writeString(((ContinuesAt<?>) modelObject).getStepName());
+			} else if (modelObject instanceof AbstractContinuesAfter) {
+				body.write(CONTINUES_AFTER);
+				writeString(((AbstractContinuesAfter) modelObject).getStepName());
+			} else if (modelObject instanceof IgnoresIt) {
+				body.write(IGNORES_IT);
+				writeString(null);
+			} else {
+				body.write(kindOf(systemReaction));
+				writeBoundName(modelObject, "system reaction", step);
+			}
+		}
+
+		private byte kindOf(SystemReaction<?> systemReaction) {
+			Object modelObject = systemReaction.getModelObject();
+			if (systemReaction.isAsync()) {
+				return ASYNC_FUNCTION;
+			} else if (modelObject instanceof Runnable) {
+				return RUNNABLE;
+			} else if (modelObject instanceof Consumer) {
+				return CONSUMER;
+			} else if (modelObject instanceof Supplier) {
+				return SUPPLIER;
+			} else if (modelObject instanceof Function) {
+				return FUNCTION;
+			}
+			throw new IllegalArgumentException("Can't write system reaction of type " + modelObject.getClass().getName());
+		}
+
+		private void writeBoundName(Object object, String kindOfObject, Step step) {
+			if (object == null) {
+				writeString(null);
+				return;
+			}
+			String name = bindings.nameOf(object);
+			if (name == null) {
+				throw new IllegalArgumentException("The " + kindOfObject + " of step " + step + " isn't bound to a name");
+			}
+			writeString(name);
+		}
+
+		private void writeString(String string) {
+			if (string == null) {
+				writeVarInt(body, NO_STRING);
+				return;
+			}
+			Integer index = stringIndexes.get(string);
+			if (index == null) {
+				index = stringIndexes.size();
+				stringIndexes.put(string, index);
+			}
+			writeVarInt(body, index + 1);
+		}
+	}
+
+	private static void writeVarInt(ByteArrayOutputStream output, int value) {
+		int remainingValue = value;
+		while ((remainingValue & ~0x7f) != 0) {
+			output.write((remainingValue & 0x7f) | 0x80);
+			remainingValue >>>= 7;
+		}
+		output.write(remainingValue);
+	}
+}
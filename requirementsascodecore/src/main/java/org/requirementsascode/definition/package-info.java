@@ -0,0 +1,8 @@
+/**
+ * Definition package of requirementsascode, containing classes that write the
+ * structure of a model to a compact binary definition, and read models from
+ * it.
+ * 
+ * @author b_muth
+ */
+package org.requirementsascode.definition;
@@ -0,0 +1,24 @@
+package org.requirementsascode.exception;
+
+import org.requirementsascode.ConcurrencyMode;
+
+/**
+ * Exception that is thrown when a thread calls a model runner while a different
+ * thread is using it, and the runner's concurrency mode is
+ * {@link ConcurrencyMode#SINGLE_WRITER}.
+ * 
+ * @author b_muth
+ *
+ */
+public class ConcurrentCallOfReactTo extends RuntimeException {
+  private static final long serialVersionUID = -2035722127640938522L;
+
+  public ConcurrentCallOfReactTo() {
+    super(exceptionMessage());
+  }
+
+  private static String exceptionMessage() {
+    String message = "A different thread is using the model runner at the same time. Use a runner per thread, or call modelRunner.concurrencyMode(ConcurrencyMode.SERIALIZED).";
+    return message;
+  }
+}
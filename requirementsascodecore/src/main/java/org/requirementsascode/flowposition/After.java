@@ -11,8 +11,11 @@ import org.requirementsascode.UseCase;
  *
  */
 public class After extends FlowPosition {
+  private final String[] stepNames;
+
   public After(String[] stepNames, UseCase useCase) {
     super(useCase);
+    this.stepNames = stepNames.clone();
     afterSteps(stepNames);
   }
 
@@ -22,6 +25,17 @@ public class After extends FlowPosition {
     }
   }
 
+  /**
+   * Returns the names of the steps this flow position has been created with.
+   * Unlike {@link #getAfterForEachSingleStep()}, this doesn't include the steps
+   * that have been added later, e.g. for loops or continuesAt targets.
+   * 
+   * @return the step names
+   */
+  public String[] getStepNames() {
+    return stepNames.clone();
+  }
+
   public static After afterFlowStep(FlowStep flowStep) {
     UseCase useCase = flowStep == null ? null : flowStep.getUseCase();
     String stepName = flowStep == null ? null : flowStep.getName();
@@ -16,13 +16,24 @@ import org.requirementsascode.UseCase;
  */
 public class AfterSingleStep implements Predicate<ModelRunner>{
   private String stepName;
-  private FlowStep step;
+  private volatile FlowStep step;
   private UseCase useCase;
 
   public AfterSingleStep(String stepName, UseCase useCase) {
     this.stepName = stepName;
     this.useCase = useCase;
   }
+
+  /**
+   * Creates a predicate for the specified step, that doesn't need to be
+   * resolved.
+   * 
+   * @param step the step after which the predicate is true
+   */
+  public AfterSingleStep(FlowStep step) {
+    this(step.getName(), step.getUseCase());
+    this.step = step;
+  }
   
   public void resolveStep() {
     if (step == null) {
@@ -44,6 +55,21 @@ public class AfterSingleStep implements Predicate<ModelRunner>{
     return stepName;
   }
 
+  boolean refersTo(String stepName, UseCase useCase) {
+    return this.useCase == useCase && Objects.equals(this.stepName, stepName);
+  }
+
+  /**
+   * Returns the step after which the predicate is true, once it has been
+   * resolved.
+   * 
+   * @return the resolved step, or null if the predicate is true before any step
+   *         has been run (or the step has not been resolved yet)
+   */
+  public final FlowStep getStep() {
+    return step;
+  }
+
   @Override
   public boolean test(ModelRunner modelRunner) {
     Step latestStepRun = modelRunner.getLatestStep().orElse(null);
@@ -1,12 +1,25 @@
 package org.requirementsascode.flowposition;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 
+import org.requirementsascode.FlowStep;
 import org.requirementsascode.ModelRunner;
 import org.requirementsascode.UseCase;
 
+/**
+ * The position in the flows of a use case at which a step can react.
+ * 
+ * <p>
+ * Steps may be added to the position when its use case is resolved, e.g. for
+ * continuesAt targets. Runners that share the model may check the position at
+ * the same time, so it keeps the steps in a copy-on-write list, and doesn't
+ * add a step twice.
+ * 
+ * @author b_muth
+ *
+ */
 public abstract class FlowPosition implements Predicate<ModelRunner> {
   private UseCase useCase;
   private List<AfterSingleStep> afterForEachSingleStep;
@@ -15,7 +28,7 @@ public abstract class FlowPosition implements Predicate<ModelRunner> {
 
   public FlowPosition(UseCase useCase) {
     this.useCase = useCase;
-    this.afterForEachSingleStep = new ArrayList<>();
+    this.afterForEachSingleStep = new CopyOnWriteArrayList<>();
   }
 
   @Override
@@ -32,12 +45,29 @@ public abstract class FlowPosition implements Predicate<ModelRunner> {
     return useCase;
   }
 
-  public FlowPosition orAfter(String stepName, UseCase useCase) {
-    AfterSingleStep afterSingleStep = new AfterSingleStep(stepName, useCase);
-    afterForEachSingleStep.add(afterSingleStep);
+  public synchronized FlowPosition orAfter(String stepName, UseCase useCase) {
+    if (!isAfter(stepName, useCase)) {
+      afterForEachSingleStep.add(new AfterSingleStep(stepName, useCase));
+    }
     return this;
   }
 
+  public synchronized FlowPosition orAfter(FlowStep step) {
+    if (!isAfter(step.getName(), step.getUseCase())) {
+      afterForEachSingleStep.add(new AfterSingleStep(step));
+    }
+    return this;
+  }
+
+  private boolean isAfter(String stepName, UseCase useCase) {
+    for (AfterSingleStep afterSingleStep : afterForEachSingleStep) {
+      if (afterSingleStep.refersTo(stepName, useCase)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public List<AfterSingleStep> getAfterForEachSingleStep() {
     return afterForEachSingleStep;
   }
@@ -6,7 +6,7 @@ import org.requirementsascode.UseCase;
 
 public class InsteadOf extends FlowPosition{
   private String stepName;
-  private FlowStep step;
+  private volatile FlowStep step;
   
 	public InsteadOf(String stepName, UseCase useCase) {
 	  super(useCase);
@@ -36,4 +36,13 @@ public class InsteadOf extends FlowPosition{
   public final String getStepName() {
     return stepName;
   }
+
+  /**
+   * Returns the step instead of which a flow starts, once it has been resolved.
+   * 
+   * @return the resolved step, or null if it has not been resolved yet
+   */
+  public final FlowStep getStep() {
+    return step;
+  }
 }
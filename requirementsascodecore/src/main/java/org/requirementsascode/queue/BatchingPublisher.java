@@ -0,0 +1,343 @@
+package org.requirementsascode.queue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.requirementsascode.AbstractActor;
+import org.requirementsascode.ActorPublisher;
+import org.requirementsascode.ModelRunner;
+
+/**
+ * A publisher that buffers the events for each recipient actor, and delivers
+ * them in batches, on the threads of an executor. The publishing runner doesn't
+ * wait for the recipients to react, so long synchronous call chains between
+ * actors are avoided.
+ *
+ * <p>
+ * The events for a recipient are delivered when the flush size is reached, or
+ * when the oldest buffered event has waited for the maximum latency, whatever
+ * happens first. The events for a recipient are delivered in the order they
+ * have been published, by one thread at a time. Events for different recipients
+ * may be delivered in parallel. Once all events for a recipient have been
+ * delivered, the publisher forgets the recipient, so it doesn't keep recipients
+ * alive.
+ *
+ * <p>
+ * Use it like this:
+ * {@code actor.getModelRunner().publishToActorsWith(batchingPublisher)}. If a
+ * recipient also receives messages from other threads, set its runner's
+ * concurrency mode to {@link org.requirementsascode.ConcurrencyMode#SERIALIZED}.
+ *
+ * @see ModelRunner#publishToActorsWith(ActorPublisher)
+ * @author b_muth
+ */
+public class BatchingPublisher implements ActorPublisher, AutoCloseable {
+	private static final int DEFAULT_FLUSH_SIZE = 64;
+	private static final Duration DEFAULT_MAX_LATENCY = Duration.ofMillis(5);
+
+	private final int flushSize;
+	private final long maxLatencyNanos;
+	private final ScheduledExecutorService executor;
+	private final boolean ownsExecutor;
+	private final Consumer<RuntimeException> exceptionHandler;
+	private final Map<AbstractActor, Batch> batches;
+	private volatile boolean isClosed;
+
+	private BatchingPublisher(Builder builder) {
+		this.flushSize = builder.flushSize;
+		this.maxLatencyNanos = builder.maxLatency.toNanos();
+		this.ownsExecutor = builder.executor == null;
+		this.executor = ownsExecutor ? Executors.newScheduledThreadPool(1, new DaemonThreadFactory()) : builder.executor;
+		this.exceptionHandler = builder.exceptionHandler;
+		this.batches = Collections.synchronizedMap(new IdentityHashMap<>());
+	}
+
+	/**
+	 * Returns a builder for a publisher.
+	 *
+	 * @return the builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Buffers the specified event for the recipient.
+	 *
+	 * @throws IllegalStateException if the publisher has been closed
+	 */
+	@Override
+	public void publish(Object event, AbstractActor recipient, AbstractActor sender) {
+		Objects.requireNonNull(event);
+		Objects.requireNonNull(recipient);
+		if (isClosed) {
+			throw new IllegalStateException("Publisher has been closed");
+		}
+		Envelope envelope = new Envelope(event, sender);
+		while (!batchOf(recipient).add(envelope)) {
+			// The batch has been removed after its last delivery, try a new one
+		}
+	}
+
+	private Batch batchOf(AbstractActor recipient) {
+		synchronized (batches) {
+			Batch batch = batches.get(recipient);
+			if (batch == null) {
+				batch = new Batch(recipient);
+				batches.put(recipient, batch);
+			}
+			return batch;
+		}
+	}
+
+	/**
+	 * Delivers all buffered events on the calling thread, and waits until
+	 * deliveries in progress have finished.
+	 */
+	public void flush() {
+		for (Batch batch : batchesSnapshot()) {
+			batch.deliver();
+		}
+	}
+
+	/**
+	 * Returns the number of recipients whose events are buffered or being
+	 * delivered.
+	 */
+	int getNumberOfRecipients() {
+		return batches.size();
+	}
+
+	private List<Batch> batchesSnapshot() {
+		synchronized (batches) {
+			return new ArrayList<>(batches.values());
+		}
+	}
+
+	/**
+	 * Returns the number of events that have been published, but not delivered
+	 * yet.
+	 *
+	 * @return the number of buffered events
+	 */
+	public int getNumberOfBufferedEvents() {
+		int numberOfBufferedEvents = 0;
+		for (Batch batch : batchesSnapshot()) {
+			numberOfBufferedEvents += batch.size();
+		}
+		return numberOfBufferedEvents;
+	}
+
+	/**
+	 * Delivers the buffered events, and stops the executor if the publisher has
+	 * created it. Afterwards, the publisher doesn't accept events any more.
+	 */
+	@Override
+	public void close() {
+		isClosed = true;
+		flush();
+		if (ownsExecutor) {
+			executor.shutdown();
+		}
+	}
+
+	private class Batch {
+		private final AbstractActor recipient;
+		private final ReentrantLock deliveryLock;
+		private List<Envelope> envelopes;
+		private boolean isDeliveryScheduled;
+		private boolean isDeliverySubmitted;
+		private boolean isRemoved;
+
+		private Batch(AbstractActor recipient) {
+			this.recipient = recipient;
+			this.deliveryLock = new ReentrantLock();
+			this.envelopes = new ArrayList<>();
+		}
+
+		/**
+		 * Returns false if the batch has been removed, so a new batch is needed.
+		 */
+		private boolean add(Envelope envelope) {
+			boolean scheduleDelivery = false;
+			boolean submitDelivery = false;
+			synchronized (this) {
+				if (isRemoved) {
+					return false;
+				}
+				envelopes.add(envelope);
+				if (envelopes.size() >= flushSize && !isDeliverySubmitted) {
+					isDeliverySubmitted = submitDelivery = true;
+				} else if (!isDeliveryScheduled) {
+					isDeliveryScheduled = scheduleDelivery = true;
+				}
+			}
+
+			if (submitDelivery) {
+				executor.execute(this::deliver);
+			} else if (scheduleDelivery) {
+				executor.schedule(this::deliver, maxLatencyNanos, TimeUnit.NANOSECONDS);
+			}
+			return true;
+		}
+
+		private synchronized int size() {
+			return envelopes.size();
+		}
+
+		/**
+		 * Takes the buffered envelopes while holding the delivery lock, so that
+		 * batches are delivered in order, one at a time.
+		 */
+		private void deliver() {
+			deliveryLock.lock();
+			try {
+				for (Envelope envelope : takeEnvelopes()) {
+					deliverEnvelope(envelope);
+				}
+				removeIfEmpty();
+			} finally {
+				deliveryLock.unlock();
+			}
+		}
+
+		private synchronized List<Envelope> takeEnvelopes() {
+			List<Envelope> takenEnvelopes = envelopes;
+			envelopes = new ArrayList<>();
+			isDeliveryScheduled = false;
+			isDeliverySubmitted = false;
+			return takenEnvelopes;
+		}
+
+		/**
+		 * Called while holding the delivery lock, so a new batch for the recipient
+		 * can only be delivered after this batch's deliveries have finished.
+		 */
+		private void removeIfEmpty() {
+			synchronized (batches) {
+				synchronized (this) {
+					if (envelopes.isEmpty() && !isRemoved) {
+						isRemoved = true;
+						batches.remove(recipient);
+					}
+				}
+			}
+		}
+
+		private void deliverEnvelope(Envelope envelope) {
+			try {
+				recipient.reactTo(envelope.event, envelope.sender);
+			} catch (RuntimeException e) {
+				exceptionHandler.accept(e);
+			}
+		}
+	}
+
+	private static class Envelope {
+		private final Object event;
+		private final AbstractActor sender;
+
+		private Envelope(Object event, AbstractActor sender) {
+			this.event = event;
+			this.sender = sender;
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "BatchingPublisher");
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	private static void reportUncaught(RuntimeException e) {
+		Thread currentThread = Thread.currentThread();
+		currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, e);
+	}
+
+	/**
+	 * Builder for a {@link BatchingPublisher}.
+	 */
+	public static class Builder {
+		private int flushSize;
+		private Duration maxLatency;
+		private ScheduledExecutorService executor;
+		private Consumer<RuntimeException> exceptionHandler;
+
+		private Builder() {
+			this.flushSize = DEFAULT_FLUSH_SIZE;
+			this.maxLatency = DEFAULT_MAX_LATENCY;
+			this.exceptionHandler = BatchingPublisher::reportUncaught;
+		}
+
+		/**
+		 * Specifies the number of buffered events for a recipient that causes an
+		 * immediate delivery. The default is 64.
+		 *
+		 * @param flushSize the number of events, at least 1
+		 * @return this builder
+		 */
+		public Builder flushSize(int flushSize) {
+			if (flushSize < 1) {
+				throw new IllegalArgumentException("Flush size must be at least 1, but was " + flushSize);
+			}
+			this.flushSize = flushSize;
+			return this;
+		}
+
+		/**
+		 * Specifies the maximum time an event is buffered before it is delivered
+		 * (if the executor has a free thread). The default is 5 milliseconds.
+		 *
+		 * @param maxLatency the maximum latency
+		 * @return this builder
+		 */
+		public Builder maxLatency(Duration maxLatency) {
+			this.maxLatency = Objects.requireNonNull(maxLatency);
+			return this;
+		}
+
+		/**
+		 * Specifies the executor that delivers the events. By default, the
+		 * publisher creates an executor with a single daemon thread. The publisher
+		 * doesn't shut down an executor specified here.
+		 *
+		 * @param executor the executor
+		 * @return this builder
+		 */
+		public Builder executor(ScheduledExecutorService executor) {
+			this.executor = Objects.requireNonNull(executor);
+			return this;
+		}
+
+		/**
+		 * Specifies the handler for exceptions that recipients throw when they
+		 * react to an event. By default, they are passed to the uncaught exception
+		 * handler of the delivering thread.
+		 *
+		 * @param exceptionHandler the handler
+		 * @return this builder
+		 */
+		public Builder handleExceptionsWith(Consumer<RuntimeException> exceptionHandler) {
+			this.exceptionHandler = Objects.requireNonNull(exceptionHandler);
+			return this;
+		}
+
+		public BatchingPublisher build() {
+			return new BatchingPublisher(this);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package org.requirementsascode.queue;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, with a bucket for each power of two nanoseconds.
+ * Bucket i counts the durations from 2^i (inclusive) to 2^(i+1) (exclusive)
+ * nanoseconds, bucket 0 also counts durations of 0 nanoseconds.
+ * 
+ * <p>
+ * Recording is lock-free and doesn't allocate. Percentiles are accurate to a
+ * factor of two, which is enough to tell whether events wait microseconds or
+ * seconds.
+ * 
+ * @author b_muth
+ */
+public class DurationHistogram {
+	private static final int NUMBER_OF_BUCKETS = 64;
+
+	private final AtomicLongArray bucketCounts;
+	private final LongAdder count;
+	private final LongAdder totalNanos;
+	private final LongAccumulator maxNanos;
+
+	public DurationHistogram() {
+		this.bucketCounts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+		this.count = new LongAdder();
+		this.totalNanos = new LongAdder();
+		this.maxNanos = new LongAccumulator(Math::max, 0);
+	}
+
+	/**
+	 * Records the specified duration. Negative durations are recorded as 0.
+	 * 
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		long nonNegativeNanos = Math.max(0, nanos);
+		bucketCounts.incrementAndGet(bucketOf(nonNegativeNanos));
+		count.increment();
+		totalNanos.add(nonNegativeNanos);
+		maxNanos.accumulate(nonNegativeNanos);
+	}
+
+	private static int bucketOf(long nanos) {
+		return nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+	}
+
+	/**
+	 * Returns the number of durations recorded.
+	 * 
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the mean of the durations recorded.
+	 * 
+	 * @return the mean in nanoseconds, or 0 if no duration has been recorded
+	 */
+	public double getMeanNanos() {
+		long currentCount = count.sum();
+		return currentCount == 0 ? 0 : (double) totalNanos.sum() / currentCount;
+	}
+
+	/**
+	 * Returns the longest duration recorded.
+	 * 
+	 * @return the maximum in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * Returns an upper bound of the specified percentile of the durations
+	 * recorded: the end of the bucket that contains the percentile, but at most
+	 * the maximum.
+	 * 
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the upper bound in nanoseconds, or 0 if no duration has been
+	 *         recorded
+	 * @throws IllegalArgumentException if the percentile is out of range
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100, but was " + percentile);
+		}
+		long[] counts = new long[NUMBER_OF_BUCKETS];
+		long totalCount = 0;
+		for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+			counts[bucket] = bucketCounts.get(bucket);
+			totalCount += counts[bucket];
+		}
+		if (totalCount == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+		long cumulativeCount = 0;
+		for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+			cumulativeCount += counts[bucket];
+			if (cumulativeCount >= rank) {
+				return Math.min(upperBoundOf(bucket), getMaxNanos());
+			}
+		}
+		return getMaxNanos();
+	}
+
+	private static long upperBoundOf(int bucket) {
+		return bucket >= 62 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+	}
+
+	/**
+	 * Returns the number of durations recorded in the specified bucket.
+	 * 
+	 * @param bucket the bucket, from 0 to 63
+	 * @return the count of the bucket
+	 */
+	public long getBucketCount(int bucket) {
+		return bucketCounts.get(bucket);
+	}
+}
@@ -0,0 +1,40 @@
+package org.requirementsascode.queue;
+
+/**
+ * The buffer that holds the events of an {@link EventQueue} until its producer
+ * thread takes them. Events may be put by many threads, and are taken by a
+ * single thread.
+ *
+ * @author b_muth
+ *
+ */
+interface EventBuffer {
+	/**
+	 * Puts an event in the buffer, waiting for space if necessary.
+	 *
+	 * @param event the event, must not be null
+	 * @return true if the event has been put, false if the buffer has been
+	 *         closed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	boolean put(Object event) throws InterruptedException;
+
+	/**
+	 * Takes the oldest event from the buffer, waiting for one if necessary.
+	 *
+	 * @return the event
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	Object take() throws InterruptedException;
+
+	/**
+	 * Closes the buffer: events put from now on are dropped, and producers that
+	 * wait for space stop waiting. Events already in the buffer can still be
+	 * taken.
+	 */
+	void close();
+
+	int size();
+
+	boolean isEmpty();
+}
@@ -1,6 +1,7 @@
 package org.requirementsascode.queue;
 
-import java.util.concurrent.BlockingDeque;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.function.Consumer;
 
@@ -10,14 +11,25 @@ import java.util.function.Consumer;
  * 
  * To do that, it internally runs its own event producer thread.
  * 
+ * If an {@link EventQueueListener} is specified, the queue tells it when
+ * events are put and consumed, with the time each event waited in the queue
+ * and the time the consumer took.
+ * 
+ * By default, the queue is unbounded and backed by a
+ * {@link LinkedBlockingDeque}. Use {@link #builder(Consumer)} to back it by a
+ * preallocated ring buffer instead, which doesn't allocate memory per event and
+ * doesn't lock when many threads put events.
+ * 
  * @author b_muth
  *
  */
 public class EventQueue {
-	private final BlockingDeque<Object> events;
+	private final EventBuffer events;
 	private final EventProducer eventProducer;
 	private final Thread eventProducerThread;
 	private final Consumer<Object> eventConsumer;
+	private final EventQueueListener listener;
+	private final boolean isListened;
 
 	/**
 	 * Create an event queue whose events will be consumed by the specified
@@ -26,37 +38,98 @@ public class EventQueue {
 	 * @param eventConsumer the target of events
 	 */
 	public EventQueue(Consumer<Object> eventConsumer) {
-		this.events = new LinkedBlockingDeque<Object>();
+		this(eventConsumer, EventQueueListener.NONE);
+	}
+
+	/**
+	 * Create an event queue whose events will be consumed by the specified
+	 * consumer, and that notifies the specified listener.
+	 * 
+	 * @param eventConsumer the target of events
+	 * @param listener      the listener, e.g. an {@link EventQueueStatistics}
+	 */
+	public EventQueue(Consumer<Object> eventConsumer, EventQueueListener listener) {
+		this(new DequeEventBuffer(), eventConsumer, listener);
+	}
+
+	private EventQueue(EventBuffer events, Consumer<Object> eventConsumer, EventQueueListener listener) {
+		this.events = events;
 		this.eventProducer = new EventProducer();
 		this.eventProducerThread = new Thread(eventProducer);
 		this.eventConsumer = eventConsumer;
+		this.listener = Objects.requireNonNull(listener);
+		this.isListened = listener != EventQueueListener.NONE;
 		eventProducerThread.start();
 	}
 
+	/**
+	 * Creates a builder for an event queue whose events will be consumed by the
+	 * specified consumer.
+	 * 
+	 * @param eventConsumer the target of events
+	 * @return the builder
+	 */
+	public static Builder builder(Consumer<Object> eventConsumer) {
+		return new Builder(eventConsumer);
+	}
+
 	/**
 	 * Puts an event in the queue, that will be provided to the consumer
 	 * (if the event queue hasn't been stopped).
 	 * 
+	 * The event is dropped if the queue has been stopped, or if the thread is
+	 * interrupted while waiting for a free slot of a full ring buffer. In the
+	 * latter case, the thread's interrupt status is set again. Use
+	 * {@link #offer(Object)} to find out whether the event has been dropped.
+	 * 
 	 * @param event the event for the queue
 	 */
 	public void put(Object event) {
+		offer(event);
+	}
+
+	/**
+	 * Puts an event in the queue like {@link #put(Object)}, and returns whether
+	 * it has been put.
+	 * 
+	 * @param event the event for the queue
+	 * @return true if the event has been put, false if it has been dropped
+	 *         because the queue has been stopped or the thread has been
+	 *         interrupted
+	 */
+	public boolean offer(Object event) {
+		Objects.requireNonNull(event);
 		try {
-			events.put(event);
+			return isListened ? putQueuedEvent(event) : events.put(event);
 		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private boolean putQueuedEvent(Object event) throws InterruptedException {
+		boolean isPut = events.put(new QueuedEvent(event, System.nanoTime()));
+		if (isPut) {
+			listener.eventPut(event, events.size());
 		}
+		return isPut;
 	}
 
 	/**
 	 * Stop providing events to the consumer.
 	 * 
-	 * Internally, that stops the producer thread.
+	 * Internally, that stops the producer thread. Events put from now on are
+	 * dropped, and threads waiting to put an event into a full ring buffer stop
+	 * waiting.
 	 */
 	public void stop() {
+		events.close();
 		eventProducer.stopProviding();
 		try {
 			eventProducerThread.interrupt();
 			eventProducerThread.join();
 		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
 	}
 
@@ -73,6 +146,115 @@ public class EventQueue {
 		return events.size();
 	}
 
+	/**
+	 * Builder for an {@link EventQueue}.
+	 */
+	public static class Builder {
+		private final Consumer<Object> eventConsumer;
+		private EventQueueListener listener;
+		private int ringBufferCapacity;
+		private WaitStrategy waitStrategy;
+
+		private Builder(Consumer<Object> eventConsumer) {
+			this.eventConsumer = Objects.requireNonNull(eventConsumer);
+			this.listener = EventQueueListener.NONE;
+		}
+
+		/**
+		 * Notifies the specified listener when events are put and consumed.
+		 * 
+		 * @param listener the listener, e.g. an {@link EventQueueStatistics}
+		 * @return this builder
+		 */
+		public Builder listener(EventQueueListener listener) {
+			this.listener = Objects.requireNonNull(listener);
+			return this;
+		}
+
+		/**
+		 * Backs the queue by a preallocated ring buffer for many threads that put
+		 * events. If the ring buffer is full, {@link EventQueue#put(Object)} waits
+		 * for a free slot, or until the queue is stopped.
+		 * 
+		 * @param capacity     the maximum number of events in the queue, a power of
+		 *                     two of at least 2
+		 * @param waitStrategy how to wait if the queue is full or empty
+		 * @return this builder
+		 * @throws IllegalArgumentException if the capacity isn't a power of two of
+		 *                                  at least 2
+		 */
+		public Builder ringBuffer(int capacity, WaitStrategy waitStrategy) {
+			if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+				throw new IllegalArgumentException("Capacity must be a power of two of at least 2, but was " + capacity);
+			}
+			this.ringBufferCapacity = capacity;
+			this.waitStrategy = Objects.requireNonNull(waitStrategy);
+			return this;
+		}
+
+		/**
+		 * Creates the event queue, and starts its event producer thread.
+		 * 
+		 * @return the event queue
+		 */
+		public EventQueue build() {
+			EventBuffer events = waitStrategy == null ? new DequeEventBuffer()
+				: new MpscRingBuffer(ringBufferCapacity, waitStrategy);
+			return new EventQueue(events, eventConsumer, listener);
+		}
+	}
+
+	/**
+	 * The default, unbounded event buffer.
+	 */
+	private static class DequeEventBuffer implements EventBuffer {
+		private final BlockingQueue<Object> events = new LinkedBlockingDeque<>();
+		private volatile boolean isClosed;
+
+		@Override
+		public boolean put(Object event) throws InterruptedException {
+			if (isClosed) {
+				return false;
+			}
+			events.put(event);
+			return true;
+		}
+
+		@Override
+		public void close() {
+			isClosed = true;
+		}
+
+		@Override
+		public Object take() throws InterruptedException {
+			return events.take();
+		}
+
+		@Override
+		public int size() {
+			return events.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return events.isEmpty();
+		}
+	}
+
+	/**
+	 * An event together with the time it has been put, used if the queue has a
+	 * listener.
+	 */
+	private static class QueuedEvent {
+		private final Object event;
+		private final long putNanos;
+
+		private QueuedEvent(Object event, long putNanos) {
+			this.event = event;
+			this.putNanos = putNanos;
+		}
+	}
+
 	private class EventProducer implements Runnable {
 		private boolean isRunning = true;
 
@@ -87,7 +269,18 @@ public class EventQueue {
 		}
 
 		private void consume(Object event) {
-			eventConsumer.accept(event);
+			if (event instanceof QueuedEvent) {
+				consumeQueuedEvent((QueuedEvent) event);
+			} else {
+				eventConsumer.accept(event);
+			}
+		}
+
+		private void consumeQueuedEvent(QueuedEvent queuedEvent) {
+			long takenNanos = System.nanoTime();
+			eventConsumer.accept(queuedEvent.event);
+			long consumedNanos = System.nanoTime();
+			listener.eventConsumed(queuedEvent.event, takenNanos - queuedEvent.putNanos, consumedNanos - takenNanos);
 		}
 
 		private Object take() {
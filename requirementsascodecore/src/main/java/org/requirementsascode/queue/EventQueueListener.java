@@ -0,0 +1,43 @@
+package org.requirementsascode.queue;
+
+/**
+ * Is notified when events are put into an event queue, and when the consumer
+ * of the queue has consumed them. Use it to measure the backlog and latency of
+ * a queue, e.g. with {@link EventQueueStatistics}.
+ * 
+ * <p>
+ * {@link #eventPut(Object, int)} is called by the threads that put events, so
+ * it may be called concurrently. {@link #eventConsumed(Object, long, long)} is
+ * called by the thread of the queue. Both methods do nothing by default.
+ * 
+ * @see EventQueue#EventQueue(java.util.function.Consumer, EventQueueListener)
+ * @author b_muth
+ */
+public interface EventQueueListener {
+	/**
+	 * The listener that an event queue uses by default. It does nothing.
+	 */
+	EventQueueListener NONE = new EventQueueListener() {
+	};
+
+	/**
+	 * Called after an event has been put into the queue.
+	 * 
+	 * @param event the event
+	 * @param size  the number of events in the queue, after the event has been
+	 *              put
+	 */
+	default void eventPut(Object event, int size) {
+	}
+
+	/**
+	 * Called after the consumer has consumed an event.
+	 * 
+	 * @param event           the event
+	 * @param waitNanos       the time the event has waited in the queue, in
+	 *                        nanoseconds
+	 * @param processingNanos the time the consumer took, in nanoseconds
+	 */
+	default void eventConsumed(Object event, long waitNanos, long processingNanos) {
+	}
+}
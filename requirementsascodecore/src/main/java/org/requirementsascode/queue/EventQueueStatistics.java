@@ -0,0 +1,102 @@
+package org.requirementsascode.queue;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An event queue listener that collects statistics: the number of events put
+ * and consumed, the backlog and its high watermark, and histograms of the
+ * times events waited in the queue and the consumer took to process them.
+ * 
+ * <p>
+ * A growing backlog, or growing wait times, mean that the consumer can't keep
+ * up with the producers.
+ * 
+ * @author b_muth
+ */
+public class EventQueueStatistics implements EventQueueListener {
+	private final LongAdder numberOfPutEvents;
+	private final LongAdder numberOfConsumedEvents;
+	private final LongAccumulator highWatermark;
+	private final DurationHistogram waitTimes;
+	private final DurationHistogram processingTimes;
+
+	public EventQueueStatistics() {
+		this.numberOfPutEvents = new LongAdder();
+		this.numberOfConsumedEvents = new LongAdder();
+		this.highWatermark = new LongAccumulator(Math::max, 0);
+		this.waitTimes = new DurationHistogram();
+		this.processingTimes = new DurationHistogram();
+	}
+
+	@Override
+	public void eventPut(Object event, int size) {
+		numberOfPutEvents.increment();
+		highWatermark.accumulate(size);
+	}
+
+	@Override
+	public void eventConsumed(Object event, long waitNanos, long processingNanos) {
+		numberOfConsumedEvents.increment();
+		waitTimes.record(waitNanos);
+		processingTimes.record(processingNanos);
+	}
+
+	/**
+	 * Returns the number of events that have been put into the queue.
+	 * 
+	 * @return the number of events put
+	 */
+	public long getNumberOfPutEvents() {
+		return numberOfPutEvents.sum();
+	}
+
+	/**
+	 * Returns the number of events that the consumer has consumed.
+	 * 
+	 * @return the number of events consumed
+	 */
+	public long getNumberOfConsumedEvents() {
+		return numberOfConsumedEvents.sum();
+	}
+
+	/**
+	 * Returns the number of events that have been put, but not consumed yet,
+	 * including the event that is being consumed.
+	 * 
+	 * @return the backlog
+	 */
+	public long getBacklog() {
+		return Math.max(0, getNumberOfPutEvents() - getNumberOfConsumedEvents());
+	}
+
+	/**
+	 * Returns the highest number of events that have been in the queue at the
+	 * same time.
+	 * 
+	 * @return the high watermark
+	 */
+	public long getHighWatermark() {
+		return highWatermark.get();
+	}
+
+	/**
+	 * Returns the histogram of the times the events waited in the queue before
+	 * the consumer took them.
+	 * 
+	 * @return the histogram
+	 */
+	public DurationHistogram getWaitTimes() {
+		return waitTimes;
+	}
+
+	/**
+	 * Returns the histogram of the times the consumer took to process the
+	 * events.
+	 * 
+	 * @return the histogram
+	 */
+	public DurationHistogram getProcessingTimes() {
+		return processingTimes;
+	}
+}
@@ -0,0 +1,151 @@
+package org.requirementsascode.queue;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free event buffer for many producer threads and a single
+ * consumer thread. It preallocates its slots, so putting an event doesn't
+ * allocate memory.
+ *
+ * Each slot has a sequence number. A producer claims the next position with a
+ * compare-and-set, writes the event to its slot, and then publishes it by
+ * advancing the slot's sequence number. The consumer takes the event once it is
+ * published, and frees the slot for the producer that puts an event to it one
+ * round later.
+ *
+ * If the buffer is full or empty, the threads wait according to the
+ * {@link WaitStrategy}, and stop waiting when they are interrupted. Producers
+ * also stop waiting when the buffer is closed.
+ *
+ * @author b_muth
+ *
+ */
+final class MpscRingBuffer implements EventBuffer {
+	private final Object[] slots;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final WaitStrategy waitStrategy;
+	private final AtomicLong putPosition;
+	private final AtomicLong takePosition;
+	private volatile boolean isClosed;
+
+	/**
+	 * Creates a ring buffer.
+	 *
+	 * @param capacity     the number of slots, a power of two of at least 2, so
+	 *                     that a published slot can be told apart from a slot
+	 *                     that is free for the next round
+	 * @param waitStrategy how to wait if the buffer is full or empty
+	 * @throws IllegalArgumentException if the capacity isn't a power of two of at
+	 *                                  least 2
+	 */
+	MpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Capacity must be a power of two of at least 2, but was " + capacity);
+		}
+		this.slots = new Object[capacity];
+		this.sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+		this.mask = capacity - 1;
+		this.waitStrategy = Objects.requireNonNull(waitStrategy);
+		this.putPosition = new AtomicLong();
+		this.takePosition = new AtomicLong();
+	}
+
+	@Override
+	public boolean put(Object event) throws InterruptedException {
+		Objects.requireNonNull(event);
+		int attempt = 0;
+		while (!isClosed) {
+			if (offer(event)) {
+				return true;
+			}
+			attempt = waitOrThrowIfInterrupted(attempt);
+		}
+		return false;
+	}
+
+	/**
+	 * Puts an event in the buffer, if it isn't full.
+	 *
+	 * @param event the event
+	 * @return true if the event has been put, false if the buffer is full
+	 */
+	boolean offer(Object event) {
+		while (true) {
+			long position = putPosition.get();
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (putPosition.compareAndSet(position, position + 1)) {
+					slots[index] = event;
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+			} else if (difference < 0) {
+				return false;
+			}
+		}
+	}
+
+	@Override
+	public Object take() throws InterruptedException {
+		int attempt = 0;
+		Object event;
+		while ((event = poll()) == null) {
+			attempt = waitOrThrowIfInterrupted(attempt);
+		}
+		return event;
+	}
+
+	/**
+	 * Takes the oldest event from the buffer, if there is one. Must only be
+	 * called by the consumer thread.
+	 *
+	 * @return the event, or null if the buffer is empty
+	 */
+	Object poll() {
+		long position = takePosition.get();
+		int index = (int) position & mask;
+		if (sequences.get(index) != position + 1) {
+			return null;
+		}
+		Object event = slots[index];
+		slots[index] = null;
+		sequences.lazySet(index, position + slots.length);
+		takePosition.lazySet(position + 1);
+		return event;
+	}
+
+	private int waitOrThrowIfInterrupted(int attempt) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		waitStrategy.idle(attempt);
+		return attempt == Integer.MAX_VALUE ? attempt : attempt + 1;
+	}
+
+	@Override
+	public void close() {
+		isClosed = true;
+	}
+
+	@Override
+	public int size() {
+		long size = putPosition.get() - takePosition.get();
+		return (int) Math.max(0, Math.min(slots.length, size));
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	int getCapacity() {
+		return slots.length;
+	}
+}
@@ -0,0 +1,66 @@
+package org.requirementsascode.queue;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a ring buffer backed {@link EventQueue} waits: its consumer waits for
+ * events if the queue is empty, and its producers wait for free slots if the
+ * queue is full.
+ *
+ * The strategies trade CPU usage for latency. {@link #BUSY_SPIN} has the lowest
+ * latency, but keeps a core busy while waiting. {@link #PARK} uses the least
+ * CPU, but may delay an event by the park time.
+ *
+ * @see EventQueue.Builder#ringBuffer(int, WaitStrategy)
+ * @author b_muth
+ *
+ */
+public enum WaitStrategy {
+	/**
+	 * Spins in a loop. Use it only if there are more cores than busy threads.
+	 */
+	BUSY_SPIN {
+		@Override
+		void idle(int attempt) {
+		}
+	},
+
+	/**
+	 * Spins a few times, then yields the thread to other threads.
+	 */
+	YIELD {
+		@Override
+		void idle(int attempt) {
+			if (attempt >= SPIN_ATTEMPTS) {
+				Thread.yield();
+			}
+		}
+	},
+
+	/**
+	 * Spins a few times, then yields a few times, then parks the thread for
+	 * {@value #PARK_NANOS} nanoseconds at a time.
+	 */
+	PARK {
+		@Override
+		void idle(int attempt) {
+			if (attempt >= SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+				LockSupport.parkNanos(PARK_NANOS);
+			} else if (attempt >= SPIN_ATTEMPTS) {
+				Thread.yield();
+			}
+		}
+	};
+
+	static final int SPIN_ATTEMPTS = 100;
+	static final int YIELD_ATTEMPTS = 100;
+	static final long PARK_NANOS = 50_000;
+
+	/**
+	 * Waits once, after the specified number of unsuccessful attempts to take or
+	 * put an event.
+	 *
+	 * @param attempt the number of attempts so far, starting at 0
+	 */
+	abstract void idle(int attempt);
+}
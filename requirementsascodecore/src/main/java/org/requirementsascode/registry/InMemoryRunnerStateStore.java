@@ -0,0 +1,31 @@
+package org.requirementsascode.registry;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A runner state store that keeps the states in memory. The states need far
+ * less memory than the runners themselves.
+ *
+ * @param <K> the type of session ids
+ * @author b_muth
+ */
+public class InMemoryRunnerStateStore<K> implements RunnerStateStore<K> {
+  private final Map<K, RunnerState> states = new ConcurrentHashMap<>();
+
+  @Override
+  public void save(K sessionId, RunnerState state) {
+    states.put(Objects.requireNonNull(sessionId), Objects.requireNonNull(state));
+  }
+
+  @Override
+  public Optional<RunnerState> remove(K sessionId) {
+    return Optional.ofNullable(states.remove(sessionId));
+  }
+
+  public int size() {
+    return states.size();
+  }
+}
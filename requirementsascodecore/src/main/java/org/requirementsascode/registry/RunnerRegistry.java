@@ -0,0 +1,362 @@
+package org.requirementsascode.registry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+
+/**
+ * A registry that holds a model runner for each session (i.e. user journey) of
+ * a shared model.
+ *
+ * <p>
+ * The registry creates the runner of a session when the first message for the
+ * session arrives. Access to the runner of a session is serialized, so the
+ * registry can be used by many threads. Sessions are distributed to a fixed
+ * number of locks ("stripes"): messages for different sessions are handled in
+ * parallel, unless their sessions share a stripe.
+ *
+ * <p>
+ * If a time to idle has been specified, call {@link #evictIdleRunners()}
+ * periodically. It removes the runners of sessions that haven't been accessed
+ * for that time. If a {@link RunnerStateStore} has been specified, the state of
+ * an evicted runner is saved to it, and restored when the next message for its
+ * session arrives. Runners that wait for an asynchronous system reaction to
+ * complete are never evicted, as that would discard their buffered messages.
+ * When such a reaction completes, the runner is resumed while the lock of its
+ * session is held. For that, the registry replaces the executor that has been
+ * defined with {@link ModelRunner#resumeWith(java.util.concurrent.Executor)}.
+ *
+ * <p>
+ * Don't access the registry from a system reaction of one of its runners for a
+ * different session: as the lock of the current session is held, that may
+ * cause a deadlock.
+ *
+ * @param <K> the type of session ids
+ * @author b_muth
+ */
+public class RunnerRegistry<K> {
+  private static final int DEFAULT_NUMBER_OF_STRIPES = 64;
+
+  private final Model model;
+  private final Supplier<ModelRunner> runnerSupplier;
+  private final long timeToIdleNanos;
+  private final RunnerStateStore<K> stateStore;
+  private final LongSupplier nanoClock;
+  private final Lock[] stripes;
+  private final Map<K, Session> sessions;
+
+  private final AtomicLong numberOfCreatedRunners;
+  private final AtomicLong numberOfRestoredRunners;
+  private final AtomicLong numberOfEvictedRunners;
+
+  private RunnerRegistry(Builder<K> builder) {
+    this.model = builder.model;
+    this.runnerSupplier = builder.runnerSupplier;
+    this.timeToIdleNanos = builder.timeToIdle == null ? Long.MAX_VALUE : builder.timeToIdle.toNanos();
+    this.stateStore = builder.stateStore;
+    this.nanoClock = builder.nanoClock;
+    this.stripes = new Lock[builder.numberOfStripes];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+    this.sessions = new ConcurrentHashMap<>();
+    this.numberOfCreatedRunners = new AtomicLong();
+    this.numberOfRestoredRunners = new AtomicLong();
+    this.numberOfEvictedRunners = new AtomicLong();
+  }
+
+  /**
+   * Returns a builder for a registry of runners for the specified model.
+   *
+   * @param <K>   the type of session ids
+   * @param model the model that each runner runs
+   * @return the builder
+   */
+  public static <K> Builder<K> builder(Model model) {
+    return new Builder<>(model);
+  }
+
+  /**
+   * Lets the runner of the specified session react to the specified message. If
+   * the session has no runner yet, it is created first.
+   *
+   * @param <U>       the return type that you as the user expects
+   * @param sessionId the id of the session
+   * @param message   the message object
+   * @return the event that was published (latest) if the system reacted, or an
+   *         empty Optional
+   * @see ModelRunner#reactTo(Object)
+   */
+  public <U> Optional<U> reactTo(K sessionId, Object message) {
+    Objects.requireNonNull(message);
+    return withRunner(sessionId, runner -> runner.reactTo(message));
+  }
+
+  /**
+   * Calls the specified function with the runner of the specified session, and
+   * returns the result. If the session has no runner yet, it is created first.
+   * No other thread accesses the runner while the function is called.
+   *
+   * @param <T>       the type of result
+   * @param sessionId the id of the session
+   * @param function  the function to call, don't let the runner escape from it
+   * @return the result of the function
+   */
+  public <T> T withRunner(K sessionId, Function<ModelRunner, T> function) {
+    Objects.requireNonNull(sessionId);
+    Objects.requireNonNull(function);
+
+    Lock lock = stripeOf(sessionId);
+    lock.lock();
+    try {
+      Session session = sessions.get(sessionId);
+      if (session == null) {
+        session = new Session(createRunner(sessionId));
+        sessions.put(sessionId, session);
+      }
+      session.lastAccessNanos = nanoClock.getAsLong();
+      return function.apply(session.runner);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ModelRunner createRunner(K sessionId) {
+    ModelRunner runner = runnerSupplier.get();
+    runner.resumeWith(resumption -> withStripeOf(sessionId, resumption));
+    Optional<RunnerState> storedState = stateStore == null ? Optional.empty() : stateStore.remove(sessionId);
+    if (storedState.isPresent()) {
+      storedState.get().restoreTo(runner, model);
+      numberOfRestoredRunners.incrementAndGet();
+    } else {
+      runner.run(model);
+      numberOfCreatedRunners.incrementAndGet();
+    }
+    return runner;
+  }
+
+  /**
+   * Removes the runner of the specified session, without saving its state. Call
+   * this method when the user journey of the session has ended.
+   *
+   * @param sessionId the id of the session
+   * @return true if the session had a runner, false otherwise
+   */
+  public boolean remove(K sessionId) {
+    Objects.requireNonNull(sessionId);
+
+    Lock lock = stripeOf(sessionId);
+    lock.lock();
+    try {
+      if (stateStore != null) {
+        stateStore.remove(sessionId);
+      }
+      return sessions.remove(sessionId) != null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Evicts the runners of the sessions that haven't been accessed for the time
+   * to idle, unless they are suspended. If a state store has been specified, the
+   * states of the evicted runners are saved to it.
+   *
+   * @return the number of evicted runners
+   */
+  public int evictIdleRunners() {
+    int numberOfEvictions = 0;
+    for (Map.Entry<K, Session> entry : sessions.entrySet()) {
+      if (isIdle(entry.getValue()) && evictIfIdle(entry.getKey())) {
+        numberOfEvictions++;
+      }
+    }
+    return numberOfEvictions;
+  }
+
+  private boolean evictIfIdle(K sessionId) {
+    Lock lock = stripeOf(sessionId);
+    lock.lock();
+    try {
+      // Check again, the session may have been accessed in the meantime
+      Session session = sessions.get(sessionId);
+      if (session == null || !isIdle(session) || session.runner.isSuspended()) {
+        return false;
+      }
+      if (stateStore != null) {
+        stateStore.save(sessionId, RunnerState.of(session.runner));
+      }
+      sessions.remove(sessionId);
+      numberOfEvictedRunners.incrementAndGet();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean isIdle(Session session) {
+    long idleNanos = nanoClock.getAsLong() - session.lastAccessNanos;
+    return idleNanos >= timeToIdleNanos;
+  }
+
+  /**
+   * Returns the number of sessions that currently have a runner.
+   *
+   * @return the number of live sessions
+   */
+  public int getNumberOfLiveSessions() {
+    return sessions.size();
+  }
+
+  /**
+   * Returns the number of runners that have been created for new sessions, i.e.
+   * without restoring a stored state.
+   *
+   * @return the number of created runners
+   */
+  public long getNumberOfCreatedRunners() {
+    return numberOfCreatedRunners.get();
+  }
+
+  /**
+   * Returns the number of runners whose state has been restored from the state
+   * store.
+   *
+   * @return the number of restored runners
+   */
+  public long getNumberOfRestoredRunners() {
+    return numberOfRestoredRunners.get();
+  }
+
+  /**
+   * Returns the number of runners that have been evicted so far. To get the
+   * eviction rate, sample this number in regular intervals.
+   *
+   * @return the number of evicted runners
+   */
+  public long getNumberOfEvictedRunners() {
+    return numberOfEvictedRunners.get();
+  }
+
+  private void withStripeOf(K sessionId, Runnable runnable) {
+    Lock lock = stripeOf(sessionId);
+    lock.lock();
+    try {
+      runnable.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Lock stripeOf(K sessionId) {
+    int hash = sessionId.hashCode();
+    int spreadHash = hash ^ (hash >>> 16);
+    return stripes[(spreadHash & 0x7fffffff) % stripes.length];
+  }
+
+  private static class Session {
+    private final ModelRunner runner;
+    private volatile long lastAccessNanos;
+
+    private Session(ModelRunner runner) {
+      this.runner = runner;
+    }
+  }
+
+  /**
+   * Builder for a {@link RunnerRegistry}.
+   *
+   * @param <K> the type of session ids
+   */
+  public static class Builder<K> {
+    private final Model model;
+    private Supplier<ModelRunner> runnerSupplier;
+    private Duration timeToIdle;
+    private RunnerStateStore<K> stateStore;
+    private LongSupplier nanoClock;
+    private int numberOfStripes;
+
+    private Builder(Model model) {
+      this.model = Objects.requireNonNull(model);
+      this.runnerSupplier = ModelRunner::new;
+      this.nanoClock = System::nanoTime;
+      this.numberOfStripes = DEFAULT_NUMBER_OF_STRIPES;
+    }
+
+    /**
+     * Supplies the runners, e.g. to configure them with handlers. The registry
+     * runs the supplied runners with the model.
+     *
+     * @param runnerSupplier the supplier of new, unconfigured runners
+     * @return this builder
+     */
+    public Builder<K> runners(Supplier<ModelRunner> runnerSupplier) {
+      this.runnerSupplier = Objects.requireNonNull(runnerSupplier);
+      return this;
+    }
+
+    /**
+     * Lets {@link RunnerRegistry#evictIdleRunners()} evict the runners of
+     * sessions that haven't been accessed for the specified time.
+     *
+     * @param timeToIdle the time after which a runner is idle
+     * @return this builder
+     */
+    public Builder<K> evictAfter(Duration timeToIdle) {
+      this.timeToIdle = Objects.requireNonNull(timeToIdle);
+      return this;
+    }
+
+    /**
+     * Saves the state of evicted runners to the specified store.
+     *
+     * @param stateStore the store
+     * @return this builder
+     */
+    public Builder<K> spillTo(RunnerStateStore<K> stateStore) {
+      this.stateStore = Objects.requireNonNull(stateStore);
+      return this;
+    }
+
+    /**
+     * Replaces the time source, e.g. for testing.
+     *
+     * @param nanoClock a clock that returns nanoseconds, like
+     *                  {@link System#nanoTime()}
+     * @return this builder
+     */
+    public Builder<K> clock(LongSupplier nanoClock) {
+      this.nanoClock = Objects.requireNonNull(nanoClock);
+      return this;
+    }
+
+    /**
+     * Specifies the number of locks the sessions are distributed to.
+     *
+     * @param numberOfStripes the number of locks, at least 1
+     * @return this builder
+     */
+    public Builder<K> stripes(int numberOfStripes) {
+      if (numberOfStripes < 1) {
+        throw new IllegalArgumentException("Number of stripes must be at least 1, but was " + numberOfStripes);
+      }
+      this.numberOfStripes = numberOfStripes;
+      return this;
+    }
+
+    public RunnerRegistry<K> build() {
+      return new RunnerRegistry<>(this);
+    }
+  }
+}
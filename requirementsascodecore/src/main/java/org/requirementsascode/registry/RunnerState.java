@@ -0,0 +1,87 @@
+package org.requirementsascode.registry;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.Step;
+
+/**
+ * The state of a model runner that is needed to continue its user journey: the
+ * latest step run, and whether the runner is running. The state refers to the
+ * step by name, so it can be stored outside of the process.
+ *
+ * @author b_muth
+ */
+public class RunnerState implements Serializable {
+  private static final long serialVersionUID = 4270564880012117216L;
+
+  private final String useCaseName;
+  private final String stepName;
+  private final boolean isRunning;
+
+  public RunnerState(String useCaseName, String stepName, boolean isRunning) {
+    this.useCaseName = useCaseName;
+    this.stepName = stepName;
+    this.isRunning = isRunning;
+  }
+
+  /**
+   * Returns the state of the specified runner.
+   * 
+   * @param modelRunner the runner whose state to return
+   * @return the state
+   */
+  public static RunnerState of(ModelRunner modelRunner) {
+    Objects.requireNonNull(modelRunner);
+    Step latestStep = modelRunner.getLatestStep().orElse(null);
+    String useCaseName = latestStep == null ? null : latestStep.getUseCase().getName();
+    String stepName = latestStep == null ? null : latestStep.getName();
+    return new RunnerState(useCaseName, stepName, modelRunner.isRunning());
+  }
+
+  /**
+   * Restores this state to the specified runner. If the state is running, the
+   * runner runs the specified model afterwards, without triggering autonomous
+   * system reactions again.
+   * 
+   * @param modelRunner the runner to restore the state to
+   * @param model       the model containing the latest step
+   * @throws org.requirementsascode.exception.NoSuchElementInModel if the model
+   *                                                               doesn't
+   *                                                               contain the
+   *                                                               latest step
+   */
+  public void restoreTo(ModelRunner modelRunner, Model model) {
+    Objects.requireNonNull(modelRunner);
+    Objects.requireNonNull(model);
+    Step latestStep = null;
+    if (useCaseName != null && stepName != null) {
+      latestStep = model.findUseCase(useCaseName).findStep(stepName);
+    }
+    if (isRunning) {
+      modelRunner.restore(model, latestStep);
+    } else {
+      modelRunner.setLatestStep(latestStep);
+    }
+  }
+
+  public Optional<String> getUseCaseName() {
+    return Optional.ofNullable(useCaseName);
+  }
+
+  public Optional<String> getStepName() {
+    return Optional.ofNullable(stepName);
+  }
+
+  public boolean isRunning() {
+    return isRunning;
+  }
+
+  @Override
+  public String toString() {
+    return "RunnerState [useCaseName=" + useCaseName + ", stepName=" + stepName + ", isRunning=" + isRunning + "]";
+  }
+}
@@ -0,0 +1,33 @@
+package org.requirementsascode.registry;
+
+import java.util.Optional;
+
+/**
+ * A store for the state of runners that the {@link RunnerRegistry} has
+ * evicted. When a message for an evicted session arrives, the registry creates
+ * a new runner and restores the stored state.
+ * 
+ * <p>
+ * Implementations must be thread-safe. The registry never calls them
+ * concurrently for the same session, though.
+ *
+ * @param <K> the type of session ids
+ * @author b_muth
+ */
+public interface RunnerStateStore<K> {
+  /**
+   * Saves the state of the runner of the specified session.
+   * 
+   * @param sessionId the session whose runner has been evicted
+   * @param state     the state of the runner
+   */
+  void save(K sessionId, RunnerState state);
+
+  /**
+   * Removes the state of the runner of the specified session, and returns it.
+   * 
+   * @param sessionId the session whose runner is created again
+   * @return the state, or an empty optional if none has been saved
+   */
+  Optional<RunnerState> remove(K sessionId);
+}
@@ -0,0 +1,7 @@
+/**
+ * Registry package of requirementsascode, containing classes that manage the
+ * model runners of many concurrent sessions.
+ * 
+ * @author b_muth
+ */
+package org.requirementsascode.registry;
@@ -4,7 +4,7 @@ import org.requirementsascode.FlowStep;
 import org.requirementsascode.ModelRunner;
 
 public abstract class AbstractContinuesAfter extends AbstractContinues<ModelRunner> {
-	private FlowStep previousStep;
+	private volatile FlowStep previousStep;
 
 	public AbstractContinuesAfter(String stepName) {
 		super(stepName);
@@ -4,7 +4,7 @@ import org.requirementsascode.FlowStep;
 
 public class ContinuesAt<T> extends AbstractContinues<T> {
   private FlowStep currentStep;
-  private FlowStep continueAtStep;
+  private volatile FlowStep continueAtStep;
 
   public ContinuesAt(String continueAtStepName, FlowStep currentStep) {
     super(continueAtStepName);
@@ -19,8 +19,15 @@ public class ContinuesAt<T> extends AbstractContinues<T> {
     }
   }
 
-  public void resolveContinueAtStep() {
-    continueAtStep = ((FlowStep) currentStep.getUseCase().findStep(getStepName()));
-    continueAtStep.orAfter(currentStep);
+  /**
+   * Lets the step to continue at react after the current step. Only does that
+   * once, even if the use case is resolved again.
+   */
+  public synchronized void resolveContinueAtStep() {
+    if (continueAtStep == null) {
+      FlowStep resolvedStep = (FlowStep) currentStep.getUseCase().findStep(getStepName());
+      resolvedStep.orAfter(currentStep);
+      continueAtStep = resolvedStep;
+    }
   }
 }
\ No newline at end of file
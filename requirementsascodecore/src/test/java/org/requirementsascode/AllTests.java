@@ -3,11 +3,23 @@ package org.requirementsascode;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
+import org.requirementsascode.analysis.AmbiguityAnalysisTest;
+import org.requirementsascode.analysis.ModelAnalyzerTest;
 import org.requirementsascode.builder.BuildModelTest;
+import org.requirementsascode.definition.ModelDefinitionTest;
+import org.requirementsascode.queue.BatchingPublisherTest;
+import org.requirementsascode.queue.EventQueueStatisticsTest;
+import org.requirementsascode.queue.MpscRingBufferTest;
+import org.requirementsascode.registry.RunnerRegistryTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({ BuildModelTest.class, RunStopAndRestartTest.class, FlowTest.class, ReactToTypesTest.class, FlowlessTest.class,
 	ExceptionsThrownTest.class, ExceptionHandlingTest.class, NonStandardEventHandlingTest.class,
-	IncludesTest.class, RecordingTest.class, ActorWithBehaviorTest.class, FlowWithCaseStepTest.class })
+	IncludesTest.class, RecordingTest.class, ActorWithBehaviorTest.class, FlowWithCaseStepTest.class,
+	ConditionResultCachingTest.class, PureConditionTest.class, ReactToTypesSubscriptionTest.class, ConcurrencyModeTest.class, AsyncSystemReactionTest.class, MessageClassIndexTest.class,
+		LazyModelBuildingTest.class,
+	AmbiguityAnalysisTest.class, ModelAnalyzerTest.class, RunnerRegistryTest.class, BatchingPublisherTest.class,
+	ModelDefinitionTest.class, DispatchMonitorTest.class, EventQueueStatisticsTest.class,
+	MpscRingBufferTest.class })
 public class AllTests {
 }
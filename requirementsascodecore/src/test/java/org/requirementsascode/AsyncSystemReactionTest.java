@@ -0,0 +1,260 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncSystemReactionTest extends AbstractTestCase {
+	private CompletableFuture<String> remoteCall;
+	private List<Object> publishedEvents;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		remoteCall = new CompletableFuture<>();
+		publishedEvents = new ArrayList<>();
+	}
+
+	@Test
+	public void suspendsUntilStageCompletes() {
+		Model model = modelBuilder
+			.user(EntersText.class).systemAsync(entersText -> remoteCall)
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.reactTo(entersText());
+		assertTrue(modelRunner.isSuspended());
+		assertFalse(modelRunner.whenResumed().toCompletableFuture().isDone());
+
+		remoteCall.complete(TEXT);
+		assertFalse(modelRunner.isSuspended());
+		assertTrue(modelRunner.whenResumed().toCompletableFuture().isDone());
+	}
+
+	@Test
+	public void publishesResultOfStage() {
+		Model model = modelBuilder
+			.user(EntersText.class).systemAsync(entersText -> remoteCall)
+			.build();
+		modelRunner.publishWith(publishedEvents::add).run(model);
+
+		modelRunner.reactTo(entersText());
+		assertTrue(publishedEvents.isEmpty());
+
+		remoteCall.complete(TEXT);
+		assertEquals(1, publishedEvents.size());
+		assertEquals(TEXT, publishedEvents.get(0));
+	}
+
+	@Test
+	public void doesntPublishNullResult() {
+		Model model = modelBuilder
+			.user(EntersText.class).systemAsync(entersText -> remoteCall)
+			.build();
+		modelRunner.publishWith(publishedEvents::add).run(model);
+
+		modelRunner.reactTo(entersText());
+		remoteCall.complete(null);
+
+		assertTrue(publishedEvents.isEmpty());
+		assertFalse(modelRunner.isSuspended());
+	}
+
+	@Test
+	public void publishesResultOfAlreadyCompletedStage() {
+		Model model = modelBuilder
+			.user(EntersText.class).systemAsync(entersText -> CompletableFuture.completedFuture(entersText.value()))
+			.build();
+		modelRunner.publishWith(publishedEvents::add).run(model);
+
+		modelRunner.reactTo(entersText());
+
+		assertFalse(modelRunner.isSuspended());
+		assertEquals(TEXT, publishedEvents.get(0));
+	}
+
+	@Test
+	public void buffersMessagesWhileSuspended() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).systemAsync(entersText -> remoteCall)
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.reactTo(entersText());
+		modelRunner.reactTo(entersNumber());
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT);
+
+		remoteCall.complete(TEXT);
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_NUMBER);
+	}
+
+	@Test
+	public void buffersSeveralMessagesOfSingleCall() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).systemAsync(entersText -> remoteCall)
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.reactTo(entersText(), entersNumber());
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT);
+
+		remoteCall.complete(TEXT);
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_NUMBER);
+	}
+
+	@Test
+	public void continuesWithAutonomousSystemReactionAfterStageCompletes() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).systemAsync(entersText -> remoteCall)
+				.step(SYSTEM_DISPLAYS_TEXT).system(displaysConstantText())
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.reactTo(entersText());
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT);
+
+		remoteCall.complete(TEXT);
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, SYSTEM_DISPLAYS_TEXT);
+	}
+
+	@Test
+	public void resumesOnThreadThatCompletesStage() throws Exception {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).systemAsync(entersText -> remoteCall)
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+		modelRunner.reactTo(entersText());
+		modelRunner.reactTo(entersNumber());
+
+		Thread completingThread = new Thread(() -> remoteCall.complete(TEXT));
+		completingThread.start();
+		modelRunner.whenResumed().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_NUMBER);
+	}
+
+	@Test(timeout = 10_000)
+	public void callerWaitsForResumptionOnOtherThread() throws Exception {
+		CountDownLatch resuming = new CountDownLatch(1);
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).systemAsync(entersText -> remoteCall)
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(entersNumber -> {
+					resuming.countDown();
+					sleep(100);
+				})
+				.step(CUSTOMER_ENTERS_TEXT_AGAIN).user(EntersText.class).system(displaysEnteredText())
+			.build();
+		modelRunner.run(model);
+		modelRunner.reactTo(entersText());
+		modelRunner.reactTo(entersNumber());
+
+		Thread completingThread = new Thread(() -> remoteCall.complete(TEXT));
+		completingThread.start();
+		resuming.await();
+		modelRunner.reactTo(entersText());
+		completingThread.join();
+
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_NUMBER, CUSTOMER_ENTERS_TEXT_AGAIN);
+	}
+
+	@Test
+	public void reactsToExceptionalCompletion() {
+		Model model = modelBuilder
+			.user(EntersText.class).systemAsync(entersText -> remoteCall)
+			.on(IllegalStateException.class).system(e -> displayedText = e.getMessage())
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.reactTo(entersText());
+		remoteCall.completeExceptionally(new IllegalStateException(TEXT));
+
+		assertEquals(TEXT, displayedText);
+		assertTrue(modelRunner.whenResumed().toCompletableFuture().isDone());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void completesExceptionallyForUnhandledException() throws Throwable {
+		Model model = modelBuilder
+			.user(EntersText.class).systemAsync(entersText -> remoteCall)
+			.user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.reactTo(entersText());
+		modelRunner.reactTo(entersNumber());
+		remoteCall.completeExceptionally(new IllegalStateException(TEXT));
+
+		assertFalse(modelRunner.isSuspended());
+		assertEquals(1, modelRunner.getRecordedStepNames().length);
+		try {
+			modelRunner.whenResumed().toCompletableFuture().get();
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+
+	@Test
+	public void completesExceptionallyForThrowableThatIsNoException() throws Exception {
+		Model model = modelBuilder
+			.user(EntersText.class).systemAsync(entersText -> remoteCall)
+			.build();
+		modelRunner.run(model);
+		Throwable throwable = new Throwable(TEXT);
+
+		modelRunner.reactTo(entersText());
+		remoteCall.completeExceptionally(throwable);
+
+		try {
+			modelRunner.whenResumed().toCompletableFuture().get();
+			fail("Expected exception");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof UndeclaredThrowableException);
+			assertSame(throwable, e.getCause().getCause());
+		}
+	}
+
+	@Test
+	public void ignoresStageAfterRunnerIsRunAgain() {
+		Model model = modelBuilder
+			.user(EntersText.class).systemAsync(entersText -> remoteCall)
+			.build();
+		modelRunner.publishWith(publishedEvents::add).run(model);
+		modelRunner.reactTo(entersText());
+
+		modelRunner.run(model);
+		assertFalse(modelRunner.isSuspended());
+
+		remoteCall.complete(TEXT);
+		assertTrue(publishedEvents.isEmpty());
+	}
+
+	private void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
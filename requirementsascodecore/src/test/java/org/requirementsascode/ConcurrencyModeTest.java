@@ -0,0 +1,165 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.exception.ConcurrentCallOfReactTo;
+import org.requirementsascode.exception.NestedCallOfReactTo;
+
+public class ConcurrencyModeTest extends AbstractTestCase {
+	private ExecutorService executor;
+	private CountDownLatch reactionStarted;
+	private CountDownLatch reactionMayEnd;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		executor = Executors.newSingleThreadExecutor();
+		reactionStarted = new CountDownLatch(1);
+		reactionMayEnd = new CountDownLatch(1);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void failsFastByDefault() {
+		assertEquals(ConcurrencyMode.SINGLE_WRITER, modelRunner.getConcurrencyMode());
+	}
+
+	@Test(expected = ConcurrentCallOfReactTo.class)
+	public void throwsExceptionWhenDifferentThreadIsReacting() throws Exception {
+		modelRunner.run(blockingModel());
+		Future<?> blockedCall = executor.submit(() -> modelRunner.reactTo(entersText()));
+		awaitReactionStarted();
+
+		try {
+			modelRunner.reactTo(entersNumber());
+		} finally {
+			reactionMayEnd.countDown();
+			blockedCall.get();
+		}
+	}
+
+	@Test
+	public void serializesCallsOfDifferentThreads() throws Exception {
+		modelRunner.concurrencyMode(ConcurrencyMode.SERIALIZED).run(blockingModel());
+		Future<?> blockedCall = executor.submit(() -> modelRunner.reactTo(entersText()));
+		awaitReactionStarted();
+
+		Thread releasingThread = new Thread(() -> {
+			sleepBriefly();
+			reactionMayEnd.countDown();
+		});
+		releasingThread.start();
+		modelRunner.reactTo(entersNumber());
+		blockedCall.get();
+
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_NUMBER);
+	}
+
+	@Test
+	public void doesntCheckCallsOfDifferentThreadsWhenUnchecked() throws Exception {
+		modelRunner.concurrencyMode(ConcurrencyMode.UNCHECKED).run(blockingModel());
+		Future<?> blockedCall = executor.submit(() -> modelRunner.reactTo(entersText()));
+		awaitReactionStarted();
+
+		modelRunner.reactTo(entersNumber());
+		reactionMayEnd.countDown();
+		blockedCall.get();
+	}
+
+	@Test
+	public void acceptsCallsOfDifferentThreadsOneAfterTheOther() throws Exception {
+		reactionMayEnd.countDown();
+		modelRunner.run(blockingModel());
+
+		executor.submit(() -> modelRunner.reactTo(entersText())).get();
+		modelRunner.reactTo(entersNumber());
+
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_NUMBER);
+	}
+
+	@Test
+	public void acceptsCallOfDifferentThreadAfterExceptionHasBeenThrown() throws Exception {
+		Model model = modelBuilder
+			.user(EntersText.class).system(throwsRuntimeException())
+			.user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+
+		try {
+			modelRunner.reactTo(entersText());
+		} catch (RuntimeException e) {
+		}
+		executor.submit(() -> modelRunner.reactTo(entersNumber())).get();
+
+		assertEquals(2, modelRunner.getRecordedStepNames().length);
+	}
+
+	@Test(expected = NestedCallOfReactTo.class)
+	public void throwsExceptionWhenReactToIsCalledFromSystemReactionWhenSerialized() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).system(() -> modelRunner.reactTo(""))
+			.build();
+
+		modelRunner.concurrencyMode(ConcurrencyMode.SERIALIZED).run(model);
+	}
+
+	@Test
+	public void reactsAsActorWhenSerialized() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).as(customer).user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		modelRunner.concurrencyMode(ConcurrencyMode.SERIALIZED).as(customer).run(model).as(customer).reactTo(entersText());
+
+		assertEquals(TEXT, displayedText);
+	}
+
+	private Model blockingModel() {
+		Consumer<EntersText> blocksUntilReleased = entersText -> {
+			reactionStarted.countDown();
+			awaitUninterruptibly(reactionMayEnd);
+		};
+		Model model = modelBuilder
+			.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(blocksUntilReleased)
+			.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		return model;
+	}
+
+	private void awaitReactionStarted() throws InterruptedException {
+		assertTrue(reactionStarted.await(10, TimeUnit.SECONDS));
+	}
+
+	private void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void sleepBriefly() {
+		try {
+			Thread.sleep(50);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
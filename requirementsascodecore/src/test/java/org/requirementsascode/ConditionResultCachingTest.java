@@ -0,0 +1,99 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConditionResultCachingTest extends AbstractTestCase {
+	private int numberOfEvaluations;
+	private boolean conditionResult;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		numberOfEvaluations = 0;
+	}
+
+	@Test
+	public void evaluatesConditionSeveralTimesPerMessageByDefault() {
+		Model model = modelWithInterruptingFlow();
+		modelRunner.run(model);
+
+		conditionResult = true;
+		modelRunner.reactTo(entersText());
+
+		assertTrue(numberOfEvaluations > 1);
+	}
+
+	@Test
+	public void evaluatesConditionOncePerMessageWhenCaching() {
+		Model model = modelWithInterruptingFlow();
+		modelRunner.cacheConditionResults().run(model);
+
+		modelRunner.reactTo(entersText());
+		assertEquals(1, numberOfEvaluations);
+
+		modelRunner.reactTo(entersText());
+		assertEquals(2, numberOfEvaluations);
+	}
+
+	@Test
+	public void reactsCorrectlyWhenCaching() {
+		Model model = modelWithInterruptingFlow();
+		modelRunner.cacheConditionResults().run(model);
+
+		modelRunner.reactTo(entersText());
+		conditionResult = true;
+		modelRunner.reactTo(entersText());
+
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_ALTERNATIVE_TEXT);
+	}
+
+	@Test
+	public void reevaluatesConditionAfterSystemReaction() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(SYSTEM_DISPLAYS_TEXT).system(() -> conditionResult = true)
+			.flow(ALTERNATIVE_FLOW).after(SYSTEM_DISPLAYS_TEXT).condition(this::countedCondition)
+				.step(SYSTEM_DISPLAYS_TEXT_AGAIN).system(displaysConstantText())
+			.build();
+
+		conditionResult = false;
+		modelRunner.cacheConditionResults().run(model);
+
+		assertRecordedStepNames(SYSTEM_DISPLAYS_TEXT, SYSTEM_DISPLAYS_TEXT_AGAIN);
+	}
+
+	@Test
+	public void evaluatesConditionOncePerQueryWhenCaching() {
+		Model model = modelWithInterruptingFlow();
+		modelRunner.cacheConditionResults().run(model);
+
+		modelRunner.canReactTo(EntersText.class);
+		assertEquals(1, numberOfEvaluations);
+
+		modelRunner.getReactToTypes();
+		assertEquals(2, numberOfEvaluations);
+
+		modelRunner.getStepsThatCanReactTo(EntersText.class);
+		assertEquals(3, numberOfEvaluations);
+	}
+
+	private Model modelWithInterruptingFlow() {
+		conditionResult = false;
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText()).reactWhile(() -> true)
+			.flow(ALTERNATIVE_FLOW).anytime().condition(this::countedCondition)
+				.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText())
+			.build();
+		return model;
+	}
+
+	private boolean countedCondition() {
+		numberOfEvaluations++;
+		return conditionResult;
+	}
+}
@@ -0,0 +1,249 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.exception.InfiniteRepetition;
+
+public class DispatchMonitorTest extends AbstractTestCase {
+	private RecordingDispatchMonitor dispatchMonitor;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		dispatchMonitor = new RecordingDispatchMonitor();
+		modelRunner.monitorWith(dispatchMonitor);
+	}
+
+	@Test
+	public void reportsDispatchOfHandledMessageAndStepsRun() {
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+					.step(SYSTEM_DISPLAYS_TEXT).system(displaysConstantText())
+			.build();
+
+		modelRunner.run(model).reactTo(entersText());
+
+		assertEquals(Arrays.asList(
+			"dispatchStarted EntersText",
+			"stepStarted " + CUSTOMER_ENTERS_TEXT + " EntersText",
+			"stepEnded " + CUSTOMER_ENTERS_TEXT + " EntersText",
+			"stepStarted " + SYSTEM_DISPLAYS_TEXT + " null",
+			"stepEnded " + SYSTEM_DISPLAYS_TEXT + " null",
+			"dispatchEnded EntersText " + CUSTOMER_ENTERS_TEXT), dispatchMonitor.getEvents());
+	}
+
+	@Test
+	public void reportsUnhandledMessageWithoutHandler() {
+		Model model = modelBuilder
+			.user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		modelRunner.run(model).reactTo(entersNumber());
+
+		assertEquals(Arrays.asList(
+			"dispatchStarted EntersNumber",
+			"messageUnhandled EntersNumber",
+			"dispatchEnded EntersNumber null"), dispatchMonitor.getEvents());
+	}
+
+	@Test
+	public void reportsUnhandledMessageWithHandler() {
+		List<Object> unhandledMessages = new ArrayList<>();
+		Model model = modelBuilder
+			.user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		modelRunner.handleUnhandledWith(unhandledMessages::add).run(model).reactTo(entersNumber());
+
+		assertEquals(1, unhandledMessages.size());
+		assertTrue(dispatchMonitor.getEvents().contains("messageUnhandled EntersNumber"));
+	}
+
+	@Test
+	public void reportsExceptionThrownBySystemReaction() {
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(throwsRuntimeException())
+				.flow(ALTERNATIVE_FLOW).anytime()
+					.step(SYSTEM_HANDLES_EXCEPTION).on(RuntimeException.class).system(e -> {})
+			.build();
+
+		modelRunner.run(model).reactTo(entersText());
+
+		assertEquals(Arrays.asList(
+			"dispatchStarted EntersText",
+			"stepStarted " + CUSTOMER_ENTERS_TEXT + " EntersText",
+			"stepEnded " + CUSTOMER_ENTERS_TEXT + " EntersText",
+			"exceptionThrown " + CUSTOMER_ENTERS_TEXT + " RuntimeException",
+			"dispatchStarted RuntimeException",
+			"stepStarted " + SYSTEM_HANDLES_EXCEPTION + " RuntimeException",
+			"stepEnded " + SYSTEM_HANDLES_EXCEPTION + " RuntimeException",
+			"dispatchEnded RuntimeException " + SYSTEM_HANDLES_EXCEPTION,
+			"dispatchEnded EntersText " + CUSTOMER_ENTERS_TEXT), dispatchMonitor.getEvents());
+	}
+
+	@Test
+	public void reportsExceptionOfAsyncSystemReaction() {
+		CompletableFuture<Object> remoteCall = new CompletableFuture<>();
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).systemAsync(entersText -> remoteCall)
+				.flow(ALTERNATIVE_FLOW).anytime()
+					.step(SYSTEM_HANDLES_EXCEPTION).on(RuntimeException.class).system(e -> {})
+			.build();
+
+		modelRunner.run(model).reactTo(entersText());
+		remoteCall.completeExceptionally(new IllegalStateException());
+
+		assertEquals(Arrays.asList(
+			"dispatchStarted EntersText",
+			"stepStarted " + CUSTOMER_ENTERS_TEXT + " EntersText",
+			"stepEnded " + CUSTOMER_ENTERS_TEXT + " EntersText",
+			"dispatchEnded EntersText " + CUSTOMER_ENTERS_TEXT,
+			"exceptionThrown " + CUSTOMER_ENTERS_TEXT + " IllegalStateException",
+			"dispatchStarted IllegalStateException",
+			"stepStarted " + SYSTEM_HANDLES_EXCEPTION + " IllegalStateException",
+			"stepEnded " + SYSTEM_HANDLES_EXCEPTION + " IllegalStateException",
+			"dispatchEnded IllegalStateException " + SYSTEM_HANDLES_EXCEPTION), dispatchMonitor.getEvents());
+	}
+
+	@Test
+	public void reportsInfiniteRepetition() {
+		Model model = modelBuilder
+			.condition(() -> true).step("S1").system(() -> {})
+			.build();
+
+		try {
+			modelRunner.run(model);
+		} catch (InfiniteRepetition e) {
+			assertFalse(dispatchMonitor.getInfiniteRepetitionSteps().isEmpty());
+			assertTrue(dispatchMonitor.getInfiniteRepetitionSteps().stream().allMatch(step -> "S1".equals(step.getName())));
+			return;
+		}
+		throw new AssertionError("InfiniteRepetition expected");
+	}
+
+	@Test
+	public void passesObjectReturnedByStartMethodToEndMethod() {
+		Model model = modelBuilder
+			.user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		modelRunner.run(model).reactTo(entersText(), entersNumber());
+
+		assertEquals(2, dispatchMonitor.getEndedDispatches());
+		assertEquals(1, dispatchMonitor.getEndedStepRuns());
+	}
+
+	@Test
+	public void combinesSeveralMonitors() {
+		RecordingDispatchMonitor otherMonitor = new RecordingDispatchMonitor();
+		modelRunner.monitorWith(DispatchMonitor.of(modelRunner.getDispatchMonitor(), otherMonitor));
+		Model model = modelBuilder
+			.user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		modelRunner.run(model).reactTo(entersText(), entersNumber());
+
+		assertEquals(dispatchMonitor.getEvents(), otherMonitor.getEvents());
+		assertEquals(7, otherMonitor.getEvents().size());
+		assertEquals(2, dispatchMonitor.getEndedDispatches());
+		assertEquals(2, otherMonitor.getEndedDispatches());
+		assertEquals(1, dispatchMonitor.getEndedStepRuns());
+		assertEquals(1, otherMonitor.getEndedStepRuns());
+	}
+
+	@Test
+	public void combinesMonitorsWithoutNone() {
+		assertSame(DispatchMonitor.NONE, DispatchMonitor.of());
+		assertSame(dispatchMonitor, DispatchMonitor.of(DispatchMonitor.NONE, dispatchMonitor));
+	}
+
+	private static class RecordingDispatchMonitor implements DispatchMonitor {
+		private final List<String> events = new ArrayList<>();
+		private final List<Step> infiniteRepetitionSteps = new ArrayList<>();
+		private Object currentDispatch;
+		private Object currentStepRun;
+		private int endedDispatches;
+		private int endedStepRuns;
+
+		@Override
+		public Object dispatchStarted(Object message) {
+			events.add("dispatchStarted " + classOf(message));
+			currentDispatch = new Object();
+			return currentDispatch;
+		}
+
+		@Override
+		public void dispatchEnded(Object dispatch, Object message, Step step) {
+			events.add("dispatchEnded " + classOf(message) + " " + step);
+			if (dispatch == currentDispatch) {
+				endedDispatches++;
+			}
+		}
+
+		@Override
+		public Object stepStarted(Step step, Object message) {
+			events.add("stepStarted " + step + " " + classOf(message));
+			currentStepRun = new Object();
+			return currentStepRun;
+		}
+
+		@Override
+		public void stepEnded(Object stepRun, Step step, Object message) {
+			events.add("stepEnded " + step + " " + classOf(message));
+			if (stepRun == currentStepRun) {
+				endedStepRuns++;
+			}
+		}
+
+		@Override
+		public void messageUnhandled(Object message) {
+			events.add("messageUnhandled " + classOf(message));
+		}
+
+		@Override
+		public void exceptionThrown(Step step, Exception exception) {
+			events.add("exceptionThrown " + step + " " + classOf(exception));
+		}
+
+		@Override
+		public void infiniteRepetition(Step step) {
+			infiniteRepetitionSteps.add(step);
+		}
+
+		private String classOf(Object message) {
+			return message == null ? "null" : message.getClass().getSimpleName();
+		}
+
+		public List<String> getEvents() {
+			return events;
+		}
+
+		public List<Step> getInfiniteRepetitionSteps() {
+			return infiniteRepetitionSteps;
+		}
+
+		public int getEndedDispatches() {
+			return endedDispatches;
+		}
+
+		public int getEndedStepRuns() {
+			return endedStepRuns;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.requirementsascode.exception.NoSuchElementInModel;
+
+public class LazyModelBuildingTest extends AbstractTestCase {
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+	}
+
+	@Test
+	public void reactsLikeEagerlyBuiltModel() {
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+					.step(CUSTOMER_ENTERS_TEXT_AGAIN).user(EntersText.class).system(displaysEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_TEXT_AGAIN)
+					.step(CONTINUE).continuesAt(CUSTOMER_ENTERS_NUMBER)
+				.flow("Preferred Flow").insteadOf(CUSTOMER_ENTERS_NUMBER)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.buildLazily();
+
+		modelRunner.run(model).reactTo(entersText(), entersNumber());
+
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CONTINUE, CUSTOMER_ENTERS_ALTERNATIVE_NUMBER);
+	}
+
+	@Test
+	public void resolvesContinuesAfterOnFirstUse() {
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_NUMBER)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText())
+					.step(CONTINUE).continuesAfter(CUSTOMER_ENTERS_TEXT)
+			.buildLazily();
+
+		modelRunner.run(model).reactTo(entersText(), entersText(), entersNumber());
+
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_ALTERNATIVE_TEXT, CONTINUE, CUSTOMER_ENTERS_NUMBER);
+	}
+
+	@Test
+	public void doesntAnalyzeAmbiguity() {
+		Model model = modelBuilder
+			.user(EntersText.class).system(displaysEnteredText())
+			.buildLazily();
+
+		assertFalse(model.getAmbiguityReport().isPresent());
+	}
+
+	@Test
+	public void doesntResolveUnusedUseCase() {
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+			.useCase(USE_CASE_2)
+				.flow(ALTERNATIVE_FLOW).insteadOf(THIS_STEP_SHOULD_BE_SKIPPED)
+					.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.buildLazily();
+
+		modelRunner.run(model).reactTo(entersText());
+
+		assertEquals(TEXT, displayedText);
+	}
+
+	@Test
+	public void throwsExceptionOnFirstUseIfContinueAtNotExists() {
+		thrown.expect(NoSuchElementInModel.class);
+		thrown.expectMessage(THIS_STEP_SHOULD_BE_SKIPPED);
+
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+					.step(CONTINUE).continuesAt(THIS_STEP_SHOULD_BE_SKIPPED)
+			.buildLazily();
+
+		modelRunner.run(model).reactTo(entersNumber());
+	}
+
+	@Test
+	public void doesntAddContinuesAtTargetTwiceWhenResolvedAgain() {
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+					.step(CONTINUE).continuesAt(CUSTOMER_ENTERS_TEXT)
+			.buildLazily();
+		FlowStep continueAtStep = (FlowStep) model.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_TEXT);
+
+		model.resolve();
+		int numberOfAfterSteps = continueAtStep.getFlowPosition().getAfterForEachSingleStep().size();
+		model.findUseCase(USE_CASE).newFlow(ALTERNATIVE_FLOW);
+		model.resolve();
+
+		assertEquals(2, numberOfAfterSteps);
+		assertEquals(numberOfAfterSteps, continueAtStep.getFlowPosition().getAfterForEachSingleStep().size());
+	}
+
+	@Test
+	public void reactsWithRunnersOnSeveralThreads() throws Exception {
+		int numberOfThreads = 8;
+		int numberOfIterations = 500;
+		AtomicInteger numberOfEnteredTexts = new AtomicInteger();
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(entersText -> numberOfEnteredTexts.incrementAndGet())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+					.step(CONTINUE).continuesAt(CUSTOMER_ENTERS_TEXT)
+			.buildLazily();
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < numberOfThreads; i++) {
+				futures.add(executor.submit(() -> {
+					ModelRunner runner = new ModelRunner();
+					start.await();
+					runner.run(model);
+					for (int j = 0; j < numberOfIterations; j++) {
+						runner.reactTo(entersText(), entersNumber());
+					}
+					return runner;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(numberOfThreads * numberOfIterations, numberOfEnteredTexts.get());
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+}
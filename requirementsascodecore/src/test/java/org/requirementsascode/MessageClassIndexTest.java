@@ -0,0 +1,103 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MessageClassIndexTest extends AbstractTestCase {
+	private static final String ON_DOMAIN_EVENT = "On domain event";
+	private static final String ON_TEXT_EVENT = "On text event";
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+	}
+
+	@Test
+	public void reactsToSubclassOfInterfaceTypedStep() {
+		Model model = modelBuilder
+			.step(ON_DOMAIN_EVENT).on(DomainEvent.class).system(displaysConstantText())
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.reactTo(new SpecialTextEvent());
+
+		assertRecordedStepNames(ON_DOMAIN_EVENT);
+	}
+
+	@Test
+	public void findsStepsThatCanReactToSubclass() {
+		Model model = modelBuilder
+			.step(ON_DOMAIN_EVENT).on(DomainEvent.class).system(displaysConstantText())
+			.step(ON_TEXT_EVENT).on(TextEvent.class).system(displaysConstantText())
+			.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+
+		Set<Step> steps = modelRunner.getStepsThatCanReactTo(SpecialTextEvent.class);
+
+		assertEquals(2, steps.size());
+		assertTrue(modelRunner.canReactTo(SpecialTextEvent.class));
+		assertTrue(modelRunner.canReactTo(EntersNumber.class));
+	}
+
+	@Test
+	public void returnsMatchingStepPositionsInModelOrder() {
+		Model model = modelBuilder
+			.step(ON_DOMAIN_EVENT).on(DomainEvent.class).system(displaysConstantText())
+			.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.step(ON_TEXT_EVENT).on(TextEvent.class).system(displaysConstantText())
+			.build();
+		MessageClassIndex index = model.getMessageClassIndex();
+
+		assertArrayEquals(new int[] { 0, 2 }, index.getMatchingStepPositions(SpecialTextEvent.class));
+		assertArrayEquals(new int[] { 1 }, index.getMatchingStepPositions(EntersNumber.class));
+		assertArrayEquals(new int[] {}, index.getMatchingStepPositions(ModelRunner.class));
+	}
+
+	@Test
+	public void reusesIndexAsLongAsModelDoesntChange() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(ON_DOMAIN_EVENT).on(DomainEvent.class).system(displaysConstantText())
+			.build();
+		MessageClassIndex index = model.getMessageClassIndex();
+		assertSame(index, model.getMessageClassIndex());
+
+		modelBuilder.useCase(USE_CASE_2)
+			.basicFlow()
+				.step(ON_TEXT_EVENT).on(TextEvent.class).system(displaysConstantText())
+			.build();
+		assertNotSame(index, model.getMessageClassIndex());
+	}
+
+	@Test
+	public void numbersStepsInModelOrder() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(ON_DOMAIN_EVENT).on(DomainEvent.class).system(displaysConstantText())
+				.step(ON_TEXT_EVENT).on(TextEvent.class).system(displaysConstantText())
+			.build();
+
+		MessageClassIndex index = model.getMessageClassIndex();
+		Step[] steps = index.getSteps();
+		assertEquals(0, steps[0].getOrdinal());
+		assertEquals(1, steps[1].getOrdinal());
+	}
+
+	private interface DomainEvent {
+	}
+
+	private static class TextEvent implements DomainEvent {
+	}
+
+	private static class SpecialTextEvent extends TextEvent {
+	}
+}
@@ -0,0 +1,133 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PureConditionTest extends AbstractTestCase {
+	private static final String TEXT_VARIABLE = "text";
+	private static final String OTHER_VARIABLE = "other";
+
+	private int numberOfEvaluations;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		numberOfEvaluations = 0;
+	}
+
+	@Test
+	public void evaluatesPureConditionOnlyOnce() {
+		Model model = modelWithPureCondition();
+		modelRunner.run(model);
+
+		modelRunner.canReactTo(EntersText.class);
+		modelRunner.getReactToTypes();
+		modelRunner.getStepsThatCanReactTo(EntersText.class);
+
+		assertEquals(1, numberOfEvaluations);
+	}
+
+	@Test
+	public void evaluatesPureConditionAgainWhenItsStateVariableIsInvalidated() {
+		Model model = modelWithPureCondition();
+		modelRunner.run(model);
+		assertFalse(modelRunner.canReactTo(EntersText.class));
+
+		displayedText = TEXT;
+		modelRunner.invalidate(TEXT_VARIABLE);
+
+		assertTrue(modelRunner.canReactTo(EntersText.class));
+		assertEquals(2, numberOfEvaluations);
+	}
+
+	@Test
+	public void doesNotEvaluatePureConditionAgainWhenOtherStateVariableIsInvalidated() {
+		Model model = modelWithPureCondition();
+		modelRunner.run(model);
+		assertFalse(modelRunner.canReactTo(EntersText.class));
+
+		displayedText = TEXT;
+		modelRunner.invalidate(OTHER_VARIABLE);
+
+		assertFalse(modelRunner.canReactTo(EntersText.class));
+		assertEquals(1, numberOfEvaluations);
+	}
+
+	@Test
+	public void reactToTypesChangeAfterStepTransition() {
+		Condition isTrue = new PureCondition(this::countedTextIsNotAvailable, TEXT_VARIABLE);
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText()).reactWhile(isTrue)
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+		assertEquals(EntersText.class, modelRunner.getReactToTypes().iterator().next());
+
+		modelRunner.reactTo(entersText());
+
+		Set<Class<?>> reactToTypes = modelRunner.getReactToTypes();
+		assertEquals(2, reactToTypes.size());
+		assertTrue(reactToTypes.contains(EntersText.class));
+		assertTrue(reactToTypes.contains(EntersNumber.class));
+		assertEquals(1, numberOfEvaluations);
+
+		modelRunner.invalidate(TEXT_VARIABLE);
+
+		reactToTypes = modelRunner.getReactToTypes();
+		assertEquals(1, reactToTypes.size());
+		assertTrue(reactToTypes.contains(EntersNumber.class));
+		assertEquals(2, numberOfEvaluations);
+	}
+
+	@Test
+	public void evaluatesImpureConditionEachTime() {
+		Model model = modelBuilder
+			.condition(this::countedTextIsAvailable).user(EntersText.class).system(displaysEnteredText())
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.canReactTo(EntersText.class);
+		modelRunner.canReactTo(EntersText.class);
+
+		assertEquals(2, numberOfEvaluations);
+	}
+
+	@Test
+	public void doesntEvaluateImpureConditionOfStepForOtherMessageClass() {
+		Model model = modelBuilder
+			.condition(this::countedTextIsAvailable).user(EntersText.class).system(displaysEnteredText())
+			.user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+
+		Set<Step> stepsThatCanReact = modelRunner.getStepsThatCanReactTo(EntersNumber.class);
+
+		assertEquals(1, stepsThatCanReact.size());
+		assertEquals(0, numberOfEvaluations);
+	}
+
+	private Model modelWithPureCondition() {
+		Condition textIsAvailable = new PureCondition(this::countedTextIsAvailable, TEXT_VARIABLE);
+		Model model = modelBuilder
+			.condition(textIsAvailable).user(EntersText.class).system(displaysEnteredText())
+			.build();
+		return model;
+	}
+
+	private boolean countedTextIsAvailable() {
+		numberOfEvaluations++;
+		return textIsAvailable();
+	}
+
+	private boolean countedTextIsNotAvailable() {
+		numberOfEvaluations++;
+		return textIsNotAvailable();
+	}
+}
@@ -0,0 +1,158 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReactToTypesSubscriptionTest extends AbstractTestCase {
+	private List<Set<Class<?>>> notifiedReactToTypes;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		notifiedReactToTypes = new ArrayList<>();
+	}
+
+	@Test
+	public void returnsSameInstanceIfTypesDontChange() {
+		Model model = modelWithTwoSteps();
+		modelRunner.run(model);
+
+		Set<Class<?>> reactToTypes = modelRunner.getReactToTypes();
+		modelRunner.reactTo(entersNumber());
+
+		assertSame(reactToTypes, modelRunner.getReactToTypes());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void returnsUnmodifiableTypes() {
+		Model model = modelWithTwoSteps();
+		modelRunner.run(model);
+
+		modelRunner.getReactToTypes().add(EntersNumber.class);
+	}
+
+	@Test
+	public void notifiesSubscriberWhenRunnerIsRun() {
+		Model model = modelWithTwoSteps();
+		modelRunner.subscribeToReactToTypes(notifiedReactToTypes::add);
+
+		modelRunner.run(model);
+
+		assertEquals(1, notifiedReactToTypes.size());
+		assertEquals(EntersText.class, notifiedReactToTypes.get(0).iterator().next());
+	}
+
+	@Test
+	public void notifiesSubscriberAfterStepTransition() {
+		Model model = modelWithTwoSteps();
+		modelRunner.run(model);
+		modelRunner.subscribeToReactToTypes(notifiedReactToTypes::add);
+
+		modelRunner.reactTo(entersText());
+
+		assertEquals(1, notifiedReactToTypes.size());
+		Set<Class<?>> reactToTypes = notifiedReactToTypes.get(0);
+		assertEquals(1, reactToTypes.size());
+		assertTrue(reactToTypes.contains(EntersNumber.class));
+	}
+
+	@Test
+	public void doesntNotifySubscriberIfTypesDontChange() {
+		Model model = modelWithTwoSteps();
+		modelRunner.run(model);
+		modelRunner.subscribeToReactToTypes(notifiedReactToTypes::add);
+
+		modelRunner.reactTo(entersNumber());
+
+		assertTrue(notifiedReactToTypes.isEmpty());
+	}
+
+	@Test
+	public void notifiesSubscriberOnlyOnceForSeveralMessages() {
+		Model model = modelWithTwoSteps();
+		modelRunner.run(model);
+		modelRunner.subscribeToReactToTypes(notifiedReactToTypes::add);
+
+		modelRunner.reactTo(entersText(), entersNumber());
+
+		assertEquals(1, notifiedReactToTypes.size());
+		assertTrue(notifiedReactToTypes.get(0).isEmpty());
+	}
+
+	@Test
+	public void notifiesSubscriberWhenRunnerIsStopped() {
+		Model model = modelWithTwoSteps();
+		modelRunner.run(model);
+		modelRunner.subscribeToReactToTypes(notifiedReactToTypes::add);
+
+		modelRunner.stop();
+
+		assertEquals(1, notifiedReactToTypes.size());
+		assertTrue(notifiedReactToTypes.get(0).isEmpty());
+	}
+
+	@Test
+	public void notifiesSubscriberWhenPureConditionIsInvalidated() {
+		Condition textIsAvailable = new PureCondition(this::textIsAvailable, "text");
+		Model model = modelBuilder
+			.condition(textIsAvailable).user(EntersText.class).system(displaysEnteredText())
+			.build();
+		modelRunner.run(model);
+		modelRunner.subscribeToReactToTypes(notifiedReactToTypes::add);
+
+		displayedText = TEXT;
+		modelRunner.invalidate("text");
+
+		assertEquals(1, notifiedReactToTypes.size());
+		assertTrue(notifiedReactToTypes.get(0).contains(EntersText.class));
+	}
+
+	@Test
+	public void doesntNotifyUnsubscribedSubscriber() {
+		Model model = modelWithTwoSteps();
+		modelRunner.run(model);
+		Consumer<Set<Class<?>>> subscriber = notifiedReactToTypes::add;
+		modelRunner.subscribeToReactToTypes(subscriber);
+		modelRunner.unsubscribeFromReactToTypes(subscriber);
+
+		modelRunner.reactTo(entersText());
+
+		assertTrue(notifiedReactToTypes.isEmpty());
+	}
+
+	@Test
+	public void doesntNotifySubscriberWhileReacting() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(SYSTEM_DISPLAYS_TEXT).system(displaysConstantText())
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		modelRunner.run(model);
+		modelRunner.subscribeToReactToTypes(notifiedReactToTypes::add);
+
+		modelRunner.reactTo(entersText());
+
+		assertEquals(1, notifiedReactToTypes.size());
+		assertTrue(notifiedReactToTypes.get(0).contains(EntersNumber.class));
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, SYSTEM_DISPLAYS_TEXT);
+	}
+
+	private Model modelWithTwoSteps() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		return model;
+	}
+}
@@ -0,0 +1,180 @@
+package org.requirementsascode.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.exception.MoreThanOneStepCanReact;
+
+public class AmbiguityAnalysisTest extends AbstractTestCase {
+	private int numberOfEvaluations;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		numberOfEvaluations = 0;
+	}
+
+	@Test
+	public void stepsOfSameFlowAreExclusive() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_TEXT_AGAIN).user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		AmbiguityReport report = ambiguityReportOf(model);
+
+		assertFalse(report.hasAmbiguities());
+		assertTrue(report.isExclusive(step(model, CUSTOMER_ENTERS_TEXT)));
+		assertTrue(report.isExclusive(step(model, CUSTOMER_ENTERS_TEXT_AGAIN)));
+	}
+
+	@Test
+	public void loopingStepIsExclusiveWithNextStep() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_TEXT_AGAIN).user(EntersText.class).system(displaysEnteredText()).reactWhile(this::textIsAvailable)
+				.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		AmbiguityReport report = ambiguityReportOf(model);
+
+		List<Ambiguity> ambiguities = report.getAmbiguities();
+		assertEquals(1, ambiguities.size());
+		assertEquals(CUSTOMER_ENTERS_TEXT_AGAIN, ambiguities.get(0).getFirstStep().getName());
+		assertEquals(CUSTOMER_ENTERS_ALTERNATIVE_TEXT, ambiguities.get(0).getSecondStep().getName());
+		assertTrue(report.isExclusive(step(model, CUSTOMER_ENTERS_TEXT)));
+	}
+
+	@Test
+	public void stepsWithUnrelatedMessageClassesAreExclusive() {
+		Model model = modelBuilder
+			.on(EntersText.class).system(displaysEnteredText())
+			.on(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+
+		AmbiguityReport report = ambiguityReportOf(model);
+
+		assertFalse(report.hasAmbiguities());
+	}
+
+	@Test
+	public void flowlessStepsWithSameMessageClassAreAmbiguous() {
+		Model model = modelBuilder
+			.condition(this::textIsAvailable).on(EntersText.class).system(displaysEnteredText())
+			.condition(this::textIsNotAvailable).on(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		AmbiguityReport report = ambiguityReportOf(model);
+
+		assertEquals(1, report.getAmbiguities().size());
+		assertTrue(report.toString().contains("0 of 2 steps are exclusive"));
+		assertTrue(report.toString().contains("may both react to EntersText"));
+	}
+
+	@Test
+	public void flowlessStepsWithSuperclassAreAmbiguous() {
+		Model model = modelBuilder
+			.on(EntersText.class).system(displaysEnteredText())
+			.on(Object.class).system(displaysConstantText())
+			.build();
+
+		AmbiguityReport report = ambiguityReportOf(model);
+
+		assertEquals(1, report.getAmbiguities().size());
+	}
+
+	@Test
+	public void interruptingStepIsExclusiveWithInterruptedStep() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+			.flow(ALTERNATIVE_FLOW).anytime().condition(this::textIsAvailable)
+				.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		AmbiguityReport report = ambiguityReportOf(model);
+
+		assertFalse(report.hasAmbiguities());
+	}
+
+	@Test
+	public void stepsWithDifferentActorsAreExclusive() {
+		modelBuilder.useCase(USE_CASE).as(customer)
+			.user(EntersText.class).system(displaysEnteredText());
+		Model model = modelBuilder.useCase(USE_CASE_2).as(sourceActor)
+			.user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		AmbiguityReport report = ambiguityReportOf(model);
+
+		assertFalse(report.hasAmbiguities());
+	}
+
+	@Test
+	public void evaluatesConditionOnceIfFirstMatchingStepIsExclusive() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText()).reactWhile(() -> true)
+			.flow(ALTERNATIVE_FLOW).anytime().condition(this::countedTextIsAvailable)
+				.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText())
+			.build();
+		modelRunner.run(model);
+
+		modelRunner.reactTo(entersText());
+
+		assertEquals(1, numberOfEvaluations);
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT);
+	}
+
+	@Test(expected = MoreThanOneStepCanReact.class)
+	public void doesntUseOutdatedReport() {
+		Model model = modelBuilder
+			.on(EntersText.class).system(displaysEnteredText())
+			.build();
+		modelBuilder.useCase(USE_CASE_2).on(EntersText.class).system(displaysEnteredText());
+		modelRunner.run(model);
+
+		modelRunner.reactTo(entersText());
+	}
+
+	@Test
+	public void stepInsteadOfOtherStepReactsAfterSameStepsAsOtherStep() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_NUMBER)
+				.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText())
+			.flow(ALTERNATIVE_FLOW_2).after(CUSTOMER_ENTERS_NUMBER)
+				.step(CUSTOMER_ENTERS_TEXT_AGAIN).user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		AmbiguityReport report = ambiguityReportOf(model);
+
+		assertFalse(report.hasAmbiguities());
+		assertTrue(report.isExclusive(step(model, CUSTOMER_ENTERS_ALTERNATIVE_TEXT)));
+	}
+
+	private AmbiguityReport ambiguityReportOf(Model model) {
+		return model.getAmbiguityReport().get();
+	}
+
+	private Step step(Model model, String stepName) {
+		return model.findUseCase(USE_CASE).findStep(stepName);
+	}
+
+	private boolean countedTextIsAvailable() {
+		numberOfEvaluations++;
+		return textIsAvailable();
+	}
+}
@@ -0,0 +1,176 @@
+package org.requirementsascode.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.Step;
+
+public class ModelAnalyzerTest extends AbstractTestCase {
+	private static final String STEP_AFTER_CONTINUE = "Step after continue";
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+	}
+
+	@Test
+	public void hasNoFindingsForSimpleFlow() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		assertFalse(report.hasFindings());
+	}
+
+	@Test
+	public void findsFlowsAndStepsAfterContinuesAfterStep() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.flow(ALTERNATIVE_FLOW).after(CUSTOMER_ENTERS_TEXT).condition(this::textIsAvailable)
+				.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CONTINUE).continuesAfter(CUSTOMER_ENTERS_TEXT)
+			.flow(ALTERNATIVE_FLOW_2).after(CONTINUE)
+				.step(STEP_AFTER_CONTINUE).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		List<Step> unreachableSteps = report.getUnreachableSteps();
+		assertEquals(1, unreachableSteps.size());
+		assertEquals(STEP_AFTER_CONTINUE, unreachableSteps.get(0).getName());
+		assertEquals(1, report.getFlowsAfterUnreachableSteps().size());
+		assertEquals(ALTERNATIVE_FLOW_2, report.getFlowsAfterUnreachableSteps().get(0).getName());
+	}
+
+	@Test
+	public void findsFlowAfterUnreachableStep() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CONTINUE).continuesAfter(CUSTOMER_ENTERS_TEXT)
+			.flow(ALTERNATIVE_FLOW).after(CONTINUE)
+				.step(STEP_AFTER_CONTINUE).user(EntersNumber.class).system(displaysEnteredNumber())
+			.flow(ALTERNATIVE_FLOW_2).after(STEP_AFTER_CONTINUE)
+				.step(THIS_STEP_SHOULD_BE_SKIPPED).user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		assertEquals(2, report.getUnreachableSteps().size());
+		assertEquals(2, report.getFlowsAfterUnreachableSteps().size());
+	}
+
+	@Test
+	public void findsStepInsteadOfUnreachableStep() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CONTINUE).continuesAfter(CUSTOMER_ENTERS_TEXT)
+			.flow(ALTERNATIVE_FLOW).after(CONTINUE)
+				.step(STEP_AFTER_CONTINUE).user(EntersNumber.class).system(displaysEnteredNumber())
+			.flow(ALTERNATIVE_FLOW_2).insteadOf(STEP_AFTER_CONTINUE)
+				.step(THIS_STEP_SHOULD_BE_SKIPPED).user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		List<Step> unreachableSteps = report.getUnreachableSteps();
+		assertEquals(2, unreachableSteps.size());
+		assertEquals(THIS_STEP_SHOULD_BE_SKIPPED, unreachableSteps.get(1).getName());
+		assertEquals(1, report.getFlowsAfterUnreachableSteps().size());
+	}
+
+	@Test
+	public void findsContinuesAtCycleWithoutReactWhile() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+				.step(CONTINUE).continuesAt(CUSTOMER_ENTERS_TEXT)
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		List<ContinuesAtCycle> cycles = report.getContinuesAtCycles();
+		assertEquals(1, cycles.size());
+		ContinuesAtCycle cycle = cycles.get(0);
+		assertEquals(CONTINUE, cycle.getContinuesAtStep().getName());
+		assertEquals(3, cycle.getSteps().size());
+		assertEquals(CUSTOMER_ENTERS_TEXT, cycle.getSteps().get(0).getName());
+		assertFalse(cycle.isAutonomous());
+	}
+
+	@Test
+	public void findsAutonomousContinuesAtCycle() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(SYSTEM_DISPLAYS_TEXT).system(displaysConstantText())
+				.step(CONTINUE).continuesAt(SYSTEM_DISPLAYS_TEXT)
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		assertTrue(report.getContinuesAtCycles().get(0).isAutonomous());
+		assertTrue(report.toString().contains("\"" + CONTINUE + "\" -> \"" + SYSTEM_DISPLAYS_TEXT + "\" (autonomous)"));
+	}
+
+	@Test
+	public void ignoresContinuesAtCycleWithReactWhile() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText()).reactWhile(this::textIsNotAvailable)
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+				.step(CONTINUE).continuesAt(CUSTOMER_ENTERS_TEXT)
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		assertTrue(report.getContinuesAtCycles().isEmpty());
+	}
+
+	@Test
+	public void countsPredicateEvaluationsOfInterruptingSteps() {
+		Model model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.flow(ALTERNATIVE_FLOW).anytime().condition(this::textIsAvailable)
+				.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		// The interruptable step evaluates the interrupting step's predicate as well
+		assertEquals(3, report.getWorstCaseNumberOfPredicateEvaluations(EntersText.class));
+		assertEquals(1, report.getWorstCaseNumberOfPredicateEvaluations(EntersNumber.class));
+		assertEquals(0, report.getWorstCaseNumberOfPredicateEvaluations(ModelRunner.class));
+		assertEquals(3, report.getMaximumNumberOfPredicateEvaluations());
+	}
+
+	@Test
+	public void countsStepsOfSuperclassAsCandidates() {
+		Model model = modelBuilder
+			.on(EntersText.class).system(displaysEnteredText())
+			.on(Object.class).system(displaysConstantText())
+			.build();
+
+		ModelAnalysisReport report = ModelAnalyzer.analyze(model);
+
+		assertEquals(2, report.getDispatchCosts().get(0).getNumberOfCandidateSteps());
+		assertEquals(1, report.getDispatchCosts().get(1).getNumberOfCandidateSteps());
+	}
+}
@@ -0,0 +1,139 @@
+package org.requirementsascode.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.requirementsascode.queue.EventQueue;
+import org.requirementsascode.queue.WaitStrategy;
+
+/**
+ * Compares the throughput of an event queue backed by a linked blocking deque,
+ * with event queues backed by a ring buffer, for each wait strategy. Several
+ * producer threads put 1.000.000 events into a queue, and a single consumer
+ * consumes them. Also reports the bytes the producers allocate per event.
+ *
+ * <p>
+ * Run the main method, with the number of producers (default: 4) and events as
+ * optional arguments. For reliable numbers, run it on an otherwise idle machine
+ * with more cores than producers.
+ *
+ * @author b_muth
+ */
+public class EventQueueBenchmark {
+	private static final int DEFAULT_NUMBER_OF_PRODUCERS = 4;
+	private static final int DEFAULT_NUMBER_OF_EVENTS = 1_000_000;
+	private static final int RING_BUFFER_CAPACITY = 1024;
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int MEASURED_ITERATIONS = 5;
+	private static final Object EVENT = new Object();
+
+	public static void main(String[] args) throws InterruptedException {
+		int numberOfProducers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_PRODUCERS;
+		int numberOfEvents = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_NUMBER_OF_EVENTS;
+		int eventsPerProducer = numberOfEvents / numberOfProducers;
+
+		System.out.println("Producers: " + numberOfProducers + ", events: " + eventsPerProducer * numberOfProducers);
+		measure("LinkedBlockingDeque", consumer -> new EventQueue(consumer), numberOfProducers, eventsPerProducer);
+		for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+			measure("Ring buffer, " + waitStrategy,
+				consumer -> EventQueue.builder(consumer).ringBuffer(RING_BUFFER_CAPACITY, waitStrategy).build(),
+				numberOfProducers, eventsPerProducer);
+		}
+	}
+
+	private static void measure(String name, Function<Consumer<Object>, EventQueue> eventQueueFactory,
+		int numberOfProducers, int eventsPerProducer) throws InterruptedException {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			new Run(eventQueueFactory, numberOfProducers, eventsPerProducer).run();
+		}
+
+		long[] nanos = new long[MEASURED_ITERATIONS];
+		long[] allocatedBytes = new long[MEASURED_ITERATIONS];
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			Run run = new Run(eventQueueFactory, numberOfProducers, eventsPerProducer);
+			run.run();
+			nanos[i] = run.nanos;
+			allocatedBytes[i] = run.allocatedBytes.get();
+		}
+
+		long numberOfEvents = (long) numberOfProducers * eventsPerProducer;
+		long medianNanos = median(nanos);
+		System.out.println(name + ", median ms: " + medianNanos / 1_000_000 + ", events per ms: "
+			+ numberOfEvents * 1_000_000 / Math.max(1, medianNanos) + ", bytes allocated per event: "
+			+ median(allocatedBytes) / numberOfEvents);
+	}
+
+	private static long median(long[] values) {
+		long[] sortedValues = values.clone();
+		Arrays.sort(sortedValues);
+		return sortedValues[sortedValues.length / 2];
+	}
+
+	private static class Run {
+		private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+		private final EventQueue eventQueue;
+		private final int numberOfProducers;
+		private final int eventsPerProducer;
+		private final long numberOfEvents;
+		private final CountDownLatch eventsConsumed;
+		private final AtomicLong allocatedBytes;
+		private long consumedEvents;
+		private long nanos;
+
+		private Run(Function<Consumer<Object>, EventQueue> eventQueueFactory, int numberOfProducers,
+			int eventsPerProducer) {
+			this.numberOfProducers = numberOfProducers;
+			this.eventsPerProducer = eventsPerProducer;
+			this.numberOfEvents = (long) numberOfProducers * eventsPerProducer;
+			this.eventsConsumed = new CountDownLatch(1);
+			this.allocatedBytes = new AtomicLong();
+			this.eventQueue = eventQueueFactory.apply(this::consume);
+		}
+
+		private void consume(Object event) {
+			if (++consumedEvents == numberOfEvents) {
+				eventsConsumed.countDown();
+			}
+		}
+
+		private void run() throws InterruptedException {
+			List<Thread> producers = new ArrayList<>();
+			for (int i = 0; i < numberOfProducers; i++) {
+				producers.add(new Thread(this::produce));
+			}
+
+			long start = System.nanoTime();
+			producers.forEach(Thread::start);
+			eventsConsumed.await();
+			nanos = System.nanoTime() - start;
+
+			for (Thread producer : producers) {
+				producer.join();
+			}
+			eventQueue.stop();
+		}
+
+		private void produce() {
+			long startBytes = allocatedBytes();
+			for (int i = 0; i < eventsPerProducer; i++) {
+				eventQueue.put(EVENT);
+			}
+			allocatedBytes.addAndGet(allocatedBytes() - startBytes);
+		}
+
+		private static long allocatedBytes() {
+			if (threadBean instanceof com.sun.management.ThreadMXBean) {
+				return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package org.requirementsascode.benchmark;
+
+import java.util.Arrays;
+
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.builder.ModelBuilder;
+import org.requirementsascode.builder.StepSystemPart;
+
+/**
+ * Compares the startup time of eagerly and lazily built models: the time to
+ * build a model with 10.000 steps, and let a runner react to a first message.
+ *
+ * <p>
+ * Run the main method, with the number of steps as optional argument. For
+ * reliable numbers, run it on an otherwise idle machine.
+ *
+ * @author b_muth
+ */
+public class ModelBuildBenchmark {
+	private static final int DEFAULT_NUMBER_OF_STEPS = 10_000;
+	private static final int STEPS_PER_USE_CASE = 10;
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int MEASURED_ITERATIONS = 5;
+
+	public static void main(String[] args) {
+		int numberOfSteps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_STEPS;
+		int numberOfUseCases = Math.max(1, numberOfSteps / STEPS_PER_USE_CASE);
+
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			startEagerly(numberOfUseCases);
+			startLazily(numberOfUseCases);
+		}
+
+		long[] eagerNanos = new long[MEASURED_ITERATIONS];
+		long[] lazyNanos = new long[MEASURED_ITERATIONS];
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			eagerNanos[i] = startEagerly(numberOfUseCases);
+			lazyNanos[i] = startLazily(numberOfUseCases);
+		}
+
+		System.out.println("Steps: " + numberOfUseCases * STEPS_PER_USE_CASE);
+		System.out.println("Eager build and first reaction, median ms: " + medianMillis(eagerNanos));
+		System.out.println("Lazy build and first reaction, median ms: " + medianMillis(lazyNanos));
+	}
+
+	private static long startEagerly(int numberOfUseCases) {
+		ModelBuilder modelBuilder = modelBuilderWithUseCases(numberOfUseCases);
+		long start = System.nanoTime();
+		Model model = modelBuilder.build();
+		reactToFirstMessage(model);
+		return System.nanoTime() - start;
+	}
+
+	private static long startLazily(int numberOfUseCases) {
+		ModelBuilder modelBuilder = modelBuilderWithUseCases(numberOfUseCases);
+		long start = System.nanoTime();
+		Model model = modelBuilder.buildLazily();
+		reactToFirstMessage(model);
+		return System.nanoTime() - start;
+	}
+
+	private static void reactToFirstMessage(Model model) {
+		new ModelRunner().run(model).reactTo(new FirstRequest());
+	}
+
+	/**
+	 * Each use case has a basic flow of 8 steps, and an alternative flow of 2
+	 * steps that refers to steps of the basic flow by name. Only the first use
+	 * case handles the first request.
+	 */
+	private static ModelBuilder modelBuilderWithUseCases(int numberOfUseCases) {
+		ModelBuilder modelBuilder = Model.builder();
+		addUseCase(modelBuilder, 0, FirstRequest.class);
+		for (int useCaseIndex = 1; useCaseIndex < numberOfUseCases; useCaseIndex++) {
+			addUseCase(modelBuilder, useCaseIndex, OtherRequest.class);
+		}
+		return modelBuilder;
+	}
+
+	private static <T> void addUseCase(ModelBuilder modelBuilder, int useCaseIndex, Class<T> requestClass) {
+		String stepPrefix = "UC" + useCaseIndex + "_S";
+
+		StepSystemPart<T> stepSystemPart = modelBuilder.useCase("UC" + useCaseIndex)
+			.basicFlow()
+				.step(stepPrefix + 0).user(requestClass).system(request -> {});
+		for (int stepIndex = 1; stepIndex < STEPS_PER_USE_CASE - 2; stepIndex++) {
+			stepSystemPart = stepSystemPart.step(stepPrefix + stepIndex).user(requestClass).system(request -> {});
+		}
+		stepSystemPart
+			.flow("Retry").insteadOf(stepPrefix + 1)
+				.step(stepPrefix + "Retry").user(requestClass).system(request -> {})
+				.step(stepPrefix + "Continue").continuesAt(stepPrefix + 0);
+	}
+
+	private static long medianMillis(long[] nanos) {
+		long[] sortedNanos = nanos.clone();
+		Arrays.sort(sortedNanos);
+		return sortedNanos[sortedNanos.length / 2] / 1_000_000;
+	}
+
+	private static class FirstRequest {
+	}
+
+	private static class OtherRequest {
+	}
+}
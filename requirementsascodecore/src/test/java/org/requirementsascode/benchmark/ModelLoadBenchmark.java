@@ -0,0 +1,108 @@
+package org.requirementsascode.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.requirementsascode.Model;
+import org.requirementsascode.builder.ModelBuilder;
+import org.requirementsascode.builder.StepSystemPart;
+import org.requirementsascode.definition.Bindings;
+import org.requirementsascode.definition.ModelDefinitionReader;
+import org.requirementsascode.definition.ModelDefinitionWriter;
+
+/**
+ * Compares the time to build a model with 10.000 steps with the builder, with
+ * the time to read the same model from a model definition file.
+ *
+ * <p>
+ * Run the main method, with the number of steps as optional argument. For
+ * reliable numbers, run it on an otherwise idle machine.
+ *
+ * @author b_muth
+ */
+public class ModelLoadBenchmark {
+	private static final int DEFAULT_NUMBER_OF_STEPS = 10_000;
+	private static final int STEPS_PER_USE_CASE = 10;
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int MEASURED_ITERATIONS = 5;
+
+	private static final Consumer<Object> handlesRequest = request -> {};
+	private static final Bindings bindings = Bindings.builder().bind("handlesRequest", handlesRequest).build();
+
+	public static void main(String[] args) throws IOException {
+		int numberOfSteps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_STEPS;
+		int numberOfUseCases = Math.max(1, numberOfSteps / STEPS_PER_USE_CASE);
+
+		Path definitionFile = Files.createTempFile("model", ".racd");
+		try {
+			new ModelDefinitionWriter(bindings).write(build(numberOfUseCases), definitionFile);
+
+			for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+				build(numberOfUseCases);
+				read(definitionFile);
+			}
+
+			long[] buildNanos = new long[MEASURED_ITERATIONS];
+			long[] readNanos = new long[MEASURED_ITERATIONS];
+			for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+				long start = System.nanoTime();
+				build(numberOfUseCases);
+				buildNanos[i] = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				read(definitionFile);
+				readNanos[i] = System.nanoTime() - start;
+			}
+
+			System.out.println("Steps: " + numberOfUseCases * STEPS_PER_USE_CASE);
+			System.out.println("Definition file size, bytes: " + Files.size(definitionFile));
+			System.out.println("Build with builder, median ms: " + medianMillis(buildNanos));
+			System.out.println("Read definition file, median ms: " + medianMillis(readNanos));
+		} finally {
+			Files.deleteIfExists(definitionFile);
+		}
+	}
+
+	private static Model read(Path definitionFile) throws IOException {
+		return new ModelDefinitionReader(bindings).read(definitionFile);
+	}
+
+	/**
+	 * Each use case has a basic flow of 8 steps, and an alternative flow of 2
+	 * steps that refers to steps of the basic flow by name.
+	 */
+	private static Model build(int numberOfUseCases) {
+		ModelBuilder modelBuilder = Model.builder();
+		for (int useCaseIndex = 0; useCaseIndex < numberOfUseCases; useCaseIndex++) {
+			addUseCase(modelBuilder, useCaseIndex);
+		}
+		return modelBuilder.build();
+	}
+
+	private static void addUseCase(ModelBuilder modelBuilder, int useCaseIndex) {
+		String stepPrefix = "UC" + useCaseIndex + "_S";
+
+		StepSystemPart<Request> stepSystemPart = modelBuilder.useCase("UC" + useCaseIndex)
+			.basicFlow()
+				.step(stepPrefix + 0).user(Request.class).system(handlesRequest);
+		for (int stepIndex = 1; stepIndex < STEPS_PER_USE_CASE - 2; stepIndex++) {
+			stepSystemPart = stepSystemPart.step(stepPrefix + stepIndex).user(Request.class).system(handlesRequest);
+		}
+		stepSystemPart
+			.flow("Retry").insteadOf(stepPrefix + 1)
+				.step(stepPrefix + "Retry").user(Request.class).system(handlesRequest)
+				.step(stepPrefix + "Continue").continuesAt(stepPrefix + 0);
+	}
+
+	private static long medianMillis(long[] nanos) {
+		long[] sortedNanos = nanos.clone();
+		Arrays.sort(sortedNanos);
+		return sortedNanos[sortedNanos.length / 2] / 1_000_000;
+	}
+
+	public static class Request {
+	}
+}
@@ -0,0 +1,254 @@
+package org.requirementsascode.definition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.requirementsascode.AbstractActor;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Condition;
+import org.requirementsascode.Flow;
+import org.requirementsascode.FlowStep;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCase;
+
+public class ModelDefinitionTest extends AbstractTestCase {
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Consumer<EntersText> displaysEnteredText;
+	private Consumer<EntersNumber> displaysEnteredNumber;
+	private Runnable displaysConstantText;
+	private Function<EntersText, String> publishEnteredTextAsString;
+	private Supplier<String> publishConstantTextAsString;
+	private Condition textIsAvailable;
+	private Condition textIsNotAvailable;
+	private Bindings bindings;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		displaysEnteredText = displaysEnteredText();
+		displaysEnteredNumber = displaysEnteredNumber();
+		displaysConstantText = displaysConstantText();
+		publishEnteredTextAsString = publishEnteredTextAsString();
+		publishConstantTextAsString = publishConstantTextAsString();
+		textIsAvailable = this::textIsAvailable;
+		textIsNotAvailable = this::textIsNotAvailable;
+
+		bindings = Bindings.builder()
+			.bind("displaysEnteredText", displaysEnteredText)
+			.bind("displaysEnteredNumber", displaysEnteredNumber)
+			.bind("displaysConstantText", displaysConstantText)
+			.bind("publishEnteredTextAsString", publishEnteredTextAsString)
+			.bind("publishConstantTextAsString", publishConstantTextAsString)
+			.bind("textIsAvailable", textIsAvailable)
+			.bind("textIsNotAvailable", textIsNotAvailable)
+			.bind(PARTNER2, targetActor)
+			.build();
+	}
+
+	@Test
+	public void readsModelWithSameStructure() throws Exception {
+		modelBuilder
+			.useCase(USE_CASE_2)
+				.on(EntersText.class).systemPublish(publishEnteredTextAsString)
+				.condition(textIsAvailable).step(SYSTEM_DISPLAYS_TEXT_AGAIN).systemPublish(publishConstantTextAsString);
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).as(customer).user(EntersText.class).system(displaysEnteredText)
+					.step(CUSTOMER_ENTERS_NUMBER).as(customer, sourceActor).user(EntersNumber.class).system(displaysEnteredNumber)
+						.reactWhile(textIsAvailable)
+					.step(SYSTEM_DISPLAYS_TEXT).inCase(textIsNotAvailable).system(displaysConstantText)
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_NUMBER).condition(textIsNotAvailable)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).systemPublish(publishEnteredTextAsString)
+						.to(targetActor)
+					.step(CONTINUE).continuesAt(CUSTOMER_ENTERS_TEXT)
+				.flow(ALTERNATIVE_FLOW_2).after(CUSTOMER_ENTERS_TEXT, SYSTEM_DISPLAYS_TEXT)
+					.step(CONTINUE_2).continuesAfter(CUSTOMER_ENTERS_TEXT)
+				.flow("Exception flow").anytime()
+					.step(SYSTEM_HANDLES_EXCEPTION).on(IllegalStateException.class).system(displaysConstantText)
+			.build();
+
+		Model readModel = new ModelDefinitionReader(bindings).read(writeToFile(model));
+
+		assertEquals(structureOf(model), structureOf(readModel));
+		assertEquals(model.getAmbiguityReport().get().toString(), readModel.getAmbiguityReport().get().toString());
+		Step alternativeTextStep = readModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_ALTERNATIVE_TEXT);
+		assertSame(targetActor, alternativeTextStep.getPublishTo().get());
+		assertSame(publishEnteredTextAsString, alternativeTextStep.getSystemReaction().getModelObject());
+	}
+
+	@Test
+	public void readsModelThatReactsLikeOriginalModel() throws Exception {
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText)
+					.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber)
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_NUMBER)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EntersText.class).system(displaysEnteredText)
+					.step(CONTINUE).continuesAfter(CUSTOMER_ENTERS_TEXT)
+			.build();
+		Model readModel = new ModelDefinitionReader(bindings).read(writeToFile(model));
+
+		modelRunner.run(readModel).reactTo(entersText(), entersText(), entersNumber());
+
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CUSTOMER_ENTERS_ALTERNATIVE_TEXT, CONTINUE, CUSTOMER_ENTERS_NUMBER);
+	}
+
+	@Test
+	public void readsModelLazily() throws Exception {
+		Model model = modelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText)
+					.step(CONTINUE).continuesAt(CUSTOMER_ENTERS_TEXT)
+			.build();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new ModelDefinitionWriter(bindings).write(model, output);
+
+		Model readModel = new ModelDefinitionReader(bindings).readLazily(ByteBuffer.wrap(output.toByteArray()));
+		assertFalse(readModel.getAmbiguityReport().isPresent());
+
+		modelRunner.run(readModel).reactTo(entersText(), entersText());
+		assertRecordedStepNames(CUSTOMER_ENTERS_TEXT, CONTINUE, CUSTOMER_ENTERS_TEXT, CONTINUE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfSystemReactionIsNotBound() throws Exception {
+		Model model = modelBuilder
+			.user(EntersText.class).system(displaysEnteredText())
+			.build();
+
+		writeToFile(model);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfNameIsNotBoundWhenReading() throws Exception {
+		Model model = modelBuilder
+			.user(EntersText.class).system(displaysEnteredText)
+			.build();
+		Path path = writeToFile(model);
+
+		new ModelDefinitionReader(Bindings.builder().build()).read(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void throwsExceptionIfNotAModelDefinition() throws Exception {
+		new ModelDefinitionReader(bindings).read(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }));
+	}
+
+	@Test(expected = IOException.class)
+	public void throwsExceptionIfDefinitionIsTruncated() throws Exception {
+		Model model = modelBuilder
+			.user(EntersText.class).system(displaysEnteredText)
+			.build();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new ModelDefinitionWriter(bindings).write(model, output);
+		byte[] definition = output.toByteArray();
+
+		new ModelDefinitionReader(bindings).read(ByteBuffer.wrap(Arrays.copyOf(definition, definition.length - 2)));
+	}
+
+	@Test(expected = IOException.class)
+	public void throwsExceptionIfFlowlessStepReactsWhileConditionIsTrue() throws Exception {
+		byte[] definition = definitionOfFlowlessStep(3, ModelDefinitionFormat.NO_REACTION, ModelDefinitionFormat.NO_STRING);
+
+		new ModelDefinitionReader(bindings).read(ByteBuffer.wrap(definition));
+	}
+
+	@Test(expected = IOException.class)
+	public void throwsExceptionIfFlowlessStepContinuesAtStep() throws Exception {
+		byte[] definition = definitionOfFlowlessStep(ModelDefinitionFormat.NO_STRING, ModelDefinitionFormat.CONTINUES_AT, 2);
+
+		new ModelDefinitionReader(bindings).read(ByteBuffer.wrap(definition));
+	}
+
+	@Test(expected = IOException.class)
+	public void throwsExceptionIfStringNumberIsNegative() throws Exception {
+		byte[] definition = definitionOfFlowlessStep(ModelDefinitionFormat.NO_STRING, ModelDefinitionFormat.NO_REACTION,
+			ModelDefinitionFormat.NO_STRING);
+		// The use case name follows the strings and the number of use cases
+		int useCaseNameIndex = definition.length - 14;
+		byte[] corruptDefinition = new byte[definition.length + 4];
+		System.arraycopy(definition, 0, corruptDefinition, 0, useCaseNameIndex);
+		System.arraycopy(new byte[] { (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f }, 0, corruptDefinition,
+			useCaseNameIndex, 5);
+		System.arraycopy(definition, useCaseNameIndex + 1, corruptDefinition, useCaseNameIndex + 5,
+			definition.length - useCaseNameIndex - 1);
+
+		new ModelDefinitionReader(bindings).read(ByteBuffer.wrap(corruptDefinition));
+	}
+
+	private Path writeToFile(Model model) throws IOException {
+		Path path = temporaryFolder.getRoot().toPath().resolve("model.racd");
+		new ModelDefinitionWriter(bindings).write(model, path);
+		return path;
+	}
+
+	private byte[] definitionOfFlowlessStep(int reactWhileStringNumber, byte reactionKind, int reactionStringNumber)
+		throws IOException {
+		ByteArrayOutputStream definition = new ByteArrayOutputStream();
+		new DataOutputStream(definition).writeInt(ModelDefinitionFormat.MAGIC);
+		definition.write(ModelDefinitionFormat.VERSION);
+		String[] strings = { USE_CASE, CUSTOMER_ENTERS_TEXT, "textIsAvailable" };
+		definition.write(strings.length);
+		for (String string : strings) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			definition.write(bytes.length);
+			definition.write(bytes);
+		}
+		definition.write(new byte[] { 1, 1, 0, 1, 2, ModelDefinitionFormat.FLOWLESS_STEP, ModelDefinitionFormat.NO_FLOW,
+			ModelDefinitionFormat.NO_STRING, 0, ModelDefinitionFormat.NO_STRING, ModelDefinitionFormat.NO_STRING,
+			(byte) reactWhileStringNumber, reactionKind, (byte) reactionStringNumber, ModelDefinitionFormat.NO_ACTOR });
+		return definition.toByteArray();
+	}
+
+	private String structureOf(Model model) {
+		StringBuilder structure = new StringBuilder();
+		for (UseCase useCase : model.getUseCases()) {
+			structure.append("Use case ").append(useCase).append('\n');
+			for (Flow flow : useCase.getFlows()) {
+				structure.append(" Flow ").append(flow).append(' ').append(flow.getCondition().isPresent()).append('\n');
+			}
+			for (Step step : useCase.getSteps()) {
+				structure.append(" Step ").append(step).append(' ').append(step.getClass().getSimpleName())
+					.append(' ').append(Arrays.toString(step.getActors()))
+					.append(' ').append(step.getMessageClass().getSimpleName())
+					.append(' ').append(step.getCondition().orElse(null))
+					.append(' ').append(step.getCase().orElse(null))
+					.append(' ').append(step.getPublishTo().map(AbstractActor::getName).orElse(null))
+					.append(' ').append(step.getSystemReaction().getModelObject().getClass().getName());
+				if (step instanceof FlowStep) {
+					FlowStep flowStep = (FlowStep) step;
+					structure.append(' ').append(flowStep.getFlow())
+						.append(' ').append(flowStep.getReactWhile())
+						.append(' ').append(flowStep.getPreviousStepInFlow().orElse(null))
+						.append(' ').append(flowStep.getFlowPosition().getClass().getSimpleName());
+					flowStep.getFlowPosition().getAfterForEachSingleStep()
+						.forEach(afterSingleStep -> structure.append(' ').append(afterSingleStep.getStepName()));
+				}
+				structure.append('\n');
+			}
+		}
+		return structure.toString();
+	}
+}
@@ -0,0 +1,168 @@
+package org.requirementsascode.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Actor;
+import org.requirementsascode.Model;
+
+public class BatchingPublisherTest extends AbstractTestCase {
+	private static final Duration LONG_LATENCY = Duration.ofHours(1);
+
+	private List<Object> receivedEvents;
+	private CountDownLatch eventsReceived;
+	private Actor recipient;
+	private BatchingPublisher publisher;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		receivedEvents = Collections.synchronizedList(new ArrayList<>());
+		eventsReceived = new CountDownLatch(2);
+		Model recipientBehavior = Model.builder()
+			.on(String.class).system(event -> {
+				receivedEvents.add(event);
+				eventsReceived.countDown();
+			})
+			.build();
+		recipient = new Actor("Recipient").withBehavior(recipientBehavior);
+	}
+
+	@After
+	public void tearDown() {
+		if (publisher != null) {
+			publisher.close();
+		}
+	}
+
+	@Test
+	public void buffersEventsUntilFlushed() {
+		publisher = BatchingPublisher.builder().maxLatency(LONG_LATENCY).build();
+
+		publisher.publish("A", recipient, customer);
+		publisher.publish("B", recipient, customer);
+		assertTrue(receivedEvents.isEmpty());
+		assertEquals(2, publisher.getNumberOfBufferedEvents());
+
+		publisher.flush();
+		assertEquals(Arrays.asList("A", "B"), receivedEvents);
+		assertEquals(0, publisher.getNumberOfBufferedEvents());
+	}
+
+	@Test
+	public void forgetsRecipientAfterDelivery() {
+		publisher = BatchingPublisher.builder().maxLatency(LONG_LATENCY).build();
+
+		publisher.publish("A", recipient, customer);
+		assertEquals(1, publisher.getNumberOfRecipients());
+
+		publisher.flush();
+		assertEquals(0, publisher.getNumberOfRecipients());
+
+		publisher.publish("B", recipient, customer);
+		assertEquals(1, publisher.getNumberOfRecipients());
+		publisher.flush();
+		assertEquals(Arrays.asList("A", "B"), receivedEvents);
+		assertEquals(0, publisher.getNumberOfRecipients());
+	}
+
+	@Test
+	public void deliversAllEventsWhileRecipientsAreForgotten() throws InterruptedException {
+		int numberOfEvents = 10_000;
+		eventsReceived = new CountDownLatch(numberOfEvents);
+		publisher = BatchingPublisher.builder().flushSize(1).build();
+
+		for (int i = 0; i < numberOfEvents; i++) {
+			publisher.publish(String.valueOf(i), recipient, customer);
+		}
+
+		assertTrue(eventsReceived.await(10, TimeUnit.SECONDS));
+		for (int i = 0; i < numberOfEvents; i++) {
+			assertEquals(String.valueOf(i), receivedEvents.get(i));
+		}
+	}
+
+	@Test
+	public void deliversWhenFlushSizeIsReached() throws InterruptedException {
+		publisher = BatchingPublisher.builder().flushSize(2).maxLatency(LONG_LATENCY).build();
+
+		publisher.publish("A", recipient, customer);
+		publisher.publish("B", recipient, customer);
+
+		assertTrue(eventsReceived.await(10, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("A", "B"), receivedEvents);
+	}
+
+	@Test
+	public void deliversAfterMaximumLatency() throws InterruptedException {
+		publisher = BatchingPublisher.builder().maxLatency(Duration.ofMillis(1)).build();
+
+		publisher.publish("A", recipient, customer);
+		publisher.publish("B", recipient, customer);
+
+		assertTrue(eventsReceived.await(10, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("A", "B"), receivedEvents);
+	}
+
+	@Test
+	public void passesExceptionsToHandler() {
+		List<RuntimeException> exceptions = new ArrayList<>();
+		Actor failingRecipient = new Actor("Failing recipient").withBehavior(Model.builder()
+			.on(String.class).system(throwsArrayIndexOutOfBoundsException())
+			.build());
+		publisher = BatchingPublisher.builder().maxLatency(LONG_LATENCY).handleExceptionsWith(exceptions::add).build();
+
+		publisher.publish("A", failingRecipient, customer);
+		publisher.publish("B", recipient, customer);
+		publisher.flush();
+
+		assertEquals(1, exceptions.size());
+		assertEquals(ArrayIndexOutOfBoundsException.class, exceptions.get(0).getClass());
+		assertEquals(Arrays.asList("B"), receivedEvents);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectsEventsAfterClose() {
+		publisher = BatchingPublisher.builder().build();
+		publisher.close();
+
+		publisher.publish("A", recipient, customer);
+	}
+
+	@Test
+	public void deliversBufferedEventsOnClose() {
+		publisher = BatchingPublisher.builder().maxLatency(LONG_LATENCY).build();
+		publisher.publish("A", recipient, customer);
+
+		publisher.close();
+
+		assertEquals(Arrays.asList("A"), receivedEvents);
+	}
+
+	@Test
+	public void publishesEventsOfRunnerToActor() {
+		publisher = BatchingPublisher.builder().maxLatency(LONG_LATENCY).build();
+		Model model = modelBuilder
+			.on(EntersText.class).systemPublish(entersText -> entersText.value()).to(recipient)
+			.build();
+		modelRunner.publishToActorsWith(publisher).run(model);
+
+		modelRunner.reactTo(entersText(), entersText());
+		assertTrue(receivedEvents.isEmpty());
+
+		publisher.flush();
+		assertEquals(Arrays.asList(TEXT, TEXT), receivedEvents);
+	}
+}
@@ -0,0 +1,135 @@
+package org.requirementsascode.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventQueueStatisticsTest {
+	private EventQueueStatistics statistics;
+	private List<Object> consumedEvents;
+	private CountDownLatch consumerBlocked;
+	private CountDownLatch releaseConsumer;
+	private CountDownLatch eventsConsumed;
+	private EventQueue eventQueue;
+
+	@Before
+	public void setup() {
+		statistics = new EventQueueStatistics();
+		consumedEvents = Collections.synchronizedList(new ArrayList<>());
+		consumerBlocked = new CountDownLatch(1);
+		releaseConsumer = new CountDownLatch(1);
+		eventsConsumed = new CountDownLatch(3);
+		eventQueue = new EventQueue(event -> {
+			consumerBlocked.countDown();
+			await(releaseConsumer);
+			consumedEvents.add(event);
+			eventsConsumed.countDown();
+		}, statistics);
+	}
+
+	@After
+	public void tearDown() {
+		releaseConsumer.countDown();
+		eventQueue.stop();
+	}
+
+	@Test
+	public void collectsBacklogAndHighWatermark() throws InterruptedException {
+		eventQueue.put("First");
+		consumerBlocked.await();
+		eventQueue.put("Second");
+		eventQueue.put("Third");
+
+		assertEquals(3, statistics.getNumberOfPutEvents());
+		assertEquals(0, statistics.getNumberOfConsumedEvents());
+		assertEquals(3, statistics.getBacklog());
+		assertEquals(2, statistics.getHighWatermark());
+
+		releaseConsumer.countDown();
+		assertTrue(eventsConsumed.await(10, TimeUnit.SECONDS));
+		waitUntilStatisticsAreUpdated();
+
+		assertEquals(3, statistics.getNumberOfConsumedEvents());
+		assertEquals(0, statistics.getBacklog());
+		assertEquals(2, statistics.getHighWatermark());
+	}
+
+	@Test
+	public void measuresWaitAndProcessingTimes() throws InterruptedException {
+		eventQueue.put("First");
+		consumerBlocked.await();
+		eventQueue.put("Second");
+		eventQueue.put("Third");
+		Thread.sleep(20);
+		releaseConsumer.countDown();
+		assertTrue(eventsConsumed.await(10, TimeUnit.SECONDS));
+		waitUntilStatisticsAreUpdated();
+
+		DurationHistogram waitTimes = statistics.getWaitTimes();
+		DurationHistogram processingTimes = statistics.getProcessingTimes();
+		assertEquals(3, waitTimes.getCount());
+		assertEquals(3, processingTimes.getCount());
+		assertTrue(waitTimes.getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+		assertTrue(processingTimes.getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+	}
+
+	@Test
+	public void forwardsEventsToConsumerUnchanged() throws InterruptedException {
+		releaseConsumer.countDown();
+		eventQueue.put("First");
+		eventQueue.put("Second");
+		eventQueue.put("Third");
+		assertTrue(eventsConsumed.await(10, TimeUnit.SECONDS));
+
+		assertEquals(3, consumedEvents.size());
+		assertEquals("First", consumedEvents.get(0));
+		assertEquals("Third", consumedEvents.get(2));
+	}
+
+	@Test
+	public void histogramReturnsUpperBoundsOfPercentiles() {
+		DurationHistogram histogram = new DurationHistogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(1000);
+		}
+		histogram.record(1_000_000);
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(1023, histogram.getPercentileNanos(0));
+		assertEquals(1023, histogram.getPercentileNanos(50));
+		assertEquals(1023, histogram.getPercentileNanos(99));
+		assertEquals(1_000_000, histogram.getPercentileNanos(100));
+		assertEquals(1_000_000, histogram.getMaxNanos());
+		assertEquals(99, histogram.getBucketCount(9));
+		assertEquals(10990, histogram.getMeanNanos(), 0.001);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void histogramThrowsExceptionForInvalidPercentile() {
+		new DurationHistogram().getPercentileNanos(101);
+	}
+
+	private void waitUntilStatisticsAreUpdated() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (statistics.getNumberOfConsumedEvents() < 3 && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
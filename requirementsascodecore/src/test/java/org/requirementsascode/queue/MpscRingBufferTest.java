@@ -0,0 +1,227 @@
+package org.requirementsascode.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+	private static final int NUMBER_OF_PRODUCERS = 4;
+	private static final int EVENTS_PER_PRODUCER = 1_000;
+
+	@Test
+	public void takesEventsInOrderAcrossWrapAround() throws InterruptedException {
+		MpscRingBuffer ringBuffer = new MpscRingBuffer(4, WaitStrategy.BUSY_SPIN);
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 3; i++) {
+				ringBuffer.put(round * 10 + i);
+			}
+			assertEquals(3, ringBuffer.size());
+			for (int i = 0; i < 3; i++) {
+				assertEquals(round * 10 + i, ringBuffer.take());
+			}
+			assertTrue(ringBuffer.isEmpty());
+		}
+	}
+
+	@Test
+	public void doesntOfferEventIfFull() {
+		MpscRingBuffer ringBuffer = new MpscRingBuffer(2, WaitStrategy.BUSY_SPIN);
+
+		assertTrue(ringBuffer.offer("First"));
+		assertTrue(ringBuffer.offer("Second"));
+		assertFalse(ringBuffer.offer("Third"));
+		assertEquals(2, ringBuffer.size());
+
+		assertEquals("First", ringBuffer.poll());
+		assertTrue(ringBuffer.offer("Third"));
+		assertEquals("Second", ringBuffer.poll());
+		assertEquals("Third", ringBuffer.poll());
+		assertNull(ringBuffer.poll());
+	}
+
+	@Test
+	public void producerWaitsUntilSlotIsFree() throws InterruptedException {
+		MpscRingBuffer ringBuffer = new MpscRingBuffer(2, WaitStrategy.PARK);
+		ringBuffer.put("First");
+		ringBuffer.put("Second");
+		CountDownLatch thirdPut = new CountDownLatch(1);
+		Thread producer = new Thread(() -> {
+			try {
+				ringBuffer.put("Third");
+				thirdPut.countDown();
+			} catch (InterruptedException e) {
+			}
+		});
+		producer.start();
+
+		assertFalse(thirdPut.await(50, TimeUnit.MILLISECONDS));
+		assertEquals("First", ringBuffer.take());
+		assertTrue(thirdPut.await(10, TimeUnit.SECONDS));
+		assertEquals("Second", ringBuffer.take());
+		assertEquals("Third", ringBuffer.take());
+		producer.join();
+	}
+
+	@Test
+	public void waitingConsumerStopsWhenInterrupted() throws InterruptedException {
+		for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+			MpscRingBuffer ringBuffer = new MpscRingBuffer(8, waitStrategy);
+			AtomicBoolean interrupted = new AtomicBoolean();
+			Thread consumer = new Thread(() -> {
+				try {
+					ringBuffer.take();
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+				}
+			});
+			consumer.start();
+			consumer.interrupt();
+			consumer.join(10_000);
+
+			assertFalse(consumer.isAlive());
+			assertTrue(waitStrategy.name(), interrupted.get());
+		}
+	}
+
+	@Test
+	public void putReturnsFalseAfterClose() throws InterruptedException {
+		MpscRingBuffer ringBuffer = new MpscRingBuffer(2, WaitStrategy.PARK);
+		ringBuffer.close();
+
+		assertFalse(ringBuffer.put("First"));
+	}
+
+	@Test(timeout = 10_000)
+	public void eventQueueDropsEventsPutAfterStop() throws InterruptedException {
+		EventQueue eventQueue = fullEventQueue();
+
+		eventQueue.stop();
+
+		assertFalse(eventQueue.offer("Fourth"));
+	}
+
+	@Test(timeout = 10_000)
+	public void waitingProducerStopsWhenEventQueueIsStopped() throws InterruptedException {
+		EventQueue eventQueue = fullEventQueue();
+		AtomicBoolean isPut = new AtomicBoolean(true);
+		Thread producer = new Thread(() -> isPut.set(eventQueue.offer("Fourth")));
+		producer.start();
+
+		eventQueue.stop();
+		producer.join();
+
+		assertFalse(isPut.get());
+	}
+
+	@Test(timeout = 10_000)
+	public void interruptedProducerDropsEventAndStaysInterrupted() throws InterruptedException {
+		EventQueue eventQueue = fullEventQueue();
+		AtomicBoolean isPut = new AtomicBoolean(true);
+		AtomicBoolean isInterrupted = new AtomicBoolean();
+		Thread producer = new Thread(() -> {
+			isPut.set(eventQueue.offer("Fourth"));
+			isInterrupted.set(Thread.currentThread().isInterrupted());
+		});
+		producer.start();
+
+		producer.interrupt();
+		producer.join();
+		eventQueue.stop();
+
+		assertFalse(isPut.get());
+		assertTrue(isInterrupted.get());
+	}
+
+	private EventQueue fullEventQueue() throws InterruptedException {
+		CountDownLatch consumerBlocked = new CountDownLatch(1);
+		EventQueue eventQueue = EventQueue.builder(event -> {
+			consumerBlocked.countDown();
+			awaitInterruption();
+		}).ringBuffer(2, WaitStrategy.PARK).build();
+		eventQueue.put("First");
+		consumerBlocked.await();
+		eventQueue.put("Second");
+		eventQueue.put("Third");
+		return eventQueue;
+	}
+
+	private void awaitInterruption() {
+		try {
+			new CountDownLatch(1).await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfCapacityIsntPowerOfTwo() {
+		EventQueue.builder(event -> {}).ringBuffer(1000, WaitStrategy.YIELD);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfCapacityIsOne() {
+		new MpscRingBuffer(1, WaitStrategy.YIELD);
+	}
+
+	@Test
+	public void eventQueueConsumesEventsOfManyProducersWithEachWaitStrategy() throws InterruptedException {
+		for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+			assertConsumesEventsOfManyProducers(waitStrategy);
+		}
+	}
+
+	private void assertConsumesEventsOfManyProducers(WaitStrategy waitStrategy) throws InterruptedException {
+		List<ProducedEvent> consumedEvents = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch eventsConsumed = new CountDownLatch(NUMBER_OF_PRODUCERS * EVENTS_PER_PRODUCER);
+		EventQueueStatistics statistics = new EventQueueStatistics();
+		EventQueue eventQueue = EventQueue.builder(event -> {
+			consumedEvents.add((ProducedEvent) event);
+			eventsConsumed.countDown();
+		}).ringBuffer(64, waitStrategy).listener(statistics).build();
+
+		List<Thread> producers = new ArrayList<>();
+		for (int producerIndex = 0; producerIndex < NUMBER_OF_PRODUCERS; producerIndex++) {
+			int producer = producerIndex;
+			producers.add(new Thread(() -> {
+				for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+					eventQueue.put(new ProducedEvent(producer, i));
+				}
+			}));
+		}
+		producers.forEach(Thread::start);
+
+		assertTrue(waitStrategy.name(), eventsConsumed.await(30, TimeUnit.SECONDS));
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		eventQueue.stop();
+
+		assertEquals(NUMBER_OF_PRODUCERS * EVENTS_PER_PRODUCER, statistics.getNumberOfPutEvents());
+		assertTrue(statistics.getHighWatermark() <= 64);
+		assertTrue(eventQueue.isEmpty());
+		int[] nextIndexOfProducer = new int[NUMBER_OF_PRODUCERS];
+		for (ProducedEvent event : consumedEvents) {
+			assertEquals(nextIndexOfProducer[event.producer]++, event.index);
+		}
+	}
+
+	private static class ProducedEvent {
+		private final int producer;
+		private final int index;
+
+		private ProducedEvent(int producer, int index) {
+			this.producer = producer;
+			this.index = index;
+		}
+	}
+}
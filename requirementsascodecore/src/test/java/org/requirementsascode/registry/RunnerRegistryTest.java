@@ -0,0 +1,251 @@
+package org.requirementsascode.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+
+public class RunnerRegistryTest extends AbstractTestCase {
+	private static final String SESSION = "Session";
+	private static final String SESSION_2 = "Session 2";
+
+	private long nanos;
+	private Model model;
+
+	@Before
+	public void setup() {
+		setupWithRecordingModelRunner();
+		nanos = 0;
+		model = modelBuilder.useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+	}
+
+	@Test
+	public void createsRunnerPerSession() {
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model).build();
+
+		ModelRunner runner = registry.withRunner(SESSION, r -> r);
+		ModelRunner sameRunner = registry.withRunner(SESSION, r -> r);
+		ModelRunner otherRunner = registry.withRunner(SESSION_2, r -> r);
+
+		assertSame(runner, sameRunner);
+		assertNotSame(runner, otherRunner);
+		assertTrue(runner.isRunning());
+		assertEquals(2, registry.getNumberOfLiveSessions());
+		assertEquals(2, registry.getNumberOfCreatedRunners());
+	}
+
+	@Test
+	public void reactsPerSession() {
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model).build();
+
+		registry.reactTo(SESSION, entersText());
+		registry.reactTo(SESSION_2, entersNumber());
+
+		assertEquals(CUSTOMER_ENTERS_TEXT, latestStepNameOf(registry, SESSION));
+		assertEquals(null, latestStepNameOf(registry, SESSION_2));
+	}
+
+	@Test
+	public void evictsIdleRunners() {
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model)
+			.evictAfter(Duration.ofSeconds(10)).clock(() -> nanos).build();
+		registry.reactTo(SESSION, entersText());
+		nanos = TimeUnit.SECONDS.toNanos(5);
+		registry.reactTo(SESSION_2, entersText());
+
+		nanos = TimeUnit.SECONDS.toNanos(10);
+		assertEquals(1, registry.evictIdleRunners());
+
+		assertEquals(1, registry.getNumberOfLiveSessions());
+		assertEquals(1, registry.getNumberOfEvictedRunners());
+	}
+
+	@Test
+	public void doesntEvictRunnersWithoutTimeToIdle() {
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model).clock(() -> nanos).build();
+		registry.reactTo(SESSION, entersText());
+
+		nanos = Long.MAX_VALUE / 2;
+
+		assertEquals(0, registry.evictIdleRunners());
+	}
+
+	@Test
+	public void startsNewJourneyAfterEvictionWithoutStore() {
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model)
+			.evictAfter(Duration.ZERO).clock(() -> nanos).build();
+		registry.reactTo(SESSION, entersText());
+		registry.evictIdleRunners();
+
+		assertEquals(null, latestStepNameOf(registry, SESSION));
+	}
+
+	@Test
+	public void restoresEvictedRunnerFromStore() {
+		InMemoryRunnerStateStore<String> store = new InMemoryRunnerStateStore<>();
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model)
+			.evictAfter(Duration.ZERO).spillTo(store).clock(() -> nanos).build();
+		registry.reactTo(SESSION, entersText());
+		registry.evictIdleRunners();
+		assertEquals(1, store.size());
+
+		registry.reactTo(SESSION, entersNumber());
+
+		assertEquals(CUSTOMER_ENTERS_NUMBER, latestStepNameOf(registry, SESSION));
+		assertEquals(0, store.size());
+		assertEquals(1, registry.getNumberOfRestoredRunners());
+		assertEquals(1, registry.getNumberOfCreatedRunners());
+	}
+
+	@Test
+	public void doesntTriggerAutonomousSystemReactionsWhenRestoring() {
+		AtomicInteger numberOfAutonomousReactions = new AtomicInteger();
+		Model model = Model.builder().useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).system(displaysEnteredText())
+				.step(SYSTEM_DISPLAYS_TEXT).system(numberOfAutonomousReactions::incrementAndGet)
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		InMemoryRunnerStateStore<String> store = new InMemoryRunnerStateStore<>();
+		store.save(SESSION, new RunnerState(USE_CASE, CUSTOMER_ENTERS_TEXT, true));
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model).spillTo(store).build();
+
+		assertEquals(CUSTOMER_ENTERS_TEXT, latestStepNameOf(registry, SESSION));
+		assertEquals(0, numberOfAutonomousReactions.get());
+		assertEquals(1, registry.getNumberOfRestoredRunners());
+	}
+
+	@Test
+	public void doesntEvictSuspendedRunner() {
+		CompletableFuture<String> remoteCall = new CompletableFuture<>();
+		Model model = Model.builder()
+			.user(EntersText.class).systemAsync(entersText -> remoteCall)
+			.build();
+		InMemoryRunnerStateStore<String> store = new InMemoryRunnerStateStore<>();
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model)
+			.evictAfter(Duration.ZERO).spillTo(store).clock(() -> nanos).build();
+		registry.reactTo(SESSION, entersText());
+		registry.reactTo(SESSION, entersText());
+
+		assertEquals(0, registry.evictIdleRunners());
+		assertEquals(1, registry.getNumberOfLiveSessions());
+
+		remoteCall.complete(TEXT);
+		assertEquals(1, registry.evictIdleRunners());
+		assertEquals(0, registry.getNumberOfLiveSessions());
+	}
+
+	@Test(timeout = 10_000)
+	public void resumesRunnerWhileHoldingLockOfSession() throws Exception {
+		CompletableFuture<String> remoteCall = new CompletableFuture<>();
+		Model model = Model.builder().useCase(USE_CASE)
+			.basicFlow()
+				.step(CUSTOMER_ENTERS_TEXT).user(EntersText.class).systemAsync(entersText -> remoteCall)
+				.step(CUSTOMER_ENTERS_NUMBER).user(EntersNumber.class).system(displaysEnteredNumber())
+			.build();
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model).build();
+		registry.reactTo(SESSION, entersText());
+		registry.reactTo(SESSION, entersNumber());
+
+		Thread completingThread = new Thread(() -> remoteCall.complete(TEXT));
+		registry.withRunner(SESSION, runner -> {
+			completingThread.start();
+			joinFor(completingThread, 100);
+			assertTrue(completingThread.isAlive());
+			return runner;
+		});
+		completingThread.join();
+
+		assertEquals(CUSTOMER_ENTERS_NUMBER, latestStepNameOf(registry, SESSION));
+	}
+
+	@Test
+	public void removesSession() {
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model).build();
+		registry.reactTo(SESSION, entersText());
+
+		assertTrue(registry.remove(SESSION));
+		assertFalse(registry.remove(SESSION));
+		assertEquals(0, registry.getNumberOfLiveSessions());
+	}
+
+	@Test
+	public void usesSuppliedRunners() {
+		AtomicInteger numberOfHandledMessages = new AtomicInteger();
+		RunnerRegistry<String> registry = RunnerRegistry.<String>builder(model)
+			.runners(() -> new ModelRunner().handleWith(step -> {
+				numberOfHandledMessages.incrementAndGet();
+				step.run();
+			})).build();
+
+		registry.reactTo(SESSION, entersText());
+
+		assertEquals(1, numberOfHandledMessages.get());
+	}
+
+	@Test
+	public void serializesAccessPerSession() throws Exception {
+		AtomicInteger numberOfConcurrentCalls = new AtomicInteger();
+		AtomicInteger maxNumberOfConcurrentCalls = new AtomicInteger();
+		RunnerRegistry<Integer> registry = RunnerRegistry.<Integer>builder(model).stripes(4).build();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				futures.add(executor.submit(() -> registry.withRunner(1, runner -> {
+					int concurrentCalls = numberOfConcurrentCalls.incrementAndGet();
+					maxNumberOfConcurrentCalls.accumulateAndGet(concurrentCalls, Math::max);
+					numberOfConcurrentCalls.decrementAndGet();
+					return runner;
+				})));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(1, maxNumberOfConcurrentCalls.get());
+		assertEquals(1, registry.getNumberOfCreatedRunners());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsZeroStripes() {
+		RunnerRegistry.<String>builder(model).stripes(0);
+	}
+
+	private String latestStepNameOf(RunnerRegistry<String> registry, String sessionId) {
+		return registry.withRunner(sessionId, runner -> runner.getLatestStep().map(step -> step.getName()).orElse(null));
+	}
+
+	private void joinFor(Thread thread, long millis) {
+		try {
+			thread.join(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
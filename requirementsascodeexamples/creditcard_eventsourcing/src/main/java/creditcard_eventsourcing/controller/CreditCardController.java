@@ -1,16 +1,20 @@
 package creditcard_eventsourcing.controller;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 
 import creditcard_eventsourcing.model.CreditCardAggregateRoot;
 import creditcard_eventsourcing.persistence.EventStore;
+import creditcard_eventsourcing.projection.AvailableLimits;
 
 /**
  * Based on code by Jakub Pilimon:
@@ -21,6 +25,9 @@ import creditcard_eventsourcing.persistence.EventStore;
 class CreditCardController {
 	@Autowired
 	EventStore eventStore;
+	
+	@Autowired
+	AvailableLimits availableLimits;
 
 	@GetMapping("/cards")
 	List<CreditCardAggregateRoot> creditCardList() {
@@ -32,4 +39,9 @@ class CreditCardController {
 		}
 		return creditCards;
 	}
+
+	@GetMapping("/cards/{uuid}/limit")
+	Optional<BigDecimal> availableLimit(@PathVariable UUID uuid) {
+		return availableLimits.availableLimitOf(uuid);
+	}
 }
\ No newline at end of file
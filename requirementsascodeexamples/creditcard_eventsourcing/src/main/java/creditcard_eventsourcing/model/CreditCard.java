@@ -37,12 +37,14 @@ class CreditCard
 	private int withdrawals;
 	
 	private final UUID uuid;
+	private final int version;
 	private final Model eventHandlingModel;
 	private List<DomainEvent> pendingEvents = new ArrayList<>();
 	private ModelRunner modelRunner;
 
 	public CreditCard(UUID uuid, List<DomainEvent> events) {
 		this.uuid = uuid;
+		this.version = events.size();
 		this.eventHandlingModel = buildModel();
 		this.modelRunner = new ModelRunner().run(eventHandlingModel);
 		replay(uuid, events);
@@ -54,6 +56,13 @@ class CreditCard
 	public UUID uuid() {
 		return uuid;
 	}
+	
+	/*
+	 * Version of the event stream the credit card has been loaded from
+	 */
+	public int version() {
+		return version;
+	}
 
 	/**
 	 * Builds a model that maps received events to method calls
@@ -31,10 +31,12 @@ import creditcard_eventsourcing.model.event.CardWithdrawn;
 import creditcard_eventsourcing.model.event.CycleClosed;
 import creditcard_eventsourcing.model.event.DomainEvent;
 import creditcard_eventsourcing.model.event.LimitAssigned;
+import creditcard_eventsourcing.persistence.ConcurrentModificationOfEventStream;
 import creditcard_eventsourcing.persistence.EventStore;
 
 public class CreditCardAggregateRoot {
 	private static final String useCreditCard = "Use credit card";
+	private static final int maxNumberOfAttempts = 100;
 
 	// Command types
 	private static final Class<RequestToAssignLimit> requestsToAssignLimit = RequestToAssignLimit.class;
@@ -107,9 +109,27 @@ public class CreditCardAggregateRoot {
 	 * Each command that is accepted will cause an event to be applied to the credit card.
 	 * After that, the events are saved to the event store.
 	 * 
+	 * If another client has saved events for the same credit card in the meantime,
+	 * the command is handled again, based on the newly loaded state.
+	 * 
 	 * @param command the command to handle.
+	 * @throws ConcurrentModificationOfEventStream if the command could not be handled
+	 * without conflict after the maximum number of attempts
 	 */
 	public void accept(Object command) {
+		for (int attempt = 1;; attempt++) {
+			try {
+				loadAndHandle(command);
+				return;
+			} catch (ConcurrentModificationOfEventStream e) {
+				if (attempt >= maxNumberOfAttempts) {
+					throw e;
+				}
+			}
+		}
+	}
+	
+	private void loadAndHandle(Object command) {
 		this.creditCard = loadCreditCard();
 		Optional<DomainEvent> event = restoreStateAndHandle(command);
 		applyToCreditCardIfPresent(event);
@@ -136,12 +156,11 @@ public class CreditCardAggregateRoot {
 		event.ifPresent(ev -> creditCard().apply(ev));
 	}
 	
-	// Save all pending events of the credit card to the event store
+	// Append all pending events of the credit card to the event store,
+	// if no other events have been saved since the credit card was loaded
 	private void saveCreditCard() {
-    List<DomainEvent> currentStream = eventStore().loadEvents(uuid());
-    currentStream.addAll(creditCard().pendingEvents());
-		eventStore().save(uuid(), currentStream);
-    creditCard().flushEvents();
+		eventStore().append(uuid(), creditCard().version(), creditCard().pendingEvents());
+		creditCard().flushEvents();
 	}
 
 	// Command handling methods (that return events)
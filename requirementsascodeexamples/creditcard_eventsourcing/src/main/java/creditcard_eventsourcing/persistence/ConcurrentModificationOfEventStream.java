@@ -0,0 +1,18 @@
+package creditcard_eventsourcing.persistence;
+
+import java.util.UUID;
+
+/**
+ * Exception that is thrown when events are appended to a stream that has been
+ * modified since it was loaded.
+ *
+ * @author b_muth
+ *
+ */
+public class ConcurrentModificationOfEventStream extends RuntimeException {
+	private static final long serialVersionUID = -3395620264373924409L;
+
+	public ConcurrentModificationOfEventStream(UUID uuid, int expectedVersion, int actualVersion) {
+		super("Event stream " + uuid + " has version " + actualVersion + ", but expected version " + expectedVersion);
+	}
+}
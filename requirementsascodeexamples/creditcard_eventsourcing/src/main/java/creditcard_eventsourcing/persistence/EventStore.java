@@ -1,11 +1,18 @@
 package creditcard_eventsourcing.persistence;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.stereotype.Repository;
 
@@ -14,23 +21,122 @@ import creditcard_eventsourcing.model.event.DomainEvent;
 /**
  * Based on code by Jakub Pilimon:
  * https://gitlab.com/pilloPl/eventsourced-credit-cards/blob/4329a0aac283067f1376b3802e13f5a561f18753
+ *
+ * The event store is thread-safe. Each event stream has a version, that is the
+ * number of events in the stream. Appending to a stream only succeeds if the
+ * caller specifies the version it has loaded, so concurrent modifications are
+ * detected (optimistic concurrency).
+ *
+ * Appends are guarded by a fixed number of locks ("stripes"), so appends to
+ * different streams can happen in parallel. Loading doesn't need a lock.
  * 
+ * Beside the streams per aggregate, the store keeps a log of all events, in
+ * the order they have been appended. Each event in the log has a position,
+ * starting with 1. Projections use the log to tail the store.
+ *
  * @author b_muth
  *
  */
 @Repository
 public class EventStore {
-	private final Map<UUID, List<DomainEvent>> eventStream = new HashMap<>();
+	private static final int NUMBER_OF_STRIPES = 64;
+
+	private final Map<UUID, List<DomainEvent>> eventStream = new ConcurrentHashMap<>();
+	private final ConcurrentNavigableMap<Long, DomainEvent> allEvents = new ConcurrentSkipListMap<>();
+	private final AtomicLong latestPosition = new AtomicLong();
+	private final Lock[] stripes;
+
+	public EventStore() {
+		this.stripes = new Lock[NUMBER_OF_STRIPES];
+		for (int i = 0; i < NUMBER_OF_STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Appends the specified events to the stream of the specified aggregate.
+	 *
+	 * @param uuid            the id of the aggregate
+	 * @param expectedVersion the version of the stream when the events were loaded
+	 * @param newEvents       the events to append
+	 * @throws ConcurrentModificationOfEventStream if the current version of the
+	 *                                             stream is not the expected
+	 *                                             version
+	 */
+	public void append(UUID uuid, int expectedVersion, List<DomainEvent> newEvents) {
+		Objects.requireNonNull(uuid);
+		Objects.requireNonNull(newEvents);
 
-	public void save(UUID uuid, List<DomainEvent> currentStream) {
-		eventStream.put(uuid, currentStream);
+		Lock lock = stripeOf(uuid);
+		lock.lock();
+		try {
+			List<DomainEvent> currentStream = eventStream.getOrDefault(uuid, Collections.emptyList());
+			int actualVersion = currentStream.size();
+			if (actualVersion != expectedVersion) {
+				throw new ConcurrentModificationOfEventStream(uuid, expectedVersion, actualVersion);
+			}
+			if (!newEvents.isEmpty()) {
+				List<DomainEvent> appendedStream = new ArrayList<>(currentStream.size() + newEvents.size());
+				appendedStream.addAll(currentStream);
+				appendedStream.addAll(newEvents);
+				eventStream.put(uuid, Collections.unmodifiableList(appendedStream));
+				appendToLog(newEvents);
+			}
+		} finally {
+			lock.unlock();
+		}
 	}
 
+	/**
+	 * Loads the events of the specified aggregate. The version of the stream is
+	 * the size of the returned list.
+	 *
+	 * @param uuid the id of the aggregate
+	 * @return a copy of the events, or an empty list if there are none
+	 */
 	public List<DomainEvent> loadEvents(UUID uuid) {
-		return eventStream.getOrDefault(uuid, new ArrayList<>());
+		List<DomainEvent> events = eventStream.getOrDefault(uuid, Collections.emptyList());
+		return new ArrayList<>(events);
+	}
+
+	/**
+	 * Loads events of all aggregates from the log, in the order they have been
+	 * appended. The first returned event has the position after the specified
+	 * position, the others follow without gaps.
+	 * 
+	 * Events that are still being appended by other threads are not returned, 
+	 * nor are any events after them.
+	 *
+	 * @param position     the position of the latest event that has been loaded
+	 *                     before, or 0 to start at the beginning
+	 * @param maxBatchSize the maximum number of events to load
+	 * @return the events, or an empty list if there are no further events
+	 */
+	public List<DomainEvent> loadEventsAfter(long position, int maxBatchSize) {
+		List<DomainEvent> events = new ArrayList<>();
+		long nextPosition = position + 1;
+		DomainEvent event;
+		while (events.size() < maxBatchSize && (event = allEvents.get(nextPosition)) != null) {
+			events.add(event);
+			nextPosition++;
+		}
+		return events;
 	}
 
 	public Set<UUID> uuids() {
-		return eventStream.keySet();
+		return Collections.unmodifiableSet(eventStream.keySet());
+	}
+
+	private void appendToLog(List<DomainEvent> newEvents) {
+		long position = latestPosition.getAndAdd(newEvents.size());
+		for (DomainEvent newEvent : newEvents) {
+			allEvents.put(++position, newEvent);
+		}
+	}
+
+	private Lock stripeOf(UUID uuid) {
+		int hash = uuid.hashCode();
+		int spreadHash = hash ^ (hash >>> 16);
+		return stripes[(spreadHash & 0x7fffffff) % NUMBER_OF_STRIPES];
 	}
 }
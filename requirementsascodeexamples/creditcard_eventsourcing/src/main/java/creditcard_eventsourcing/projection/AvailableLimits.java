@@ -0,0 +1,77 @@
+package creditcard_eventsourcing.projection;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.requirementsascode.Model;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import creditcard_eventsourcing.model.event.CardRepaid;
+import creditcard_eventsourcing.model.event.CardWithdrawn;
+import creditcard_eventsourcing.model.event.LimitAssigned;
+import creditcard_eventsourcing.persistence.EventStore;
+
+/**
+ * Read model that contains the available limit of each credit card. It is
+ * updated by a projection runner, so queries don't need to replay the events
+ * of a credit card.
+ * 
+ * @author b_muth
+ *
+ */
+@Component
+public class AvailableLimits {
+	private static final String projectionName = "Available limits";
+
+	private final Map<UUID, BigDecimal> availableLimits = new ConcurrentHashMap<>();
+	private final ProjectionRunner projectionRunner;
+
+	public AvailableLimits(EventStore eventStore, CheckpointStore checkpointStore) {
+		this.projectionRunner = new ProjectionRunner(projectionName, buildModel(), eventStore, checkpointStore);
+	}
+
+	private Model buildModel() {
+		return Model.builder()
+			.on(LimitAssigned.class).system(this::assignLimit)
+			.on(CardWithdrawn.class).system(this::withdraw)
+			.on(CardRepaid.class).system(this::repay)
+		.build();
+	}
+
+	/**
+	 * Returns the available limit of the specified credit card, as of the latest
+	 * update of this read model.
+	 * 
+	 * @param uuid the id of the credit card
+	 * @return the available limit, or an empty optional if no limit has been
+	 *         assigned
+	 */
+	public Optional<BigDecimal> availableLimitOf(UUID uuid) {
+		return Optional.ofNullable(availableLimits.get(uuid));
+	}
+
+	/**
+	 * Updates this read model with the events appended to the event store since
+	 * the latest update.
+	 */
+	@Scheduled(fixedDelay = 500)
+	public void update() {
+		projectionRunner.catchUp();
+	}
+
+	private void assignLimit(LimitAssigned event) {
+		availableLimits.put(event.getCardNo(), event.getAmount());
+	}
+
+	private void withdraw(CardWithdrawn event) {
+		availableLimits.computeIfPresent(event.getCardNo(), (uuid, limit) -> limit.subtract(event.getAmount()));
+	}
+
+	private void repay(CardRepaid event) {
+		availableLimits.computeIfPresent(event.getCardNo(), (uuid, limit) -> limit.add(event.getAmount()));
+	}
+}
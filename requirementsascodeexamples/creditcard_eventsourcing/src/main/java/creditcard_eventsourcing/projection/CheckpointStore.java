@@ -0,0 +1,26 @@
+package creditcard_eventsourcing.projection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stores the position in the event log up to which each projection has
+ * processed the events.
+ * 
+ * @author b_muth
+ *
+ */
+@Repository
+public class CheckpointStore {
+	private final Map<String, Long> checkpoints = new ConcurrentHashMap<>();
+
+	public void save(String projectionName, long position) {
+		checkpoints.put(projectionName, position);
+	}
+
+	public long load(String projectionName) {
+		return checkpoints.getOrDefault(projectionName, 0L);
+	}
+}
@@ -0,0 +1,65 @@
+package creditcard_eventsourcing.projection;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+
+import creditcard_eventsourcing.model.event.DomainEvent;
+import creditcard_eventsourcing.persistence.EventStore;
+
+/**
+ * Tails the log of the event store, and feeds the events in batches to a model
+ * runner that updates a read model. After each batch, the position of the
+ * latest processed event is saved as checkpoint. So when the projection runner
+ * is recreated, it continues where it left off.
+ * 
+ * @author b_muth
+ *
+ */
+public class ProjectionRunner {
+	private static final int DEFAULT_BATCH_SIZE = 100;
+
+	private final String projectionName;
+	private final EventStore eventStore;
+	private final CheckpointStore checkpointStore;
+	private final ModelRunner modelRunner;
+	private final int batchSize;
+
+	public ProjectionRunner(String projectionName, Model readModel, EventStore eventStore,
+		CheckpointStore checkpointStore) {
+		this(projectionName, readModel, eventStore, checkpointStore, DEFAULT_BATCH_SIZE);
+	}
+
+	public ProjectionRunner(String projectionName, Model readModel, EventStore eventStore,
+		CheckpointStore checkpointStore, int batchSize) {
+		this.projectionName = Objects.requireNonNull(projectionName);
+		this.eventStore = Objects.requireNonNull(eventStore);
+		this.checkpointStore = Objects.requireNonNull(checkpointStore);
+		this.modelRunner = new ModelRunner().run(Objects.requireNonNull(readModel));
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Processes all events that have been appended to the event store since the
+	 * latest checkpoint.
+	 * 
+	 * @return the number of processed events
+	 */
+	public synchronized int catchUp() {
+		int numberOfProcessedEvents = 0;
+		List<DomainEvent> batch;
+		do {
+			long checkpoint = checkpointStore.load(projectionName);
+			batch = eventStore.loadEventsAfter(checkpoint, batchSize);
+			if (!batch.isEmpty()) {
+				modelRunner.reactTo(batch);
+				checkpointStore.save(projectionName, checkpoint + batch.size());
+				numberOfProcessedEvents += batch.size();
+			}
+		} while (batch.size() == batchSize);
+
+		return numberOfProcessedEvents;
+	}
+}
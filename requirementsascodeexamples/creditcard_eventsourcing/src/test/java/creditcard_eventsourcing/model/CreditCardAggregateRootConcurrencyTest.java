@@ -0,0 +1,133 @@
+package creditcard_eventsourcing.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import creditcard_eventsourcing.model.command.RequestToAssignLimit;
+import creditcard_eventsourcing.model.command.RequestWithdrawal;
+import creditcard_eventsourcing.persistence.EventStore;
+
+/**
+ * Runs commands from several threads in parallel. Run the main method to see
+ * how the throughput scales with the number of threads, if each thread uses a
+ * different credit card.
+ */
+public class CreditCardAggregateRootConcurrencyTest {
+	private static final int NUMBER_OF_THREADS = 8;
+	private static final int WITHDRAWALS_PER_THREAD = 10;
+
+	private EventStore eventStore;
+
+	@Before
+	public void setUp() throws Exception {
+		this.eventStore = new EventStore();
+	}
+
+	@Test
+	public void handlesCommandsForDifferentCardsInParallel() throws Exception {
+		List<UUID> uuids = new ArrayList<>();
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+			UUID uuid = UUID.randomUUID();
+			uuids.add(uuid);
+			tasks.add(() -> {
+				aggregateRoot(uuid).accept(new RequestToAssignLimit(new BigDecimal(100)));
+				withdraw(uuid, WITHDRAWALS_PER_THREAD);
+				return null;
+			});
+		}
+
+		runInParallel(tasks);
+
+		for (UUID uuid : uuids) {
+			assertEquals(new BigDecimal(100 - WITHDRAWALS_PER_THREAD), availableLimit(uuid));
+			assertEquals(1 + WITHDRAWALS_PER_THREAD, eventStore.loadEvents(uuid).size());
+		}
+	}
+
+	@Test
+	public void retriesConflictingCommandsForSameCard() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		aggregateRoot(uuid).accept(new RequestToAssignLimit(new BigDecimal(100)));
+
+		int numberOfThreads = 4;
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < numberOfThreads; i++) {
+			tasks.add(() -> {
+				withdraw(uuid, WITHDRAWALS_PER_THREAD);
+				return null;
+			});
+		}
+
+		runInParallel(tasks);
+
+		int numberOfWithdrawals = numberOfThreads * WITHDRAWALS_PER_THREAD;
+		assertEquals(new BigDecimal(100 - numberOfWithdrawals), availableLimit(uuid));
+		assertEquals(1 + numberOfWithdrawals, eventStore.loadEvents(uuid).size());
+	}
+
+	public static void main(String[] args) throws Exception {
+		int maxNumberOfThreads = Runtime.getRuntime().availableProcessors();
+		int commandsPerThread = 2000;
+
+		for (int numberOfThreads = 1; numberOfThreads <= maxNumberOfThreads; numberOfThreads *= 2) {
+			CreditCardAggregateRootConcurrencyTest test = new CreditCardAggregateRootConcurrencyTest();
+			test.setUp();
+
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int i = 0; i < numberOfThreads; i++) {
+				tasks.add(() -> {
+					for (int c = 0; c < commandsPerThread / 20; c++) {
+						UUID uuid = UUID.randomUUID();
+						test.aggregateRoot(uuid).accept(new RequestToAssignLimit(new BigDecimal(100)));
+						test.withdraw(uuid, 19);
+					}
+					return null;
+				});
+			}
+
+			long timeBefore = System.nanoTime();
+			test.runInParallel(tasks);
+			long timeElapsed = System.nanoTime() - timeBefore;
+
+			long commandsPerSecond = (numberOfThreads * commandsPerThread * 1_000_000_000L) / timeElapsed;
+			System.out.println(numberOfThreads + " thread(s): " + commandsPerSecond + " commands/second");
+		}
+	}
+
+	private void withdraw(UUID uuid, int numberOfWithdrawals) {
+		for (int i = 0; i < numberOfWithdrawals; i++) {
+			aggregateRoot(uuid).accept(new RequestWithdrawal(BigDecimal.ONE));
+		}
+	}
+
+	private BigDecimal availableLimit(UUID uuid) {
+		return aggregateRoot(uuid).getAvailableLimit();
+	}
+
+	private CreditCardAggregateRoot aggregateRoot(UUID uuid) {
+		return new CreditCardAggregateRoot(uuid, eventStore);
+	}
+
+	private void runInParallel(List<Callable<Void>> tasks) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package creditcard_eventsourcing.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import creditcard_eventsourcing.model.event.CardWithdrawn;
+import creditcard_eventsourcing.model.event.DomainEvent;
+import creditcard_eventsourcing.model.event.LimitAssigned;
+
+public class EventStoreTest {
+	private EventStore eventStore;
+	private UUID uuid;
+
+	@Before
+	public void setUp() throws Exception {
+		this.eventStore = new EventStore();
+		this.uuid = UUID.randomUUID();
+	}
+
+	@Test
+	public void loadsEmptyStreamForUnknownAggregate() {
+		List<DomainEvent> events = eventStore.loadEvents(uuid);
+		assertTrue(events.isEmpty());
+	}
+
+	@Test
+	public void appendsEventsWithExpectedVersion() {
+		DomainEvent limitAssigned = limitAssigned();
+		DomainEvent cardWithdrawn = cardWithdrawn();
+
+		eventStore.append(uuid, 0, Collections.singletonList(limitAssigned));
+		eventStore.append(uuid, 1, Collections.singletonList(cardWithdrawn));
+
+		assertEquals(Arrays.asList(limitAssigned, cardWithdrawn), eventStore.loadEvents(uuid));
+	}
+
+	@Test(expected = ConcurrentModificationOfEventStream.class)
+	public void throwsExceptionWhenAppendingWithOutdatedVersion() {
+		eventStore.append(uuid, 0, Collections.singletonList(limitAssigned()));
+		eventStore.append(uuid, 0, Collections.singletonList(cardWithdrawn()));
+	}
+
+	@Test
+	public void failedAppendDoesNotChangeStream() {
+		DomainEvent limitAssigned = limitAssigned();
+		eventStore.append(uuid, 0, Collections.singletonList(limitAssigned));
+
+		try {
+			eventStore.append(uuid, 0, Collections.singletonList(cardWithdrawn()));
+		} catch (ConcurrentModificationOfEventStream e) {
+		}
+
+		assertEquals(Collections.singletonList(limitAssigned), eventStore.loadEvents(uuid));
+	}
+
+	@Test
+	public void modifyingLoadedEventsDoesNotChangeStream() {
+		eventStore.append(uuid, 0, Collections.singletonList(limitAssigned()));
+
+		eventStore.loadEvents(uuid).add(cardWithdrawn());
+
+		assertEquals(1, eventStore.loadEvents(uuid).size());
+	}
+
+	@Test
+	public void loadsEventsOfAllStreamsAfterPosition() {
+		UUID otherUuid = UUID.randomUUID();
+		DomainEvent limitAssigned = limitAssigned();
+		DomainEvent otherLimitAssigned = new LimitAssigned(otherUuid, BigDecimal.ONE, Instant.now());
+		DomainEvent cardWithdrawn = cardWithdrawn();
+
+		eventStore.append(uuid, 0, Collections.singletonList(limitAssigned));
+		eventStore.append(otherUuid, 0, Collections.singletonList(otherLimitAssigned));
+		eventStore.append(uuid, 1, Collections.singletonList(cardWithdrawn));
+
+		assertEquals(Arrays.asList(limitAssigned, otherLimitAssigned, cardWithdrawn), eventStore.loadEventsAfter(0, 10));
+		assertEquals(Arrays.asList(otherLimitAssigned), eventStore.loadEventsAfter(1, 1));
+		assertTrue(eventStore.loadEventsAfter(3, 10).isEmpty());
+	}
+
+	private DomainEvent limitAssigned() {
+		return new LimitAssigned(uuid, BigDecimal.TEN, Instant.now());
+	}
+
+	private DomainEvent cardWithdrawn() {
+		return new CardWithdrawn(uuid, BigDecimal.ONE, Instant.now());
+	}
+}
@@ -0,0 +1,87 @@
+package creditcard_eventsourcing.projection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.Model;
+
+import creditcard_eventsourcing.model.CreditCardAggregateRoot;
+import creditcard_eventsourcing.model.command.RequestRepay;
+import creditcard_eventsourcing.model.command.RequestToAssignLimit;
+import creditcard_eventsourcing.model.command.RequestWithdrawal;
+import creditcard_eventsourcing.model.event.DomainEvent;
+import creditcard_eventsourcing.persistence.EventStore;
+
+public class ProjectionRunnerTest {
+	private EventStore eventStore;
+	private CheckpointStore checkpointStore;
+	private UUID uuid;
+
+	@Before
+	public void setUp() throws Exception {
+		this.eventStore = new EventStore();
+		this.checkpointStore = new CheckpointStore();
+		this.uuid = UUID.randomUUID();
+	}
+
+	@Test
+	public void processesAllEventsInBatches() {
+		List<DomainEvent> processedEvents = new ArrayList<>();
+		ProjectionRunner projectionRunner = recordingProjectionRunner(processedEvents);
+
+		accept(new RequestToAssignLimit(BigDecimal.TEN));
+		accept(new RequestWithdrawal(BigDecimal.ONE));
+		accept(new RequestWithdrawal(BigDecimal.ONE));
+
+		assertEquals(3, projectionRunner.catchUp());
+		assertEquals(eventStore.loadEvents(uuid), processedEvents);
+		assertEquals(3, checkpointStore.load("Recording"));
+	}
+
+	@Test
+	public void processesOnlyEventsAfterCheckpoint() {
+		List<DomainEvent> processedEvents = new ArrayList<>();
+		accept(new RequestToAssignLimit(BigDecimal.TEN));
+		recordingProjectionRunner(processedEvents).catchUp();
+
+		accept(new RequestWithdrawal(BigDecimal.ONE));
+		processedEvents.clear();
+		ProjectionRunner recreatedProjectionRunner = recordingProjectionRunner(processedEvents);
+
+		assertEquals(1, recreatedProjectionRunner.catchUp());
+		assertEquals(eventStore.loadEvents(uuid).subList(1, 2), processedEvents);
+		assertEquals(0, recreatedProjectionRunner.catchUp());
+	}
+
+	@Test
+	public void availableLimitIsUpdatedByProjection() {
+		AvailableLimits availableLimits = new AvailableLimits(eventStore, checkpointStore);
+		assertFalse(availableLimits.availableLimitOf(uuid).isPresent());
+
+		accept(new RequestToAssignLimit(BigDecimal.TEN));
+		accept(new RequestWithdrawal(new BigDecimal(3)));
+		accept(new RequestRepay(BigDecimal.ONE));
+		availableLimits.update();
+
+		assertEquals(new BigDecimal(8), availableLimits.availableLimitOf(uuid).get());
+		assertEquals(new BigDecimal(8), new CreditCardAggregateRoot(uuid, eventStore).getAvailableLimit());
+	}
+
+	private ProjectionRunner recordingProjectionRunner(List<DomainEvent> processedEvents) {
+		Model recordingModel = Model.builder()
+			.on(DomainEvent.class).system(processedEvents::add)
+		.build();
+		return new ProjectionRunner("Recording", recordingModel, eventStore, checkpointStore, 2);
+	}
+
+	private void accept(Object command) {
+		new CreditCardAggregateRoot(uuid, eventStore).accept(command);
+	}
+}
@@ -36,6 +36,3 @@ class CrossCuttingConcernsActor01 extends AbstractActor {
     Math.pow(2, 1000);
   }
 }
-
-class RequestCalculating {
-}
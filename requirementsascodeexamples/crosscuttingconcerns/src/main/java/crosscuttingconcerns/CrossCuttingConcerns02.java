@@ -0,0 +1,44 @@
+package crosscuttingconcerns;
+
+import java.util.concurrent.TimeUnit;
+
+import org.requirementsascode.AbstractActor;
+import org.requirementsascode.Model;
+import org.requirementsascode.metrics.MeterRegistry;
+import org.requirementsascode.metrics.ModelRunnerMetrics;
+import org.requirementsascode.metrics.SimpleMeterRegistry;
+import org.requirementsascode.metrics.Timer;
+
+public class CrossCuttingConcerns02 {
+  public static void main(String[] args) {
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CrossCuttingConcernsActor02 actor = new CrossCuttingConcernsActor02(meterRegistry);
+    for (int i = 0; i < 1000; i++) {
+      actor.reactTo(new RequestCalculating());
+    }
+
+    Timer dispatchTimer = meterRegistry.timer(ModelRunnerMetrics.DISPATCH, "model", "calculator", "messageClass",
+      RequestCalculating.class.getName());
+    System.out.println("Requests: " + dispatchTimer.count());
+    System.out.println("Total time: " + dispatchTimer.totalTime(TimeUnit.MICROSECONDS) + " microseconds.");
+    System.out.println("Max time: " + dispatchTimer.max(TimeUnit.MICROSECONDS) + " microseconds.");
+  }
+}
+
+class CrossCuttingConcernsActor02 extends AbstractActor {
+  public CrossCuttingConcernsActor02(MeterRegistry meterRegistry) {
+    ModelRunnerMetrics.monitor(getModelRunner(), meterRegistry, "model", "calculator");
+  }
+
+  @Override
+  public Model behavior() {
+    Model model = Model.builder()
+      .user(RequestCalculating.class).system(this::calculate)
+      .build();
+    return model;
+  }
+
+  private void calculate() {
+    Math.pow(2, 1000);
+  }
+}
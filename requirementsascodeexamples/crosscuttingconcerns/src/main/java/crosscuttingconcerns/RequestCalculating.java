@@ -0,0 +1,4 @@
+package crosscuttingconcerns;
+
+class RequestCalculating {
+}
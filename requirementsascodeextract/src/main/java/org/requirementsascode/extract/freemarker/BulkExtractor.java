@@ -0,0 +1,327 @@
+package org.requirementsascode.extract.freemarker;
+
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.requirementsascode.Model;
+
+/**
+ * Extracts the documentation of many models concurrently, and writes each
+ * document to its own file. The documents are written straight to the file
+ * channels, through a buffer, without creating intermediate strings.
+ *
+ * <p>
+ * The models are taken from a stream, one at a time, and only as many models
+ * are extracted at the same time as the parallelism allows. So the stream may
+ * create the models lazily, and they don't all need to be in memory at once.
+ *
+ * @author b_muth
+ */
+public class BulkExtractor {
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private final FreeMarkerEngine engine;
+  private final String templateFileName;
+  private final Path outputDirectory;
+  private final int parallelism;
+  private final ExecutorService executor;
+  private final Charset outputCharset;
+  private final int bufferSize;
+
+  private BulkExtractor(Builder builder) {
+    this.engine = builder.engine;
+    this.templateFileName = builder.templateFileName;
+    this.outputDirectory = builder.outputDirectory;
+    this.parallelism = builder.parallelism;
+    this.executor = builder.executor;
+    this.outputCharset = builder.outputCharset;
+    this.bufferSize = builder.bufferSize;
+  }
+
+  /**
+   * Returns a builder for an extractor that uses the specified engine.
+   *
+   * @param engine the engine
+   * @return the builder
+   */
+  public static Builder builder(FreeMarkerEngine engine) {
+    return new Builder(engine);
+  }
+
+  /**
+   * Extracts the documentation of each model, and writes it to a file in the
+   * output directory. Existing files are overwritten.
+   *
+   * <p>
+   * If an extraction fails, or taking the next model or its file name fails, no
+   * further models are taken from the stream. The method waits for all
+   * extractions in progress, and then throws the first exception (with the
+   * exceptions of failed extractions as suppressed exceptions).
+   *
+   * @param models     the models to extract
+   * @param fileNameOf the function that returns the name of the output file for
+   *                   a model, relative to the output directory
+   * @return the paths of the written files, in the order of the models
+   * @throws IllegalArgumentException if two models have the same output file
+   * @throws Exception                if anything else goes wrong
+   */
+  public List<Path> extract(Stream<Model> models, Function<Model, String> fileNameOf) throws Exception {
+    Objects.requireNonNull(models);
+    Objects.requireNonNull(fileNameOf);
+    Files.createDirectories(outputDirectory);
+
+    ExecutorService extractingExecutor = executor != null ? executor : Executors.newFixedThreadPool(parallelism);
+    try {
+      return extractWith(extractingExecutor, models, fileNameOf);
+    } finally {
+      if (executor == null) {
+        extractingExecutor.shutdown();
+      }
+    }
+  }
+
+  private List<Path> extractWith(ExecutorService extractingExecutor, Stream<Model> models,
+    Function<Model, String> fileNameOf) throws Exception {
+    Semaphore freeSlots = new Semaphore(parallelism);
+    AtomicBoolean hasFailed = new AtomicBoolean();
+    List<Path> paths = new ArrayList<>();
+    Set<Path> normalizedPaths = new HashSet<>();
+    List<Future<?>> extractions = new ArrayList<>();
+
+    Throwable failure = null;
+    try {
+      Iterator<Model> modelIterator = models.iterator();
+      while (!hasFailed.get() && modelIterator.hasNext()) {
+        Model model = modelIterator.next();
+        Path path = outputDirectory.resolve(fileNameOf.apply(model));
+        if (!normalizedPaths.add(path.normalize())) {
+          throw new IllegalArgumentException("More than one model would be written to " + path);
+        }
+
+        freeSlots.acquire();
+        if (hasFailed.get()) {
+          freeSlots.release();
+          break;
+        }
+        extractions.add(submit(extractingExecutor, model, path, freeSlots, hasFailed));
+        paths.add(path);
+      }
+    } catch (Exception | Error e) {
+      failure = e;
+    } finally {
+      failure = awaitAll(extractions, failure);
+    }
+
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw (Exception) failure;
+    }
+    return paths;
+  }
+
+  private Future<?> submit(ExecutorService extractingExecutor, Model model, Path path, Semaphore freeSlots,
+    AtomicBoolean hasFailed) {
+    try {
+      return extractingExecutor.submit(() -> {
+        try {
+          extract(model, path);
+          return null;
+        } catch (Exception | Error e) {
+          hasFailed.set(true);
+          throw e;
+        } finally {
+          freeSlots.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      freeSlots.release();
+      throw e;
+    }
+  }
+
+  private void extract(Model model, Path path) throws Exception {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING);
+      Writer outputWriter = Channels.newWriter(channel, outputCharset.newEncoder(), bufferSize)) {
+      engine.extract(model, templateFileName, outputWriter);
+    }
+  }
+
+  /**
+   * Waits for all extractions, even if the thread is interrupted meanwhile, and
+   * returns the first failure, with the later ones as suppressed exceptions.
+   */
+  private Throwable awaitAll(List<Future<?>> extractions, Throwable firstFailure) {
+    Throwable failure = firstFailure;
+    boolean isInterrupted = false;
+    for (Future<?> extraction : extractions) {
+      Throwable extractionFailure = null;
+      while (true) {
+        try {
+          extractionFailure = failureOf(extraction);
+          break;
+        } catch (InterruptedException e) {
+          isInterrupted = true;
+        }
+      }
+      if (extractionFailure == null) {
+        continue;
+      }
+      if (failure == null) {
+        failure = extractionFailure;
+      } else {
+        failure.addSuppressed(extractionFailure);
+      }
+    }
+    if (isInterrupted) {
+      Thread.currentThread().interrupt();
+    }
+    return failure;
+  }
+
+  private Throwable failureOf(Future<?> extraction) throws InterruptedException {
+    try {
+      extraction.get();
+      return null;
+    } catch (ExecutionException e) {
+      return e.getCause();
+    } catch (CancellationException e) {
+      return e;
+    }
+  }
+
+  /**
+   * Builder for a {@link BulkExtractor}.
+   */
+  public static class Builder {
+    private final FreeMarkerEngine engine;
+    private String templateFileName;
+    private Path outputDirectory;
+    private int parallelism;
+    private ExecutorService executor;
+    private Charset outputCharset;
+    private int bufferSize;
+
+    private Builder(FreeMarkerEngine engine) {
+      this.engine = Objects.requireNonNull(engine);
+      this.parallelism = Runtime.getRuntime().availableProcessors();
+      this.outputCharset = StandardCharsets.UTF_8;
+      this.bufferSize = DEFAULT_BUFFER_SIZE;
+    }
+
+    /**
+     * Specifies the template used for all models.
+     *
+     * @param templateFileName name of the template file, relative to the base
+     *                         class path of the engine
+     * @return this builder
+     */
+    public Builder templateFileName(String templateFileName) {
+      this.templateFileName = Objects.requireNonNull(templateFileName);
+      return this;
+    }
+
+    /**
+     * Specifies the directory the files are written to. It is created if it
+     * doesn't exist.
+     *
+     * @param outputDirectory the directory
+     * @return this builder
+     */
+    public Builder outputDirectory(Path outputDirectory) {
+      this.outputDirectory = Objects.requireNonNull(outputDirectory);
+      return this;
+    }
+
+    /**
+     * Specifies the maximum number of models that are extracted at the same
+     * time. The default is the number of available processors.
+     *
+     * @param parallelism the number of models, at least 1
+     * @return this builder
+     */
+    public Builder parallelism(int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Specifies the executor that extracts the models. By default, each call of
+     * extract creates a thread pool with as many threads as the parallelism,
+     * and shuts it down afterwards. The extractor doesn't shut down an executor
+     * specified here.
+     *
+     * @param executor the executor
+     * @return this builder
+     */
+    public Builder executor(ExecutorService executor) {
+      this.executor = Objects.requireNonNull(executor);
+      return this;
+    }
+
+    /**
+     * Specifies the charset of the written files. The default is UTF-8.
+     *
+     * @param outputCharset the charset
+     * @return this builder
+     */
+    public Builder outputCharset(Charset outputCharset) {
+      this.outputCharset = Objects.requireNonNull(outputCharset);
+      return this;
+    }
+
+    /**
+     * Specifies the size of the buffer between the template and each file. The
+     * default is 64 KB.
+     *
+     * @param bufferSize the size in bytes, at least 1
+     * @return this builder
+     */
+    public Builder bufferSize(int bufferSize) {
+      if (bufferSize < 1) {
+        throw new IllegalArgumentException("Buffer size must be at least 1, but was " + bufferSize);
+      }
+      this.bufferSize = bufferSize;
+      return this;
+    }
+
+    /**
+     * Builds the extractor.
+     *
+     * @return the extractor
+     * @throws IllegalStateException if the template or output directory haven't
+     *                               been specified
+     */
+    public BulkExtractor build() {
+      if (templateFileName == null || outputDirectory == null) {
+        throw new IllegalStateException("Template file name and output directory must be specified");
+      }
+      return new BulkExtractor(this);
+    }
+  }
+}
@@ -3,6 +3,8 @@ package org.requirementsascode.extract.freemarker;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.requirementsascode.Model;
 import org.requirementsascode.extract.freemarker.methodmodel.ActorPartOfStep;
@@ -17,32 +19,59 @@ import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateExceptionHandler;
 
+/**
+ * Generates documentation from a requirements as code core Model, using the
+ * FreeMarker template engine.
+ *
+ * <p>
+ * The engine is thread-safe: several threads may extract models at the same
+ * time, each with its own data model. To share the loaded templates, share the
+ * engine, or create engines with the same FreeMarker configuration.
+ *
+ * @author b_muth
+ */
 public class FreeMarkerEngine {
-  private Map<String, Object> dataModel;
-  private Configuration cfg;
+  private static final String DEFAULT_ENCODING = "UTF-8";
+
+  private final Map<String, Object> dataModelEntries;
+  private volatile Configuration cfg;
 
   /**
    * Creates an engine for generating documentation, based on a
    * requirements as code core Model and using the FreeMarker template engine.
-   * 
+   *
    * @param basePackagePath package path in your classpath, where your FreeMarker
    *                        templates are located.
    */
   public FreeMarkerEngine(String basePackagePath) {
-    createConfiguration(basePackagePath);
+    this.dataModelEntries = new HashMap<>();
+    createConfiguration(Objects.requireNonNull(basePackagePath));
+    putFreemarkerMethodsInDataModel();
+  }
+
+  /**
+   * Creates an engine that uses the specified FreeMarker configuration, e.g. to
+   * share it and its loaded templates with other engines. Don't change the
+   * configuration while engines extract models with it.
+   *
+   * @param cfg the configuration, that knows where the templates are located
+   */
+  public FreeMarkerEngine(Configuration cfg) {
+    this.dataModelEntries = new HashMap<>();
+    this.cfg = Objects.requireNonNull(cfg);
     putFreemarkerMethodsInDataModel();
   }
 
   private void createConfiguration(String basePackagePath) {
-    cfg = new Configuration(Configuration.VERSION_2_3_26);
-    cfg.setClassLoaderForTemplateLoading(getClass().getClassLoader(), basePackagePath);
-    cfg.setLogTemplateExceptions(false);
-    setDefaultEncoding("UTF-8");
-    setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+    Configuration newCfg = new Configuration(Configuration.VERSION_2_3_26);
+    newCfg.setClassLoaderForTemplateLoading(getClass().getClassLoader(), basePackagePath);
+    newCfg.setLogTemplateExceptions(false);
+    newCfg.setDefaultEncoding(DEFAULT_ENCODING);
+    newCfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+    cfg = newCfg;
   }
 
   private void putFreemarkerMethodsInDataModel() {
-    dataModel = new HashMap<String, Object>();
     put("flowCondition", new FlowCondition());
     put("flowlessCondition", new FlowlessCondition());
     put("actorPartOfStep", new ActorPartOfStep());
@@ -52,16 +81,37 @@ public class FreeMarkerEngine {
     put("reactWhileOfStep", new ReactWhileOfStep());
   }
 
+  /**
+   * Puts the specified value in the data model of every following extraction
+   * of this engine.
+   *
+   * @param key   the name of the value in the templates
+   * @param value the value
+   */
   public void put(String key, Object value) {
-    dataModel.put(key, value);
+    synchronized (dataModelEntries) {
+      dataModelEntries.put(key, value);
+    }
   }
 
   public void setDefaultEncoding(String encoding) {
-    cfg.setDefaultEncoding(encoding);
+    Objects.requireNonNull(encoding);
+    changeConfiguration(newCfg -> newCfg.setDefaultEncoding(encoding));
   }
 
   public void setTemplateExceptionHandler(TemplateExceptionHandler handler) {
-    cfg.setTemplateExceptionHandler(handler);
+    Objects.requireNonNull(handler);
+    changeConfiguration(newCfg -> newCfg.setTemplateExceptionHandler(handler));
+  }
+
+  /**
+   * Changes a copy of the configuration, so that extractions in progress, and
+   * other engines with the same configuration, are not affected.
+   */
+  private synchronized void changeConfiguration(Consumer<Configuration> change) {
+    Configuration newCfg = (Configuration) cfg.clone();
+    change.accept(newCfg);
+    cfg = newCfg;
   }
 
   /**
@@ -77,8 +127,17 @@ public class FreeMarkerEngine {
    * @throws Exception if anything goes wrong
    */
   public void extract(Model model, String templateFileName, Writer outputWriter) throws Exception {
-    put("model", model);
+    Map<String, Object> dataModel = dataModelFor(model);
     Template template = cfg.getTemplate(templateFileName);
     template.process(dataModel, outputWriter);
   }
+
+  private Map<String, Object> dataModelFor(Model model) {
+    Map<String, Object> dataModel;
+    synchronized (dataModelEntries) {
+      dataModel = new HashMap<>(dataModelEntries);
+    }
+    dataModel.put("model", model);
+    return dataModel;
+  }
 }
@@ -7,8 +7,8 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 import org.requirementsascode.Step;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
 
-import freemarker.template.SimpleScalar;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 
@@ -17,6 +17,18 @@ public class ActorPartOfStep implements TemplateMethodModelEx {
   private static final String ACTOR_SEPARATOR = "/";
   private static final String ACTOR_POSTFIX = ": ";
 
+  private final Descriptions<Step> descriptions = new Descriptions<>(step -> getJoinedActors(step, ACTOR_SEPARATOR));
+
+  /**
+   * Returns the actor part of the step, e.g. "As First actor: ", or an empty string.
+   *
+   * @param step the step
+   * @return the description
+   */
+  public String describe(Step step) {
+    return descriptions.of(step).getAsString();
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Object exec(List arguments) throws TemplateModelException {
@@ -25,9 +37,7 @@ public class ActorPartOfStep implements TemplateMethodModelEx {
     }
 
     Step step = getStepFromFreemarker(arguments.get(0));
-    String actors = getJoinedActors(step, ACTOR_SEPARATOR);
-
-    return new SimpleScalar(actors);
+    return descriptions.of(step);
   }
 
   private String getJoinedActors(Step step, String separator) {
@@ -8,12 +8,12 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.requirementsascode.Flow;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
 import org.requirementsascode.flowposition.After;
 import org.requirementsascode.flowposition.AfterSingleStep;
 import org.requirementsascode.flowposition.FlowPosition;
 import org.requirementsascode.flowposition.InsteadOf;
 
-import freemarker.template.SimpleScalar;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 
@@ -23,6 +23,18 @@ public class FlowCondition implements TemplateMethodModelEx {
   private static final String PREDICATE_SEPARATOR = ", ";
   private static final String PREDICATE_POSTFIX = ": ";
 
+  private final Descriptions<Flow> descriptions = new Descriptions<>(this::getFlowPredicate);
+
+  /**
+   * Returns the condition of the flow, e.g. "After S3: ", or an empty string.
+   *
+   * @param flow the flow
+   * @return the description
+   */
+  public String describe(Flow flow) {
+    return descriptions.of(flow).getAsString();
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Object exec(List arguments) throws TemplateModelException {
@@ -31,15 +43,14 @@ public class FlowCondition implements TemplateMethodModelEx {
     }
 
     Flow flow = getFlowFromFreemarker(arguments.get(0));
-
-    String flowPredicate = getFlowPredicate(flow);
-
-    return new SimpleScalar(flowPredicate);
+    return descriptions.of(flow);
   }
 
   private String getFlowPredicate(Flow flow) {
-    String predicate = getFlowPosition(flow) + getFlowPredicateSeparator(flow, PREDICATE_SEPARATOR)
-      + getCondition(flow);
+    String flowPosition = getFlowPosition(flow);
+    String condition = getCondition(flow);
+    String predicate = flowPosition + getFlowPredicateSeparator(flowPosition, condition, PREDICATE_SEPARATOR)
+      + condition;
     String sep = predicate.isEmpty() ? "" : PREDICATE_POSTFIX;
     String capitalizedPredicateWithColon = StringUtils.capitalize(predicate) + sep;
     return capitalizedPredicateWithColon;
@@ -89,10 +100,9 @@ public class FlowCondition implements TemplateMethodModelEx {
     return !After.class.equals(flowPosition.getClass()) || stepName != null;
   }
 
-  private String getFlowPredicateSeparator(Flow flow, String sep) {
-    String flowPosition = getFlowPosition(flow);
+  private String getFlowPredicateSeparator(String flowPosition, String condition, String sep) {
     String result = "";
-    if (!flowPosition.isEmpty() && !getCondition(flow).isEmpty()) {
+    if (!flowPosition.isEmpty() && !condition.isEmpty()) {
       result = sep;
     }
     return result;
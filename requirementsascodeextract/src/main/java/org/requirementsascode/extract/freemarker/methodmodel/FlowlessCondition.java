@@ -6,8 +6,8 @@ import static org.requirementsascode.extract.freemarker.methodmodel.util.Words.g
 import java.util.List;
 
 import org.requirementsascode.Step;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
 
-import freemarker.template.SimpleScalar;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 
@@ -15,6 +15,18 @@ public class FlowlessCondition implements TemplateMethodModelEx {
   private static final String WHEN = "When ";
   private static final String CONDITION_POSTFIX = ": ";
 
+  private final Descriptions<Step> descriptions = new Descriptions<>(this::getConditionWithPostfix);
+
+  /**
+   * Returns the condition of the flowless step, e.g. "When some condition: ", or an empty string.
+   *
+   * @param step the step
+   * @return the description
+   */
+  public String describe(Step step) {
+    return descriptions.of(step).getAsString();
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Object exec(List arguments) throws TemplateModelException {
@@ -23,10 +35,7 @@ public class FlowlessCondition implements TemplateMethodModelEx {
     }
 
     Step step = getStepFromFreemarker(arguments.get(0));
-
-    String condition = getConditionWithPostfix(step);
-
-    return new SimpleScalar(condition);
+    return descriptions.of(step);
   }
 
   private String getConditionWithPostfix(Step step) {
@@ -7,14 +7,26 @@ import java.util.List;
 
 import org.requirementsascode.Condition;
 import org.requirementsascode.Step;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
 
-import freemarker.template.SimpleScalar;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 
 public class InCasePartOfStep implements TemplateMethodModelEx {
   private static final String IN_CASE = "In case ";
 
+  private final Descriptions<Step> descriptions = new Descriptions<>(this::getCaseConditionOfStep);
+
+  /**
+   * Returns the case condition of the step, e.g. "In case some condition, ", or an empty string.
+   *
+   * @param step the step
+   * @return the description
+   */
+  public String describe(Step step) {
+    return descriptions.of(step).getAsString();
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Object exec(List arguments) throws TemplateModelException {
@@ -23,10 +35,7 @@ public class InCasePartOfStep implements TemplateMethodModelEx {
     }
 
     Step step = getStepFromFreemarker(arguments.get(0));
-
-    String caseCondition = getCaseConditionOfStep(step);
-
-    return new SimpleScalar(caseCondition);
+    return descriptions.of(step);
   }
 
   private String getCaseConditionOfStep(Step step) {    
@@ -8,8 +8,8 @@ import java.util.List;
 import org.requirementsascode.Condition;
 import org.requirementsascode.FlowStep;
 import org.requirementsascode.Step;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
 
-import freemarker.template.SimpleScalar;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 
@@ -17,6 +17,18 @@ public class ReactWhileOfStep implements TemplateMethodModelEx {
   private static final String REACT_WHILE_PREFIX = "As long as ";
   private static final String REACT_WHILE_POSTFIX = ": ";
 
+  private final Descriptions<Step> descriptions = new Descriptions<>(this::getReactWhile);
+
+  /**
+   * Returns the react while condition of the step, e.g. "As long as some condition: ", or an empty string.
+   *
+   * @param step the step
+   * @return the description
+   */
+  public String describe(Step step) {
+    return descriptions.of(step).getAsString();
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Object exec(List arguments) throws TemplateModelException {
@@ -25,7 +37,10 @@ public class ReactWhileOfStep implements TemplateMethodModelEx {
     }
 
     Step step = getStepFromFreemarker(arguments.get(0));
+    return descriptions.of(step);
+  }
 
+  private String getReactWhile(Step step) {
     String reactWhile = "";
     if (step instanceof FlowStep) {
       Condition reactWhileCondition = ((FlowStep) step).getReactWhile();
@@ -34,7 +49,6 @@ public class ReactWhileOfStep implements TemplateMethodModelEx {
           + REACT_WHILE_POSTFIX;
       }
     }
-
-    return new SimpleScalar(reactWhile);
+    return reactWhile;
   }
 }
@@ -13,9 +13,9 @@ import java.util.function.Function;
 
 import org.requirementsascode.AbstractActor;
 import org.requirementsascode.Step;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
 import org.requirementsascode.systemreaction.AbstractContinues;
 
-import freemarker.template.SimpleScalar;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 
@@ -24,6 +24,18 @@ public class SystemPartOfStep implements TemplateMethodModelEx {
   private static final String ON_POSTFIX = ": ";
   private static final String SYSTEM_POSTFIX = ".";
 
+  private final Descriptions<Step> descriptions = new Descriptions<>(this::getSystemPartOfStep);
+
+  /**
+   * Returns the system part of the step, e.g. "System greets user.", or an empty string.
+   *
+   * @param step the step
+   * @return the description
+   */
+  public String describe(Step step) {
+    return descriptions.of(step).getAsString();
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Object exec(List arguments) throws TemplateModelException {
@@ -32,10 +44,7 @@ public class SystemPartOfStep implements TemplateMethodModelEx {
     }
 
     Step step = getStepFromFreemarker(arguments.get(0));
-
-    String systemPartOfStep = getSystemPartOfStep(step);
-
-    return new SimpleScalar(systemPartOfStep);
+    return descriptions.of(step);
   }
 
   private String getSystemPartOfStep(Step step) {
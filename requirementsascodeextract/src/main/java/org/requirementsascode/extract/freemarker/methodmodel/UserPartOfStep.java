@@ -9,14 +9,26 @@ import static org.requirementsascode.extract.freemarker.methodmodel.util.Words.g
 import java.util.List;
 
 import org.requirementsascode.Step;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
 
-import freemarker.template.SimpleScalar;
 import freemarker.template.TemplateMethodModelEx;
 import freemarker.template.TemplateModelException;
 
 public class UserPartOfStep implements TemplateMethodModelEx {
   private static final String USER_POSTFIX = ".";
 
+  private final Descriptions<Step> descriptions = new Descriptions<>(this::getUserPartOfStep);
+
+  /**
+   * Returns the user part of the step, e.g. "User enters name.", or an empty string.
+   *
+   * @param step the step
+   * @return the description
+   */
+  public String describe(Step step) {
+    return descriptions.of(step).getAsString();
+  }
+
   @SuppressWarnings("rawtypes")
   @Override
   public Object exec(List arguments) throws TemplateModelException {
@@ -24,15 +36,18 @@ public class UserPartOfStep implements TemplateMethodModelEx {
       throw new TemplateModelException("Wrong number of arguments. Must be 1.");
     }
 
-    String userPartOfStep = "";
     Step step = getStepFromFreemarker(arguments.get(0));
+    return descriptions.of(step);
+  }
+
+  private String getUserPartOfStep(Step step) {
+    String userPartOfStep = "";
     if (hasUser(step)) {
       String userActorName = getUserActor(step).getName();
       String wordsOfUserEventClassName = getLowerCaseWordsOfClassName(step.getMessageClass());
       userPartOfStep = userActorName + " " + wordsOfUserEventClassName + USER_POSTFIX;
     }
-
-    return new SimpleScalar(userPartOfStep);
+    return userPartOfStep;
   }
 
   private boolean hasUser(Step step) {
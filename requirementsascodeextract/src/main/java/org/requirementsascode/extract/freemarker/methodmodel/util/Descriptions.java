@@ -0,0 +1,51 @@
+package org.requirementsascode.extract.freemarker.methodmodel.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+import freemarker.template.SimpleScalar;
+
+/**
+ * Memoizes the descriptions of model elements (e.g. steps or flows), so that
+ * each description is computed only once, no matter how often templates
+ * reference the element.
+ *
+ * <p>
+ * The elements are weakly referenced, so the descriptions don't keep models
+ * alive. Model elements are compared by identity. As descriptions are never
+ * recomputed, extract a model only after it has been built completely.
+ *
+ * @author b_muth
+ */
+public class Descriptions<T> {
+  private final Function<T, String> describer;
+  private final Map<T, SimpleScalar> descriptions;
+
+  /**
+   * Creates descriptions that are computed by the specified function.
+   *
+   * @param describer the function that computes the description of an element
+   */
+  public Descriptions(Function<T, String> describer) {
+    this.describer = describer;
+    this.descriptions = Collections.synchronizedMap(new WeakHashMap<>());
+  }
+
+  /**
+   * Returns the description of the specified element, computing it the first
+   * time.
+   *
+   * @param element the element
+   * @return the description, as FreeMarker scalar
+   */
+  public SimpleScalar of(T element) {
+    SimpleScalar description = descriptions.get(element);
+    if (description == null) {
+      description = new SimpleScalar(describer.apply(element));
+      descriptions.put(element, description);
+    }
+    return description;
+  }
+}
@@ -3,7 +3,18 @@ package org.requirementsascode.extract.freemarker.methodmodel.util;
 import org.apache.commons.lang3.StringUtils;
 
 public class Words {
+  private static final ClassValue<String> lowerCaseWordsOfClassName = new ClassValue<String>() {
+    @Override
+    protected String computeValue(Class<?> clazz) {
+      return toLowerCaseWordsOfClassName(clazz);
+    }
+  };
+
   public static String getLowerCaseWordsOfClassName(Class<?> clazz) {
+    return lowerCaseWordsOfClassName.get(clazz);
+  }
+
+  private static String toLowerCaseWordsOfClassName(Class<?> clazz) {
     String[] wordArray = toWordArray(clazz.getSimpleName());
     String words = wordArrayToLowerCaseString(wordArray);
     return words;
@@ -0,0 +1,53 @@
+package org.requirementsascode.extract.incremental;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The files that an {@link IncrementalExtractor} has rendered, left unchanged,
+ * or deleted during an extraction.
+ *
+ * @author b_muth
+ */
+public class ExtractionResult {
+  private final List<Path> renderedFiles;
+  private final List<Path> unchangedFiles;
+  private final List<Path> deletedFiles;
+
+  ExtractionResult(List<Path> renderedFiles, List<Path> unchangedFiles, List<Path> deletedFiles) {
+    this.renderedFiles = Collections.unmodifiableList(renderedFiles);
+    this.unchangedFiles = Collections.unmodifiableList(unchangedFiles);
+    this.deletedFiles = Collections.unmodifiableList(deletedFiles);
+  }
+
+  /**
+   * Returns the files of the new or changed use cases, in the order of the use
+   * cases.
+   *
+   * @return the rendered files
+   */
+  public List<Path> getRenderedFiles() {
+    return renderedFiles;
+  }
+
+  /**
+   * Returns the files of the use cases that haven't changed since the last
+   * extraction, in the order of the use cases.
+   *
+   * @return the unchanged files
+   */
+  public List<Path> getUnchangedFiles() {
+    return unchangedFiles;
+  }
+
+  /**
+   * Returns the files of the use cases that have been removed from the model
+   * since the last extraction.
+   *
+   * @return the deleted files
+   */
+  public List<Path> getDeletedFiles() {
+    return deletedFiles;
+  }
+}
@@ -0,0 +1,244 @@
+package org.requirementsascode.extract.incremental;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.Function;
+
+import org.requirementsascode.Model;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.extract.renderer.ModelRenderer;
+
+/**
+ * Renders the documentation of each use case of a model to its own file, but
+ * only for the use cases that have changed since the last extraction.
+ *
+ * <p>
+ * The extractor stores the {@link UseCaseFingerprint} of each use case in a
+ * cache file in the output directory. On the next extraction, a use case is
+ * only rendered again if its fingerprint has changed, its file doesn't exist
+ * any more, or a different renderer is used. The files of use cases that have
+ * been removed from the model are deleted.
+ *
+ * <p>
+ * Each file is written to a temporary file first, and then moved to its place,
+ * so a failed extraction never leaves a partially written file behind. Delete
+ * the cache file to render all use cases again, e.g. after upgrading the
+ * renderer.
+ *
+ * @author b_muth
+ */
+public class IncrementalExtractor {
+  private static final String DEFAULT_CACHE_FILE_NAME = ".fingerprints";
+
+  private final ModelRenderer renderer;
+  private final Path outputDirectory;
+  private final Path cacheFile;
+  private final Charset outputCharset;
+
+  private IncrementalExtractor(Builder builder) {
+    this.renderer = builder.renderer;
+    this.outputDirectory = builder.outputDirectory;
+    this.cacheFile = outputDirectory.resolve(builder.cacheFileName);
+    this.outputCharset = builder.outputCharset;
+  }
+
+  /**
+   * Returns a builder for an extractor that uses the specified renderer.
+   *
+   * @param renderer the renderer
+   * @return the builder
+   */
+  public static Builder builder(ModelRenderer renderer) {
+    return new Builder(renderer);
+  }
+
+  /**
+   * Renders the use cases of the model that have changed since the last
+   * extraction, each to a file in the output directory, and deletes the files
+   * of use cases that have been removed.
+   *
+   * @param model     the model to extract
+   * @param fileNameOf the function that returns the name of the output file for
+   *                   a use case, relative to the output directory
+   * @return which files have been rendered, left unchanged, or deleted
+   * @throws IOException              if a file can't be read or written
+   * @throws IllegalArgumentException if two use cases have the same file name,
+   *                                  or a file name refers to the cache file
+   *                                  or to a file outside of the output
+   *                                  directory
+   */
+  public ExtractionResult extract(Model model, Function<UseCase, String> fileNameOf) throws IOException {
+    Objects.requireNonNull(model);
+    Objects.requireNonNull(fileNameOf);
+    Files.createDirectories(outputDirectory);
+
+    Properties previousFingerprints = loadFingerprints();
+    Properties fingerprints = new Properties();
+    List<Path> renderedFiles = new ArrayList<>();
+    List<Path> unchangedFiles = new ArrayList<>();
+    List<Path> deletedFiles = new ArrayList<>();
+
+    for (UseCase useCase : model.getUseCases()) {
+      String fileName = fileNameOf.apply(useCase);
+      Path file = outputFileOf(fileName);
+      if (file == null) {
+        throw new IllegalArgumentException("The file name " + fileName + " of use case " + useCase
+          + " isn't a file in the output directory");
+      }
+      String fingerprint = renderer.getClass().getName() + ":" + UseCaseFingerprint.of(useCase);
+      if (fingerprints.setProperty(fileName, fingerprint) != null) {
+        throw new IllegalArgumentException("More than one use case has the file name " + fileName);
+      }
+
+      if (fingerprint.equals(previousFingerprints.getProperty(fileName)) && Files.exists(file)) {
+        unchangedFiles.add(file);
+      } else {
+        render(useCase, file);
+        renderedFiles.add(file);
+      }
+    }
+
+    for (String previousFileName : previousFingerprints.stringPropertyNames()) {
+      if (!fingerprints.containsKey(previousFileName)) {
+        // Don't trust the cache file: never delete files outside of the output directory
+        Path file = outputFileOf(previousFileName);
+        if (file != null && Files.deleteIfExists(file)) {
+          deletedFiles.add(file);
+        }
+      }
+    }
+
+    storeFingerprints(fingerprints);
+    return new ExtractionResult(renderedFiles, unchangedFiles, deletedFiles);
+  }
+
+  private Path outputFileOf(String fileName) {
+    Path file = outputDirectory.resolve(fileName);
+    Path normalizedFile = file.toAbsolutePath().normalize();
+    Path normalizedOutputDirectory = outputDirectory.toAbsolutePath().normalize();
+    boolean isInOutputDirectory = normalizedFile.startsWith(normalizedOutputDirectory)
+      && !normalizedFile.equals(normalizedOutputDirectory);
+    boolean isCacheFile = normalizedFile.equals(cacheFile.toAbsolutePath().normalize());
+    return isInOutputDirectory && !isCacheFile ? file : null;
+  }
+
+  private void render(UseCase useCase, Path file) throws IOException {
+    Path temporaryFile = temporaryFileFor(file);
+    try (Writer outputWriter = Files.newBufferedWriter(temporaryFile, outputCharset)) {
+      renderer.render(useCase, outputWriter);
+    }
+    moveToPlace(temporaryFile, file);
+  }
+
+  private Properties loadFingerprints() throws IOException {
+    Properties fingerprints = new Properties();
+    if (Files.exists(cacheFile)) {
+      try (InputStream cacheInputStream = Files.newInputStream(cacheFile)) {
+        fingerprints.load(cacheInputStream);
+      } catch (IllegalArgumentException e) {
+        // The cache file is corrupt, so render all use cases
+        fingerprints.clear();
+      }
+    }
+    return fingerprints;
+  }
+
+  private void storeFingerprints(Properties fingerprints) throws IOException {
+    Path temporaryFile = temporaryFileFor(cacheFile);
+    try (OutputStream cacheOutputStream = Files.newOutputStream(temporaryFile)) {
+      fingerprints.store(cacheOutputStream, "Use case fingerprints of the requirements as code incremental extractor");
+    }
+    moveToPlace(temporaryFile, cacheFile);
+  }
+
+  private Path temporaryFileFor(Path file) throws IOException {
+    Path directory = file.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    return Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+  }
+
+  private void moveToPlace(Path temporaryFile, Path file) throws IOException {
+    try {
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Builder for an {@link IncrementalExtractor}.
+   */
+  public static class Builder {
+    private final ModelRenderer renderer;
+    private Path outputDirectory;
+    private String cacheFileName;
+    private Charset outputCharset;
+
+    private Builder(ModelRenderer renderer) {
+      this.renderer = Objects.requireNonNull(renderer);
+      this.cacheFileName = DEFAULT_CACHE_FILE_NAME;
+      this.outputCharset = StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Specifies the directory the files are written to. It is created if it
+     * doesn't exist.
+     *
+     * @param outputDirectory the directory
+     * @return this builder
+     */
+    public Builder outputDirectory(Path outputDirectory) {
+      this.outputDirectory = Objects.requireNonNull(outputDirectory);
+      return this;
+    }
+
+    /**
+     * Specifies the name of the file the fingerprints are stored in, relative to
+     * the output directory. The default is ".fingerprints".
+     *
+     * @param cacheFileName the name of the cache file
+     * @return this builder
+     */
+    public Builder cacheFileName(String cacheFileName) {
+      this.cacheFileName = Objects.requireNonNull(cacheFileName);
+      return this;
+    }
+
+    /**
+     * Specifies the charset of the written files. The default is UTF-8.
+     *
+     * @param outputCharset the charset
+     * @return this builder
+     */
+    public Builder outputCharset(Charset outputCharset) {
+      this.outputCharset = Objects.requireNonNull(outputCharset);
+      return this;
+    }
+
+    /**
+     * Builds the extractor.
+     *
+     * @return the extractor
+     * @throws IllegalStateException if the output directory hasn't been
+     *                               specified
+     */
+    public IncrementalExtractor build() {
+      if (outputDirectory == null) {
+        throw new IllegalStateException("Output directory must be specified");
+      }
+      return new IncrementalExtractor(this);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package org.requirementsascode.extract.incremental;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+
+import org.requirementsascode.AbstractActor;
+import org.requirementsascode.Condition;
+import org.requirementsascode.Flow;
+import org.requirementsascode.FlowStep;
+import org.requirementsascode.Step;
+import org.requirementsascode.SystemReaction;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.flowposition.After;
+import org.requirementsascode.flowposition.FlowPosition;
+import org.requirementsascode.flowposition.InsteadOf;
+import org.requirementsascode.systemreaction.AbstractContinues;
+
+/**
+ * Computes a structural fingerprint of a use case. The fingerprint covers
+ * everything the documentation of the use case is based on: the names of the
+ * use case, its flows and steps, the flow positions, the actors and message
+ * classes of the steps, the classes of conditions and system reactions, and the
+ * steps that steps continue at or after.
+ *
+ * <p>
+ * The fingerprint is stable across runs of the application, so it can be
+ * stored and compared with the fingerprint of a later version of the use case.
+ * Lambda classes have no stable names, so the fingerprint only records that a
+ * lambda is used. Changing a lambda doesn't change the fingerprint, but it
+ * doesn't change the documentation either.
+ *
+ * @author b_muth
+ */
+public class UseCaseFingerprint {
+  private static final char FIELD_SEPARATOR = '\u0000';
+  private static final char RECORD_SEPARATOR = '\n';
+  private static final String LAMBDA_MARKER = "$$Lambda";
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private UseCaseFingerprint() {
+  }
+
+  /**
+   * Computes the fingerprint of the specified use case.
+   *
+   * @param useCase the use case
+   * @return the fingerprint, as hexadecimal SHA-256 hash
+   */
+  public static String of(UseCase useCase) {
+    StringBuilder structure = new StringBuilder();
+    appendRecord(structure, "UseCase", useCase.getName());
+    for (Flow flow : useCase.getFlows()) {
+      appendRecord(structure, "Flow", flow.getName(), flowPositionOf(flow.getFlowPosition()),
+        classNameOf(flow.getCondition()));
+      for (FlowStep step : flow.getSteps()) {
+        appendStep(structure, step);
+      }
+    }
+    for (Step step : useCase.getSteps()) {
+      if (!(step instanceof FlowStep)) {
+        appendStep(structure, step);
+      }
+    }
+    return sha256Of(structure);
+  }
+
+  private static void appendStep(StringBuilder structure, Step step) {
+    String reactWhile = step instanceof FlowStep ? classNameOf(((FlowStep) step).getReactWhile()) : "";
+    appendRecord(structure, "Step", step.getName(), step.getClass().getName(), actorsOf(step),
+      classNameOf(step.getMessageClass()), classNameOf(step.getCondition()), classNameOf(step.getCase()), reactWhile);
+
+    SystemReaction<?> systemReaction = step.getSystemReaction();
+    if (systemReaction != null) {
+      Object modelObject = systemReaction.getModelObject();
+      String continuesStepName = modelObject instanceof AbstractContinues
+        ? String.valueOf(((AbstractContinues<?>) modelObject).getStepName())
+        : "";
+      String publishTo = step.getPublishTo().map(AbstractActor::getName).orElse("");
+      appendRecord(structure, "SystemReaction", classNameOf(modelObject), continuesStepName, publishTo,
+        String.valueOf(systemReaction.isAsync()));
+    }
+  }
+
+  private static String flowPositionOf(FlowPosition flowPosition) {
+    if (flowPosition == null) {
+      return "";
+    }
+    StringBuilder flowPositionText = new StringBuilder(flowPosition.getClass().getName());
+    if (flowPosition instanceof InsteadOf) {
+      flowPositionText.append(FIELD_SEPARATOR).append(((InsteadOf) flowPosition).getStepName());
+    } else if (flowPosition instanceof After) {
+      for (String stepName : ((After) flowPosition).getStepNames()) {
+        flowPositionText.append(FIELD_SEPARATOR).append(stepName);
+      }
+    }
+    return flowPositionText.toString();
+  }
+
+  private static String actorsOf(Step step) {
+    AbstractActor[] actors = step.getActors();
+    if (actors == null) {
+      return "";
+    }
+    StringBuilder actorNames = new StringBuilder();
+    for (AbstractActor actor : actors) {
+      actorNames.append(actor.getName()).append(',');
+    }
+    return actorNames.toString();
+  }
+
+  private static String classNameOf(Optional<Condition> condition) {
+    return condition.map(UseCaseFingerprint::classNameOf).orElse("");
+  }
+
+  private static String classNameOf(Object object) {
+    if (object == null) {
+      return "";
+    }
+    Class<?> clazz = object instanceof Class ? (Class<?>) object : object.getClass();
+    String className = clazz.getName();
+    int lambdaMarkerIndex = className.indexOf(LAMBDA_MARKER);
+    return lambdaMarkerIndex < 0 ? className : className.substring(0, lambdaMarkerIndex + LAMBDA_MARKER.length());
+  }
+
+  private static void appendRecord(StringBuilder structure, String type, String... fields) {
+    structure.append(type);
+    for (String field : fields) {
+      structure.append(FIELD_SEPARATOR).append(field);
+    }
+    structure.append(RECORD_SEPARATOR);
+  }
+
+  private static String sha256Of(CharSequence text) {
+    byte[] hash = sha256().digest(text.toString().getBytes(StandardCharsets.UTF_8));
+    char[] hexDigits = new char[hash.length * 2];
+    for (int i = 0; i < hash.length; i++) {
+      hexDigits[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+      hexDigits[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+    }
+    return new String(hexDigits);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Every Java platform supports SHA-256", e);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.requirementsascode.extract.renderer;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.requirementsascode.Flow;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCase;
+
+/**
+ * Renders a model as an HTML fragment: a heading for each use case and flow,
+ * and a list item for each step. The fragment can be embedded in the body of a
+ * page.
+ *
+ * @author b_muth
+ */
+class HtmlRenderer extends ModelRenderer {
+  @Override
+  public void render(UseCase useCase, Appendable output) throws IOException {
+    output.append("<h1>Use case: ");
+    appendEscaped(useCase.getName(), output);
+    output.append("</h1>\n");
+
+    for (Flow flow : flowsOf(useCase)) {
+      output.append("<h2>");
+      appendEscaped(flow.getName(), output);
+      output.append("</h2>\n");
+      String condition = conditionOf(flow);
+      if (!condition.isEmpty()) {
+        output.append("<p>");
+        appendEscaped(condition, output);
+        output.append("</p>\n");
+      }
+      renderSteps(flow.getSteps(), output);
+    }
+    renderSteps(flowlessStepsOf(useCase), output);
+  }
+
+  private void renderSteps(List<? extends Step> steps, Appendable output) throws IOException {
+    if (steps.isEmpty()) {
+      return;
+    }
+    output.append("<ul>\n");
+    for (Step step : steps) {
+      output.append("<li><b>");
+      appendEscaped(step.getName(), output);
+      output.append("</b>: ");
+      appendEscaped(descriptionOf(step), output);
+      output.append("</li>\n");
+    }
+    output.append("</ul>\n");
+  }
+
+  private void appendEscaped(String text, Appendable output) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+      case '&':
+        output.append("&amp;");
+        break;
+      case '<':
+        output.append("&lt;");
+        break;
+      case '>':
+        output.append("&gt;");
+        break;
+      case '"':
+        output.append("&quot;");
+        break;
+      case '\'':
+        output.append("&#39;");
+        break;
+      default:
+        output.append(c);
+        break;
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package org.requirementsascode.extract.renderer;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.requirementsascode.Flow;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCase;
+
+/**
+ * Renders a model as a single line JSON document, like this:
+ *
+ * <pre>
+ * {"useCases":[{"name":"Get greeted",
+ *   "flows":[{"name":"Basic flow","condition":"","steps":[{"name":"S1","description":"System greets user."}]}],
+ *   "steps":[]}]}
+ * </pre>
+ *
+ * The steps of a use case are its flowless steps. A single use case is rendered
+ * as one of the objects in the use cases array.
+ *
+ * @author b_muth
+ */
+class JsonRenderer extends ModelRenderer {
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  @Override
+  public void render(Model model, Appendable output) throws IOException {
+    output.append("{\"useCases\":[");
+    String separator = "";
+    for (UseCase useCase : model.getUseCases()) {
+      output.append(separator);
+      render(useCase, output);
+      separator = ",";
+    }
+    output.append("]}");
+  }
+
+  @Override
+  public void render(UseCase useCase, Appendable output) throws IOException {
+    output.append("{\"name\":");
+    appendString(useCase.getName(), output);
+    output.append(",\"flows\":[");
+    String separator = "";
+    for (Flow flow : flowsOf(useCase)) {
+      output.append(separator);
+      output.append("{\"name\":");
+      appendString(flow.getName(), output);
+      output.append(",\"condition\":");
+      appendString(conditionOf(flow), output);
+      output.append(",");
+      renderSteps(flow.getSteps(), output);
+      output.append("}");
+      separator = ",";
+    }
+    output.append("],");
+    renderSteps(flowlessStepsOf(useCase), output);
+    output.append("}");
+  }
+
+  private void renderSteps(List<? extends Step> steps, Appendable output) throws IOException {
+    output.append("\"steps\":[");
+    String separator = "";
+    for (Step step : steps) {
+      output.append(separator);
+      output.append("{\"name\":");
+      appendString(step.getName(), output);
+      output.append(",\"description\":");
+      appendString(descriptionOf(step), output);
+      output.append("}");
+      separator = ",";
+    }
+    output.append("]");
+  }
+
+  private void appendString(String text, Appendable output) throws IOException {
+    output.append('"');
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+      case '"':
+        output.append("\\\"");
+        break;
+      case '\\':
+        output.append("\\\\");
+        break;
+      case '\n':
+        output.append("\\n");
+        break;
+      case '\r':
+        output.append("\\r");
+        break;
+      case '\t':
+        output.append("\\t");
+        break;
+      default:
+        if (c < 0x20) {
+          output.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+        } else {
+          output.append(c);
+        }
+        break;
+      }
+    }
+    output.append('"');
+  }
+}
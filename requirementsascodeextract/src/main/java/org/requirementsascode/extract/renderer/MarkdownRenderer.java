@@ -0,0 +1,73 @@
+package org.requirementsascode.extract.renderer;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.requirementsascode.Flow;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCase;
+
+/**
+ * Renders a model as Markdown: a heading for each use case and flow, and a list
+ * item for each step.
+ *
+ * @author b_muth
+ */
+class MarkdownRenderer extends ModelRenderer {
+  @Override
+  public void render(UseCase useCase, Appendable output) throws IOException {
+    output.append("# Use case: ");
+    appendEscaped(useCase.getName(), output);
+    output.append("\n");
+
+    for (Flow flow : flowsOf(useCase)) {
+      output.append("\n## ");
+      appendEscaped(flow.getName(), output);
+      output.append("\n");
+      String condition = conditionOf(flow);
+      if (!condition.isEmpty()) {
+        output.append("\n");
+        appendEscaped(condition, output);
+        output.append("\n");
+      }
+      renderSteps(flow.getSteps(), output);
+    }
+    renderSteps(flowlessStepsOf(useCase), output);
+    output.append("\n");
+  }
+
+  private void renderSteps(List<? extends Step> steps, Appendable output) throws IOException {
+    if (steps.isEmpty()) {
+      return;
+    }
+    output.append("\n");
+    for (Step step : steps) {
+      output.append("- **");
+      appendEscaped(step.getName(), output);
+      output.append("**: ");
+      appendEscaped(descriptionOf(step), output);
+      output.append("\n");
+    }
+  }
+
+  private void appendEscaped(String text, Appendable output) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+      case '\\':
+      case '`':
+      case '*':
+      case '_':
+      case '[':
+      case ']':
+      case '<':
+      case '#':
+        output.append('\\');
+        break;
+      default:
+        break;
+      }
+      output.append(c);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package org.requirementsascode.extract.renderer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.Flow;
+import org.requirementsascode.FlowStep;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.extract.freemarker.methodmodel.ActorPartOfStep;
+import org.requirementsascode.extract.freemarker.methodmodel.FlowCondition;
+import org.requirementsascode.extract.freemarker.methodmodel.FlowlessCondition;
+import org.requirementsascode.extract.freemarker.methodmodel.InCasePartOfStep;
+import org.requirementsascode.extract.freemarker.methodmodel.ReactWhileOfStep;
+import org.requirementsascode.extract.freemarker.methodmodel.SystemPartOfStep;
+import org.requirementsascode.extract.freemarker.methodmodel.UserPartOfStep;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
+
+/**
+ * Renders a requirements as code core Model as a document, without a template
+ * engine. A renderer walks the use cases, flows and steps of the model directly,
+ * and appends the document to an {@link Appendable}. The steps and flows are
+ * worded the same way as by the FreeMarker methods of the
+ * {@link org.requirementsascode.extract.freemarker.FreeMarkerEngine}, and
+ * their whitespace is compressed to single spaces.
+ *
+ * <p>
+ * Flows without steps (like the basic flow of a use case that only contains
+ * flowless steps) are left out. The flowless steps of a use case are rendered
+ * after its flows.
+ *
+ * <p>
+ * A renderer is thread-safe, and may render several models at the same time.
+ * It memoizes the descriptions of steps and flows, so render a model only after
+ * it has been built completely.
+ *
+ * @author b_muth
+ */
+public abstract class ModelRenderer {
+  private final FlowCondition flowCondition = new FlowCondition();
+  private final FlowlessCondition flowlessCondition = new FlowlessCondition();
+  private final ActorPartOfStep actorPartOfStep = new ActorPartOfStep();
+  private final UserPartOfStep userPartOfStep = new UserPartOfStep();
+  private final InCasePartOfStep inCasePartOfStep = new InCasePartOfStep();
+  private final SystemPartOfStep systemPartOfStep = new SystemPartOfStep();
+  private final ReactWhileOfStep reactWhileOfStep = new ReactWhileOfStep();
+  private final Descriptions<Flow> flowConditions = new Descriptions<>(this::describeCondition);
+  private final Descriptions<Step> stepDescriptions = new Descriptions<>(this::describeStep);
+
+  /**
+   * Returns a renderer for Markdown documents.
+   *
+   * @return the renderer
+   */
+  public static ModelRenderer markdown() {
+    return new MarkdownRenderer();
+  }
+
+  /**
+   * Returns a renderer for HTML fragments.
+   *
+   * @return the renderer
+   */
+  public static ModelRenderer html() {
+    return new HtmlRenderer();
+  }
+
+  /**
+   * Returns a renderer for JSON documents.
+   *
+   * @return the renderer
+   */
+  public static ModelRenderer json() {
+    return new JsonRenderer();
+  }
+
+  /**
+   * Renders the model, and appends the document to the output.
+   *
+   * @param model  the input model, created with requirementsascodecore
+   * @param output the output the document is appended to
+   * @throws IOException if the output can't be appended to
+   */
+  public void render(Model model, Appendable output) throws IOException {
+    for (UseCase useCase : model.getUseCases()) {
+      render(useCase, output);
+    }
+  }
+
+  /**
+   * Renders a single use case, and appends the document to the output.
+   *
+   * @param useCase the use case of a model
+   * @param output  the output the document is appended to
+   * @throws IOException if the output can't be appended to
+   */
+  public abstract void render(UseCase useCase, Appendable output) throws IOException;
+
+  /**
+   * Renders the model as a string.
+   *
+   * @param model the input model, created with requirementsascodecore
+   * @return the document
+   */
+  public String render(Model model) {
+    StringBuilder output = new StringBuilder();
+    try {
+      render(model, output);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return output.toString();
+  }
+
+  List<Flow> flowsOf(UseCase useCase) {
+    return useCase.getFlows().stream()
+      .filter(flow -> !flow.getSteps().isEmpty())
+      .collect(Collectors.toList());
+  }
+
+  List<Step> flowlessStepsOf(UseCase useCase) {
+    return useCase.getSteps().stream()
+      .filter(step -> !(step instanceof FlowStep))
+      .collect(Collectors.toList());
+  }
+
+  String conditionOf(Flow flow) {
+    return flowConditions.of(flow).getAsString();
+  }
+
+  String descriptionOf(Step step) {
+    return stepDescriptions.of(step).getAsString();
+  }
+
+  private String describeCondition(Flow flow) {
+    return singleLine(flowCondition.describe(flow));
+  }
+
+  private String describeStep(Step step) {
+    String condition = step instanceof FlowStep ? reactWhileOfStep.describe(step) : flowlessCondition.describe(step);
+    String description = condition + actorPartOfStep.describe(step) + userPartOfStep.describe(step)
+      + inCasePartOfStep.describe(step) + systemPartOfStep.describe(step);
+    return singleLine(description);
+  }
+
+  /**
+   * Collapses each sequence of whitespace to a single space, and removes leading
+   * and trailing whitespace, like the compress directive in the templates does.
+   */
+  private String singleLine(String text) {
+    StringBuilder singleLineText = new StringBuilder(text.length());
+    boolean isAfterWhitespace = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isWhitespace(c)) {
+        isAfterWhitespace = true;
+      } else {
+        if (isAfterWhitespace && singleLineText.length() > 0) {
+          singleLineText.append(' ');
+        }
+        singleLineText.append(c);
+        isAfterWhitespace = false;
+      }
+    }
+    return singleLineText.toString();
+  }
+}
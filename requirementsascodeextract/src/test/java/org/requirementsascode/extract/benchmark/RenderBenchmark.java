@@ -0,0 +1,157 @@
+package org.requirementsascode.extract.benchmark;
+
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.Model;
+import org.requirementsascode.builder.ModelBuilder;
+import org.requirementsascode.extract.freemarker.FreeMarkerEngine;
+import org.requirementsascode.extract.freemarker.predicate.ThereIsNoAlternative;
+import org.requirementsascode.extract.freemarker.systemreaction.GreetsUser;
+import org.requirementsascode.extract.freemarker.systemreaction.PromptsUserToEnterName;
+import org.requirementsascode.extract.freemarker.systemreaction.Quits;
+import org.requirementsascode.extract.freemarker.usercommand.EntersName;
+import org.requirementsascode.extract.renderer.ModelRenderer;
+
+/**
+ * Compares the time and memory it takes to extract a model with 10.000 steps
+ * with the FreeMarker engine, and to render it with the template-free Markdown
+ * renderer. The output is discarded, so only the extraction itself is measured.
+ *
+ * <p>
+ * Run the main method, with the number of steps as optional argument. For
+ * reliable numbers, run it on an otherwise idle machine. The allocated memory
+ * is only reported on JVMs that support measuring it.
+ *
+ * @author b_muth
+ */
+public class RenderBenchmark {
+  private static final int DEFAULT_NUMBER_OF_STEPS = 10_000;
+  private static final int STEPS_PER_USE_CASE = 10;
+  private static final int WARMUP_ITERATIONS = 5;
+  private static final int MEASURED_ITERATIONS = 10;
+  private static final String TEMPLATE_FILE_NAME = "testextract.ftl";
+
+  public static void main(String[] args) throws Exception {
+    int numberOfSteps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_STEPS;
+    int numberOfUseCases = Math.max(1, numberOfSteps / STEPS_PER_USE_CASE);
+    Model model = modelWithUseCases(numberOfUseCases);
+
+    FreeMarkerEngine engine = new FreeMarkerEngine("org/requirementsascode/extract/freemarker");
+    ModelRenderer renderer = ModelRenderer.markdown();
+    Writer output = new DiscardingWriter();
+
+    Measurement freeMarkerMeasurement = new Measurement();
+    Measurement rendererMeasurement = new Measurement();
+    for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+      boolean isMeasured = i >= WARMUP_ITERATIONS;
+      freeMarkerMeasurement.measure(() -> engine.extract(model, TEMPLATE_FILE_NAME, output), isMeasured);
+      rendererMeasurement.measure(() -> renderer.render(model, output), isMeasured);
+    }
+
+    System.out.println("Steps: " + numberOfUseCases * STEPS_PER_USE_CASE);
+    System.out.println("FreeMarker engine: " + freeMarkerMeasurement);
+    System.out.println("Markdown renderer: " + rendererMeasurement);
+  }
+
+  /**
+   * Each use case has a basic flow of 8 steps, and an alternative flow of 2
+   * steps.
+   */
+  private static Model modelWithUseCases(int numberOfUseCases) {
+    Actor customer = new Actor("Customer");
+    ModelBuilder modelBuilder = Model.builder();
+    for (int useCaseIndex = 0; useCaseIndex < numberOfUseCases; useCaseIndex++) {
+      String stepPrefix = "UC" + useCaseIndex + "_S";
+      modelBuilder.useCase("UC" + useCaseIndex)
+        .basicFlow()
+          .step(stepPrefix + 0).system(new PromptsUserToEnterName())
+          .step(stepPrefix + 1).as(customer).user(EntersName.class).system(new GreetsUser())
+          .step(stepPrefix + 2).system(new PromptsUserToEnterName())
+          .step(stepPrefix + 3).as(customer).user(EntersName.class).system(new GreetsUser())
+          .step(stepPrefix + 4).system(new PromptsUserToEnterName())
+          .step(stepPrefix + 5).as(customer).user(EntersName.class).system(new GreetsUser())
+          .step(stepPrefix + 6).system(new PromptsUserToEnterName())
+          .step(stepPrefix + 7).inCase(new ThereIsNoAlternative()).system(new Quits())
+        .flow("Retry").insteadOf(stepPrefix + 1).condition(new ThereIsNoAlternative())
+          .step(stepPrefix + "Retry").as(customer).user(EntersName.class).system(new GreetsUser())
+          .step(stepPrefix + "Continue").continuesAt(stepPrefix + 0);
+    }
+    return modelBuilder.build();
+  }
+
+  private interface Extraction {
+    void run() throws Exception;
+  }
+
+  private static class Measurement {
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final long[] nanos = new long[MEASURED_ITERATIONS];
+    private final long[] allocatedBytes = new long[MEASURED_ITERATIONS];
+    private int numberOfMeasurements;
+
+    private void measure(Extraction extraction, boolean isMeasured) throws Exception {
+      long startBytes = allocatedBytes();
+      long start = System.nanoTime();
+      extraction.run();
+      long end = System.nanoTime();
+      long endBytes = allocatedBytes();
+      if (isMeasured) {
+        nanos[numberOfMeasurements] = end - start;
+        allocatedBytes[numberOfMeasurements] = endBytes - startBytes;
+        numberOfMeasurements++;
+      }
+    }
+
+    private static long allocatedBytes() {
+      if (threadBean instanceof com.sun.management.ThreadMXBean) {
+        return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+      return 0;
+    }
+
+    @Override
+    public String toString() {
+      return "median ms: " + median(nanos) / 1_000_000 + ", median MB allocated: "
+        + median(allocatedBytes) / (1024 * 1024);
+    }
+
+    private static long median(long[] values) {
+      long[] sortedValues = values.clone();
+      Arrays.sort(sortedValues);
+      return sortedValues[sortedValues.length / 2];
+    }
+  }
+
+  private static class DiscardingWriter extends Writer {
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+      return this;
+    }
+
+    @Override
+    public Writer append(char c) {
+      return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
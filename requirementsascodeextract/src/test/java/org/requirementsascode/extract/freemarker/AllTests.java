@@ -3,8 +3,13 @@ package org.requirementsascode.extract.freemarker;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
+import org.requirementsascode.extract.freemarker.methodmodel.DescriptionsTest;
 import org.requirementsascode.extract.freemarker.methodmodel.WordsTest;
+import org.requirementsascode.extract.incremental.IncrementalExtractorTest;
+import org.requirementsascode.extract.incremental.UseCaseFingerprintTest;
+import org.requirementsascode.extract.renderer.ModelRendererTest;
 
 @RunWith(Suite.class)
-@SuiteClasses({FreemarkerEngineTest.class, WordsTest.class})
+@SuiteClasses({FreemarkerEngineTest.class, BulkExtractorTest.class, WordsTest.class, DescriptionsTest.class,
+  ModelRendererTest.class, UseCaseFingerprintTest.class, IncrementalExtractorTest.class})
 public class AllTests {}
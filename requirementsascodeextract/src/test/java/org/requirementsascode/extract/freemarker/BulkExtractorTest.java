@@ -0,0 +1,157 @@
+package org.requirementsascode.extract.freemarker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.requirementsascode.Model;
+import org.requirementsascode.extract.freemarker.systemreaction.GreetsUser;
+import org.requirementsascode.extract.freemarker.usercommand.EntersName;
+
+import freemarker.template.TemplateNotFoundException;
+
+public class BulkExtractorTest {
+  private static final String TEMPLATE_FILE_NAME = "testextract_flowless.ftl";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private FreeMarkerEngine engine;
+  private Path outputDirectory;
+
+  @Before
+  public void setUp() throws Exception {
+    engine = new FreeMarkerEngine("org/requirementsascode/extract/freemarker");
+    outputDirectory = temporaryFolder.getRoot().toPath().resolve("docs");
+  }
+
+  @Test
+  public void writesDocumentOfEachModelToFile() throws Exception {
+    BulkExtractor extractor = BulkExtractor.builder(engine)
+      .templateFileName(TEMPLATE_FILE_NAME)
+      .outputDirectory(outputDirectory)
+      .parallelism(3)
+      .build();
+
+    AtomicInteger modelNumber = new AtomicInteger();
+    List<Path> paths = extractor.extract(IntStream.range(0, 10).mapToObj(i -> model()),
+      model -> "model" + modelNumber.incrementAndGet() + ".txt");
+
+    assertEquals(10, paths.size());
+    String expectedDocument = extract(model());
+    for (Path path : paths) {
+      assertEquals(outputDirectory.resolve("model" + (paths.indexOf(path) + 1) + ".txt"), path);
+      assertEquals(expectedDocument, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void throwsExceptionOfFailedExtraction() throws Exception {
+    BulkExtractor extractor = BulkExtractor.builder(engine)
+      .templateFileName("missing.ftl")
+      .outputDirectory(outputDirectory)
+      .parallelism(2)
+      .build();
+
+    try {
+      AtomicInteger modelNumber = new AtomicInteger();
+      extractor.extract(Stream.of(model(), model()), model -> "model" + modelNumber.incrementAndGet() + ".txt");
+      fail("Expected exception");
+    } catch (TemplateNotFoundException e) {
+      assertFalse(e.getMessage().isEmpty());
+    }
+  }
+
+  @Test
+  public void rejectsModelsWithSameOutputFile() throws Exception {
+    BulkExtractor extractor = BulkExtractor.builder(engine)
+      .templateFileName(TEMPLATE_FILE_NAME)
+      .outputDirectory(outputDirectory)
+      .parallelism(2)
+      .build();
+
+    try {
+      AtomicInteger modelNumber = new AtomicInteger();
+      extractor.extract(Stream.of(model(), model(), model()),
+        model -> modelNumber.incrementAndGet() == 3 ? "./model1.txt" : "model" + modelNumber.get() + ".txt");
+      fail("Expected exception");
+    } catch (IllegalArgumentException e) {
+      assertEquals(extract(model()), readFile("model1.txt"));
+      assertEquals(extract(model()), readFile("model2.txt"));
+    }
+  }
+
+  @Test
+  public void waitsForExtractionsIfFileNameFails() throws Exception {
+    BulkExtractor extractor = BulkExtractor.builder(engine)
+      .templateFileName(TEMPLATE_FILE_NAME)
+      .outputDirectory(outputDirectory)
+      .parallelism(2)
+      .build();
+
+    RuntimeException fileNameFailure = new RuntimeException();
+    try {
+      AtomicInteger modelNumber = new AtomicInteger();
+      extractor.extract(Stream.of(model(), model(), model()), model -> {
+        if (modelNumber.incrementAndGet() == 3) {
+          throw fileNameFailure;
+        }
+        return "model" + modelNumber.get() + ".txt";
+      });
+      fail("Expected exception");
+    } catch (RuntimeException e) {
+      assertSame(fileNameFailure, e);
+      assertEquals(extract(model()), readFile("model1.txt"));
+      assertEquals(extract(model()), readFile("model2.txt"));
+    }
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void throwsExceptionIfExecutorRejectsExtraction() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    BulkExtractor extractor = BulkExtractor.builder(engine)
+      .templateFileName(TEMPLATE_FILE_NAME)
+      .outputDirectory(outputDirectory)
+      .executor(executor)
+      .build();
+
+    extractor.extract(Stream.of(model()), model -> "model.txt");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void throwsExceptionIfOutputDirectoryIsMissing() {
+    BulkExtractor.builder(engine).templateFileName(TEMPLATE_FILE_NAME).build();
+  }
+
+  private Model model() {
+    return Model.builder().on(EntersName.class).system(new GreetsUser()).build();
+  }
+
+  private String readFile(String fileName) throws Exception {
+    return new String(Files.readAllBytes(outputDirectory.resolve(fileName)), StandardCharsets.UTF_8);
+  }
+
+  private String extract(Model model) throws Exception {
+    StringWriter outputWriter = new StringWriter();
+    engine.extract(model, TEMPLATE_FILE_NAME, outputWriter);
+    return outputWriter.toString();
+  }
+}
@@ -4,6 +4,11 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -23,6 +28,9 @@ import org.requirementsascode.extract.freemarker.systemreaction.Quits;
 import org.requirementsascode.extract.freemarker.usercommand.DecidesToQuit;
 import org.requirementsascode.extract.freemarker.usercommand.EntersName;
 
+import freemarker.template.Configuration;
+import freemarker.template.TemplateExceptionHandler;
+
 public class FreemarkerEngineTest {
   private FreeMarkerEngine engine;
 
@@ -117,6 +125,57 @@ public class FreemarkerEngineTest {
       + " Step: S4. On Exception: System logs exception.", output);
   }
 
+  @Test
+  public void extractsModelsInParallel() throws Exception {
+    Model model = Model.builder().on(entersName()).system(greetsUser()).condition(thereIsNoAlternative())
+      .on(entersName()).systemPublish(nameEntered()).build();
+    String templateFileName = "testextract_flowless.ftl";
+    StringWriter expectedOutputWriter = new StringWriter();
+    engine.extract(model, templateFileName, expectedOutputWriter);
+
+    Configuration sharedCfg = configuration();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> outputs = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        FreeMarkerEngine otherEngine = new FreeMarkerEngine(sharedCfg);
+        outputs.add(executor.submit(() -> extract(engine, model, templateFileName)));
+        outputs.add(executor.submit(() -> extract(otherEngine, model, templateFileName)));
+      }
+      for (Future<String> output : outputs) {
+        assertEquals(expectedOutputWriter.toString(), output.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void doesntChangeSharedConfiguration() throws Exception {
+    Configuration sharedCfg = configuration();
+    FreeMarkerEngine engineWithSharedCfg = new FreeMarkerEngine(sharedCfg);
+    engineWithSharedCfg.setDefaultEncoding("ISO-8859-1");
+    engineWithSharedCfg.setTemplateExceptionHandler(TemplateExceptionHandler.IGNORE_HANDLER);
+
+    assertEquals("UTF-8", sharedCfg.getDefaultEncoding());
+    assertEquals(TemplateExceptionHandler.RETHROW_HANDLER, sharedCfg.getTemplateExceptionHandler());
+    assertEquals("", extract(engineWithSharedCfg, Model.builder().build(), "testextract.ftl"));
+  }
+
+  private Configuration configuration() {
+    Configuration cfg = new Configuration(Configuration.VERSION_2_3_26);
+    cfg.setClassLoaderForTemplateLoading(getClass().getClassLoader(), "org/requirementsascode/extract/freemarker");
+    cfg.setDefaultEncoding("UTF-8");
+    cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+    return cfg;
+  }
+
+  private String extract(FreeMarkerEngine engine, Model model, String templateFileName) throws Exception {
+    StringWriter outputWriter = new StringWriter();
+    engine.extract(model, templateFileName, outputWriter);
+    return outputWriter.toString();
+  }
+
   private Condition thereIsNoAlternative() {
     return new ThereIsNoAlternative();
   }
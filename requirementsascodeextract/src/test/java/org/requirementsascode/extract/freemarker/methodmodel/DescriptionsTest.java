@@ -0,0 +1,50 @@
+package org.requirementsascode.extract.freemarker.methodmodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.requirementsascode.Model;
+import org.requirementsascode.Step;
+import org.requirementsascode.extract.freemarker.methodmodel.util.Descriptions;
+import org.requirementsascode.extract.freemarker.systemreaction.GreetsUser;
+import org.requirementsascode.extract.freemarker.usercommand.EntersName;
+
+import freemarker.template.SimpleScalar;
+
+public class DescriptionsTest {
+  private final AtomicInteger numberOfDescribedSteps = new AtomicInteger();
+  private final Descriptions<Step> descriptions = new Descriptions<>(step -> {
+    numberOfDescribedSteps.incrementAndGet();
+    return step.getName();
+  });
+
+  @Test
+  public void describesStepOnlyOnce() {
+    Step step = firstStepOf(model());
+
+    SimpleScalar description = descriptions.of(step);
+
+    assertEquals("S1", description.getAsString());
+    assertSame(description, descriptions.of(step));
+    assertEquals(1, numberOfDescribedSteps.get());
+  }
+
+  @Test
+  public void describesStepsWithSameNameOfDifferentModelsSeparately() {
+    descriptions.of(firstStepOf(model()));
+    descriptions.of(firstStepOf(model()));
+
+    assertEquals(2, numberOfDescribedSteps.get());
+  }
+
+  private Model model() {
+    return Model.builder().on(EntersName.class).system(new GreetsUser()).build();
+  }
+
+  private Step firstStepOf(Model model) {
+    return model.getSteps().iterator().next();
+  }
+}
@@ -0,0 +1,145 @@
+package org.requirementsascode.extract.incremental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.requirementsascode.Model;
+import org.requirementsascode.builder.ModelBuilder;
+import org.requirementsascode.extract.freemarker.systemreaction.GreetsUser;
+import org.requirementsascode.extract.freemarker.systemreaction.Quits;
+import org.requirementsascode.extract.freemarker.usercommand.EntersName;
+import org.requirementsascode.extract.renderer.ModelRenderer;
+
+public class IncrementalExtractorTest {
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path outputDirectory;
+  private IncrementalExtractor extractor;
+
+  @Before
+  public void setUp() throws Exception {
+    outputDirectory = temporaryFolder.getRoot().toPath().resolve("docs");
+    extractor = IncrementalExtractor.builder(ModelRenderer.markdown())
+      .outputDirectory(outputDirectory)
+      .build();
+  }
+
+  @Test
+  public void rendersAllUseCasesAtFirstExtraction() throws Exception {
+    ExtractionResult result = extractor.extract(model("UC1", "UC2"), useCase -> useCase.getName() + ".md");
+
+    assertEquals(Arrays.asList(file("UC1.md"), file("UC2.md")), result.getRenderedFiles());
+    assertTrue(result.getUnchangedFiles().isEmpty());
+    assertEquals("# Use case: UC1\n\n## Basic flow\n\n- **S1**: User enters name.System greets user.\n\n",
+      contentOf("UC1.md"));
+  }
+
+  @Test
+  public void rendersOnlyChangedUseCases() throws Exception {
+    extractor.extract(model("UC1", "UC2"), useCase -> useCase.getName() + ".md");
+
+    ModelBuilder modelBuilder = Model.builder();
+    addUseCase(modelBuilder, "UC1");
+    modelBuilder.useCase("UC2")
+      .basicFlow()
+        .step("S1").user(EntersName.class).system(new GreetsUser())
+        .step("S2").system(new Quits());
+    ExtractionResult result = extractor.extract(modelBuilder.build(), useCase -> useCase.getName() + ".md");
+
+    assertEquals(Collections.singletonList(file("UC2.md")), result.getRenderedFiles());
+    assertEquals(Collections.singletonList(file("UC1.md")), result.getUnchangedFiles());
+    assertTrue(contentOf("UC2.md").endsWith("- **S2**: System quits.\n\n"));
+  }
+
+  @Test
+  public void deletesFilesOfRemovedUseCases() throws Exception {
+    extractor.extract(model("UC1", "UC2"), useCase -> useCase.getName() + ".md");
+
+    ExtractionResult result = extractor.extract(model("UC1"), useCase -> useCase.getName() + ".md");
+
+    assertEquals(Collections.singletonList(file("UC2.md")), result.getDeletedFiles());
+    assertFalse(Files.exists(file("UC2.md")));
+    assertTrue(Files.exists(file("UC1.md")));
+  }
+
+  @Test
+  public void rendersUseCaseAgainIfFileIsMissing() throws Exception {
+    extractor.extract(model("UC1"), useCase -> useCase.getName() + ".md");
+    Files.delete(file("UC1.md"));
+
+    ExtractionResult result = extractor.extract(model("UC1"), useCase -> useCase.getName() + ".md");
+
+    assertEquals(Collections.singletonList(file("UC1.md")), result.getRenderedFiles());
+  }
+
+  @Test
+  public void rendersAllUseCasesAgainWithOtherRenderer() throws Exception {
+    extractor.extract(model("UC1"), useCase -> useCase.getName() + ".txt");
+    IncrementalExtractor htmlExtractor = IncrementalExtractor.builder(ModelRenderer.html())
+      .outputDirectory(outputDirectory)
+      .build();
+
+    ExtractionResult result = htmlExtractor.extract(model("UC1"), useCase -> useCase.getName() + ".txt");
+
+    assertEquals(Collections.singletonList(file("UC1.txt")), result.getRenderedFiles());
+    assertTrue(contentOf("UC1.txt").startsWith("<h1>"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void throwsExceptionIfUseCasesHaveSameFileName() throws Exception {
+    extractor.extract(model("UC1", "UC2"), useCase -> "same.md");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void throwsExceptionIfFileIsOutsideOfOutputDirectory() throws Exception {
+    extractor.extract(model("UC1"), useCase -> "../" + useCase.getName() + ".md");
+  }
+
+  @Test
+  public void doesntDeleteFileOutsideOfOutputDirectoryThatIsInCacheFile() throws Exception {
+    extractor.extract(model("UC1"), useCase -> useCase.getName() + ".md");
+    Path outsideFile = Files.write(temporaryFolder.getRoot().toPath().resolve("outside.md"), new byte[0]);
+    Files.write(file(".fingerprints"), "../outside.md=fingerprint\n".getBytes(StandardCharsets.ISO_8859_1),
+      StandardOpenOption.APPEND);
+
+    ExtractionResult result = extractor.extract(model("UC1"), useCase -> useCase.getName() + ".md");
+
+    assertTrue(result.getDeletedFiles().isEmpty());
+    assertTrue(Files.exists(outsideFile));
+  }
+
+  private Model model(String... useCaseNames) {
+    ModelBuilder modelBuilder = Model.builder();
+    for (String useCaseName : useCaseNames) {
+      addUseCase(modelBuilder, useCaseName);
+    }
+    return modelBuilder.build();
+  }
+
+  private void addUseCase(ModelBuilder modelBuilder, String useCaseName) {
+    modelBuilder.useCase(useCaseName)
+      .basicFlow()
+        .step("S1").user(EntersName.class).system(new GreetsUser());
+  }
+
+  private Path file(String fileName) {
+    return outputDirectory.resolve(fileName);
+  }
+
+  private String contentOf(String fileName) throws Exception {
+    return new String(Files.readAllBytes(file(fileName)), StandardCharsets.UTF_8);
+  }
+}
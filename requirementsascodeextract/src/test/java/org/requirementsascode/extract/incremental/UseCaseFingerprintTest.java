@@ -0,0 +1,87 @@
+package org.requirementsascode.extract.incremental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+import org.requirementsascode.Actor;
+import org.requirementsascode.Model;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.builder.UseCasePart;
+import org.requirementsascode.extract.freemarker.systemreaction.PromptsUserToEnterName;
+import org.requirementsascode.extract.freemarker.usercommand.DecidesToQuit;
+import org.requirementsascode.extract.freemarker.usercommand.EntersName;
+
+public class UseCaseFingerprintTest {
+  @Test
+  public void isSameForUseCasesWithSameStructure() {
+    String fingerprint = UseCaseFingerprint.of(useCase("Customer", EntersName.class, "S1", "S2"));
+    String otherFingerprint = UseCaseFingerprint.of(useCase("Customer", EntersName.class, "S1", "S2"));
+
+    assertEquals(64, fingerprint.length());
+    assertEquals(fingerprint, otherFingerprint);
+  }
+
+  @Test
+  public void changesWithActor() {
+    String fingerprint = UseCaseFingerprint.of(useCase("Customer", EntersName.class, "S1", "S2"));
+    String otherFingerprint = UseCaseFingerprint.of(useCase("Admin", EntersName.class, "S1", "S2"));
+
+    assertNotEquals(fingerprint, otherFingerprint);
+  }
+
+  @Test
+  public void changesWithMessageClass() {
+    String fingerprint = UseCaseFingerprint.of(useCase("Customer", EntersName.class, "S1", "S2"));
+    String otherFingerprint = UseCaseFingerprint.of(useCase("Customer", DecidesToQuit.class, "S1", "S2"));
+
+    assertNotEquals(fingerprint, otherFingerprint);
+  }
+
+  @Test
+  public void changesWithFlowPosition() {
+    String fingerprint = UseCaseFingerprint.of(useCase("Customer", EntersName.class, "S1", "S2"));
+    String otherFingerprint = UseCaseFingerprint.of(useCase("Customer", EntersName.class, "S2", "S2"));
+
+    assertNotEquals(fingerprint, otherFingerprint);
+  }
+
+  @Test
+  public void changesWithContinuesAtTarget() {
+    String fingerprint = UseCaseFingerprint.of(useCase("Customer", EntersName.class, "S1", "S2"));
+    String otherFingerprint = UseCaseFingerprint.of(useCase("Customer", EntersName.class, "S1", "S1"));
+
+    assertNotEquals(fingerprint, otherFingerprint);
+  }
+
+  @Test
+  public void doesntChangeWhenModelIsResolved() {
+    Model model = useCasePart("Customer", EntersName.class, "S1", "S2a_1").buildLazily();
+    String fingerprint = UseCaseFingerprint.of(model.findUseCase("Get greeted"));
+
+    model.findUseCase("Get greeted").resolve();
+    String fingerprintOfResolvedModel = UseCaseFingerprint.of(model.findUseCase("Get greeted"));
+
+    assertEquals(fingerprint, fingerprintOfResolvedModel);
+  }
+
+  private UseCase useCase(String actorName, Class<?> messageClass, String insteadOfStepName,
+    String continueAtStepName) {
+    Model model = useCasePart(actorName, messageClass, insteadOfStepName, continueAtStepName).build();
+    return model.findUseCase("Get greeted");
+  }
+
+  private UseCasePart useCasePart(String actorName, Class<?> messageClass, String insteadOfStepName,
+    String continueAtStepName) {
+    Actor actor = new Actor(actorName);
+
+    return Model.builder()
+      .useCase("Get greeted")
+        .basicFlow()
+          .step("S1").system(new PromptsUserToEnterName())
+          .step("S2").as(actor).user(messageClass).system(new PromptsUserToEnterName())
+        .flow("Alternative flow").insteadOf(insteadOfStepName)
+          .step("S2a_1").system(new PromptsUserToEnterName())
+          .step("S2a_2").continuesAt(continueAtStepName);
+  }
+}
@@ -0,0 +1,153 @@
+package org.requirementsascode.extract.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.requirementsascode.Actor;
+import org.requirementsascode.Condition;
+import org.requirementsascode.Model;
+import org.requirementsascode.extract.freemarker.predicate.ThereIsNoAlternative;
+import org.requirementsascode.extract.freemarker.systemreaction.GreetsUser;
+import org.requirementsascode.extract.freemarker.systemreaction.LogsException;
+import org.requirementsascode.extract.freemarker.systemreaction.NameEntered;
+import org.requirementsascode.extract.freemarker.systemreaction.Quits;
+import org.requirementsascode.extract.freemarker.usercommand.EntersName;
+
+public class ModelRendererTest {
+  @Test
+  public void rendersEmptyModel() {
+    Model model = Model.builder().build();
+
+    assertEquals("", ModelRenderer.markdown().render(model));
+    assertEquals("", ModelRenderer.html().render(model));
+    assertEquals("{\"useCases\":[]}", ModelRenderer.json().render(model));
+  }
+
+  @Test
+  public void rendersUseCaseModelAsMarkdown() {
+    String output = ModelRenderer.markdown().render(useCaseModel());
+
+    assertEquals("# Use case: Get greeted\n"
+      + "\n## Basic flow\n"
+      + "\n- **S1**: As First actor: User enters name.System greets user.\n"
+      + "- **S2**: In case there is no alternative, System quits.\n"
+      + "\n## Alternative flow\n"
+      + "\nInstead of S2:\n"
+      + "\n- **S2a\\_1**: System continues at S1.\n\n", output);
+  }
+
+  @Test
+  public void rendersUseCaseModelAsHtml() {
+    String output = ModelRenderer.html().render(useCaseModel());
+
+    assertEquals("<h1>Use case: Get greeted</h1>\n"
+      + "<h2>Basic flow</h2>\n"
+      + "<ul>\n"
+      + "<li><b>S1</b>: As First actor: User enters name.System greets user.</li>\n"
+      + "<li><b>S2</b>: In case there is no alternative, System quits.</li>\n"
+      + "</ul>\n"
+      + "<h2>Alternative flow</h2>\n"
+      + "<p>Instead of S2:</p>\n"
+      + "<ul>\n"
+      + "<li><b>S2a_1</b>: System continues at S1.</li>\n"
+      + "</ul>\n", output);
+  }
+
+  @Test
+  public void rendersUseCaseModelAsJson() {
+    String output = ModelRenderer.json().render(useCaseModel());
+
+    assertEquals("{\"useCases\":[{\"name\":\"Get greeted\",\"flows\":["
+      + "{\"name\":\"Basic flow\",\"condition\":\"\",\"steps\":["
+      + "{\"name\":\"S1\",\"description\":\"As First actor: User enters name.System greets user.\"},"
+      + "{\"name\":\"S2\",\"description\":\"In case there is no alternative, System quits.\"}]},"
+      + "{\"name\":\"Alternative flow\",\"condition\":\"Instead of S2:\",\"steps\":["
+      + "{\"name\":\"S2a_1\",\"description\":\"System continues at S1.\"}]}],"
+      + "\"steps\":[]}]}", output);
+  }
+
+  @Test
+  public void rendersFlowlessModelAsMarkdown() {
+    String output = ModelRenderer.markdown().render(flowlessModel());
+
+    assertEquals("# Use case: Handles messages\n"
+      + "\n- **S1**: On EntersName: System greets user.\n"
+      + "- **S2**: When there is no alternative: On EntersName: System publishes name entered.\n"
+      + "- **S3**: On Exception: System logs exception.\n\n", output);
+  }
+
+  @Test
+  public void rendersFlowlessModelAsJson() {
+    String output = ModelRenderer.json().render(flowlessModel());
+
+    assertEquals("{\"useCases\":[{\"name\":\"Handles messages\",\"flows\":[],\"steps\":["
+      + "{\"name\":\"S1\",\"description\":\"On EntersName: System greets user.\"},"
+      + "{\"name\":\"S2\",\"description\":\"When there is no alternative: On EntersName: System publishes name entered.\"},"
+      + "{\"name\":\"S3\",\"description\":\"On Exception: System logs exception.\"}]}]}", output);
+  }
+
+  @Test
+  public void escapesNames() {
+    Model model = Model.builder()
+      .useCase("Say \"<hello>\" & \\ goodbye")
+        .basicFlow()
+          .step("S1").system(quits())
+      .build();
+
+    assertEquals("# Use case: Say \"\\<hello>\" & \\\\ goodbye\n\n## Basic flow\n\n- **S1**: System quits.\n\n",
+      ModelRenderer.markdown().render(model));
+    assertTrue(ModelRenderer.html().render(model)
+      .startsWith("<h1>Use case: Say &quot;&lt;hello&gt;&quot; &amp; \\ goodbye</h1>\n"));
+    assertTrue(ModelRenderer.json().render(model)
+      .startsWith("{\"useCases\":[{\"name\":\"Say \\\"<hello>\\\" & \\\\ goodbye\","));
+  }
+
+  private Model useCaseModel() {
+    Actor firstActor = new Actor("First actor");
+
+    return Model.builder()
+      .useCase("Get greeted")
+        .basicFlow()
+          .step("S1").as(firstActor).user(entersName()).system(greetsUser())
+          .step("S2").inCase(thereIsNoAlternative()).system(quits())
+        .flow("Alternative flow").insteadOf("S2")
+          .step("S2a_1").continuesAt("S1")
+      .build();
+  }
+
+  private Model flowlessModel() {
+    return Model.builder()
+      .on(entersName()).system(greetsUser())
+      .condition(thereIsNoAlternative()).on(entersName()).systemPublish(nameEntered())
+      .on(Exception.class).system(logsException())
+      .build();
+  }
+
+  private Condition thereIsNoAlternative() {
+    return new ThereIsNoAlternative();
+  }
+
+  private Class<EntersName> entersName() {
+    return EntersName.class;
+  }
+
+  private Function<EntersName, String> nameEntered() {
+    return new NameEntered();
+  }
+
+  private Consumer<EntersName> greetsUser() {
+    return new GreetsUser();
+  }
+
+  private Runnable quits() {
+    return new Quits();
+  }
+
+  private Consumer<Exception> logsException() {
+    return new LogsException();
+  }
+}
@@ -0,0 +1,13 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.requirementsascode.InfiniteRepetition")
+@Label("Infinite Repetition")
+@Category("Requirements as Code")
+@Description("A model runner has detected an infinite repetition of steps")
+class InfiniteRepetitionEvent extends StepEvent {
+}
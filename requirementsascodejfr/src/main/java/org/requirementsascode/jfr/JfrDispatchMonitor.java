@@ -0,0 +1,117 @@
+package org.requirementsascode.jfr;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.requirementsascode.DispatchMonitor;
+import org.requirementsascode.Step;
+
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Dispatch monitor that emits a flight recorder event for each dispatched
+ * message, step run, unhandled message, exception thrown by a system reaction
+ * and infinite repetition.
+ *
+ * <p>
+ * The fields of an event are only filled in if it will be committed, i.e. if
+ * the event is enabled in the recording and lasted longer than its threshold.
+ * Only use this class after checking that the flight recorder is available, see
+ * {@link JfrMonitoring}.
+ *
+ * @author b_muth
+ */
+class JfrDispatchMonitor implements DispatchMonitor {
+  private static final List<Class<? extends Event>> EVENT_CLASSES = Arrays.asList(MessageDispatchEvent.class,
+    StepRunEvent.class, UnhandledMessageEvent.class, SystemReactionExceptionEvent.class,
+    InfiniteRepetitionEvent.class);
+
+  /**
+   * Registers the events up front, so that recordings know them before they
+   * occur. This also initializes the event classes while there is enough stack
+   * left: an infinite repetition is reported right after a stack overflow.
+   */
+  JfrDispatchMonitor() {
+    for (Class<? extends Event> eventClass : EVENT_CLASSES) {
+      FlightRecorder.register(eventClass);
+    }
+  }
+
+  @Override
+  public Object dispatchStarted(Object message) {
+    MessageDispatchEvent event = new MessageDispatchEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void dispatchEnded(Object dispatch, Object message, Step step) {
+    if (dispatch == null) {
+      return;
+    }
+    MessageDispatchEvent event = (MessageDispatchEvent) dispatch;
+    event.end();
+    if (event.shouldCommit()) {
+      event.messageClass = message.getClass();
+      event.setStep(step);
+      event.commit();
+    }
+  }
+
+  @Override
+  public Object stepStarted(Step step, Object message) {
+    StepRunEvent event = new StepRunEvent();
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public void stepEnded(Object stepRun, Step step, Object message) {
+    if (stepRun == null) {
+      return;
+    }
+    StepRunEvent event = (StepRunEvent) stepRun;
+    event.end();
+    if (event.shouldCommit()) {
+      event.messageClass = message != null ? message.getClass() : step.getMessageClass();
+      event.setStep(step);
+      event.commit();
+    }
+  }
+
+  @Override
+  public void messageUnhandled(Object message) {
+    UnhandledMessageEvent event = new UnhandledMessageEvent();
+    if (event.shouldCommit()) {
+      event.messageClass = message.getClass();
+      event.commit();
+    }
+  }
+
+  @Override
+  public void exceptionThrown(Step step, Exception exception) {
+    SystemReactionExceptionEvent event = new SystemReactionExceptionEvent();
+    if (event.shouldCommit()) {
+      event.setStep(step);
+      event.exceptionClass = exception.getClass();
+      event.exceptionMessage = exception.getMessage();
+      event.commit();
+    }
+  }
+
+  @Override
+  public void infiniteRepetition(Step step) {
+    InfiniteRepetitionEvent event = new InfiniteRepetitionEvent();
+    if (event.shouldCommit()) {
+      event.setStep(step);
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package org.requirementsascode.jfr;
+
+import org.requirementsascode.DispatchMonitor;
+
+/**
+ * Creates dispatch monitors that emit Java Flight Recorder events, if the
+ * flight recorder is available in the running JVM (JDK 11 or later, or JDK 8
+ * update 272 or later).
+ *
+ * <p>
+ * Use it like this:
+ * 
+ * <pre>
+ * modelRunner.monitorWith(JfrMonitoring.dispatchMonitor());
+ * </pre>
+ * 
+ * The events are recorded when a recording is started, e.g. with
+ * -XX:StartFlightRecording, and are listed in the category "Requirements as
+ * Code". When the flight recorder isn't available, none of the event classes
+ * is loaded.
+ *
+ * @author b_muth
+ */
+public final class JfrMonitoring {
+  private static final String FLIGHT_RECORDER_CLASS_NAME = "jdk.jfr.FlightRecorder";
+
+  private JfrMonitoring() {
+  }
+
+  /**
+   * Returns whether the flight recorder is available in the running JVM.
+   *
+   * @return true if it is available, false otherwise
+   */
+  public static boolean isAvailable() {
+    try {
+      Class<?> flightRecorderClass = Class.forName(FLIGHT_RECORDER_CLASS_NAME, false,
+        JfrMonitoring.class.getClassLoader());
+      return (Boolean) flightRecorderClass.getMethod("isAvailable").invoke(null);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns a dispatch monitor that emits flight recorder events, or
+   * {@link DispatchMonitor#NONE} if the flight recorder isn't available.
+   *
+   * @return the dispatch monitor
+   */
+  public static DispatchMonitor dispatchMonitor() {
+    return isAvailable() ? new JfrDispatchMonitor() : DispatchMonitor.NONE;
+  }
+}
@@ -0,0 +1,17 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.requirementsascode.MessageDispatch")
+@Label("Message Dispatch")
+@Category("Requirements as Code")
+@Description("A model runner has reacted to a message, including the autonomous system reactions that followed")
+@StackTrace(false)
+class MessageDispatchEvent extends StepEvent {
+  @Label("Message Class")
+  Class<?> messageClass;
+}
@@ -0,0 +1,34 @@
+package org.requirementsascode.jfr;
+
+import org.requirementsascode.FlowStep;
+import org.requirementsascode.Step;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base class of the events that refer to a step.
+ *
+ * @author b_muth
+ */
+abstract class StepEvent extends Event {
+  @Label("Step")
+  String stepName;
+
+  @Label("Use Case")
+  String useCase;
+
+  @Label("Flow")
+  String flow;
+
+  void setStep(Step step) {
+    if (step == null) {
+      return;
+    }
+    stepName = step.getName();
+    useCase = step.getUseCase().getName();
+    if (step instanceof FlowStep) {
+      flow = ((FlowStep) step).getFlow().getName();
+    }
+  }
+}
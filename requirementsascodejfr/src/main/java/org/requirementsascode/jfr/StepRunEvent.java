@@ -0,0 +1,17 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.requirementsascode.StepRun")
+@Label("Step Run")
+@Category("Requirements as Code")
+@Description("A model runner has run the system reaction of a step")
+@StackTrace(false)
+class StepRunEvent extends StepEvent {
+  @Label("Message Class")
+  Class<?> messageClass;
+}
@@ -0,0 +1,18 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.requirementsascode.SystemReactionException")
+@Label("System Reaction Exception")
+@Category("Requirements as Code")
+@Description("The system reaction of a step has thrown an exception, that the model runner handles")
+class SystemReactionExceptionEvent extends StepEvent {
+  @Label("Exception Class")
+  Class<?> exceptionClass;
+
+  @Label("Exception Message")
+  String exceptionMessage;
+}
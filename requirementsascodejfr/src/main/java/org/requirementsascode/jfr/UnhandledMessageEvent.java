@@ -0,0 +1,16 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.requirementsascode.UnhandledMessage")
+@Label("Unhandled Message")
+@Category("Requirements as Code")
+@Description("No step of the model has reacted to a message")
+class UnhandledMessageEvent extends Event {
+  @Label("Message Class")
+  Class<?> messageClass;
+}
@@ -0,0 +1,8 @@
+/**
+ * Java Flight Recorder package of requirementsascode, containing a dispatch
+ * monitor that emits flight recorder events for the messages a model runner
+ * dispatches and the steps it runs.
+ * 
+ * @author b_muth
+ */
+package org.requirementsascode.jfr;
@@ -0,0 +1,149 @@
+package org.requirementsascode.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.exception.InfiniteRepetition;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrDispatchMonitorTest {
+  private static final String USE_CASE = "Use case";
+  private static final String ENTERS_TEXT = "Customer enters text";
+  private static final String DISPLAYS_TEXT = "System displays text";
+  private static final String HANDLES_EXCEPTION = "System handles exception";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private ModelRunner modelRunner;
+
+  @Before
+  public void setUp() {
+    assumeTrue(JfrMonitoring.isAvailable());
+    modelRunner = new ModelRunner().monitorWith(JfrMonitoring.dispatchMonitor());
+  }
+
+  @Test
+  public void recordsDispatchAndStepRunEvents() throws IOException {
+    Model model = Model.builder()
+      .useCase(USE_CASE)
+        .basicFlow()
+          .step(ENTERS_TEXT).user(String.class).system(text -> {})
+          .step(DISPLAYS_TEXT).system(() -> {})
+      .build();
+
+    List<RecordedEvent> events = record(() -> modelRunner.run(model).reactTo("Hello"));
+
+    List<RecordedEvent> dispatchEvents = eventsNamed(events, "org.requirementsascode.MessageDispatch");
+    assertEquals(1, dispatchEvents.size());
+    RecordedEvent dispatchEvent = dispatchEvents.get(0);
+    assertEquals(String.class.getName(), dispatchEvent.getClass("messageClass").getName());
+    assertEquals(ENTERS_TEXT, dispatchEvent.getString("stepName"));
+    assertEquals(USE_CASE, dispatchEvent.getString("useCase"));
+    assertEquals("Basic flow", dispatchEvent.getString("flow"));
+
+    List<String> stepNames = eventsNamed(events, "org.requirementsascode.StepRun").stream()
+      .map(event -> event.getString("stepName"))
+      .collect(Collectors.toList());
+    assertEquals(2, stepNames.size());
+    assertTrue(stepNames.contains(ENTERS_TEXT));
+    assertTrue(stepNames.contains(DISPLAYS_TEXT));
+  }
+
+  @Test
+  public void recordsUnhandledMessageEvent() throws IOException {
+    Model model = Model.builder()
+      .on(String.class).system(text -> {})
+      .build();
+
+    List<RecordedEvent> events = record(() -> modelRunner.run(model).reactTo(42));
+
+    List<RecordedEvent> unhandledEvents = eventsNamed(events, "org.requirementsascode.UnhandledMessage");
+    assertEquals(1, unhandledEvents.size());
+    assertEquals(Integer.class.getName(), unhandledEvents.get(0).getClass("messageClass").getName());
+    assertNull(eventsNamed(events, "org.requirementsascode.MessageDispatch").get(0).getString("stepName"));
+  }
+
+  @Test
+  public void recordsSystemReactionExceptionEvent() throws IOException {
+    Model model = Model.builder()
+      .useCase(USE_CASE)
+        .basicFlow()
+          .step(ENTERS_TEXT).user(String.class).system(text -> {
+            throw new IllegalStateException("Can't display " + text);
+          })
+        .flow("Exception flow").anytime()
+          .step(HANDLES_EXCEPTION).on(IllegalStateException.class).system(exception -> {})
+      .build();
+
+    List<RecordedEvent> events = record(() -> modelRunner.run(model).reactTo("Hello"));
+
+    List<RecordedEvent> exceptionEvents = eventsNamed(events, "org.requirementsascode.SystemReactionException");
+    assertEquals(1, exceptionEvents.size());
+    RecordedEvent exceptionEvent = exceptionEvents.get(0);
+    assertEquals(ENTERS_TEXT, exceptionEvent.getString("stepName"));
+    assertEquals(IllegalStateException.class.getName(), exceptionEvent.getClass("exceptionClass").getName());
+    assertEquals("Can't display Hello", exceptionEvent.getString("exceptionMessage"));
+  }
+
+  @Test
+  public void recordsInfiniteRepetitionEvent() throws IOException {
+    Model model = Model.builder()
+      .condition(() -> true).step("S1").system(() -> {})
+      .build();
+
+    List<RecordedEvent> events = record(() -> {
+      try {
+        modelRunner.run(model);
+      } catch (InfiniteRepetition e) {
+      }
+    });
+
+    List<RecordedEvent> repetitionEvents = eventsNamed(events, "org.requirementsascode.InfiniteRepetition");
+    assertTrue(repetitionEvents.size() >= 1);
+    assertEquals("S1", repetitionEvents.get(0).getString("stepName"));
+  }
+
+  @Test
+  public void doesntStartEventsWithoutRecording() {
+    assertNull(JfrMonitoring.dispatchMonitor().dispatchStarted("Hello"));
+  }
+
+  private List<RecordedEvent> record(Runnable runnable) throws IOException {
+    Path recordingFile = temporaryFolder.getRoot().toPath().resolve("recording.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(MessageDispatchEvent.class);
+      recording.enable(StepRunEvent.class);
+      recording.enable(UnhandledMessageEvent.class);
+      recording.enable(SystemReactionExceptionEvent.class);
+      recording.enable(InfiniteRepetitionEvent.class);
+      recording.start();
+      runnable.run();
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+    return RecordingFile.readAllEvents(recordingFile);
+  }
+
+  private List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String eventName) {
+    return events.stream()
+      .filter(event -> eventName.equals(event.getEventType().getName()))
+      .collect(Collectors.toList());
+  }
+}
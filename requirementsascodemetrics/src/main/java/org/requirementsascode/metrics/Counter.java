@@ -0,0 +1,21 @@
+package org.requirementsascode.metrics;
+
+/**
+ * A counter that is only ever incremented, e.g. the number of messages a runner
+ * has reacted to.
+ *
+ * @author b_muth
+ */
+public interface Counter {
+  /**
+   * Increments the counter by one.
+   */
+  void increment();
+
+  /**
+   * Returns the current count.
+   *
+   * @return the count
+   */
+  double count();
+}
@@ -0,0 +1,85 @@
+package org.requirementsascode.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.requirementsascode.queue.EventQueue;
+import org.requirementsascode.queue.EventQueueListener;
+
+/**
+ * Records statistics of event queues in a meter registry:
+ * <ul>
+ * <li>{@value #SIZE}: gauge of the number of events that haven't been consumed
+ * yet, see {@link #monitor(EventQueue, MeterRegistry, String...)}.</li>
+ * <li>{@value #PUT}: counter of the events put into the queue.</li>
+ * <li>{@value #WAIT}: timer of the times events waited in the queue.</li>
+ * <li>{@value #PROCESSING}: timer of the times the consumer took.</li>
+ * <li>{@value #HIGH_WATERMARK}: gauge of the highest number of events that
+ * have been in the queue at the same time.</li>
+ * </ul>
+ * All but the size are recorded by the listener returned by
+ * {@link #listener(MeterRegistry, String...)}, that must be passed to the
+ * constructor of the queue.
+ *
+ * <p>
+ * The tags must be unique per queue. Queues with the same tags share the
+ * counter and timers, but the gauges only report the queue that was registered
+ * first, because a meter registry ignores the value of a gauge that is
+ * registered again.
+ *
+ * @author b_muth
+ */
+public class EventQueueMetrics {
+  public static final String SIZE = "requirementsascode.queue.size";
+  public static final String PUT = "requirementsascode.queue.put";
+  public static final String WAIT = "requirementsascode.queue.wait";
+  public static final String PROCESSING = "requirementsascode.queue.processing";
+  public static final String HIGH_WATERMARK = "requirementsascode.queue.high.watermark";
+
+  private EventQueueMetrics() {
+  }
+
+  /**
+   * Registers a gauge for the size of the specified event queue.
+   *
+   * @param eventQueue    the event queue
+   * @param meterRegistry the meter registry
+   * @param tags          key/value pairs of the gauge, unique per queue, e.g.
+   *                      the name of the queue
+   */
+  public static void monitor(EventQueue eventQueue, MeterRegistry meterRegistry, String... tags) {
+    meterRegistry.gauge(SIZE, eventQueue::getSize, tags);
+  }
+
+  /**
+   * Creates a listener that records the throughput, wait and processing times
+   * and high watermark of an event queue. Pass it to
+   * {@link EventQueue#EventQueue(java.util.function.Consumer, EventQueueListener)}.
+   *
+   * @param meterRegistry the meter registry
+   * @param tags          key/value pairs of the meters, unique per queue, e.g.
+   *                      the name of the queue
+   * @return the listener
+   */
+  public static EventQueueListener listener(MeterRegistry meterRegistry, String... tags) {
+    Counter putCounter = meterRegistry.counter(PUT, tags);
+    Timer waitTimer = meterRegistry.timer(WAIT, tags);
+    Timer processingTimer = meterRegistry.timer(PROCESSING, tags);
+    LongAccumulator highWatermark = new LongAccumulator(Math::max, 0);
+    meterRegistry.gauge(HIGH_WATERMARK, highWatermark::get, tags);
+
+    return new EventQueueListener() {
+      @Override
+      public void eventPut(Object event, int size) {
+        putCounter.increment();
+        highWatermark.accumulate(size);
+      }
+
+      @Override
+      public void eventConsumed(Object event, long waitNanos, long processingNanos) {
+        waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+        processingTimer.record(processingNanos, TimeUnit.NANOSECONDS);
+      }
+    };
+  }
+}
@@ -0,0 +1,16 @@
+package org.requirementsascode.metrics;
+
+/**
+ * A gauge that samples a current value when it is read, e.g. the size of an
+ * event queue.
+ *
+ * @author b_muth
+ */
+public interface Gauge {
+  /**
+   * Returns the current value.
+   *
+   * @return the value
+   */
+  double value();
+}
@@ -0,0 +1,63 @@
+package org.requirementsascode.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Identifies a meter by name and tags. The order of the tags doesn't matter.
+ *
+ * @author b_muth
+ */
+class MeterId {
+  private final String name;
+  private final Map<String, String> tags;
+
+  MeterId(String name, String... tags) {
+    this.name = Objects.requireNonNull(name);
+    this.tags = toMap(tags);
+  }
+
+  private static Map<String, String> toMap(String[] tags) {
+    if (tags.length % 2 != 0) {
+      throw new IllegalArgumentException("Tags must be key/value pairs, but were " + Arrays.toString(tags));
+    }
+    Map<String, String> tagMap = new TreeMap<>();
+    for (int i = 0; i < tags.length; i += 2) {
+      tagMap.put(Objects.requireNonNull(tags[i]), Objects.requireNonNull(tags[i + 1]));
+    }
+    return tagMap;
+  }
+
+  /**
+   * Returns the specified tags, followed by the additional tags.
+   */
+  static String[] concat(String[] tags, String... additionalTags) {
+    String[] allTags = Arrays.copyOf(tags, tags.length + additionalTags.length);
+    System.arraycopy(additionalTags, 0, allTags, tags.length, additionalTags.length);
+    return allTags;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * name.hashCode() + tags.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MeterId)) {
+      return false;
+    }
+    MeterId other = (MeterId) obj;
+    return name.equals(other.name) && tags.equals(other.tags);
+  }
+
+  @Override
+  public String toString() {
+    return name + tags;
+  }
+}
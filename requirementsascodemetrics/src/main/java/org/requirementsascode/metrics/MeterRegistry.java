@@ -0,0 +1,55 @@
+package org.requirementsascode.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Creates and holds meters, identified by name and tags. Tags are key/value
+ * pairs, e.g. "useCase", "Buy product".
+ *
+ * <p>
+ * Asking twice for a meter with the same name and tags returns the same meter.
+ * Implementations must be thread-safe. Use {@link SimpleMeterRegistry} to keep
+ * meters in memory, or
+ * {@link org.requirementsascode.metrics.micrometer.MicrometerMeterRegistry} to
+ * publish them to a monitoring system via Micrometer.
+ *
+ * @author b_muth
+ */
+public interface MeterRegistry {
+  /**
+   * Returns the counter with the specified name and tags, and creates it if
+   * necessary.
+   *
+   * @param name the name of the counter
+   * @param tags key/value pairs
+   * @return the counter
+   * @throws IllegalArgumentException if there is an odd number of tags
+   */
+  Counter counter(String name, String... tags);
+
+  /**
+   * Returns the timer with the specified name and tags, and creates it if
+   * necessary.
+   *
+   * @param name the name of the timer
+   * @param tags key/value pairs
+   * @return the timer
+   * @throws IllegalArgumentException if there is an odd number of tags
+   */
+  Timer timer(String name, String... tags);
+
+  /**
+   * Returns the gauge with the specified name and tags, and creates it with the
+   * specified value supplier if necessary. The registry keeps a reference to the
+   * supplier. If there already is a gauge with the name and tags, the specified
+   * supplier is ignored, so use tags that are unique to the object the supplier
+   * samples.
+   *
+   * @param name  the name of the gauge
+   * @param value supplies the current value of the gauge
+   * @param tags  key/value pairs
+   * @return the gauge
+   * @throws IllegalArgumentException if there is an odd number of tags
+   */
+  Gauge gauge(String name, DoubleSupplier value, String... tags);
+}
@@ -0,0 +1,138 @@
+package org.requirementsascode.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.requirementsascode.DispatchMonitor;
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.Step;
+
+/**
+ * Records statistics of model runners in a meter registry:
+ * <ul>
+ * <li>{@value #DISPATCH}: timer of the messages the runners have reacted to,
+ * tagged with the message class. Its count is the number of messages, its rate
+ * the messages per second.</li>
+ * <li>{@value #STEP}: timer of the steps run, tagged with use case and
+ * step.</li>
+ * <li>{@value #UNHANDLED}: counter of the messages no step reacted to, tagged
+ * with the message class. These are the messages passed to the handler defined
+ * with {@link ModelRunner#handleUnhandledWith(java.util.function.Consumer)}, if
+ * there is one.</li>
+ * <li>{@value #EXCEPTIONS}: counter of the exceptions thrown by system
+ * reactions, tagged with use case, step and exception class.</li>
+ * <li>{@value #INFINITE_REPETITIONS}: counter of the infinite repetitions
+ * detected.</li>
+ * </ul>
+ * The time of a message includes the autonomous system reactions that followed
+ * it. All meters are tagged with the common tags specified when creating the
+ * metrics, e.g. the name of the model.
+ *
+ * <p>
+ * An instance can be shared by the runners of the same model, e.g. by all
+ * runners of a {@link org.requirementsascode.registry.RunnerRegistry}.
+ *
+ * @author b_muth
+ */
+public class ModelRunnerMetrics implements DispatchMonitor {
+  public static final String DISPATCH = "requirementsascode.dispatch";
+  public static final String STEP = "requirementsascode.step";
+  public static final String UNHANDLED = "requirementsascode.unhandled";
+  public static final String EXCEPTIONS = "requirementsascode.exceptions";
+  public static final String INFINITE_REPETITIONS = "requirementsascode.infinite.repetitions";
+
+  private final MeterRegistry meterRegistry;
+  private final String[] tags;
+  private final ConcurrentMap<Class<?>, Timer> dispatchTimers;
+  private final ConcurrentMap<Step, Timer> stepTimers;
+  private final ConcurrentMap<Class<?>, Counter> unhandledCounters;
+  private final ConcurrentMap<Step, ConcurrentMap<Class<?>, Counter>> exceptionCounters;
+  private final Counter infiniteRepetitionCounter;
+
+  /**
+   * Creates metrics that record the statistics in the specified registry.
+   *
+   * @param meterRegistry the registry
+   * @param tags          common key/value pairs of all meters
+   * @throws IllegalArgumentException if there is an odd number of tags
+   */
+  public ModelRunnerMetrics(MeterRegistry meterRegistry, String... tags) {
+    this.meterRegistry = Objects.requireNonNull(meterRegistry);
+    this.tags = tags.clone();
+    this.dispatchTimers = new ConcurrentHashMap<>();
+    this.stepTimers = new ConcurrentHashMap<>();
+    this.unhandledCounters = new ConcurrentHashMap<>();
+    this.exceptionCounters = new ConcurrentHashMap<>();
+    this.infiniteRepetitionCounter = meterRegistry.counter(INFINITE_REPETITIONS, tags);
+  }
+
+  /**
+   * Lets the specified runner record its statistics in the specified registry.
+   * The metrics are added to the monitor the runner already has, e.g. for
+   * profiling events.
+   *
+   * @param modelRunner   the runner
+   * @param meterRegistry the registry
+   * @param tags          common key/value pairs of all meters
+   * @return the runner, for chaining
+   */
+  public static ModelRunner monitor(ModelRunner modelRunner, MeterRegistry meterRegistry, String... tags) {
+    ModelRunnerMetrics modelRunnerMetrics = new ModelRunnerMetrics(meterRegistry, tags);
+    return modelRunner.monitorWith(DispatchMonitor.of(modelRunner.getDispatchMonitor(), modelRunnerMetrics));
+  }
+
+  @Override
+  public Object dispatchStarted(Object message) {
+    return System.nanoTime();
+  }
+
+  @Override
+  public void dispatchEnded(Object dispatch, Object message, Step step) {
+    long duration = System.nanoTime() - (Long) dispatch;
+    dispatchTimers
+      .computeIfAbsent(message.getClass(),
+        messageClass -> meterRegistry.timer(DISPATCH, MeterId.concat(tags, "messageClass", messageClass.getName())))
+      .record(duration, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public Object stepStarted(Step step, Object message) {
+    return System.nanoTime();
+  }
+
+  @Override
+  public void stepEnded(Object stepRun, Step step, Object message) {
+    long duration = System.nanoTime() - (Long) stepRun;
+    stepTimers
+      .computeIfAbsent(step, s -> meterRegistry.timer(STEP, MeterId.concat(tags, "useCase", useCaseOf(s), "step", s.getName())))
+      .record(duration, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void messageUnhandled(Object message) {
+    unhandledCounters
+      .computeIfAbsent(message.getClass(),
+        messageClass -> meterRegistry.counter(UNHANDLED, MeterId.concat(tags, "messageClass", messageClass.getName())))
+      .increment();
+  }
+
+  @Override
+  public void exceptionThrown(Step step, Exception exception) {
+    exceptionCounters
+      .computeIfAbsent(step, s -> new ConcurrentHashMap<>())
+      .computeIfAbsent(exception.getClass(), exceptionClass -> meterRegistry.counter(EXCEPTIONS,
+        MeterId.concat(tags, "useCase", useCaseOf(step), "step", step.getName(), "exception", exceptionClass.getName())))
+      .increment();
+  }
+
+  @Override
+  public void infiniteRepetition(Step step) {
+    infiniteRepetitionCounter.increment();
+  }
+
+  private static String useCaseOf(Step step) {
+    return step.getUseCase().getName();
+  }
+}
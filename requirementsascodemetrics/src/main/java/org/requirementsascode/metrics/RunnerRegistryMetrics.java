@@ -0,0 +1,41 @@
+package org.requirementsascode.metrics;
+
+import org.requirementsascode.registry.RunnerRegistry;
+
+/**
+ * Records statistics of a runner registry in a meter registry, as gauges:
+ * <ul>
+ * <li>{@value #LIVE}: the number of sessions that currently have a
+ * runner.</li>
+ * <li>{@value #CREATED}, {@value #RESTORED} and {@value #EVICTED}: the number
+ * of runners created, restored and evicted since the registry has been
+ * created.</li>
+ * </ul>
+ * To record the statistics of the runners themselves, let the runner supplier
+ * of the registry use {@link ModelRunnerMetrics}.
+ *
+ * @author b_muth
+ */
+public class RunnerRegistryMetrics {
+  public static final String LIVE = "requirementsascode.runners.live";
+  public static final String CREATED = "requirementsascode.runners.created";
+  public static final String RESTORED = "requirementsascode.runners.restored";
+  public static final String EVICTED = "requirementsascode.runners.evicted";
+
+  private RunnerRegistryMetrics() {
+  }
+
+  /**
+   * Registers gauges for the statistics of the specified runner registry.
+   *
+   * @param runnerRegistry the runner registry
+   * @param meterRegistry  the meter registry
+   * @param tags           key/value pairs of all gauges
+   */
+  public static void monitor(RunnerRegistry<?> runnerRegistry, MeterRegistry meterRegistry, String... tags) {
+    meterRegistry.gauge(LIVE, runnerRegistry::getNumberOfLiveSessions, tags);
+    meterRegistry.gauge(CREATED, runnerRegistry::getNumberOfCreatedRunners, tags);
+    meterRegistry.gauge(RESTORED, runnerRegistry::getNumberOfRestoredRunners, tags);
+    meterRegistry.gauge(EVICTED, runnerRegistry::getNumberOfEvictedRunners, tags);
+  }
+}
@@ -0,0 +1,97 @@
+package org.requirementsascode.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A meter registry that keeps the meters in memory. Counters and timers are
+ * based on {@link LongAdder}, so many threads can update them without
+ * contention.
+ *
+ * @author b_muth
+ */
+public class SimpleMeterRegistry implements MeterRegistry {
+  private final ConcurrentMap<MeterId, Object> meters;
+
+  public SimpleMeterRegistry() {
+    this.meters = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public Counter counter(String name, String... tags) {
+    return meter(Counter.class, new MeterId(name, tags), SimpleCounter::new);
+  }
+
+  @Override
+  public Timer timer(String name, String... tags) {
+    return meter(Timer.class, new MeterId(name, tags), SimpleTimer::new);
+  }
+
+  @Override
+  public Gauge gauge(String name, DoubleSupplier value, String... tags) {
+    Objects.requireNonNull(value);
+    return meter(Gauge.class, new MeterId(name, tags), () -> value::getAsDouble);
+  }
+
+  private <T> T meter(Class<T> meterType, MeterId meterId, Supplier<? extends T> meterSupplier) {
+    Object meter = meters.computeIfAbsent(meterId, id -> meterSupplier.get());
+    if (!meterType.isInstance(meter)) {
+      throw new IllegalArgumentException(
+        "There already is a meter " + meterId + " that isn't a " + meterType.getSimpleName());
+    }
+    return meterType.cast(meter);
+  }
+
+  private static class SimpleCounter implements Counter {
+    private final LongAdder count = new LongAdder();
+
+    @Override
+    public void increment() {
+      count.increment();
+    }
+
+    @Override
+    public double count() {
+      return count.sum();
+    }
+  }
+
+  private static class SimpleTimer implements Timer {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void record(long duration, TimeUnit unit) {
+      long nanos = unit.toNanos(duration);
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+    }
+
+    @Override
+    public long count() {
+      return count.sum();
+    }
+
+    @Override
+    public double totalTime(TimeUnit unit) {
+      return fromNanos(totalNanos.sum(), unit);
+    }
+
+    @Override
+    public double max(TimeUnit unit) {
+      return fromNanos(maxNanos.get(), unit);
+    }
+
+    private static double fromNanos(long nanos, TimeUnit unit) {
+      return (double) nanos / TimeUnit.NANOSECONDS.convert(1, unit);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package org.requirementsascode.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timer that records the number, total time and maximum time of events, e.g.
+ * of step runs.
+ *
+ * @author b_muth
+ */
+public interface Timer {
+  /**
+   * Records an event with the specified duration.
+   *
+   * @param duration the duration
+   * @param unit     the unit of the duration
+   */
+  void record(long duration, TimeUnit unit);
+
+  /**
+   * Returns the number of events recorded.
+   *
+   * @return the number of events
+   */
+  long count();
+
+  /**
+   * Returns the total duration of all events recorded.
+   *
+   * @param unit the unit of the result
+   * @return the total duration
+   */
+  double totalTime(TimeUnit unit);
+
+  /**
+   * Returns the maximum duration of an event recorded.
+   *
+   * @param unit the unit of the result
+   * @return the maximum duration
+   */
+  double max(TimeUnit unit);
+}
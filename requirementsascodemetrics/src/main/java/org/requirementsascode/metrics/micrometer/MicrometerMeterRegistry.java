@@ -0,0 +1,86 @@
+package org.requirementsascode.metrics.micrometer;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+import org.requirementsascode.metrics.Counter;
+import org.requirementsascode.metrics.Gauge;
+import org.requirementsascode.metrics.MeterRegistry;
+import org.requirementsascode.metrics.Timer;
+
+/**
+ * A meter registry that creates the meters in a Micrometer registry, so that
+ * they are published to the monitoring system Micrometer is configured for.
+ *
+ * <p>
+ * Micrometer isn't a dependency of the metrics project: put micrometer-core
+ * on the classpath to use this class.
+ *
+ * @author b_muth
+ */
+public class MicrometerMeterRegistry implements MeterRegistry {
+  private final io.micrometer.core.instrument.MeterRegistry registry;
+
+  /**
+   * Creates a registry that creates the meters in the specified Micrometer
+   * registry.
+   *
+   * @param registry the Micrometer registry
+   */
+  public MicrometerMeterRegistry(io.micrometer.core.instrument.MeterRegistry registry) {
+    this.registry = Objects.requireNonNull(registry);
+  }
+
+  @Override
+  public Counter counter(String name, String... tags) {
+    io.micrometer.core.instrument.Counter counter = registry.counter(name, tags);
+    return new Counter() {
+      @Override
+      public void increment() {
+        counter.increment();
+      }
+
+      @Override
+      public double count() {
+        return counter.count();
+      }
+    };
+  }
+
+  @Override
+  public Timer timer(String name, String... tags) {
+    io.micrometer.core.instrument.Timer timer = registry.timer(name, tags);
+    return new Timer() {
+      @Override
+      public void record(long duration, TimeUnit unit) {
+        timer.record(duration, unit);
+      }
+
+      @Override
+      public long count() {
+        return timer.count();
+      }
+
+      @Override
+      public double totalTime(TimeUnit unit) {
+        return timer.totalTime(unit);
+      }
+
+      @Override
+      public double max(TimeUnit unit) {
+        return timer.max(unit);
+      }
+    };
+  }
+
+  @Override
+  public Gauge gauge(String name, DoubleSupplier value, String... tags) {
+    io.micrometer.core.instrument.Gauge gauge = io.micrometer.core.instrument.Gauge
+      .builder(name, value, DoubleSupplier::getAsDouble)
+      .tags(tags)
+      .strongReference(true)
+      .register(registry);
+    return gauge::value;
+  }
+}
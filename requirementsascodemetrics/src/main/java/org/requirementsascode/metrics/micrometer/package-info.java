@@ -0,0 +1,7 @@
+/**
+ * Bridge from the meter registry abstraction of requirementsascode to
+ * Micrometer. Only use it if Micrometer is on the classpath.
+ * 
+ * @author b_muth
+ */
+package org.requirementsascode.metrics.micrometer;
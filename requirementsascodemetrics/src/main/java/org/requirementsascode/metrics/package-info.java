@@ -0,0 +1,8 @@
+/**
+ * Metrics package of requirementsascode, containing a simple meter registry
+ * abstraction, and binders that record statistics of model runners, runner
+ * registries and event queues in it.
+ * 
+ * @author b_muth
+ */
+package org.requirementsascode.metrics;
@@ -0,0 +1,46 @@
+package org.requirementsascode.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.queue.EventQueueListener;
+
+public class EventQueueMetricsTest {
+  private SimpleMeterRegistry meterRegistry;
+
+  @Before
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  public void recordsHighWatermarkOfEachQueue() {
+    EventQueueListener ordersListener = EventQueueMetrics.listener(meterRegistry, "queue", "orders");
+    EventQueueListener paymentsListener = EventQueueMetrics.listener(meterRegistry, "queue", "payments");
+
+    ordersListener.eventPut("Order", 3);
+    ordersListener.eventPut("Order", 1);
+    paymentsListener.eventPut("Payment", 5);
+
+    assertEquals(3, highWatermark("orders"), 0);
+    assertEquals(5, highWatermark("payments"), 0);
+    assertEquals(2, meterRegistry.counter(EventQueueMetrics.PUT, "queue", "orders").count(), 0);
+  }
+
+  @Test
+  public void reportsHighWatermarkOfFirstQueueWithSameTags() {
+    EventQueueListener firstListener = EventQueueMetrics.listener(meterRegistry, "queue", "orders");
+    EventQueueListener secondListener = EventQueueMetrics.listener(meterRegistry, "queue", "orders");
+
+    firstListener.eventPut("Order", 1);
+    secondListener.eventPut("Order", 7);
+
+    assertEquals(1, highWatermark("orders"), 0);
+    assertEquals(2, meterRegistry.counter(EventQueueMetrics.PUT, "queue", "orders").count(), 0);
+  }
+
+  private double highWatermark(String queueName) {
+    return meterRegistry.gauge(EventQueueMetrics.HIGH_WATERMARK, () -> -1, "queue", queueName).value();
+  }
+}
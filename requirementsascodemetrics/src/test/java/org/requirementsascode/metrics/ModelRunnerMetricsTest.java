@@ -0,0 +1,209 @@
+package org.requirementsascode.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.DispatchMonitor;
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.exception.InfiniteRepetition;
+import org.requirementsascode.queue.EventQueue;
+import org.requirementsascode.registry.RunnerRegistry;
+
+public class ModelRunnerMetricsTest {
+  private static final String USE_CASE = "Use case";
+  private static final String ENTERS_TEXT = "Customer enters text";
+  private static final String DISPLAYS_TEXT = "System displays text";
+  private static final String HANDLES_EXCEPTION = "System handles exception";
+
+  private SimpleMeterRegistry meterRegistry;
+  private Model model;
+
+  @Before
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    model = Model.builder()
+      .useCase(USE_CASE)
+        .step(ENTERS_TEXT).user(String.class).systemPublish(TextEntered::new)
+        .step(DISPLAYS_TEXT).on(TextEntered.class).system(textEntered -> {})
+      .build();
+  }
+
+  @Test
+  public void recordsDispatchedMessagesAndStepRuns() {
+    ModelRunner modelRunner = ModelRunnerMetrics.monitor(new ModelRunner(), meterRegistry, "model", "test").run(model);
+
+    modelRunner.reactTo("Hello", "World");
+
+    assertEquals(2, dispatchTimer(String.class).count());
+    assertEquals(2, stepTimer(ENTERS_TEXT).count());
+    assertEquals(2, stepTimer(DISPLAYS_TEXT).count());
+    assertTrue(dispatchTimer(String.class).totalTime(TimeUnit.NANOSECONDS) >= stepTimer(ENTERS_TEXT)
+      .totalTime(TimeUnit.NANOSECONDS));
+  }
+
+  @Test
+  public void keepsMonitorOfRunner() {
+    List<Object> unhandledMessages = new ArrayList<>();
+    DispatchMonitor otherMonitor = new DispatchMonitor() {
+      @Override
+      public void messageUnhandled(Object message) {
+        unhandledMessages.add(message);
+      }
+    };
+    ModelRunner modelRunner = ModelRunnerMetrics.monitor(new ModelRunner().monitorWith(otherMonitor), meterRegistry,
+      "model", "test").run(model);
+
+    modelRunner.reactTo(1);
+
+    assertEquals(1, unhandledCounter(Integer.class).count(), 0);
+    assertEquals(Arrays.asList(1), unhandledMessages);
+  }
+
+  @Test
+  public void countsUnhandledMessages() {
+    ModelRunner modelRunner = ModelRunnerMetrics.monitor(new ModelRunner(), meterRegistry, "model", "test").run(model);
+
+    modelRunner.handleUnhandledWith(message -> {}).reactTo(1, 2L, 3);
+
+    assertEquals(2, unhandledCounter(Integer.class).count(), 0);
+    assertEquals(1, unhandledCounter(Long.class).count(), 0);
+    assertEquals(2, dispatchTimer(Integer.class).count());
+  }
+
+  @Test
+  public void countsExceptionsThrownBySystemReactions() {
+    Model throwingModel = Model.builder()
+      .useCase(USE_CASE)
+        .basicFlow()
+          .step(ENTERS_TEXT).user(String.class).system(text -> {
+            throw new IllegalStateException(text);
+          })
+        .flow("Exception flow").anytime()
+          .step(HANDLES_EXCEPTION).on(IllegalStateException.class).system(exception -> {})
+      .build();
+    ModelRunner modelRunner = ModelRunnerMetrics.monitor(new ModelRunner(), meterRegistry, "model", "test")
+      .run(throwingModel);
+
+    modelRunner.reactTo("Hello");
+
+    assertEquals(1, meterRegistry.counter(ModelRunnerMetrics.EXCEPTIONS, "model", "test", "useCase", USE_CASE, "step",
+      ENTERS_TEXT, "exception", IllegalStateException.class.getName()).count(), 0);
+    assertEquals(1, stepTimer(HANDLES_EXCEPTION).count());
+  }
+
+  @Test
+  public void countsInfiniteRepetitions() {
+    Model repeatingModel = Model.builder()
+      .condition(() -> true).step("S1").system(() -> {})
+      .build();
+    ModelRunner modelRunner = ModelRunnerMetrics.monitor(new ModelRunner(), meterRegistry);
+
+    try {
+      modelRunner.run(repeatingModel);
+    } catch (InfiniteRepetition e) {
+    }
+
+    assertTrue(meterRegistry.counter(ModelRunnerMetrics.INFINITE_REPETITIONS).count() >= 1);
+  }
+
+  @Test
+  public void sharesMetricsBetweenRunnersOfRunnerRegistry() {
+    ModelRunnerMetrics modelRunnerMetrics = new ModelRunnerMetrics(meterRegistry, "model", "test");
+    RunnerRegistry<String> runnerRegistry = RunnerRegistry.<String>builder(model)
+      .runners(() -> new ModelRunner().monitorWith(modelRunnerMetrics))
+      .build();
+    RunnerRegistryMetrics.monitor(runnerRegistry, meterRegistry, "model", "test");
+
+    runnerRegistry.reactTo("Session 1", "Hello");
+    runnerRegistry.reactTo("Session 2", "Hello");
+    runnerRegistry.reactTo("Session 1", "Hello");
+    runnerRegistry.remove("Session 2");
+
+    assertEquals(3, dispatchTimer(String.class).count());
+    assertEquals(1, meterRegistry.gauge(RunnerRegistryMetrics.LIVE, () -> 0, "model", "test").value(), 0);
+    assertEquals(2, meterRegistry.gauge(RunnerRegistryMetrics.CREATED, () -> 0, "model", "test").value(), 0);
+  }
+
+  @Test
+  public void recordsEventQueueSize() throws InterruptedException {
+    CountDownLatch consumerBlocked = new CountDownLatch(1);
+    CountDownLatch releaseConsumer = new CountDownLatch(1);
+    EventQueue eventQueue = new EventQueue(event -> {
+      consumerBlocked.countDown();
+      await(releaseConsumer);
+    });
+    try {
+      EventQueueMetrics.monitor(eventQueue, meterRegistry, "queue", "test");
+      eventQueue.put("First");
+      consumerBlocked.await();
+      eventQueue.put("Second");
+      eventQueue.put("Third");
+
+      assertEquals(2, meterRegistry.gauge(EventQueueMetrics.SIZE, () -> 0, "queue", "test").value(), 0);
+    } finally {
+      releaseConsumer.countDown();
+      eventQueue.stop();
+    }
+  }
+
+  @Test
+  public void recordsEventQueueThroughputLatencyAndHighWatermark() throws InterruptedException {
+    CountDownLatch consumerBlocked = new CountDownLatch(1);
+    CountDownLatch releaseConsumer = new CountDownLatch(1);
+    CountDownLatch eventsConsumed = new CountDownLatch(3);
+    EventQueue eventQueue = new EventQueue(event -> {
+      consumerBlocked.countDown();
+      await(releaseConsumer);
+      eventsConsumed.countDown();
+    }, EventQueueMetrics.listener(meterRegistry, "queue", "test"));
+    try {
+      eventQueue.put("First");
+      consumerBlocked.await();
+      eventQueue.put("Second");
+      eventQueue.put("Third");
+      releaseConsumer.countDown();
+      assertTrue(eventsConsumed.await(10, TimeUnit.SECONDS));
+    } finally {
+      eventQueue.stop();
+    }
+
+    assertEquals(3, meterRegistry.counter(EventQueueMetrics.PUT, "queue", "test").count(), 0);
+    assertEquals(2, meterRegistry.gauge(EventQueueMetrics.HIGH_WATERMARK, () -> 0, "queue", "test").value(), 0);
+    assertEquals(3, meterRegistry.timer(EventQueueMetrics.WAIT, "queue", "test").count());
+    assertEquals(3, meterRegistry.timer(EventQueueMetrics.PROCESSING, "queue", "test").count());
+  }
+
+  private Timer dispatchTimer(Class<?> messageClass) {
+    return meterRegistry.timer(ModelRunnerMetrics.DISPATCH, "model", "test", "messageClass", messageClass.getName());
+  }
+
+  private Timer stepTimer(String stepName) {
+    return meterRegistry.timer(ModelRunnerMetrics.STEP, "model", "test", "useCase", USE_CASE, "step", stepName);
+  }
+
+  private Counter unhandledCounter(Class<?> messageClass) {
+    return meterRegistry.counter(ModelRunnerMetrics.UNHANDLED, "model", "test", "messageClass", messageClass.getName());
+  }
+
+  private static class TextEntered {
+    TextEntered(String text) {
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
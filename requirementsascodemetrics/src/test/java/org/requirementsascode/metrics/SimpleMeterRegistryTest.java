@@ -0,0 +1,77 @@
+package org.requirementsascode.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SimpleMeterRegistryTest {
+  private SimpleMeterRegistry meterRegistry;
+
+  @Before
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  public void returnsSameMeterForSameNameAndTagsInAnyOrder() {
+    Counter counter = meterRegistry.counter("counter", "a", "1", "b", "2");
+
+    assertSame(counter, meterRegistry.counter("counter", "b", "2", "a", "1"));
+  }
+
+  @Test
+  public void countsIncrements() {
+    Counter counter = meterRegistry.counter("counter");
+    counter.increment();
+    counter.increment();
+
+    assertEquals(2, meterRegistry.counter("counter").count(), 0);
+    assertEquals(0, meterRegistry.counter("counter", "a", "1").count(), 0);
+  }
+
+  @Test
+  public void recordsCountTotalAndMaxTime() {
+    Timer timer = meterRegistry.timer("timer");
+    timer.record(10, TimeUnit.MILLISECONDS);
+    timer.record(30, TimeUnit.MILLISECONDS);
+
+    assertEquals(2, timer.count());
+    assertEquals(40, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    assertEquals(0.03, timer.max(TimeUnit.SECONDS), 0.00001);
+  }
+
+  @Test
+  public void samplesGaugeValueWhenRead() {
+    AtomicInteger size = new AtomicInteger();
+    Gauge gauge = meterRegistry.gauge("gauge", size::get);
+    size.set(42);
+
+    assertEquals(42, gauge.value(), 0);
+    assertSame(gauge, meterRegistry.gauge("gauge", () -> 0));
+  }
+
+  @Test
+  public void keepsValueOfGaugeThatIsRegisteredAgain() {
+    meterRegistry.gauge("gauge", () -> 1);
+    Gauge gauge = meterRegistry.gauge("gauge", () -> 2);
+
+    assertEquals(1, gauge.value(), 0);
+    assertEquals(2, meterRegistry.gauge("gauge", () -> 2, "a", "1").value(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void throwsExceptionForOddNumberOfTags() {
+    meterRegistry.counter("counter", "a");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void throwsExceptionForMeterOfDifferentType() {
+    meterRegistry.counter("meter");
+    meterRegistry.timer("meter");
+  }
+}
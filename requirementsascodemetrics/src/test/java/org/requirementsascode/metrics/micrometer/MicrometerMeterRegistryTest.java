@@ -0,0 +1,53 @@
+package org.requirementsascode.metrics.micrometer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+import org.requirementsascode.metrics.ModelRunnerMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MicrometerMeterRegistryTest {
+  private SimpleMeterRegistry micrometerRegistry;
+  private MicrometerMeterRegistry meterRegistry;
+
+  @Before
+  public void setUp() {
+    micrometerRegistry = new SimpleMeterRegistry();
+    meterRegistry = new MicrometerMeterRegistry(micrometerRegistry);
+  }
+
+  @Test
+  public void createsMetersInMicrometerRegistry() {
+    AtomicInteger size = new AtomicInteger(7);
+    meterRegistry.counter("counter", "a", "1").increment();
+    meterRegistry.timer("timer", "a", "1").record(5, TimeUnit.MILLISECONDS);
+    meterRegistry.gauge("gauge", size::get, "a", "1");
+
+    assertEquals(1, micrometerRegistry.get("counter").tag("a", "1").counter().count(), 0);
+    assertEquals(5, micrometerRegistry.get("timer").tag("a", "1").timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+    assertEquals(7, micrometerRegistry.get("gauge").tag("a", "1").gauge().value(), 0);
+  }
+
+  @Test
+  public void publishesModelRunnerMetrics() {
+    Model model = Model.builder()
+      .useCase("Use case")
+        .on(String.class).system(text -> {})
+      .build();
+    ModelRunner modelRunner = ModelRunnerMetrics.monitor(new ModelRunner(), meterRegistry, "model", "test").run(model);
+
+    modelRunner.reactTo("Hello", 1);
+
+    assertEquals(1, micrometerRegistry.get(ModelRunnerMetrics.DISPATCH).tag("messageClass", String.class.getName())
+      .timer().count());
+    assertEquals(1, micrometerRegistry.get(ModelRunnerMetrics.STEP).tag("useCase", "Use case").timer().count());
+    assertEquals(1, micrometerRegistry.get(ModelRunnerMetrics.UNHANDLED).tag("model", "test").counter().count(), 0);
+  }
+}
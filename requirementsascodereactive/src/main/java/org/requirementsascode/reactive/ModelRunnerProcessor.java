@@ -0,0 +1,369 @@
+package org.requirementsascode.reactive;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.requirementsascode.ModelRunner;
+
+/**
+ * Exposes a model runner as a Reactive Streams processor. The processor lets
+ * the runner react to each message it receives from upstream, and emits the
+ * events published by the runner's system reactions (e.g. defined with
+ * systemPublish) downstream.
+ *
+ * <p>
+ * The processor honors the demand of its subscriber: it buffers at most the
+ * specified number of events, and only requests messages from upstream while
+ * there is room in the buffer. So a slow subscriber slows down the publisher
+ * upstream, instead of letting events pile up in memory. (A single message may
+ * cause several events, so the buffer may exceed its size by the number of
+ * events a single message causes.)
+ *
+ * <p>
+ * The processor replaces the event publisher of the runner. Published events
+ * are emitted downstream, not dispatched back to the runner. Don't let any
+ * other code call the runner's reactTo methods: the processor makes sure that
+ * only one thread at a time lets the runner react. Run the runner with the
+ * model before messages arrive.
+ *
+ * <p>
+ * If a system reaction is asynchronous (e.g. defined with systemAsync), the
+ * processor resumes the runner in its own drain loop when the stage completes,
+ * not on the thread that completes the stage. While the runner is suspended,
+ * the processor doesn't request more messages, and doesn't complete.
+ *
+ * <p>
+ * If a system reaction throws an exception, the processor cancels its
+ * subscription upstream and signals the exception downstream. Errors are
+ * signaled immediately, discarding buffered events, while completion is
+ * signaled after all buffered events have been emitted. The processor supports
+ * a single subscriber.
+ *
+ * <p>
+ * On JDK 9 or later, use {@code org.reactivestreams.FlowAdapters} to convert
+ * the processor to a {@code java.util.concurrent.Flow.Processor}.
+ *
+ * @author b_muth
+ */
+public class ModelRunnerProcessor implements Processor<Object, Object> {
+  private static final int DEFAULT_BUFFER_SIZE = 256;
+
+  private final ModelRunner modelRunner;
+  private final int bufferSize;
+
+  private final Queue<Object> receivedMessages;
+  private final Queue<Runnable> pendingResumptions;
+  private final AtomicReference<Subscription> upstream;
+  private final AtomicReference<Subscriber<? super Object>> downstream;
+  private final AtomicLong demand;
+  private final AtomicInteger workInProgress;
+
+  private volatile boolean isUpstreamDone;
+  private volatile Throwable upstreamError;
+  private volatile boolean isCancelled;
+  private volatile Throwable invalidRequestError;
+
+  // Only accessed while draining
+  private final Queue<Object> bufferedEvents;
+  private long numberOfRequestedMessages;
+  private Throwable reactionError;
+  private boolean isUpstreamCancelled;
+  private boolean isTerminated;
+
+  /**
+   * Creates a processor for the specified runner, with a buffer for 256 events.
+   *
+   * @param modelRunner the runner, already running a model
+   */
+  public ModelRunnerProcessor(ModelRunner modelRunner) {
+    this(modelRunner, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a processor for the specified runner.
+   *
+   * @param modelRunner the runner, already running a model
+   * @param bufferSize  the maximum number of events to buffer for the subscriber,
+   *                    at least 1
+   */
+  public ModelRunnerProcessor(ModelRunner modelRunner, int bufferSize) {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("Buffer size must be at least 1, but was " + bufferSize);
+    }
+    this.modelRunner = Objects.requireNonNull(modelRunner);
+    this.bufferSize = bufferSize;
+    this.receivedMessages = new ConcurrentLinkedQueue<>();
+    this.pendingResumptions = new ConcurrentLinkedQueue<>();
+    this.upstream = new AtomicReference<>();
+    this.downstream = new AtomicReference<>();
+    this.demand = new AtomicLong();
+    this.workInProgress = new AtomicInteger();
+    this.bufferedEvents = new ArrayDeque<>();
+
+    modelRunner.publishWith(bufferedEvents::add);
+    modelRunner.resumeWith(this::resumeWhileDraining);
+  }
+
+  private void resumeWhileDraining(Runnable resumption) {
+    pendingResumptions.offer(resumption);
+    drain();
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription);
+    if (!upstream.compareAndSet(null, subscription)) {
+      subscription.cancel();
+      return;
+    }
+    drain();
+  }
+
+  @Override
+  public void onNext(Object message) {
+    Objects.requireNonNull(message);
+    receivedMessages.offer(message);
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    Objects.requireNonNull(throwable);
+    upstreamError = throwable;
+    isUpstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    isUpstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super Object> subscriber) {
+    Objects.requireNonNull(subscriber);
+    if (!downstream.compareAndSet(null, subscriber)) {
+      subscriber.onSubscribe(new RejectedSubscription());
+      subscriber.onError(new IllegalStateException("The processor supports only a single subscriber"));
+      return;
+    }
+    subscriber.onSubscribe(new DownstreamSubscription());
+    drain();
+  }
+
+  /**
+   * Makes sure only one thread at a time does the work, and that no signal gets
+   * lost: a thread that calls this method while another thread is draining
+   * leaves the work to the other thread.
+   */
+  private void drain() {
+    if (workInProgress.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      drainOnce();
+      missed = workInProgress.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void drainOnce() {
+    if (isTerminated) {
+      // Late subscription or messages sent before the cancellation was noticed
+      cancelUpstream();
+      receivedMessages.clear();
+      pendingResumptions.clear();
+      return;
+    }
+    if (isCancelled) {
+      terminate();
+      return;
+    }
+    Subscriber<? super Object> subscriber = downstream.get();
+    if (invalidRequestError != null) {
+      signalError(subscriber, invalidRequestError);
+      return;
+    }
+
+    reactAndEmit(subscriber);
+    if (isCancelled) {
+      terminate();
+      return;
+    }
+
+    Throwable error = reactionError != null ? reactionError : upstreamError;
+    if (error != null) {
+      signalError(subscriber, error);
+    } else if (isUpstreamDone && receivedMessages.isEmpty() && bufferedEvents.isEmpty()
+      && !modelRunner.isSuspended()) {
+      signalComplete(subscriber);
+    } else {
+      requestMessagesIfBufferHasRoom();
+    }
+  }
+
+  private void reactAndEmit(Subscriber<? super Object> subscriber) {
+    resumePending();
+    while (!isCancelled) {
+      emitRequestedEvents(subscriber);
+      if (reactionError != null || bufferedEvents.size() >= bufferSize) {
+        break;
+      }
+      Object message = receivedMessages.poll();
+      if (message == null) {
+        break;
+      }
+      numberOfRequestedMessages--;
+      reactTo(message);
+    }
+  }
+
+  /**
+   * Resumes the runner after asynchronous system reactions have completed. The
+   * runner doesn't throw exceptions when resuming, so the processor gets them
+   * from the stage returned by {@link ModelRunner#whenResumed()}.
+   */
+  private void resumePending() {
+    Runnable resumption = pendingResumptions.poll();
+    if (resumption == null) {
+      return;
+    }
+    do {
+      resumption.run();
+    } while ((resumption = pendingResumptions.poll()) != null);
+
+    CompletableFuture<Void> resumed = modelRunner.whenResumed().toCompletableFuture();
+    if (resumed.isCompletedExceptionally() && reactionError == null) {
+      try {
+        resumed.join();
+      } catch (CompletionException e) {
+        reactionError = e.getCause();
+      }
+    }
+  }
+
+  private void reactTo(Object message) {
+    try {
+      modelRunner.reactTo(message);
+    } catch (RuntimeException e) {
+      reactionError = e;
+    }
+  }
+
+  private void emitRequestedEvents(Subscriber<? super Object> subscriber) {
+    if (subscriber == null) {
+      return;
+    }
+    long requested = demand.get();
+    long emitted = 0;
+    while (emitted != requested && !bufferedEvents.isEmpty() && !isCancelled) {
+      subscriber.onNext(bufferedEvents.poll());
+      emitted++;
+    }
+    if (emitted != 0 && requested != Long.MAX_VALUE) {
+      demand.addAndGet(-emitted);
+    }
+  }
+
+  private void requestMessagesIfBufferHasRoom() {
+    Subscription subscription = upstream.get();
+    if (subscription == null || isUpstreamDone || isUpstreamCancelled || modelRunner.isSuspended()) {
+      return;
+    }
+    long numberOfMessagesToRequest = bufferSize - bufferedEvents.size() - numberOfRequestedMessages;
+    if (numberOfMessagesToRequest > 0) {
+      numberOfRequestedMessages += numberOfMessagesToRequest;
+      subscription.request(numberOfMessagesToRequest);
+    }
+  }
+
+  private void signalError(Subscriber<? super Object> subscriber, Throwable error) {
+    if (subscriber != null) {
+      terminate();
+      subscriber.onError(error);
+    } else {
+      // Keep the error for the subscriber that comes later
+      cancelUpstream();
+      reactionError = error;
+      receivedMessages.clear();
+    }
+  }
+
+  private void signalComplete(Subscriber<? super Object> subscriber) {
+    if (subscriber != null) {
+      terminate();
+      subscriber.onComplete();
+    }
+  }
+
+  private void terminate() {
+    isTerminated = true;
+    cancelUpstream();
+    receivedMessages.clear();
+    bufferedEvents.clear();
+  }
+
+  private void cancelUpstream() {
+    Subscription subscription = upstream.get();
+    if (subscription != null && !isUpstreamCancelled) {
+      isUpstreamCancelled = true;
+      if (!isUpstreamDone) {
+        subscription.cancel();
+      }
+    }
+  }
+
+  private class DownstreamSubscription implements Subscription {
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequestError = new IllegalArgumentException("Number of requested events must be positive, but was " + n);
+      } else {
+        addDemand(n);
+      }
+      drain();
+    }
+
+    private void addDemand(long n) {
+      long current;
+      long next;
+      do {
+        current = demand.get();
+        if (current == Long.MAX_VALUE) {
+          return;
+        }
+        next = current + n;
+        if (next < 0) {
+          next = Long.MAX_VALUE;
+        }
+      } while (!demand.compareAndSet(current, next));
+    }
+
+    @Override
+    public void cancel() {
+      isCancelled = true;
+      drain();
+    }
+  }
+
+  private static class RejectedSubscription implements Subscription {
+    @Override
+    public void request(long n) {
+    }
+
+    @Override
+    public void cancel() {
+    }
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Reactive package of requirementsascode, containing adapters that connect a
+ * model runner to Reactive Streams.
+ * 
+ * @author b_muth
+ */
+package org.requirementsascode.reactive;
@@ -0,0 +1,321 @@
+package org.requirementsascode.reactive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.requirementsascode.Model;
+import org.requirementsascode.ModelRunner;
+
+public class ModelRunnerProcessorTest {
+  private static final int BUFFER_SIZE = 4;
+
+  private ModelRunner modelRunner;
+  private ModelRunnerProcessor processor;
+  private TestPublisher publisher;
+  private TestSubscriber subscriber;
+
+  @Before
+  public void setUp() throws Exception {
+    Model model = Model.builder()
+      .on(String.class).systemPublish(String::toUpperCase)
+      .on(Integer.class).system(number -> {
+        throw new IllegalStateException("Number: " + number);
+      })
+      .build();
+    modelRunner = new ModelRunner().run(model);
+    processor = new ModelRunnerProcessor(modelRunner, BUFFER_SIZE);
+    publisher = new TestPublisher();
+    subscriber = new TestSubscriber();
+  }
+
+  @Test
+  public void emitsPublishedEventsAndCompletes() {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.request(Long.MAX_VALUE);
+    publisher.emit("a", "b", "c");
+    publisher.complete();
+
+    assertEquals(Arrays.asList("A", "B", "C"), subscriber.events);
+    assertTrue(subscriber.isCompleted);
+  }
+
+  @Test
+  public void doesntEmitEventsForMessagesWithoutPublishedEvent() {
+    Model model = Model.builder()
+      .on(String.class).system(text -> {})
+      .build();
+    processor = new ModelRunnerProcessor(new ModelRunner().run(model), BUFFER_SIZE);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.request(1);
+    publisher.emit("a", "b");
+
+    assertTrue(subscriber.events.isEmpty());
+  }
+
+  @Test
+  public void emitsOnlyRequestedEvents() {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.request(2);
+    publisher.emit("a", "b", "c");
+
+    assertEquals(Arrays.asList("A", "B"), subscriber.events);
+
+    subscriber.request(1);
+    assertEquals(Arrays.asList("A", "B", "C"), subscriber.events);
+  }
+
+  @Test
+  public void requestsNoMoreMessagesThanBufferSize() {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    assertEquals(BUFFER_SIZE, publisher.numberOfRequestedMessages);
+    publisher.emit("a", "b", "c", "d");
+    assertEquals(BUFFER_SIZE, publisher.numberOfRequestedMessages);
+  }
+
+  @Test
+  public void requestsMoreMessagesWhenEventsAreEmitted() {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+    publisher.emit("a", "b", "c", "d");
+
+    subscriber.request(3);
+
+    assertEquals(BUFFER_SIZE + 3, publisher.numberOfRequestedMessages);
+  }
+
+  @Test
+  public void buffersEventsBeforeSubscriberArrives() {
+    publisher.subscribe(processor);
+    publisher.emit("a", "b");
+    publisher.complete();
+
+    processor.subscribe(subscriber);
+    subscriber.request(2);
+
+    assertEquals(Arrays.asList("A", "B"), subscriber.events);
+    assertTrue(subscriber.isCompleted);
+  }
+
+  @Test
+  public void signalsExceptionOfSystemReactionAndCancelsUpstream() {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+    subscriber.request(Long.MAX_VALUE);
+
+    publisher.emit("a", 1, "b");
+
+    assertEquals(Arrays.asList("A"), subscriber.events);
+    assertEquals(IllegalStateException.class, subscriber.error.getClass());
+    assertTrue(publisher.isCancelled);
+  }
+
+  @Test
+  public void signalsUpstreamError() {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    publisher.fail(new IllegalStateException());
+
+    assertEquals(IllegalStateException.class, subscriber.error.getClass());
+    assertFalse(subscriber.isCompleted);
+  }
+
+  @Test
+  public void signalsErrorForNonPositiveRequest() {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.request(0);
+
+    assertEquals(IllegalArgumentException.class, subscriber.error.getClass());
+    assertTrue(publisher.isCancelled);
+  }
+
+  @Test
+  public void cancelsUpstreamWhenSubscriberCancels() {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    subscriber.subscription.cancel();
+
+    assertTrue(publisher.isCancelled);
+    assertNull(subscriber.error);
+    assertFalse(subscriber.isCompleted);
+  }
+
+  @Test
+  public void rejectsSecondSubscriber() {
+    processor.subscribe(subscriber);
+    TestSubscriber secondSubscriber = new TestSubscriber();
+
+    processor.subscribe(secondSubscriber);
+
+    assertEquals(IllegalStateException.class, secondSubscriber.error.getClass());
+    assertNull(subscriber.error);
+  }
+
+  @Test
+  public void reactsToMessagesOfSeveralThreads() throws Exception {
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+    subscriber.request(Long.MAX_VALUE);
+
+    Thread thread = new Thread(() -> publisher.emit("a", "b"));
+    thread.start();
+    thread.join();
+    publisher.emit("c");
+
+    assertEquals(Arrays.asList("A", "B", "C"), subscriber.events);
+  }
+
+  @Test
+  public void emitsResultOfAsyncSystemReactionAfterItCompletes() throws Exception {
+    CompletableFuture<String> remoteCall = new CompletableFuture<>();
+    Model model = Model.builder()
+      .on(String.class).systemAsync(text -> remoteCall)
+      .build();
+    processor = new ModelRunnerProcessor(new ModelRunner().run(model), BUFFER_SIZE);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+    subscriber.request(Long.MAX_VALUE);
+
+    publisher.emit("a");
+    publisher.complete();
+    assertTrue(subscriber.events.isEmpty());
+    assertFalse(subscriber.isCompleted);
+    assertEquals(BUFFER_SIZE, publisher.numberOfRequestedMessages);
+
+    Thread thread = new Thread(() -> remoteCall.complete("A"));
+    thread.start();
+    thread.join();
+
+    assertEquals(Arrays.asList("A"), subscriber.events);
+    assertTrue(subscriber.isCompleted);
+  }
+
+  @Test
+  public void doesntRequestMessagesWhileSuspended() throws Exception {
+    CompletableFuture<String> remoteCall = new CompletableFuture<>();
+    Model model = Model.builder()
+      .on(String.class).systemAsync(text -> remoteCall)
+      .build();
+    processor = new ModelRunnerProcessor(new ModelRunner().run(model), BUFFER_SIZE);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+    subscriber.request(Long.MAX_VALUE);
+
+    publisher.emit("a");
+    subscriber.request(1);
+    assertEquals(BUFFER_SIZE, publisher.numberOfRequestedMessages);
+
+    remoteCall.complete("A");
+    assertEquals(BUFFER_SIZE + 1, publisher.numberOfRequestedMessages);
+  }
+
+  @Test
+  public void signalsExceptionOfAsyncSystemReaction() throws Exception {
+    CompletableFuture<String> remoteCall = new CompletableFuture<>();
+    Model model = Model.builder()
+      .on(String.class).systemAsync(text -> remoteCall)
+      .build();
+    processor = new ModelRunnerProcessor(new ModelRunner().run(model), BUFFER_SIZE);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+    subscriber.request(Long.MAX_VALUE);
+    publisher.emit("a");
+
+    Thread thread = new Thread(() -> remoteCall.completeExceptionally(new IllegalStateException("Remote call failed")));
+    thread.start();
+    thread.join();
+
+    assertEquals(IllegalStateException.class, subscriber.error.getClass());
+    assertTrue(publisher.isCancelled);
+  }
+
+  private static class TestPublisher {
+    private Subscriber<Object> subscriber;
+    private long numberOfRequestedMessages;
+    private boolean isCancelled;
+
+    public void subscribe(Subscriber<Object> subscriber) {
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+          numberOfRequestedMessages += n;
+        }
+
+        @Override
+        public void cancel() {
+          isCancelled = true;
+        }
+      });
+    }
+
+    public void emit(Object... messages) {
+      for (Object message : messages) {
+        if (!isCancelled) {
+          subscriber.onNext(message);
+        }
+      }
+    }
+
+    public void complete() {
+      subscriber.onComplete();
+    }
+
+    public void fail(Throwable throwable) {
+      subscriber.onError(throwable);
+    }
+  }
+
+  private static class TestSubscriber implements Subscriber<Object> {
+    private final List<Object> events = new ArrayList<>();
+    private Subscription subscription;
+    private boolean isCompleted;
+    private Throwable error;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(Object event) {
+      events.add(event);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      isCompleted = true;
+    }
+
+    public void request(long n) {
+      subscription.request(n);
+    }
+  }
+}